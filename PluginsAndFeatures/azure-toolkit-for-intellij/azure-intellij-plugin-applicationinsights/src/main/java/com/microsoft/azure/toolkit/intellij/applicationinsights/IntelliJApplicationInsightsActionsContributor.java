@@ -8,11 +8,11 @@ package com.microsoft.azure.toolkit.intellij.applicationinsights;
 import com.google.common.base.Preconditions;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.microsoft.azure.toolkit.ide.applicationinsights.ApplicationInsightsActionsContributor;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.intellij.applicationinsights.connection.ApplicationInsightsResourceDefinition;
 import com.microsoft.azure.toolkit.intellij.applicationinsights.creation.CreateApplicationInsightsAction;
 import com.microsoft.azure.toolkit.intellij.applicationinsights.task.OpenLogsInMonitorAction;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.connector.AzureServiceResource;
 import com.microsoft.azure.toolkit.intellij.connector.ConnectorDialog;
 import com.microsoft.azure.toolkit.lib.Azure;
@@ -20,6 +20,7 @@ import com.microsoft.azure.toolkit.lib.applicationinsights.ApplicationInsight;
 import com.microsoft.azure.toolkit.lib.applicationinsights.ApplicationInsightDraft;
 import com.microsoft.azure.toolkit.lib.applicationinsights.AzureApplicationInsights;
 import com.microsoft.azure.toolkit.lib.auth.AzureAccount;
+import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.common.cache.CacheManager;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResource;
@@ -32,16 +33,29 @@ import com.microsoft.azure.toolkit.lib.monitor.LogAnalyticsWorkspaceConfig;
 import com.microsoft.azure.toolkit.lib.resource.ResourceGroup;
 import org.apache.commons.collections4.CollectionUtils;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.microsoft.azure.toolkit.lib.Azure.az;
 
-public class IntelliJApplicationInsightsActionsContributor implements IActionsContributor {
+public class IntelliJApplicationInsightsActionsContributor implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(ResourceCommonActionsContributor.CREATE,
+                ApplicationInsightsActionsContributor.GROUP_CREATE_APPLICATIONINSIGHT,
+                ResourceCommonActionsContributor.CONNECT, ApplicationInsightsActionsContributor.OPEN_LOGS_IN_MONITOR)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiPredicate<Object, AnActionEvent> condition = (r, e) -> r instanceof AzureApplicationInsights;
@@ -79,6 +79,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -129,6 +130,23 @@ public class FunctionUtils {
             return new HashMap<>();
         }
         final String value = IntelliJSecureStore.getInstance().loadPassword(AZURE_FUNCTIONS_APP_SETTINGS, key, null);
+        return parseAppSettings(value);
+    }
+
+    /**
+     * Load the app settings in background, the following {@link #loadAppSettingsFromSecurityStorage(String)} of the key
+     * waits for the loading in progress or is served from the cache.
+     */
+    @Nonnull
+    public static CompletableFuture<Map<String, String>> loadAppSettingsFromSecurityStorageAsync(String key) {
+        if (StringUtils.isEmpty(key)) {
+            return CompletableFuture.completedFuture(new HashMap<>());
+        }
+        return IntelliJSecureStore.getInstance().loadPasswordAsync(AZURE_FUNCTIONS_APP_SETTINGS, key, null).thenApply(FunctionUtils::parseAppSettings);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> parseAppSettings(@Nullable String value) {
         return StringUtils.isEmpty(value) ? new HashMap<>() : JsonUtils.fromJson(value, Map.class);
     }
 
@@ -23,11 +23,12 @@ import com.intellij.execution.runners.ExecutionUtil;
 import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.wm.ToolWindowId;
 import com.intellij.psi.PsiMethod;
 import com.intellij.util.EnvironmentUtil;
-import com.microsoft.azure.toolkit.intellij.common.ReadStreamLineThread;
+import com.microsoft.azure.toolkit.intellij.common.ProcessOutputPump;
 import com.microsoft.azure.toolkit.intellij.common.RunProcessHandler;
 import com.microsoft.azure.toolkit.intellij.common.RunProcessHandlerMessenger;
 import com.microsoft.azure.toolkit.intellij.common.help.AzureWebHelpProvider;
@@ -77,6 +78,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -255,26 +257,20 @@ public class FunctionRunState extends AzureRunProfileState<Boolean> {
         final int debugPort = FunctionUtils.findFreePort(DEFAULT_DEBUG_PORT);
         process = getFunctionCliProcess(stagingFolder, debugPort);
         // Redirect function cli output to console
-        readInputStreamByLines(process.getInputStream(), inputLine -> {
+        readInputStreamByLines(process, process.getInputStream(), ProcessOutputTypes.STDOUT, processHandler, inputLine -> {
             if (isDebugMode() && isFuncInitialized(inputLine) && !isDebuggerLaunched) {
-                // launch debugger when func ready
+                // launch debugger when func ready, off the shared output pump thread as it waits for EDT
                 isDebuggerLaunched = true;
-                launchDebugger(project, debugPort);
-            }
-            if (processHandler.isProcessRunning()) {
-                processHandler.setText(inputLine);
+                AzureTaskManager.getInstance().runOnPooledThread(() -> launchDebugger(project, debugPort));
             }
         });
         final String[] error = new String[1];
-        readInputStreamByLines(process.getErrorStream(), inputLine -> {
-            error[0] = inputLine;
-            if (processHandler.isProcessRunning()) {
-                processHandler.println(inputLine, ProcessOutputTypes.STDERR);
-            }
-        });
+        final ProcessOutputPump.Registration errorOutput = readInputStreamByLines(process, process.getErrorStream(), ProcessOutputTypes.STDERR,
+                processHandler, inputLine -> error[0] = inputLine);
         // Pending for function cli
         try {
             final int result = process.waitFor();
+            errorOutput.awaitClosed(1, TimeUnit.SECONDS);
             if (result != 0) {
                 throw new AzureToolkitRuntimeException(error[0]);
             }
@@ -290,8 +286,17 @@ public class FunctionRunState extends AzureRunProfileState<Boolean> {
                 StringUtils.containsIgnoreCase(input, "Listening for transport dt_socket at address");
     }
 
-    private void readInputStreamByLines(InputStream inputStream, Consumer<String> stringConsumer) {
-        new ReadStreamLineThread(inputStream, stringConsumer).start();
+    /**
+     * pumps output of {@code process} to console chunk by chunk, {@code lineConsumer} still sees every single line.
+     */
+    private ProcessOutputPump.Registration readInputStreamByLines(Process process, InputStream inputStream, Key<?> outputType,
+                                                                  RunProcessHandler processHandler, Consumer<String> lineConsumer) {
+        return ProcessOutputPump.getInstance().register(process, inputStream, lines -> {
+            lines.forEach(lineConsumer);
+            if (processHandler.isProcessRunning()) {
+                processHandler.print(String.join(System.lineSeparator(), lines) + System.lineSeparator(), outputType);
+            }
+        });
     }
 
     private void addProcessTerminatedListener(RunProcessHandler processHandler) {
@@ -374,16 +379,8 @@ public class FunctionRunState extends AzureRunProfileState<Boolean> {
         if (Objects.isNull(installProcess)) {
             return;
         }
-        readInputStreamByLines(installProcess.getErrorStream(), inputLine -> {
-            if (processHandler.isProcessRunning()) {
-                processHandler.println(inputLine, ProcessOutputTypes.STDERR);
-            }
-        });
-        readInputStreamByLines(installProcess.getInputStream(), inputLine -> {
-            if (processHandler.isProcessRunning()) {
-                processHandler.setText(inputLine);
-            }
-        });
+        readInputStreamByLines(installProcess, installProcess.getErrorStream(), ProcessOutputTypes.STDERR, processHandler, inputLine -> {});
+        readInputStreamByLines(installProcess, installProcess.getInputStream(), ProcessOutputTypes.STDOUT, processHandler, inputLine -> {});
         try {
             final int exitCode = installProcess.waitFor();
             if (exitCode != 0) {
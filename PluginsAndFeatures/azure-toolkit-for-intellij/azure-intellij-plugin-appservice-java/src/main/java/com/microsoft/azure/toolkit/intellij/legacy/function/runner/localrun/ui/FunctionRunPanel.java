@@ -63,6 +63,8 @@ public class FunctionRunPanel extends AzureSettingPanel<FunctionRunConfiguration
     public FunctionRunPanel(@NotNull Project project, FunctionRunConfiguration functionRunConfiguration) {
         super(project);
         this.functionRunConfiguration = functionRunConfiguration;
+        // read the secure store while the components are created, resetting from the configuration needs the app settings
+        FunctionUtils.loadAppSettingsFromSecurityStorageAsync(functionRunConfiguration.getAppSettingsKey());
         $$$setupUI$$$();
         init();
     }
@@ -7,16 +7,24 @@ package com.microsoft.azure.toolkit.intellij.appservice;
 
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.microsoft.azure.toolkit.ide.appservice.function.FunctionAppActionsContributor;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.intellij.appservice.actions.TriggerFunctionAction;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.lib.appservice.entity.FunctionEntity;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 
+import javax.annotation.Nonnull;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 
-public class AppServiceIntelliJActionsContributorForUltimate implements IActionsContributor {
+public class AppServiceIntelliJActionsContributorForUltimate implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Set.of(FunctionAppActionsContributor.TRIGGER_FUNCTION_WITH_HTTP_CLIENT.getId());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiPredicate<FunctionEntity, AnActionEvent> triggerFunctionWithHttpClientPredicate = (r, e) -> r instanceof FunctionEntity;
@@ -7,18 +7,32 @@ package com.microsoft.azure.toolkit.intellij.arm;
 
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.microsoft.azure.toolkit.ide.arm.DeploymentActionsContributor;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.intellij.arm.action.DeploymentActions;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
+import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.resource.ResourceDeployment;
 import com.microsoft.azure.toolkit.lib.resource.ResourceDeploymentModule;
 
+import javax.annotation.Nonnull;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class IntellijDeploymentActionsContributor implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(ResourceCommonActionsContributor.CREATE, DeploymentActionsContributor.EDIT,
+                DeploymentActionsContributor.UPDATE, DeploymentActionsContributor.EXPORT_PARAMETER,
+                DeploymentActionsContributor.EXPORT_TEMPLATE, DeploymentActionsContributor.GROUP_CREATE_DEPLOYMENT)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
 
-public class IntellijDeploymentActionsContributor implements IActionsContributor {
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiPredicate<Object, AnActionEvent> createCondition = (r, e) -> r instanceof ResourceDeploymentModule;
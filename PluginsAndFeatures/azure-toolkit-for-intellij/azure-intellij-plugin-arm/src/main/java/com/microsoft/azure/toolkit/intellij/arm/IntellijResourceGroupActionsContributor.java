@@ -5,8 +5,8 @@
 
 package com.microsoft.azure.toolkit.intellij.arm;
 
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.common.component.resourcegroup.FullResourceGroupCreationDialog;
 import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
@@ -16,8 +16,16 @@ import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.lib.resource.AzureResources;
 import com.microsoft.azure.toolkit.lib.resource.ResourceGroupDraft;
 import com.microsoft.azure.toolkit.lib.resource.ResourcesServiceSubscription;
+import javax.annotation.Nonnull;
+import java.util.Set;
+
+public class IntellijResourceGroupActionsContributor implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Set.of(ResourceCommonActionsContributor.CREATE.getId());
+    }
 
-public class IntellijResourceGroupActionsContributor implements IActionsContributor {
     @Override
     public void registerHandlers(AzureActionManager am) {
         am.registerHandler(ResourceCommonActionsContributor.CREATE, s -> s instanceof AzureResources, this::createResourceGroup);
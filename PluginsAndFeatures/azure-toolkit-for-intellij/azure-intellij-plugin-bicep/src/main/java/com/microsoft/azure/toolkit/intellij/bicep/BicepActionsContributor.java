@@ -11,16 +11,24 @@ import com.intellij.openapi.fileChooser.FileChooserDescriptor;
 import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.dotnet.DotnetRuntimeHandler;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 
+import javax.annotation.Nonnull;
 import java.io.File;
+import java.util.Set;
 import java.util.function.BiConsumer;
 
-public class BicepActionsContributor implements IActionsContributor {
+public class BicepActionsContributor implements ILazyActionsContributor {
+
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Set.of(ResourceCommonActionsContributor.INSTALL_DOTNET_RUNTIME.getId());
+    }
 
     @Override
     public void registerHandlers(AzureActionManager am) {
@@ -8,11 +8,11 @@ package com.microsoft.azure.toolkit.intellij.cognitiveservices;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.project.Project;
 import com.microsoft.azure.toolkit.ide.cognitiveservices.CognitiveServicesActionsContributor;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.ide.guidance.GuidanceViewManager;
 import com.microsoft.azure.toolkit.intellij.cognitiveservices.creation.CognitiveAccountCreationDialog;
 import com.microsoft.azure.toolkit.intellij.cognitiveservices.creation.CognitiveDeploymentCreationDialog;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.common.properties.IntellijShowPropertiesViewAction;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.auth.AzureAccount;
@@ -32,14 +32,34 @@ import com.microsoft.azure.toolkit.lib.resource.ResourceGroup;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-public class IntelliJCognitiveServicesActionsContributor implements IActionsContributor {
+public class IntelliJCognitiveServicesActionsContributor implements ILazyActionsContributor {
     public static final Action.Id<Project> TRY_OPENAI = Action.Id.of("user/openai.try_openai");
     public static final Action.Id<CognitiveDeployment> TRY_PLAYGROUND = Action.Id.of("user/openai.try_playground.deployment");
 
+    @Nonnull
+    @Override
+    public Set<String> getDeclaredIds() {
+        return Set.of(TRY_OPENAI.getId());
+    }
+
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(ResourceCommonActionsContributor.GETTING_STARTED, CognitiveServicesActionsContributor.CREATE_ACCOUNT,
+                CognitiveServicesActionsContributor.GROUP_CREATE_ACCOUNT,
+                CognitiveServicesActionsContributor.OPEN_ACCOUNT_IN_PLAYGROUND,
+                CognitiveServicesActionsContributor.CREATE_DEPLOYMENT,
+                CognitiveServicesActionsContributor.OPEN_DEPLOYMENT_IN_PLAYGROUND)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiPredicate<AbstractAzService<?, ?>, AnActionEvent> gettingStartCondition = (r, e) -> r instanceof AzureCognitiveServices;
@@ -8,8 +8,10 @@ package com.microsoft.azure.toolkit.intellij.cognitiveservices.chatbox;
 import com.intellij.collaboration.ui.codereview.comment.RoundedPanel;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.ui.JBColor;
+import com.intellij.ui.components.JBLabel;
 import com.intellij.uiDesigner.core.GridLayoutManager;
 import com.intellij.util.IconUtil;
+import com.intellij.util.ui.UIUtil;
 import com.microsoft.azure.toolkit.ide.common.icon.AzureIcons;
 import com.microsoft.azure.toolkit.intellij.common.IntelliJAzureIcons;
 import lombok.Getter;
@@ -25,6 +27,7 @@ public class BotMessagePane {
     private JPanel messageContainer;
     private MarkdownPane markdownPane;
     private JLabel avatar;
+    private JBLabel statsLabel;
 
     public BotMessagePane(String markdown) {
         this.setValue(new MarkdownText(markdown));
@@ -36,9 +39,24 @@ public class BotMessagePane {
         this.messageContainer.setBorder(border);
         final Icon botIcon = IntelliJAzureIcons.getIcon(AzureIcons.Common.CHATBOT);
         this.avatar.setIcon(IconUtil.scale(botIcon, this.avatar, 1.5f));
+        this.statsLabel.setForeground(UIUtil.getContextHelpForeground());
         this.setValue(markdown);
     }
 
+    /**
+     * Update the message as it's generated, only the changed trailing parts are rendered
+     */
+    public void updateValue(MarkdownText markdownText) {
+        this.markdownPane.updateValue(markdownText);
+        this.contentPanel.revalidate();
+        this.contentPanel.repaint();
+    }
+
+    public void setStats(String stats) {
+        this.statsLabel.setText(stats);
+        this.statsLabel.setVisible(true);
+    }
+
     private void setValue(MarkdownText markdownText) {
         this.markdownPane.setValue(markdownText);
         ApplicationManager.getApplication().invokeLater(() -> {
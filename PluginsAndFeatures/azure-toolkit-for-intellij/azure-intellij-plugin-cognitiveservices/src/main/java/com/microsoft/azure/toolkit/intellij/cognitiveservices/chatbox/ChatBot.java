@@ -1,5 +1,6 @@
 package com.microsoft.azure.toolkit.intellij.cognitiveservices.chatbox;
 
+import com.azure.ai.openai.OpenAIAsyncClient;
 import com.azure.ai.openai.OpenAIClient;
 import com.azure.ai.openai.OpenAIClientBuilder;
 import com.azure.ai.openai.models.*;
@@ -9,11 +10,18 @@ import com.microsoft.azure.toolkit.intellij.cognitiveservices.model.SystemMessag
 import com.microsoft.azure.toolkit.lib.cognitiveservices.CognitiveAccount;
 import com.microsoft.azure.toolkit.lib.cognitiveservices.CognitiveDeployment;
 import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.SignalType;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Stack;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 public class ChatBot {
@@ -22,9 +30,15 @@ public class ChatBot {
     @Getter
     private final CognitiveDeployment deployment;
     private SystemMessage systemMessage;
+    /**
+     * the count of the leading messages always sent, i.e. the system message and examples
+     */
+    private int pinnedCount;
+    private final ChatContext context = new ChatContext();
     @Getter
     private Configuration configuration;
     private OpenAIClient client;
+    private OpenAIAsyncClient asyncClient;
     @Getter
     private String primaryKey;
 
@@ -33,20 +47,31 @@ public class ChatBot {
         this.refreshClient();
     }
 
+    /**
+     * @param clientBuilder the builder of the clients, e.g. with the endpoint of a local server to test
+     */
+    public ChatBot(final CognitiveDeployment deployment, final OpenAIClientBuilder clientBuilder) {
+        this.deployment = deployment;
+        this.client = clientBuilder.buildClient();
+        this.asyncClient = clientBuilder.buildAsyncClient();
+    }
+
     private void refreshClient() {
         final CognitiveAccount account = this.deployment.getParent();
         final String endpoint = account.getEndpoint();
         this.primaryKey = Objects.requireNonNull(account.getPrimaryKey());
-        this.client = new OpenAIClientBuilder()
+        final OpenAIClientBuilder builder = new OpenAIClientBuilder()
             .endpoint(endpoint)
-            .credential(new AzureKeyCredential(primaryKey))
-            .buildClient();
+            .credential(new AzureKeyCredential(primaryKey));
+        this.client = builder.buildClient();
+        this.asyncClient = builder.buildAsyncClient();
     }
 
     public void setSystemMessage(@Nonnull final String systemMessage) {
         this.systemMessage = SystemMessage.builder().systemMessage(systemMessage).build();
         this.chatMessages.clear();
         this.chatMessages.push(new ChatMessage(ChatRole.SYSTEM, systemMessage));
+        this.pinnedCount = this.chatMessages.size();
     }
 
     public void setSystemMessage(@Nonnull final SystemMessage message) {
@@ -57,6 +82,7 @@ public class ChatBot {
             this.chatMessages.push(new ChatMessage(ChatRole.USER, example.getUser()));
             this.chatMessages.push(new ChatMessage(ChatRole.ASSISTANT, example.getAssistant()));
         }
+        this.pinnedCount = this.chatMessages.size();
     }
 
     public void setConfiguration(@Nonnull final Configuration configuration) {
@@ -72,8 +98,74 @@ public class ChatBot {
         return chatChoice;
     }
 
+    /**
+     * Send the message and receive the answer as it's generated. The answer, even a partial one, is pushed to the
+     * chat history when the streaming terminates.
+     *
+     * @return the subscription of the streaming, dispose it to cancel the answering
+     */
+    public Disposable sendStreaming(String message, @Nonnull final StreamingListener listener) {
+        this.chatMessages.push(new ChatMessage(ChatRole.USER, message));
+        final String deploymentName = this.deployment.getName();
+        final StringBuilder content = new StringBuilder();
+        final StreamingStats stats = new StreamingStats();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        return this.asyncClient.getChatCompletionsStream(deploymentName, buildChatOptions())
+            .map(ChatBot::getDeltaContent)
+            .filter(StringUtils::isNotEmpty)
+            .doOnNext(delta -> {
+                stats.onToken();
+                content.append(delta);
+                listener.onDelta(delta);
+            })
+            .doOnError(error::set)
+            .doFinally(signal -> {
+                stats.finish(signal == SignalType.CANCEL);
+                if (content.length() > 0) {
+                    this.chatMessages.push(new ChatMessage(ChatRole.ASSISTANT, content.toString()));
+                }
+                listener.onFinished(content.toString(), stats, error.get());
+            })
+            // the error is reported by the listener
+            .subscribe(delta -> {}, e -> {});
+    }
+
+    @Nonnull
+    private static String getDeltaContent(@Nonnull final ChatCompletions chunk) {
+        // the first chunk of Azure OpenAI only has the prompt filter results without choices
+        final List<ChatChoice> choices = chunk.getChoices();
+        if (choices == null || choices.isEmpty() || choices.get(0).getDelta() == null) {
+            return StringUtils.EMPTY;
+        }
+        return StringUtils.defaultString(choices.get(0).getDelta().getContent());
+    }
+
+    /**
+     * Estimate the prompt of sending the message, with the history trimmed to the budget
+     *
+     * @param message the message to send, or null to estimate the current history only
+     */
+    @Nonnull
+    public ChatContext.Window estimate(@Nullable String message) {
+        final List<ChatMessage> messages = new ArrayList<>(this.chatMessages);
+        if (StringUtils.isNotBlank(message)) {
+            messages.add(new ChatMessage(ChatRole.USER, message));
+        }
+        return this.context.select(messages, this.pinnedCount, getPromptBudget());
+    }
+
+    /**
+     * @return the max tokens of the prompt, i.e. the max context tokens except the ones reserved for the response
+     */
+    public int getPromptBudget() {
+        final Configuration config = Optional.ofNullable(this.configuration).orElse(Configuration.DEFAULT);
+        final int maxContext = Optional.ofNullable(config.getMaxContext()).orElse(0);
+        return maxContext > 0 ? Math.max(1, maxContext - Optional.ofNullable(config.getMaxResponse()).orElse(0)) : 0;
+    }
+
     private ChatCompletionsOptions buildChatOptions() {
-        final ChatCompletionsOptions result = new ChatCompletionsOptions(this.chatMessages.stream().map(ChatMessage::toRequest).filter(Objects::nonNull).collect(Collectors.toList()));
+        final List<ChatMessage> messages = this.context.select(this.chatMessages, this.pinnedCount, getPromptBudget()).getMessages();
+        final ChatCompletionsOptions result = new ChatCompletionsOptions(messages.stream().map(ChatMessage::toRequest).filter(Objects::nonNull).collect(Collectors.toList()));
         Optional.ofNullable(configuration).ifPresent(c -> {
             result.setFrequencyPenalty(c.getFrequencyPenalty());
             result.setPresencePenalty(c.getPresencePenalty());
@@ -88,4 +180,57 @@ public class ChatBot {
     public void reset() {
         setSystemMessage(this.systemMessage);
     }
+
+    public interface StreamingListener {
+        /**
+         * @param delta the content received since the last call, called in the streaming thread
+         */
+        void onDelta(@Nonnull String delta);
+
+        /**
+         * Called once when the answer completes, fails or is cancelled
+         */
+        void onFinished(@Nonnull String content, @Nonnull StreamingStats stats, @Nullable Throwable error);
+    }
+
+    /**
+     * Latency and throughput of a streaming answer, each content delta of the stream is counted as a token.
+     */
+    @Getter
+    public static class StreamingStats {
+        private final long startNanos = System.nanoTime();
+        private volatile long firstTokenNanos = -1;
+        private volatile long endNanos = -1;
+        private volatile int tokens;
+        private volatile boolean cancelled;
+
+        private void onToken() {
+            if (this.tokens++ == 0) {
+                this.firstTokenNanos = System.nanoTime();
+            }
+        }
+
+        private void finish(boolean cancelled) {
+            this.endNanos = System.nanoTime();
+            this.cancelled = cancelled;
+        }
+
+        public long getTimeToFirstTokenMillis() {
+            return this.firstTokenNanos < 0 ? -1 : (this.firstTokenNanos - this.startNanos) / 1_000_000;
+        }
+
+        public double getTokensPerSecond() {
+            final long nanos = (this.endNanos < 0 ? System.nanoTime() : this.endNanos) - this.firstTokenNanos;
+            return this.tokens > 1 && nanos > 0 ? (this.tokens - 1) * 1e9 / nanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            if (this.tokens == 0) {
+                return this.cancelled ? "Stopped before the first token" : "No content";
+            }
+            return String.format("First token in %.1fs, %d tokens, %.1f tokens/s%s",
+                getTimeToFirstTokenMillis() / 1000.0, this.tokens, getTokensPerSecond(), this.cancelled ? ", stopped" : "");
+        }
+    }
 }
@@ -2,13 +2,11 @@
 
 package com.microsoft.azure.toolkit.intellij.cognitiveservices.chatbox;
 
-import com.azure.ai.openai.models.ChatChoice;
-import com.azure.ai.openai.models.ChatMessage;
-import com.azure.ai.openai.models.ChatResponseMessage;
-import com.azure.ai.openai.models.ChatRole;
+import com.intellij.icons.AllIcons;
 import com.intellij.ide.DataManager;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
 import com.intellij.openapi.project.Project;
+import com.intellij.ui.DocumentAdapter;
 import com.intellij.ui.JBColor;
 import com.intellij.ui.components.ActionLink;
 import com.intellij.ui.components.JBLabel;
@@ -20,13 +18,18 @@ import com.intellij.util.ui.UIUtil;
 import com.microsoft.azure.toolkit.ide.common.icon.AzureIcons;
 import com.microsoft.azure.toolkit.intellij.cognitiveservices.chatbox.sourcecode.ViewCodeDialog;
 import com.microsoft.azure.toolkit.intellij.common.IntelliJAzureIcons;
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import lombok.Getter;
+import reactor.core.Disposable;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.swing.*;
 import javax.swing.border.CompoundBorder;
+import javax.swing.event.DocumentEvent;
 import javax.swing.text.BadLocationException;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -36,7 +39,9 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ChatBox {
     @Getter
@@ -54,6 +59,10 @@ public class ChatBox {
     private JBLabel placeholderMessage2;
     private JPanel placeholder;
     private JBScrollPane scrollPane;
+    private JBLabel promptTokensLabel;
+    private Icon sendIcon;
+    @Nullable
+    private Disposable answering;
 
     public ChatBox() {
         this.initComponents();
@@ -69,12 +78,13 @@ public class ChatBox {
         AzureTaskManager.getInstance().runLater(() -> {
             this.clearBtn.doClick();
             this.sendBtn.setEnabled(true);
+            this.updatePromptTokens();
         }, AzureTask.Modality.ANY);
     }
 
     private void initComponents() {
         final Icon botIcon = IntelliJAzureIcons.getIcon(AzureIcons.Common.CHATBOT);
-        final Icon sendIcon = IntelliJAzureIcons.getIcon(AzureIcons.Action.SEND);
+        this.sendIcon = IntelliJAzureIcons.getIcon(AzureIcons.Action.SEND);
         this.clearBtn.setEnabled(false);
         this.clearBtn.addActionListener(e -> Optional.ofNullable(this.chatBot).ifPresent((c) -> clearSession()));
         this.viewCodeBtn.addActionListener(e -> viewCode());
@@ -94,6 +104,13 @@ public class ChatBox {
         this.promptInput.setBackground(JBUI.CurrentTheme.EditorTabs.background());
         this.promptInput.setLineWrap(true);
         this.promptInput.setFont(JBUI.Fonts.label());
+        this.promptInput.getDocument().addDocumentListener(new DocumentAdapter() {
+            @Override
+            protected void textChanged(@Nonnull DocumentEvent e) {
+                updatePromptTokens();
+            }
+        });
+        this.promptTokensLabel.setForeground(UIUtil.getContextHelpForeground());
         this.promptInput.addKeyListener(new KeyAdapter() {
             public void keyPressed(KeyEvent e) {
                 if (e.getKeyCode() == KeyEvent.VK_ENTER && e.isShiftDown()) {
@@ -112,6 +129,12 @@ public class ChatBox {
                 Optional.ofNullable(chatBot).ifPresent((c) -> send());
             }
         });
+        this.promptInput.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "stop");
+        this.promptInput.getActionMap().put("stop", new AbstractAction() {
+            public void actionPerformed(ActionEvent e) {
+                stop();
+            }
+        });
 
         this.sendBtn.setEnabled(false);
         this.sendBtn.setIcon(sendIcon);
@@ -119,7 +142,11 @@ public class ChatBox {
         this.sendBtn.setBackground(JBUI.CurrentTheme.EditorTabs.background());
         this.sendBtn.addMouseListener(new MouseAdapter() {
             public void mouseClicked(final MouseEvent e) {
-                Optional.ofNullable(chatBot).ifPresent((c) -> send());
+                if (answering != null) {
+                    stop();
+                } else {
+                    Optional.ofNullable(chatBot).ifPresent((c) -> send());
+                }
             }
         });
         this.contentPanel.repaint();
@@ -142,13 +169,29 @@ public class ChatBox {
         this.placeholder.setVisible(true);
         this.scrollPane.revalidate();
         this.scrollPane.repaint();
+        this.updatePromptTokens();
+    }
+
+    /**
+     * Show the estimated tokens of the prompt to send, i.e. the context and the message being typed
+     */
+    public void updatePromptTokens() {
+        if (Objects.isNull(this.chatBot)) {
+            this.promptTokensLabel.setText("");
+            return;
+        }
+        final ChatContext.Window window = this.chatBot.estimate(this.promptInput.getText());
+        final int budget = this.chatBot.getPromptBudget();
+        final String text = String.format("Prompt: ~%,d%s tokens", window.getTokens(), budget > 0 ? String.format(" / %,d", budget) : "");
+        this.promptTokensLabel.setText(window.getDropped() > 0 ? text + String.format(", %d earliest message(s) not sent", window.getDropped()) : text);
+        this.promptTokensLabel.setToolTipText("Estimated locally, the system message and examples are always sent and the oldest messages are not sent beyond the max context.");
     }
 
     @AzureOperation(value = "user/openai.send_message.deployment",
         params = {"this.chatBot.getDeployment().getName()"}, source = "this.chatBot.getDeployment()")
     public void send() {
         final String prompt = this.promptInput.getText();
-        if (prompt.isBlank() || !this.sendBtn.isEnabled()) {
+        if (prompt.isBlank() || !this.sendBtn.isEnabled() || this.answering != null) {
             return;
         }
         if (this.messageBox.getComponentCount() == 0) {
@@ -157,41 +200,39 @@ public class ChatBox {
             this.scrollPane.revalidate();
             this.scrollPane.repaint();
         }
-        this.sendBtn.setEnabled(false);
         this.clearBtn.setEnabled(false);
-        this.sendBtn.setToolTipText("Sending...");
-        final AzureTaskManager tm = AzureTaskManager.getInstance();
-        tm.runOnPooledThread(() -> {
-            try {
-                this.addMessage(new MarkdownText(prompt), ChatRole.USER);
-                tm.runLater(() -> this.promptInput.setText(""));
-                final ChatChoice response = this.chatBot.send(prompt);
-                final ChatResponseMessage message = response.getMessage();
-                final String content = message.getContent();
-                this.addMessage(new MarkdownText(content), ChatRole.ASSISTANT);
-            } finally {
-                tm.runLater(() -> {
-                    this.sendBtn.setEnabled(true);
-                    this.clearBtn.setEnabled(true);
-                    this.sendBtn.setToolTipText("Send");
-                });
-            }
-        });
+        this.addMessage(new UserMessagePane(new MarkdownText(prompt)).getContentPanel());
+        this.promptInput.setText("");
+        final BotMessagePane answer = new BotMessagePane(new MarkdownText(""));
+        this.addMessage(answer.getContentPanel());
+        this.setAnswering(true);
+        this.answering = this.chatBot.sendStreaming(prompt, new AnswerRenderer(answer));
     }
 
-    private void addMessage(MarkdownText markdown, ChatRole role) {
-        final AzureTaskManager tm = AzureTaskManager.getInstance();
-        tm.runLater(() -> {
-            final JPanel message = role == ChatRole.USER ?
-                new UserMessagePane(markdown).getContentPanel() : new BotMessagePane(markdown).getContentPanel();
-            this.messageBox.add(message);
-            this.messageBox.revalidate();
-            this.messageBox.repaint();
-            this.scrollPane.revalidate();
-            this.scrollPane.repaint();
+    /**
+     * Stop receiving the answer, the partial answer is kept
+     */
+    public void stop() {
+        Optional.ofNullable(this.answering).ifPresent(Disposable::dispose);
+    }
 
-            this.scrollToBottom();
-        });
+    private void setAnswering(boolean answering) {
+        this.sendBtn.setIcon(answering ? AllIcons.Actions.Suspend : this.sendIcon);
+        this.sendBtn.setToolTipText(answering ? "Stop (Esc)" : "Send");
+        this.clearBtn.setEnabled(!answering);
+        if (!answering) {
+            this.answering = null;
+        }
+    }
+
+    private void addMessage(JPanel message) {
+        this.messageBox.add(message);
+        this.messageBox.revalidate();
+        this.messageBox.repaint();
+        this.scrollPane.revalidate();
+        this.scrollPane.repaint();
+
+        this.scrollToBottom();
     }
 
     private void scrollToBottom() {
@@ -211,4 +252,44 @@ public class ChatBox {
         this.messageBox = new JPanel();
         this.messageBox.setLayout(new BoxLayout(this.messageBox, BoxLayout.Y_AXIS));
     }
+
+    /**
+     * Renders the answer as it's received. The deltas received while the dispatch thread is busy are rendered
+     * together, and only the trailing open block of the markdown is parsed and rendered again.
+     */
+    private class AnswerRenderer implements ChatBot.StreamingListener {
+        private final BotMessagePane answer;
+        private final StreamingMarkdownText text = new StreamingMarkdownText();
+        private final AtomicBoolean renderPending = new AtomicBoolean();
+
+        private AnswerRenderer(BotMessagePane answer) {
+            this.answer = answer;
+        }
+
+        @Override
+        public void onDelta(@Nonnull String delta) {
+            this.text.append(delta);
+            if (this.renderPending.compareAndSet(false, true)) {
+                AzureTaskManager.getInstance().runLater(() -> {
+                    if (this.renderPending.getAndSet(false)) {
+                        this.answer.updateValue(this.text.getText());
+                        scrollToBottom();
+                    }
+                }, AzureTask.Modality.ANY);
+            }
+        }
+
+        @Override
+        public void onFinished(@Nonnull String content, @Nonnull ChatBot.StreamingStats stats, @Nullable Throwable error) {
+            AzureTaskManager.getInstance().runLater(() -> {
+                this.renderPending.set(false);
+                this.answer.updateValue(this.text.getText());
+                this.answer.setStats(stats.toString());
+                setAnswering(false);
+                updatePromptTokens();
+                scrollToBottom();
+                Optional.ofNullable(error).ifPresent(e -> AzureMessager.getMessager().error(e));
+            }, AzureTask.Modality.ANY);
+        }
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cognitiveservices.chatbox;
+
+import com.azure.ai.openai.models.ChatMessage;
+import com.azure.ai.openai.models.ChatRole;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the messages sent as the conversation context within a token budget. The system message and examples are
+ * pinned, the oldest turns of the history are dropped until the rest fits, and the latest message is always kept.
+ * Tokens are estimated locally in the way of the cl100k tokenizer: the text is split by its pre-tokenization pattern
+ * and each piece is counted as a token per 4 characters, the counts of messages are cached.
+ */
+public class ChatContext {
+    /**
+     * the tokens of the role and separators wrapping each message
+     */
+    public static final int MESSAGE_OVERHEAD_TOKENS = 4;
+    /**
+     * the tokens priming the reply of the assistant
+     */
+    public static final int REPLY_OVERHEAD_TOKENS = 3;
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final Pattern PIECE_PATTERN = Pattern.compile(
+        "'(?i:[sdmt]|ll|ve|re)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*|\\s*[\\r\\n]+|\\s+");
+
+    private final Map<ChatMessage, Integer> tokens = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * @param messages the conversation, starting with the pinned messages and ending with the latest message
+     * @param pinned   the count of the leading messages never dropped, i.e. the system message and examples
+     * @param budget   the max tokens of the prompt, not positive for unlimited
+     */
+    @Nonnull
+    public Window select(@Nonnull final List<ChatMessage> messages, final int pinned, final int budget) {
+        final int pinnedCount = Math.min(pinned, messages.size());
+        int total = REPLY_OVERHEAD_TOKENS;
+        for (final ChatMessage message : messages) {
+            total += countTokens(message);
+        }
+        int first = pinnedCount;
+        final int last = messages.size() - 1;
+        while (budget > 0 && total > budget && first < last) {
+            total -= countTokens(messages.get(first++));
+        }
+        // don't start the history with an answer whose question is dropped
+        while (first > pinnedCount && first < last && messages.get(first).getRole() == ChatRole.ASSISTANT) {
+            total -= countTokens(messages.get(first++));
+        }
+        final List<ChatMessage> selected = new ArrayList<>(messages.subList(0, pinnedCount));
+        selected.addAll(messages.subList(first, messages.size()));
+        return new Window(selected, total, first - pinnedCount);
+    }
+
+    public int countTokens(@Nonnull final ChatMessage message) {
+        return this.tokens.computeIfAbsent(message, m -> MESSAGE_OVERHEAD_TOKENS + countTokens(m.getContent()));
+    }
+
+    public static int countTokens(@Nullable final String text) {
+        if (StringUtils.isEmpty(text)) {
+            return 0;
+        }
+        int result = 0;
+        final Matcher matcher = PIECE_PATTERN.matcher(text);
+        while (matcher.find()) {
+            result += (matcher.end() - matcher.start() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+        }
+        return result;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Window {
+        private final List<ChatMessage> messages;
+        private final int tokens;
+        /**
+         * the count of the history messages dropped to fit the budget
+         */
+        private final int dropped;
+    }
+}
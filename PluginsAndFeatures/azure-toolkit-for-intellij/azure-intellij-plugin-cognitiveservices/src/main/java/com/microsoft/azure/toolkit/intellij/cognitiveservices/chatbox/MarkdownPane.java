@@ -24,6 +24,7 @@ import org.intellij.plugins.markdown.ui.preview.html.MarkdownUtil;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,8 +47,30 @@ public class MarkdownPane {
     public void setValue(MarkdownText markdown) {
         this.value = markdown;
         this.contentPanel.removeAll();
+        this.render(markdown.getParts(), List.of());
+    }
+
+    /**
+     * Update the markdown without rendering the leading parts which are not changed again, e.g. only the trailing
+     * part of a growing answer is rendered.
+     */
+    public void updateValue(MarkdownText markdown) {
+        final List<MarkdownText.Part> oldParts = Optional.ofNullable(this.value).map(MarkdownText::getParts).orElse(List.of());
         final List<MarkdownText.Part> parts = markdown.getParts();
-        final GridLayoutManager newLayout = new GridLayoutManager(parts.size(), 1);
+        int unchanged = 0;
+        while (unchanged < oldParts.size() && unchanged < parts.size() && unchanged < this.contentPanel.getComponentCount()
+            && oldParts.get(unchanged).getType() == parts.get(unchanged).getType()
+            && oldParts.get(unchanged).getText().equals(parts.get(unchanged).getText())) {
+            unchanged++;
+        }
+        final List<Component> rendered = Arrays.asList(this.contentPanel.getComponents()).subList(0, unchanged);
+        this.value = markdown;
+        this.contentPanel.removeAll();
+        this.render(parts, rendered);
+    }
+
+    private void render(List<MarkdownText.Part> parts, List<Component> rendered) {
+        final GridLayoutManager newLayout = new GridLayoutManager(Math.max(1, parts.size()), 1);
         this.contentPanel.setLayout(newLayout);
         final Container container = this.contentPanel.getParent();
         Optional.ofNullable(container).map(Component::getBackground).ifPresent(contentPanel::setBackground);
@@ -58,6 +81,10 @@ public class MarkdownPane {
                 GridConstraints.SIZEPOLICY_CAN_GROW | GridConstraints.SIZEPOLICY_CAN_SHRINK,
                 GridConstraints.SIZEPOLICY_CAN_GROW | GridConstraints.SIZEPOLICY_CAN_SHRINK,
                 null, null, null, 0);
+            if (i < rendered.size()) {
+                this.contentPanel.add(rendered.get(i), constraints);
+                continue;
+            }
             final String text = part.getText();
             if (part instanceof MarkdownText.CodePart codePart) {
                 this.contentPanel.add(createEditor(codePart), constraints);
@@ -14,16 +14,21 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class MarkdownText {
-    private final String markdown;
     @Getter
     private final List<Part> parts;
 
     public MarkdownText(String markdown) {
-        this.markdown = markdown;
-        this.parts = this.split();
+        this.parts = split(markdown);
     }
 
-    public List<Part> split() {
+    /**
+     * @param parts the parsed parts, e.g. of a {@link StreamingMarkdownText}
+     */
+    public MarkdownText(List<Part> parts) {
+        this.parts = parts;
+    }
+
+    public static List<Part> split(String markdown) {
         final List<Part> parts = new ArrayList<>();
         final Pattern codeBlockPattern = Pattern.compile("```(.*?)```", Pattern.DOTALL);
         final Matcher codeBlockMatcher = codeBlockPattern.matcher(markdown);
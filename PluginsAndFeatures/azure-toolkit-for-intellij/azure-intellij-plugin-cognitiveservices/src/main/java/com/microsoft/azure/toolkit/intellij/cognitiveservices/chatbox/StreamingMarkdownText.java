@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cognitiveservices.chatbox;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Markdown text received in deltas, e.g. a streaming answer. The finished blocks, i.e. the closed code blocks and the
+ * paragraphs before them or before a blank line, are parsed once and kept, only the trailing open block is parsed
+ * again when a delta is appended.
+ */
+public class StreamingMarkdownText {
+    private static final String FENCE = "```";
+    private static final String PARAGRAPH_SEPARATOR = "\n\n";
+
+    private final List<MarkdownText.Part> finished = new ArrayList<>();
+    private final StringBuilder open = new StringBuilder();
+
+    public synchronized void append(@Nonnull String delta) {
+        this.open.append(delta);
+        this.finishBlocks();
+    }
+
+    /**
+     * @return the finished parts followed by the parts of the open block
+     */
+    @Nonnull
+    public synchronized MarkdownText getText() {
+        final List<MarkdownText.Part> parts = new ArrayList<>(this.finished);
+        parts.addAll(MarkdownText.split(this.open.toString()));
+        return new MarkdownText(parts);
+    }
+
+    private void finishBlocks() {
+        while (true) {
+            final int fence = this.open.indexOf(FENCE);
+            final int end;
+            if (fence == 0) {
+                final int close = this.open.indexOf(FENCE, FENCE.length());
+                if (close < 0) { // the code block is not closed yet
+                    return;
+                }
+                end = close + FENCE.length();
+                this.finished.add(new MarkdownText.CodePart(this.open.substring(0, end)));
+            } else {
+                final int separator = fence > 0 ? -1 : this.open.lastIndexOf(PARAGRAPH_SEPARATOR);
+                if (fence > 0) {
+                    end = fence;
+                } else if (separator >= 0) {
+                    end = separator + PARAGRAPH_SEPARATOR.length();
+                } else { // the paragraph is not finished yet
+                    return;
+                }
+                this.finished.add(new MarkdownText.Part(this.open.substring(0, end), MarkdownText.PartType.OTHER));
+            }
+            this.open.delete(0, end);
+        }
+    }
+}
@@ -12,9 +12,13 @@ import java.util.List;
 @EqualsAndHashCode
 public class Configuration {
     public static final Configuration DEFAULT = Configuration.builder().maxResponse(1000).temperature(0.7)
-        .topP(0.95).stopSequences(Collections.emptyList()).frequencyPenalty(0d).presencePenalty(0d).build();
+        .topP(0.95).stopSequences(Collections.emptyList()).frequencyPenalty(0d).presencePenalty(0d).maxContext(16000).build();
 
     private Integer maxResponse;
+    /**
+     * max tokens of the prompt and response, the oldest messages of the history are not sent if it's exceeded
+     */
+    private Integer maxContext;
     private Double temperature;
     private Double topP;
     private List<String> stopSequences;
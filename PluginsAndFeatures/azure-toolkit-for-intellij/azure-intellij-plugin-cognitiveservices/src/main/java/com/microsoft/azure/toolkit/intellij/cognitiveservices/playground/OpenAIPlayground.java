@@ -18,6 +18,7 @@ import com.microsoft.azure.toolkit.intellij.common.BaseEditor;
 import com.microsoft.azure.toolkit.lib.cognitiveservices.CognitiveAccount;
 import com.microsoft.azure.toolkit.lib.cognitiveservices.CognitiveDeployment;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 
 import javax.annotation.Nonnull;
@@ -87,11 +88,13 @@ public class OpenAIPlayground extends BaseEditor {
     private void updateSystemMessage(final SystemMessage m) {
         this.chatBox.clearSession();
         Optional.ofNullable(this.chatBox.getChatBot()).ifPresent(b -> b.setSystemMessage(m));
+        AzureTaskManager.getInstance().runLater(this.chatBox::updatePromptTokens, AzureTask.Modality.ANY);
     }
 
     @AzureOperation(value = "user/openai.update_configuration", source = "this.account")
     private void updateConfiguration(final Configuration v) {
         Optional.ofNullable(this.chatBox.getChatBot()).ifPresent(b -> b.setConfiguration(v));
+        AzureTaskManager.getInstance().runLater(this.chatBox::updatePromptTokens, AzureTask.Modality.ANY);
     }
 
     private void onDeploymentChanged(@Nonnull final CognitiveDeployment deployment) {
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cognitiveservices.chatbox;
+
+import com.azure.ai.openai.OpenAIClientBuilder;
+import com.azure.core.credential.AzureKeyCredential;
+import com.microsoft.azure.toolkit.lib.cognitiveservices.CognitiveDeployment;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import reactor.core.Disposable;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams the answers of a local server which replies the chat completions as server-sent events.
+ */
+public class ChatBotStreamingTest {
+    private static final String FILTER_RESULTS_CHUNK = "{\"id\":\"\",\"object\":\"\",\"created\":0,\"model\":\"\",\"choices\":[]," +
+        "\"prompt_filter_results\":[{\"prompt_index\":0,\"content_filter_results\":{}}]}";
+    private static final String DELTA_CHUNK = "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion.chunk\",\"created\":1700000000," +
+        "\"model\":\"gpt-35-turbo\",\"choices\":[{\"index\":0,\"delta\":{\"role\":\"assistant\",\"content\":\"%s\"},\"finish_reason\":null}]}";
+
+    private HttpServer server;
+    private volatile List<String> answer = List.of();
+    /**
+     * the server holds the rest of the answer after the first delta until released
+     */
+    private volatile boolean holdAfterFirstDelta;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ChatBot chatBot;
+
+    @Before
+    public void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/", this::replyChatCompletions);
+        this.server.start();
+        final CognitiveDeployment deployment = Mockito.mock(CognitiveDeployment.class);
+        Mockito.when(deployment.getName()).thenReturn("gpt-35-turbo");
+        final OpenAIClientBuilder builder = new OpenAIClientBuilder()
+            .endpoint("http://localhost:" + this.server.getAddress().getPort())
+            .credential(new AzureKeyCredential("key"));
+        this.chatBot = new ChatBot(deployment, builder);
+        this.chatBot.setSystemMessage("You are an AI assistant.");
+    }
+
+    @After
+    public void tearDown() {
+        this.release.countDown();
+        this.server.stop(0);
+    }
+
+    @Test
+    public void testDeltasAndStats() throws InterruptedException {
+        this.answer = List.of("Hello", ", ", "world", "!");
+        final RecordingListener listener = new RecordingListener();
+        this.chatBot.sendStreaming("Hi", listener);
+
+        Assert.assertTrue(listener.finished.await(30, TimeUnit.SECONDS));
+        Assert.assertNull(listener.error);
+        Assert.assertEquals(List.of("Hello", ", ", "world", "!"), listener.deltas);
+        Assert.assertEquals("Hello, world!", listener.content);
+        Assert.assertEquals(4, listener.stats.getTokens());
+        Assert.assertFalse(listener.stats.isCancelled());
+        Assert.assertTrue(listener.stats.getTimeToFirstTokenMillis() >= 0);
+        Assert.assertTrue(listener.stats.getTokensPerSecond() >= 0);
+        Assert.assertEquals(3, this.chatBot.getChatMessages().size());
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        this.answer = List.of("Hello", ", ", "world", "!");
+        this.holdAfterFirstDelta = true;
+        final RecordingListener listener = new RecordingListener();
+        final Disposable answering = this.chatBot.sendStreaming("Hi", listener);
+
+        Assert.assertTrue(listener.firstDelta.await(30, TimeUnit.SECONDS));
+        answering.dispose();
+        this.release.countDown();
+
+        Assert.assertTrue(listener.finished.await(30, TimeUnit.SECONDS));
+        Assert.assertNull(listener.error);
+        Assert.assertEquals(List.of("Hello"), listener.deltas);
+        Assert.assertEquals("Hello", listener.content);
+        Assert.assertEquals(1, listener.stats.getTokens());
+        Assert.assertTrue(listener.stats.isCancelled());
+        // the partial answer is kept in the history
+        Assert.assertEquals(3, this.chatBot.getChatMessages().size());
+    }
+
+    private void replyChatCompletions(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            sendEvent(out, FILTER_RESULTS_CHUNK);
+            for (int i = 0; i < this.answer.size(); i++) {
+                sendEvent(out, String.format(DELTA_CHUNK, this.answer.get(i)));
+                if (i == 0 && this.holdAfterFirstDelta) {
+                    this.release.await(30, TimeUnit.SECONDS);
+                }
+            }
+            sendEvent(out, "[DONE]");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // the client has cancelled
+        }
+    }
+
+    private static void sendEvent(OutputStream out, String data) throws IOException {
+        out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static class RecordingListener implements ChatBot.StreamingListener {
+        private final List<String> deltas = new CopyOnWriteArrayList<>();
+        private final CountDownLatch firstDelta = new CountDownLatch(1);
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private volatile String content;
+        private volatile ChatBot.StreamingStats stats;
+        private volatile Throwable error;
+
+        @Override
+        public void onDelta(@Nonnull String delta) {
+            this.deltas.add(delta);
+            this.firstDelta.countDown();
+        }
+
+        @Override
+        public void onFinished(@Nonnull String content, @Nonnull ChatBot.StreamingStats stats, @Nullable Throwable error) {
+            this.content = content;
+            this.stats = stats;
+            this.error = error;
+            this.finished.countDown();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cognitiveservices.chatbox;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class StreamingMarkdownTextTest {
+    private static final String ANSWER = "Use a list:\n\n- one\n- two\n\nThen run ```java\nSystem.out.println(1);\n``` and ```sh\nls\n```\n\ndone.";
+
+    @Test
+    public void testFinishedPartsAreKept() {
+        final StreamingMarkdownText text = new StreamingMarkdownText();
+        text.append("Use a list:\n\n- one");
+        final MarkdownText.Part first = text.getText().getParts().get(0);
+        Assert.assertEquals("Use a list:\n\n", first.getText());
+
+        text.append("\n- two\n\nThen run ```java\nSystem.out");
+        final List<MarkdownText.Part> parts = text.getText().getParts();
+        Assert.assertSame(first, parts.get(0));
+        // the code block is not closed yet
+        Assert.assertEquals(MarkdownText.PartType.OTHER, parts.get(parts.size() - 1).getType());
+
+        text.append(".println(1);\n```");
+        final MarkdownText.Part code = text.getText().getParts().get(2);
+        Assert.assertTrue(code instanceof MarkdownText.CodePart);
+        Assert.assertEquals("java", ((MarkdownText.CodePart) code).getLanguage());
+        Assert.assertEquals("System.out.println(1);\n", ((MarkdownText.CodePart) code).getCode());
+    }
+
+    @Test
+    public void testDeltasOfAnySize() {
+        for (final int size : new int[]{1, 2, 3, 7, ANSWER.length()}) {
+            final StreamingMarkdownText text = new StreamingMarkdownText();
+            for (int i = 0; i < ANSWER.length(); i += size) {
+                text.append(ANSWER.substring(i, Math.min(ANSWER.length(), i + size)));
+            }
+            final List<MarkdownText.Part> parts = text.getText().getParts();
+            Assert.assertEquals(ANSWER, parts.stream().map(MarkdownText.Part::getText).collect(Collectors.joining()));
+            final List<String> code = parts.stream().filter(p -> p instanceof MarkdownText.CodePart).map(MarkdownText.Part::getText).collect(Collectors.toList());
+            final List<String> expected = MarkdownText.split(ANSWER).stream().filter(p -> p instanceof MarkdownText.CodePart).map(MarkdownText.Part::getText).collect(Collectors.toList());
+            Assert.assertEquals(expected, code);
+        }
+    }
+}
@@ -8,9 +8,9 @@ package com.microsoft.azure.toolkit.intellij.containerapps;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.containerapps.ContainerAppsActionsContributor;
 import com.microsoft.azure.toolkit.ide.containerregistry.ContainerRegistryActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.common.streaminglog.StreamingLogsManager;
 import com.microsoft.azure.toolkit.intellij.containerapps.action.DeployImageAction;
 import com.microsoft.azure.toolkit.intellij.containerapps.creation.CreateContainerAppAction;
@@ -48,19 +48,47 @@ import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import reactor.core.publisher.Flux;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.microsoft.azure.toolkit.intellij.common.AzureBundle.message;
 import static com.microsoft.azure.toolkit.lib.Azure.az;
 
-public class IntelliJContainerAppsActionsContributor implements IActionsContributor {
+public class IntelliJContainerAppsActionsContributor implements ILazyActionsContributor {
 
     public static final Action.Id<VirtualFile> DEPLOY_IMAGE_TO_ACA = Action.Id.of("user/containerapps.deploy_image");
 
+    @Nonnull
+    @Override
+    public Set<String> getDeclaredIds() {
+        return Set.of(DEPLOY_IMAGE_TO_ACA.getId());
+    }
+
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(ContainerAppsActionsContributor.UPDATE_IMAGE, ContainerRegistryActionsContributor.DEPLOY_IMAGE_ACA,
+                ContainerAppsActionsContributor.CREATE_CONTAINER_APP,
+                ContainerAppsActionsContributor.GROUP_CREATE_CONTAINER_APP,
+                ContainerAppsActionsContributor.SERVICE_CREATE_CONTAINER_APP,
+                ContainerAppsActionsContributor.CREATE_CONTAINER_APPS_ENVIRONMENT,
+                ContainerAppsActionsContributor.GROUP_CREATE_CONTAINER_APPS_ENVIRONMENT,
+                ContainerAppsActionsContributor.OPEN_LOGS_IN_MONITOR,
+                ContainerAppsActionsContributor.START_SYSTEM_LOG_STREAMS,
+                ContainerAppsActionsContributor.START_CONSOLE_LOG_STREAMS,
+                ContainerAppsActionsContributor.START_ENV_LOG_STREAM,
+                ContainerAppsActionsContributor.STOP_ENV_LOG_STREAM,
+                ContainerAppsActionsContributor.STOP_APP_LOG_STREAMS)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiPredicate<ContainerApp, AnActionEvent> serviceCondition = (r, e) -> r != null;
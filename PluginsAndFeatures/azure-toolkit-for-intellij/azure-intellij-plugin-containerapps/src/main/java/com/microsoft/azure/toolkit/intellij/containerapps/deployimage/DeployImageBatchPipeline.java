@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.containerapps.deployimage;
+
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.BuildImageResultCallback;
+import com.github.dockerjava.api.model.BuildResponseItem;
+import com.github.dockerjava.api.model.PullResponseItem;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.microsoft.azure.toolkit.intellij.common.RunProcessHandler;
+import com.microsoft.azure.toolkit.intellij.container.AzureDockerClient;
+import com.microsoft.azure.toolkit.intellij.container.DockerProgressTracker;
+import com.microsoft.azure.toolkit.intellij.container.model.DockerImage;
+import com.microsoft.azure.toolkit.intellij.containerregistry.ContainerService;
+import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
+import com.microsoft.azure.toolkit.lib.containerapps.AzureContainerApps;
+import com.microsoft.azure.toolkit.lib.containerapps.containerapp.ContainerApp;
+import com.microsoft.azure.toolkit.lib.containerapps.containerapp.ContainerAppDraft;
+import com.microsoft.azure.toolkit.lib.containerregistry.ContainerRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Deploys several {@link DeployImageRunConfiguration}s in one run: local images are built in parallel on a bounded pool,
+ * pushed concurrently (once per distinct image name), and each container app is updated as soon as its image is in the
+ * registry. A target moves to the next stage independently of the others, so a slow build only delays its own app.
+ * <p>
+ * The base images of the local builds are pulled before the builds, once per image, and a build waits for its base
+ * images without holding a build slot. Layers shared between pushed images are uploaded once by the registry
+ * ("Layer already exists").
+ */
+@Slf4j
+public class DeployImageBatchPipeline {
+    public static final int PULL_CONCURRENCY = 3;
+    public static final int BUILD_CONCURRENCY = 3;
+    public static final int PUSH_CONCURRENCY = 4;
+    public static final int UPDATE_CONCURRENCY = 6;
+    private static final int TIMELINE_WIDTH = 40;
+    private static final Pattern FROM_PATTERN = Pattern.compile("^\\s*FROM\\s+(?:--\\S+\\s+)*(\\S+)(?:\\s+AS\\s+(\\S+))?",
+        Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+
+    private final Project project;
+    private final RunProcessHandler processHandler;
+    private final Map<String, CompletableFuture<Void>> baseImages = new HashMap<>();
+    private final Map<String, CompletableFuture<String>> pushes = new ConcurrentHashMap<>();
+    private long startTime;
+
+    public DeployImageBatchPipeline(@Nonnull Project project, @Nonnull RunProcessHandler processHandler) {
+        this.project = project;
+        this.processHandler = processHandler;
+    }
+
+    /**
+     * @param primary the run configuration being executed, its image is already built by its before-run task.
+     * @return the targets with their timings, in the given order
+     */
+    @Nonnull
+    public List<Target> deploy(@Nonnull DeployImageRunConfiguration primary, @Nonnull List<DeployImageRunConfiguration> others) {
+        this.startTime = System.currentTimeMillis();
+        final List<Target> targets = new ArrayList<>();
+        targets.add(new Target(primary, true));
+        others.forEach(c -> targets.add(new Target(c, false)));
+        processHandler.setText(String.format("Deploying %d container app(s): %s", targets.size(),
+            targets.stream().map(Target::getName).collect(Collectors.joining(", "))));
+        // registries may be created on the fly, resolve them one by one before going parallel
+        final Map<String, ContainerRegistry> registries = new HashMap<>();
+        for (final Target target : targets) {
+            target.prepare(registries);
+        }
+        final ExecutorService pullers = AppExecutorUtil.createBoundedApplicationPoolExecutor("Azure Container Apps Pull", PULL_CONCURRENCY);
+        final ExecutorService builders = AppExecutorUtil.createBoundedApplicationPoolExecutor("Azure Container Apps Build", BUILD_CONCURRENCY);
+        final ExecutorService pushers = AppExecutorUtil.createBoundedApplicationPoolExecutor("Azure Container Apps Push", PUSH_CONCURRENCY);
+        final ExecutorService updaters = AppExecutorUtil.createBoundedApplicationPoolExecutor("Azure Container Apps Update", UPDATE_CONCURRENCY);
+        try {
+            final CompletableFuture<?>[] futures = targets.stream()
+                .map(t -> t.pullBaseImages(pullers)
+                    .thenRunAsync(t::build, builders)
+                    .thenRunAsync(t::push, pushers)
+                    .thenRunAsync(t::update, updaters)
+                    .whenComplete((r, e) -> t.finish(e)))
+                .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+        } finally {
+            pullers.shutdownNow();
+            builders.shutdownNow();
+            pushers.shutdownNow();
+            updaters.shutdownNow();
+        }
+        this.printTimeline(targets);
+        final List<Target> failed = targets.stream().filter(t -> Objects.nonNull(t.getError())).collect(Collectors.toList());
+        if (!failed.isEmpty()) {
+            final String message = failed.stream().map(t -> String.format("%s: %s", t.getName(), ExceptionUtils.getRootCauseMessage(t.getError())))
+                .collect(Collectors.joining("; "));
+            throw new AzureToolkitRuntimeException(String.format("Failed to deploy %d of %d container app(s): %s", failed.size(), targets.size(), message));
+        }
+        return targets;
+    }
+
+    private void printTimeline(@Nonnull List<Target> targets) {
+        final long total = Math.max(1, System.currentTimeMillis() - this.startTime);
+        final int nameWidth = targets.stream().mapToInt(t -> t.getName().length()).max().orElse(0);
+        processHandler.setText(String.format("Deployment timeline (total %s, '-' pull, '=' build, '>' push, '#' update):", StringUtil.formatDuration(total)));
+        for (final Target target : targets) {
+            final char[] bar = new char[TIMELINE_WIDTH];
+            Arrays.fill(bar, ' ');
+            final List<String> durations = new ArrayList<>();
+            for (final Phase phase : Phase.values()) {
+                final long[] timing = target.timings.get(phase);
+                if (Objects.isNull(timing)) {
+                    continue;
+                }
+                final int from = (int) (timing[0] * TIMELINE_WIDTH / total);
+                final int to = Math.max(from + 1, (int) (timing[1] * TIMELINE_WIDTH / total));
+                Arrays.fill(bar, Math.min(from, TIMELINE_WIDTH - 1), Math.min(to, TIMELINE_WIDTH), phase.symbol);
+                durations.add(String.format("%s %s", phase.name().toLowerCase(), StringUtil.formatDuration(timing[1] - timing[0])));
+            }
+            final String status = Objects.isNull(target.getError()) ? String.join(", ", durations) : "failed after " + String.join(", ", durations);
+            processHandler.setText(String.format("  %s |%s| %s%s", StringUtils.rightPad(target.getName(), nameWidth), new String(bar), status,
+                Optional.ofNullable(target.getNote()).map(n -> " (" + n + ")").orElse("")));
+        }
+        targets.stream().map(Target::getApp).filter(a -> Objects.nonNull(a) && a.isIngressEnabled())
+            .forEach(a -> processHandler.setText(String.format("  %s: https://%s", a.getName(), a.getIngressFqdn())));
+    }
+
+    /**
+     * @return the external base images of a dockerfile, skipping build stages, {@code scratch} and images parameterized by build args.
+     */
+    @Nonnull
+    static Set<String> getBaseImages(@Nonnull String dockerfile) {
+        final Set<String> stages = new HashSet<>();
+        final Set<String> result = new LinkedHashSet<>();
+        final Matcher matcher = FROM_PATTERN.matcher(dockerfile);
+        while (matcher.find()) {
+            final String image = matcher.group(1);
+            if (!stages.contains(image.toLowerCase()) && !StringUtils.equalsIgnoreCase(image, "scratch") && !image.contains("$")) {
+                result.add(image.contains(":") || image.contains("@") ? image : image + ":latest");
+            }
+            Optional.ofNullable(matcher.group(2)).map(String::toLowerCase).ifPresent(stages::add);
+        }
+        return result;
+    }
+
+    private enum Phase {
+        PULL('-'), BUILD('='), PUSH('>'), UPDATE('#');
+
+        private final char symbol;
+
+        Phase(char symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    @Getter
+    public class Target {
+        private final DeployImageRunConfiguration configuration;
+        private final DeployImageModel model;
+        private final boolean primary;
+        private final Map<Phase, long[]> timings = Collections.synchronizedMap(new EnumMap<>(Phase.class));
+        private ContainerApp app;
+        @Nullable
+        private volatile String note;
+        @Nullable
+        private volatile Throwable error;
+
+        private Target(@Nonnull DeployImageRunConfiguration configuration, boolean primary) {
+            this.configuration = configuration;
+            this.model = configuration.getDataModel();
+            this.primary = primary;
+        }
+
+        public String getName() {
+            return Optional.ofNullable(this.app).map(ContainerApp::getName).orElseGet(this.configuration::getName);
+        }
+
+        private void prepare(@Nonnull Map<String, ContainerRegistry> registries) {
+            final String appId = this.model.getContainerAppId();
+            this.app = Objects.requireNonNull(Azure.az(AzureContainerApps.class).getById(appId),
+                String.format("Container app %s of run configuration \"%s\" was not found", appId, this.configuration.getName()));
+            final ContainerRegistry registry = Optional.ofNullable(this.model.getContainerRegistryId()).filter(StringUtils::isNotBlank)
+                .map(id -> registries.computeIfAbsent(id, ignore -> DeployImageRunState.getOrCreateContainerRegistry(this.model, this.app)))
+                .orElse(null);
+            DeployImageRunState.addToProfile(project, this.model, registry, this.app);
+            if (this.model.getDeploymentType() == DeploymentType.Artifact && !this.primary) {
+                this.note = "artifact is deployed as is, it's built by the before-run tasks of its own run configuration only";
+            }
+        }
+
+        /**
+         * @return the image to build locally, or null if the image is built remotely or by the before-run tasks
+         */
+        @Nullable
+        private DockerImage getLocalBuildImage() {
+            if (this.primary || this.model.isRemoteBuild() || Objects.isNull(this.configuration.getDockerHostConfiguration())) {
+                return null;
+            }
+            final DockerImage image = this.configuration.getDockerImageConfiguration();
+            return Objects.nonNull(image) && FileUtil.exists(image.getDockerFile()) ? image : null;
+        }
+
+        /**
+         * pulls the base images of the local build not yet pulled for another build. The pull of each image completes as
+         * soon as the image is pulled, so the builds sharing it start without waiting for each other's builds. A failed
+         * pull doesn't fail the build, which pulls the image by itself and reports the error.
+         *
+         * @return the pulls of all the base images of the build
+         */
+        @Nonnull
+        private CompletableFuture<Void> pullBaseImages(@Nonnull ExecutorService pullers) {
+            final DockerImage image = this.getLocalBuildImage();
+            if (Objects.isNull(image)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return CompletableFuture.supplyAsync(() -> readBaseImages(new File(image.getDockerFile())), pullers).thenCompose(images -> {
+                final List<CompletableFuture<Void>> pulls = new ArrayList<>();
+                synchronized (baseImages) {
+                    for (final String baseImage : images) {
+                        pulls.add(baseImages.computeIfAbsent(baseImage, i -> CompletableFuture.runAsync(() -> this.pull(i), pullers)));
+                    }
+                }
+                return CompletableFuture.allOf(pulls.toArray(CompletableFuture[]::new));
+            }).exceptionally(e -> {
+                this.log("failed to pull base image(s), leaving it to the build: " + ExceptionUtils.getRootCauseMessage(e));
+                return null;
+            });
+        }
+
+        private void pull(@Nonnull String baseImage) {
+            this.run(Phase.PULL, () -> {
+                final AzureDockerClient client = AzureDockerClient.from(this.configuration.getDockerHostConfiguration());
+                final DockerProgressTracker tracker = new DockerProgressTracker(snapshot -> this.log(String.format("pulling base image %s: %s", baseImage, snapshot)));
+                client.pullImage(baseImage, new ResultCallback.Adapter<>() {
+                    @Override
+                    public void onNext(PullResponseItem item) {
+                        tracker.onNext(item);
+                    }
+                });
+            });
+        }
+
+        private void build() {
+            final DockerImage image = this.getLocalBuildImage();
+            if (Objects.isNull(image)) {
+                return;
+            }
+            this.run(Phase.BUILD, () -> {
+                final AzureDockerClient client = AzureDockerClient.from(this.configuration.getDockerHostConfiguration());
+                final File dockerfile = new File(image.getDockerFile());
+                final File baseDir = Optional.ofNullable(image.getBaseDirectory()).map(File::new).orElse(null);
+                client.buildImage(image.getImageName(), dockerfile, baseDir, this.createBuildCallback());
+            });
+        }
+
+        private void push() {
+            if (this.model.isRemoteBuild()) {
+                return;
+            }
+            final String imageName = this.configuration.getFinalImageName();
+            final CompletableFuture<String> push = new CompletableFuture<>();
+            final CompletableFuture<String> existing = pushes.putIfAbsent(imageName, push);
+            if (Objects.nonNull(existing)) {
+                // same image deployed to another app, pushed by that target
+                this.note = "image shared with another app";
+                this.run(Phase.PUSH, existing::join);
+                return;
+            }
+            try {
+                this.run(Phase.PUSH, () -> push.complete(ContainerService.getInstance().pushDockerImage(this.configuration, this::log)));
+            } catch (final RuntimeException e) {
+                push.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        private void update() {
+            this.run(Phase.UPDATE, () -> {
+                final ContainerAppDraft draft = (ContainerAppDraft) this.app.update();
+                draft.setConfig(this.model.getContainerAppConfig());
+                draft.updateIfExist();
+            });
+        }
+
+        private void finish(@Nullable Throwable e) {
+            if (Objects.isNull(e)) {
+                this.log("deployed");
+                return;
+            }
+            this.error = e instanceof CompletionException && Objects.nonNull(e.getCause()) ? e.getCause() : e;
+            this.log("failed: " + ExceptionUtils.getRootCauseMessage(this.error));
+            log.debug("failed to deploy container app {}", this.getName(), this.error);
+        }
+
+        private void run(@Nonnull Phase phase, @Nonnull ThrowingRunnable runnable) {
+            if (!processHandler.isProcessRunning()) {
+                throw new AzureToolkitRuntimeException("deployment is cancelled");
+            }
+            final long start = System.currentTimeMillis() - startTime;
+            try {
+                runnable.run();
+            } catch (final RuntimeException e) {
+                throw e;
+            } catch (final Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                // a target may pull several base images, its pull phase spans all of them
+                this.timings.merge(phase, new long[]{start, System.currentTimeMillis() - startTime},
+                    (a, b) -> new long[]{Math.min(a[0], b[0]), Math.max(a[1], b[1])});
+            }
+        }
+
+        private BuildImageResultCallback createBuildCallback() {
+            final DockerProgressTracker tracker = new DockerProgressTracker(snapshot -> this.log("pulling base image(s): " + snapshot));
+            return new BuildImageResultCallback() {
+                @Override
+                public void onNext(BuildResponseItem item) {
+                    super.onNext(item);
+                    if (!tracker.onNext(item) && StringUtils.isNotBlank(item.getStream())) {
+                        log(item.getStream().trim());
+                    }
+                }
+            };
+        }
+
+        private void log(@Nonnull String message) {
+            processHandler.setText(String.format("[%s] %s", this.getName(), message));
+        }
+    }
+
+    @Nonnull
+    private static Set<String> readBaseImages(@Nonnull File dockerfile) {
+        try {
+            return getBaseImages(Files.readString(dockerfile.toPath(), StandardCharsets.UTF_8));
+        } catch (final IOException e) {
+            return Collections.emptySet();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
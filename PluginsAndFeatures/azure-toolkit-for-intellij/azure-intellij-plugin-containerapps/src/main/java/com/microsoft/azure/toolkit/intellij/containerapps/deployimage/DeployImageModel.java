@@ -13,6 +13,7 @@ import com.microsoft.azure.toolkit.lib.containerapps.model.IngressConfig;
 import com.microsoft.azure.toolkit.lib.containerregistry.AzureContainerRegistry;
 import com.microsoft.azure.toolkit.lib.containerregistry.ContainerRegistry;
 import lombok.*;
+import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.nio.file.Path;
@@ -35,11 +36,19 @@ public class DeployImageModel extends DockerPushConfiguration {
     private String path;
     private String fullImageName;
     private Map<String, String> sourceBuildEnv;
+    // stable id of the run configuration owning this model, the name of a run configuration may change
+    private String configurationId;
+    // ids of other deploy image run configurations deployed together with this one
+    private List<String> batchConfigurationIds;
 
     public boolean isRemoteBuild() {
         return deploymentType == DeploymentType.Code || deploymentType == DeploymentType.Artifact;
     }
 
+    public boolean isBatchDeployment() {
+        return CollectionUtils.isNotEmpty(batchConfigurationIds);
+    }
+
     public ContainerAppDraft.Config getContainerAppConfig() {
         final ContainerAppDraft.Config config = new ContainerAppDraft.Config();
         config.setImageConfig(getImageConfig());
@@ -29,6 +29,7 @@ import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 
 public class DeployImageRunConfiguration extends LocatableConfigurationBase<Element> implements LocatableConfiguration, IDockerPushConfiguration {
     @Getter
@@ -38,6 +39,30 @@ public class DeployImageRunConfiguration extends LocatableConfigurationBase<Elem
     protected DeployImageRunConfiguration(@Nonnull Project project, @Nonnull ConfigurationFactory factory, String name) {
         super(project, factory, name);
         dataModel = new DeployImageModel();
+        dataModel.setConfigurationId(UUID.randomUUID().toString());
+    }
+
+    /**
+     * @return the id by which other configurations refer to this one to be deployed together, it survives renaming
+     */
+    @Nonnull
+    public synchronized String getConfigurationId() {
+        if (StringUtils.isBlank(dataModel.getConfigurationId())) {
+            dataModel.setConfigurationId(UUID.randomUUID().toString());
+        }
+        return dataModel.getConfigurationId();
+    }
+
+    @Override
+    public void onConfigurationCopied() {
+        super.onConfigurationCopied();
+        // the copy shares the model of the original, it gets a model of its own with a new id
+        final Element element = new Element("DeployImageModel");
+        serializeModel(element);
+        final DeployImageModel copy = new DeployImageModel();
+        XmlSerializer.deserializeInto(copy, element);
+        copy.setConfigurationId(UUID.randomUUID().toString());
+        this.dataModel = copy;
     }
 
     @Nonnull
@@ -79,15 +104,19 @@ public class DeployImageRunConfiguration extends LocatableConfigurationBase<Elem
     public void writeExternal(@NotNull Element element) {
         super.writeExternal(element);
         if (Objects.nonNull(this.dataModel)) {
-            XmlSerializer.serializeInto(this.dataModel, element, new SerializationFilterBase() {
-                @Override
-                protected boolean accepts(@Nonnull Accessor accessor, @Nonnull Object bean, @Nullable Object beanValue) {
-                    return !StringUtils.equalsAnyIgnoreCase(accessor.getName(), "containerRegistry", "ImageConfig", "ContainerAppConfig");
-                }
-            });
+            serializeModel(element);
         }
     }
 
+    private void serializeModel(@Nonnull Element element) {
+        XmlSerializer.serializeInto(this.dataModel, element, new SerializationFilterBase() {
+            @Override
+            protected boolean accepts(@Nonnull Accessor accessor, @Nonnull Object bean, @Nullable Object beanValue) {
+                return !StringUtils.equalsAnyIgnoreCase(accessor.getName(), "containerRegistry", "ImageConfig", "ContainerAppConfig");
+            }
+        });
+    }
+
     @Override
     public String getContainerRegistryId() {
         return getDataModel().getContainerRegistryId();
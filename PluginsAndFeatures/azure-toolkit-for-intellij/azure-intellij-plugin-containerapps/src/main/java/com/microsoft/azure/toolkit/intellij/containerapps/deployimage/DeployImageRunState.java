@@ -6,6 +6,7 @@
 package com.microsoft.azure.toolkit.intellij.containerapps.deployimage;
 
 import com.azure.resourcemanager.resources.fluentcore.arm.ResourceId;
+import com.intellij.execution.RunManager;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleManager;
 import com.intellij.openapi.project.Project;
@@ -16,6 +17,7 @@ import com.microsoft.azure.toolkit.intellij.container.model.DockerImage;
 import com.microsoft.azure.toolkit.intellij.containerregistry.ContainerService;
 import com.microsoft.azure.toolkit.intellij.legacy.common.AzureRunProfileState;
 import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.common.operation.OperationContext;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
@@ -34,6 +36,7 @@ import org.apache.commons.lang3.StringUtils;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.stream.Collectors;
 
 public class DeployImageRunState extends AzureRunProfileState<ContainerApp> {
     private final DeployImageModel dataModel;
@@ -49,27 +52,58 @@ public class DeployImageRunState extends AzureRunProfileState<ContainerApp> {
     @AzureOperation(name = "platform/containerapps.deploy_image.app", params = {"nameFromResourceId(this.dataModel.getContainerAppId())"})
     public ContainerApp executeSteps(@Nonnull RunProcessHandler processHandler, @Nonnull Operation operation) throws Exception {
         OperationContext.current().setMessager(getProcessHandlerMessenger());
+        if (dataModel.isBatchDeployment()) {
+            final List<DeployImageBatchPipeline.Target> targets = new DeployImageBatchPipeline(project, processHandler)
+                    .deploy(configuration, getBatchConfigurations());
+            return targets.get(0).getApp();
+        }
         final String containerAppId = dataModel.getContainerAppId();
         final ContainerApp containerApp = Objects.requireNonNull(Azure.az(AzureContainerApps.class)
                 .getById(containerAppId), String.format("Container app %s was not found", dataModel.getContainerAppId()));
-        final ContainerRegistry registry = Optional.ofNullable(dataModel.getContainerRegistryId())
+        final ContainerRegistry registry = getOrCreateContainerRegistry(dataModel, containerApp);
+        if (!dataModel.isRemoteBuild()) {
+            ContainerService.getInstance().pushDockerImage(configuration);
+        }
+        // update Image
+        addToProfile(project, dataModel, registry, containerApp);
+        final ContainerAppDraft draft = (ContainerAppDraft) containerApp.update();
+        draft.setConfig(dataModel.getContainerAppConfig());
+        draft.updateIfExist();
+        return containerApp;
+    }
+
+    @Nonnull
+    private List<DeployImageRunConfiguration> getBatchConfigurations() {
+        final List<String> ids = dataModel.getBatchConfigurationIds();
+        final Map<String, DeployImageRunConfiguration> configurations = RunManager.getInstance(project).getAllConfigurationsList().stream()
+                .filter(c -> c instanceof DeployImageRunConfiguration && c != configuration)
+                .map(c -> (DeployImageRunConfiguration) c)
+                .filter(c -> ids.contains(c.getConfigurationId()))
+                .collect(Collectors.toMap(DeployImageRunConfiguration::getConfigurationId, c -> c, (a, b) -> a));
+        final long missing = ids.stream().filter(id -> !configurations.containsKey(id) && !StringUtils.equals(id, configuration.getConfigurationId())).count();
+        if (missing > 0) {
+            throw new AzureToolkitRuntimeException(String.format("%d run configuration(s) to deploy together with \"%s\" were deleted, please edit \"%s\".",
+                    missing, configuration.getName(), configuration.getName()));
+        }
+        return ids.stream().map(configurations::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Nullable
+    static ContainerRegistry getOrCreateContainerRegistry(@Nonnull final DeployImageModel model, @Nonnull final ContainerApp containerApp) {
+        final ContainerRegistry registry = Optional.ofNullable(model.getContainerRegistryId())
                 .filter(StringUtils::isNotBlank)
                 .map(id -> (ContainerRegistry) Azure.az(AzureContainerRegistry.class).getById(id))
-                .orElseGet(() -> initContainerRegistry(containerApp));
+                .orElseGet(() -> initContainerRegistry(model, containerApp));
         if (registry instanceof ContainerRegistryDraft draft) {
             draft.commit();
         }
-        if (!dataModel.isRemoteBuild()) {
-            final DockerImage image = configuration.getDockerImageConfiguration();
-            if(Objects.isNull(registry)){
-                initContainerRegistry(containerApp);
-            }
-            ContainerService.getInstance().pushDockerImage(configuration);
-        }
-        // update Image
+        return registry;
+    }
 
+    static void addToProfile(@Nonnull final Project project, @Nonnull final DeployImageModel model, @Nullable final ContainerRegistry registry,
+                             @Nonnull final ContainerApp containerApp) {
         final Module module = Arrays.stream(ModuleManager.getInstance(project).getModules())
-                .filter(m -> StringUtils.equalsAnyIgnoreCase(m.getName(), dataModel.getModuleName()))
+                .filter(m -> StringUtils.equalsAnyIgnoreCase(m.getName(), model.getModuleName()))
                 .findFirst().orElse(null);
         if (Objects.nonNull(module)) {
             final AzureTaskManager tm = AzureTaskManager.getInstance();
@@ -81,15 +115,11 @@ public class DeployImageRunState extends AzureRunProfileState<ContainerApp> {
                 p.save();
             }));
         }
-        final ContainerAppDraft draft = (ContainerAppDraft) containerApp.update();
-        draft.setConfig(dataModel.getContainerAppConfig());
-        draft.updateIfExist();
-        return containerApp;
     }
 
     @Nullable
-    private ContainerRegistryDraft initContainerRegistry(@Nonnull final ContainerApp containerApp) {
-        final String id = dataModel.getContainerRegistryId();
+    private static ContainerRegistryDraft initContainerRegistry(@Nonnull final DeployImageModel model, @Nonnull final ContainerApp containerApp) {
+        final String id = model.getContainerRegistryId();
         if (StringUtils.isBlank(id)) {
             return null;
         }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.containerapps.deployimage.ui;
+
+import com.intellij.execution.RunManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.CheckBoxList;
+import com.microsoft.azure.toolkit.intellij.common.AzureFormInputComponent;
+import com.microsoft.azure.toolkit.intellij.containerapps.deployimage.DeployImageRunConfiguration;
+import com.microsoft.azure.toolkit.lib.common.form.AzureValidationInfo;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Lists the other container app deployment run configurations of the project, the checked ones are deployed together
+ * with the configuration being edited. The value is the ids of the checked configurations.
+ */
+public class DeployImageConfigurationList extends CheckBoxList<String> implements AzureFormInputComponent<List<String>> {
+    /**
+     * the configurations which may be deployed together with the edited one, by id
+     */
+    private final Map<String, DeployImageRunConfiguration> candidates = new LinkedHashMap<>();
+
+    public DeployImageConfigurationList(@Nonnull Project project, @Nonnull DeployImageRunConfiguration configuration) {
+        super();
+        final String self = configuration.getConfigurationId();
+        RunManager.getInstance(project).getAllConfigurationsList().stream()
+            .filter(c -> c instanceof DeployImageRunConfiguration)
+            .map(c -> (DeployImageRunConfiguration) c)
+            .filter(c -> !StringUtils.equals(c.getConfigurationId(), self))
+            .forEach(c -> this.candidates.put(c.getConfigurationId(), c));
+        this.getEmptyText().setText("No other container app deployment run configurations");
+        this.setValidator(this::doValidateValue);
+        this.setValue(Collections.emptyList());
+    }
+
+    @Override
+    public List<String> getValue() {
+        final List<String> result = new ArrayList<>();
+        for (int i = 0; i < this.getItemsCount(); i++) {
+            if (this.isItemSelected(i)) {
+                result.add(this.getItemAt(i));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void setValue(@Nullable List<String> val) {
+        final List<String> selected = Optional.ofNullable(val).orElse(Collections.emptyList());
+        this.clear();
+        this.candidates.forEach((id, c) -> this.addItem(id, c.getName(), selected.contains(id)));
+        // keep the selected configurations which are gone, so that they are reported and can be unchecked
+        selected.stream().filter(id -> !this.candidates.containsKey(id))
+            .forEach(id -> this.addItem(id, String.format("<deleted run configuration %s>", id), true));
+    }
+
+    @Nonnull
+    public AzureValidationInfo doValidateValue() {
+        final List<String> missing = this.getValue().stream().filter(id -> !this.candidates.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            return AzureValidationInfo.error(String.format("%d of the run configurations to deploy together no longer exist, please uncheck them.", missing.size()), this);
+        }
+        return AzureValidationInfo.success(this);
+    }
+
+    /**
+     * @return the checked configurations which still exist
+     */
+    @Nonnull
+    public List<DeployImageRunConfiguration> getSelectedConfigurations() {
+        return this.getValue().stream().map(this.candidates::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public String getLabel() {
+        return "Deploy Together";
+    }
+}
@@ -28,6 +28,7 @@ import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.form.AzureForm;
 import com.microsoft.azure.toolkit.lib.common.form.AzureFormInput;
+import com.microsoft.azure.toolkit.lib.common.form.AzureValidationInfo;
 import com.microsoft.azure.toolkit.lib.common.model.Subscription;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
@@ -66,6 +67,10 @@ public class DockerDeploymentSettingPanel implements AzureFormPanel<DeployImageM
     private JPanel pnlDeploymentHolder;
     private JPanel pnlEnvHolder;
     private JPanel pnlIngressHolder;
+    private AzureHideableTitledSeparator titleBatch;
+    private JPanel pnlBatchHolder;
+    private JLabel lblBatch;
+    private DeployImageConfigurationList lstBatchConfigurations;
 
     private final DockerImageConfigurationPanel pnlDockerConfiguration;
     private final CodeForm codeSourceForm;
@@ -96,6 +101,8 @@ public class DockerDeploymentSettingPanel implements AzureFormPanel<DeployImageM
         titleEnv.addContentComponent(pnlEnvHolder);
         titleDeployment.addContentComponent(pnlDeploymentHolder);
         titleIngress.addContentComponent(pnlIngressHolder);
+        titleBatch.addContentComponent(pnlBatchHolder);
+        lblBatch.setLabelFor(lstBatchConfigurations);
 
         this.pnlDockerConfiguration.enableContainerRegistryPanel();
         this.cbContainerApp.setRequired(true);
@@ -250,6 +257,10 @@ public class DockerDeploymentSettingPanel implements AzureFormPanel<DeployImageM
 
         Optional.ofNullable(data.getIngressConfig()).ifPresent(pnlIngressConfiguration::setValue);
         Optional.ofNullable(data.getEnvironmentVariables()).ifPresent(inputEnv::setEnvironmentVariables);
+        lstBatchConfigurations.setValue(data.getBatchConfigurationIds());
+        if (data.isBatchDeployment()) {
+            titleBatch.expand();
+        }
         Optional.ofNullable(data.getContainerAppId())
                 .map(id -> (ContainerApp) Azure.az(AzureContainerApps.class).getById(id))
                 .ifPresent(app -> {
@@ -285,6 +296,8 @@ public class DockerDeploymentSettingPanel implements AzureFormPanel<DeployImageM
         }
         Optional.ofNullable(pnlIngressConfiguration.getValue()).ifPresent(model::setIngressConfig);
         Optional.ofNullable(inputEnv.getEnvironmentVariables()).ifPresent(model::setEnvironmentVariables);
+        model.setConfigurationId(configuration.getConfigurationId());
+        model.setBatchConfigurationIds(lstBatchConfigurations.getValue());
         return model;
     }
 
@@ -292,11 +305,25 @@ public class DockerDeploymentSettingPanel implements AzureFormPanel<DeployImageM
     public List<AzureFormInput<?>> getInputs() {
         final AzureForm<?> azureForm = rdoContainerImage.isSelected() ? pnlDockerConfiguration :
                 rdoSourceCode.isSelected() ? codeSourceForm : artifactSourceForm;
-        return Arrays.asList(cbContainerApp, azureForm);
+        return Arrays.asList(cbContainerApp, azureForm, lstBatchConfigurations);
+    }
+
+    @Override
+    public List<AzureValidationInfo> validateAdditionalInfo() {
+        final String appId = Optional.ofNullable(cbContainerApp.getValue()).map(ContainerApp::getId).orElse(null);
+        final List<String> sameApp = lstBatchConfigurations.getSelectedConfigurations().stream()
+                .filter(c -> Objects.nonNull(appId) && StringUtils.equalsIgnoreCase(c.getDataModel().getContainerAppId(), appId))
+                .map(DeployImageRunConfiguration::getName).toList();
+        if (!sameApp.isEmpty()) {
+            return List.of(AzureValidationInfo.error(String.format("Run configuration(s) %s deploy to the same container app, please uncheck them.",
+                    String.join(", ", sameApp)), lstBatchConfigurations));
+        }
+        return AzureFormPanel.super.validateAdditionalInfo();
     }
 
     private void createUIComponents() {
         // TODO: place custom component creation code here
         this.cbModule = new ModuleComboBox(project);
+        this.lstBatchConfigurations = new DeployImageConfigurationList(project, configuration);
     }
 }
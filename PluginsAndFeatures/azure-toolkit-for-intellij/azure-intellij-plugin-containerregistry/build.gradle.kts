@@ -10,6 +10,7 @@ dependencies {
     implementation("com.microsoft.azure:azure-toolkit-storage-lib")
     implementation("com.microsoft.azure:azure-toolkit-ide-common-lib")
     implementation("com.microsoft.azure:azure-toolkit-ide-containerregistry-lib")
+    testImplementation("junit:junit:4.13.2")
     intellijPlatform {
         // Plugin Dependencies. Uses `platformBundledPlugins` property from the gradle.properties file for bundled IntelliJ Platform plugins.
         bundledPlugin("com.intellij.java")
@@ -21,3 +22,10 @@ dependencies {
         bundledPlugin("Docker")
     }
 }
+
+tasks {
+    test {
+        // e.g. -Dazure.toolkit.docker.integration=true -Dazure.toolkit.docker.registry=localhost:5000
+        systemProperties(System.getProperties().filterKeys { it.toString().startsWith("azure.toolkit.docker") }.mapKeys { it.key.toString() })
+    }
+}
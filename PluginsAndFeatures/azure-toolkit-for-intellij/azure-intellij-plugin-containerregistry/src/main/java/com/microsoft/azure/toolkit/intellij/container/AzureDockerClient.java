@@ -150,6 +150,12 @@ public class AzureDockerClient {
         final ResultCallback.Adapter<PullResponseItem> adapter = cmd.exec(new ResultCallback.Adapter<>()).awaitCompletion();
     }
 
+    @AzureOperation(name = "boundary/docker.pull_image.image", params = {"imageNameWithTag"})
+    public void pullImage(@Nonnull String imageNameWithTag, @Nullable ResultCallback.Adapter<PullResponseItem> callback) throws InterruptedException {
+        this.ping();
+        this.client.pullImageCmd(imageNameWithTag).exec(Optional.ofNullable(callback).orElseGet(ResultCallback.Adapter::new)).awaitCompletion();
+    }
+
     @AzureOperation(name = "boundary/docker.inspect_image.image", params = {"imageId"})
     public InspectImageResponse inspectImage(String imageId) {
         this.ping();
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.container;
+
+import com.github.dockerjava.api.model.ResponseItem;
+import com.intellij.openapi.util.text.StringUtil;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregates the {@link ResponseItem} stream of a docker push (or the base image pulls of a build) into per-layer
+ * transfer state, and reports overall progress, throughput and ETA to a listener at most once per
+ * {@link #DEFAULT_UPDATE_INTERVAL_MS} no matter how chatty the docker daemon is. Nothing is reported unless the status
+ * or the progress of a layer changed since the last report.
+ */
+public class DockerProgressTracker {
+    public static final long DEFAULT_UPDATE_INTERVAL_MS = 250;
+
+    private final Map<String, Layer> layers = new LinkedHashMap<>();
+    private final Consumer<Snapshot> listener;
+    private final long updateIntervalMs;
+    private final long startTime = System.currentTimeMillis();
+    private long lastUpdate;
+    private boolean changed;
+
+    public DockerProgressTracker(@Nonnull Consumer<Snapshot> listener) {
+        this(listener, DEFAULT_UPDATE_INTERVAL_MS);
+    }
+
+    public DockerProgressTracker(@Nonnull Consumer<Snapshot> listener, long updateIntervalMs) {
+        this.listener = listener;
+        this.updateIntervalMs = updateIntervalMs;
+    }
+
+    /**
+     * @return true if the item carries layer progress and has been consumed, false if it is a plain status/log message
+     */
+    public boolean onNext(@Nonnull ResponseItem item) {
+        final String id = item.getId();
+        final String status = item.getStatus();
+        if (StringUtils.isAnyBlank(id, status) || !isLayerId(id)) {
+            return false;
+        }
+        final long now = System.currentTimeMillis();
+        final Snapshot snapshot;
+        synchronized (this.layers) {
+            final Layer layer = this.layers.computeIfAbsent(id, Layer::new);
+            this.changed |= layer.update(status, item.getProgressDetail(), now);
+            if (!this.changed || now - this.lastUpdate < this.updateIntervalMs) {
+                return true;
+            }
+            this.lastUpdate = now;
+            this.changed = false;
+            snapshot = this.snapshot(now);
+        }
+        this.listener.accept(snapshot);
+        return true;
+    }
+
+    @Nonnull
+    public Snapshot getSnapshot() {
+        synchronized (this.layers) {
+            return this.snapshot(System.currentTimeMillis());
+        }
+    }
+
+    private Snapshot snapshot(long now) {
+        final List<Layer> copies = this.layers.values().stream().map(Layer::copy).collect(Collectors.toList());
+        return new Snapshot(Collections.unmodifiableList(copies), now - this.startTime);
+    }
+
+    private static boolean isLayerId(@Nonnull String id) {
+        // layer ids are 12 hex chars, other ids are tags (e.g. "latest") or image names
+        return id.length() == 12 && id.chars().allMatch(c -> Character.digit(c, 16) >= 0);
+    }
+
+    public enum LayerState {
+        WAITING, TRANSFERRING, PROCESSING, DONE, EXISTING
+    }
+
+    @Getter
+    public static class Layer {
+        private final String id;
+        private String status;
+        private LayerState state = LayerState.WAITING;
+        private long current;
+        private long total;
+        private long startTime;
+        private long endTime;
+
+        private Layer(String id) {
+            this.id = id;
+        }
+
+        /**
+         * @return true if the status, the state or the transferred bytes of the layer changed
+         */
+        private boolean update(@Nonnull String status, @Nullable ResponseItem.ProgressDetail detail, long now) {
+            final String oldStatus = this.status;
+            final LayerState oldState = this.state;
+            final long oldCurrent = this.current;
+            final long oldTotal = this.total;
+            this.status = status;
+            final String lower = status.toLowerCase();
+            if (lower.contains("already exists") || lower.startsWith("mounted from")) {
+                this.state = LayerState.EXISTING;
+                this.endTime = now;
+            } else if (lower.startsWith("pushed") || lower.startsWith("pull complete")) {
+                this.state = LayerState.DONE;
+                this.current = Math.max(this.current, this.total);
+                this.endTime = this.endTime > 0 ? this.endTime : now;
+            } else if (lower.startsWith("download complete")) {
+                this.state = LayerState.PROCESSING;
+                this.current = Math.max(this.current, this.total);
+                this.endTime = now;
+            } else if (lower.startsWith("pushing") || lower.startsWith("downloading")) {
+                this.state = LayerState.TRANSFERRING;
+                this.startTime = this.startTime > 0 ? this.startTime : now;
+                Optional.ofNullable(detail).ifPresent(d -> {
+                    this.current = Optional.ofNullable(d.getCurrent()).orElse(this.current);
+                    this.total = Optional.ofNullable(d.getTotal()).filter(t -> t > 0).orElse(this.total);
+                });
+            } else if (lower.startsWith("extracting") || lower.startsWith("verifying")) {
+                this.state = LayerState.PROCESSING;
+            }
+            return !StringUtils.equals(oldStatus, this.status) || oldState != this.state || oldCurrent != this.current || oldTotal != this.total;
+        }
+
+        public boolean isFinished() {
+            return this.state == LayerState.DONE || this.state == LayerState.EXISTING;
+        }
+
+        public long getElapsedMillis() {
+            if (this.startTime <= 0) {
+                return 0;
+            }
+            return (this.endTime > 0 ? this.endTime : System.currentTimeMillis()) - this.startTime;
+        }
+
+        private Layer copy() {
+            final Layer copy = new Layer(this.id);
+            copy.status = this.status;
+            copy.state = this.state;
+            copy.current = this.current;
+            copy.total = this.total;
+            copy.startTime = this.startTime;
+            copy.endTime = this.endTime;
+            return copy;
+        }
+
+        @Override
+        public String toString() {
+            if (this.state == LayerState.EXISTING) {
+                return String.format("%s: %s", this.id, this.status);
+            }
+            final long elapsed = this.getElapsedMillis();
+            final String speed = elapsed > 0 ? StringUtil.formatFileSize(this.current * 1000 / elapsed) + "/s" : "-";
+            return String.format("%s: %s, %s in %s (%s)", this.id, this.state.name().toLowerCase(), StringUtil.formatFileSize(this.total),
+                StringUtil.formatDuration(elapsed), speed);
+        }
+    }
+
+    @Getter
+    public static class Snapshot {
+        private final List<Layer> layers;
+        private final long elapsedMillis;
+        private final long transferredBytes;
+        private final long totalBytes;
+        private final int finishedLayers;
+        private final int existingLayers;
+
+        private Snapshot(@Nonnull List<Layer> layers, long elapsedMillis) {
+            this.layers = layers;
+            this.elapsedMillis = elapsedMillis;
+            this.transferredBytes = layers.stream().filter(l -> l.state != LayerState.EXISTING).mapToLong(Layer::getCurrent).sum();
+            this.totalBytes = layers.stream().filter(l -> l.state != LayerState.EXISTING).mapToLong(Layer::getTotal).sum();
+            this.finishedLayers = (int) layers.stream().filter(Layer::isFinished).count();
+            this.existingLayers = (int) layers.stream().filter(l -> l.state == LayerState.EXISTING).count();
+        }
+
+        /**
+         * bytes per second since the tracker was created.
+         */
+        public long getThroughput() {
+            return this.elapsedMillis > 0 ? this.transferredBytes * 1000 / this.elapsedMillis : 0;
+        }
+
+        /**
+         * @return estimated remaining millis based on the current throughput, or -1 if unknown.
+         */
+        public long getEtaMillis() {
+            final long throughput = this.getThroughput();
+            final long remaining = this.totalBytes - this.transferredBytes;
+            return throughput > 0 && remaining >= 0 ? remaining * 1000 / throughput : -1;
+        }
+
+        @Override
+        public String toString() {
+            final long eta = this.getEtaMillis();
+            return String.format("%d/%d layer(s) done (%d already exist), %s of %s, %s/s%s", this.finishedLayers, this.layers.size(), this.existingLayers,
+                StringUtil.formatFileSize(this.transferredBytes), StringUtil.formatFileSize(this.totalBytes), StringUtil.formatFileSize(this.getThroughput()),
+                eta >= 0 && this.finishedLayers < this.layers.size() ? ", ETA " + StringUtil.formatDuration(eta) : "");
+        }
+
+        @Nonnull
+        public List<String> getLayerSummary() {
+            return this.layers.stream().map(Layer::toString).collect(Collectors.toList());
+        }
+    }
+}
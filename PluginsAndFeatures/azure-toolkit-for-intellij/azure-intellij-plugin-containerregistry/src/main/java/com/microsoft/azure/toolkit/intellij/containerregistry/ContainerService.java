@@ -2,10 +2,12 @@ package com.microsoft.azure.toolkit.intellij.containerregistry;
 
 import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.model.PushResponseItem;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VfsUtil;
 import com.microsoft.azure.toolkit.ide.containerregistry.ContainerRegistryActionsContributor;
 import com.microsoft.azure.toolkit.intellij.connector.dotazure.AzureModule;
 import com.microsoft.azure.toolkit.intellij.container.AzureDockerClient;
+import com.microsoft.azure.toolkit.intellij.container.DockerProgressTracker;
 import com.microsoft.azure.toolkit.intellij.container.model.DockerImage;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.common.action.Action;
@@ -22,6 +24,7 @@ import javax.annotation.Nonnull;
 import java.io.File;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -34,6 +37,13 @@ public class ContainerService {
 
     public String pushDockerImage(@Nonnull final IDockerPushConfiguration configuration) throws InterruptedException {
         final IAzureMessager messager = AzureMessager.getMessager();
+        return pushDockerImage(configuration, messager::info);
+    }
+
+    /**
+     * @param output receives the push log, e.g. to label the lines of concurrent pushes sharing one console.
+     */
+    public String pushDockerImage(@Nonnull final IDockerPushConfiguration configuration, @Nonnull final Consumer<String> output) throws InterruptedException {
         final DockerImage image = Objects.requireNonNull(configuration.getDockerImageConfiguration(), "image is not configured.");
         final ContainerRegistry registry = Objects.requireNonNull(Azure.az(AzureContainerRegistry.class).getById(configuration.getContainerRegistryId()), "registry doesn't exist.");
         if (!registry.isAdminUserEnabled()) {
@@ -56,17 +66,24 @@ public class ContainerService {
             dockerClient.tagImage(image.getImageName(), configuration.getFinalRepositoryName(), configuration.getFinalTagName());
         }
         // push to ACR
-        messager.info(String.format("Pushing to ACR ... [%s] ", loginServerUrl));
+        output.accept(String.format("Pushing to ACR ... [%s] ", loginServerUrl));
+        final DockerProgressTracker tracker = new DockerProgressTracker(snapshot -> output.accept(snapshot.toString()));
         final ResultCallback.Adapter<PushResponseItem> callBack = new ResultCallback.Adapter<>() {
             @Override
             public void onNext(PushResponseItem item) {
-                //noinspection deprecation
-                final String message = Stream.of(item.getStatus(), item.getId(), item.getProgress()).filter(StringUtils::isNoneBlank).collect(Collectors.joining(" "));
-                messager.info(message);
+                // layer progress is coalesced by the tracker, other status (e.g. errors, digest) is printed as is
+                if (!tracker.onNext(item)) {
+                    //noinspection deprecation
+                    final String message = Stream.of(item.getStatus(), item.getId(), item.getProgress()).filter(StringUtils::isNoneBlank).collect(Collectors.joining(" "));
+                    output.accept(message);
+                }
                 super.onNext(item);
             }
         };
         dockerClient.pushImage(Objects.requireNonNull(loginServerUrl), registry.getUserName(), registry.getPrimaryCredential(), imageAndTag, callBack);
+        final DockerProgressTracker.Snapshot summary = tracker.getSnapshot();
+        output.accept(String.format("Pushed %s in %s: %s", imageAndTag, StringUtil.formatDuration(summary.getElapsedMillis()), summary));
+        summary.getLayerSummary().forEach(output);
         return loginServerUrl;
     }
 }
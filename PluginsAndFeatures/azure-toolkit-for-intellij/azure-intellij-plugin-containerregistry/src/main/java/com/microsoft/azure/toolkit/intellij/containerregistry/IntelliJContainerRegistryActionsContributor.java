@@ -11,10 +11,10 @@ import com.github.dockerjava.api.model.Image;
 import com.github.dockerjava.core.DockerClientConfig;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.project.Project;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.ide.containerregistry.ContainerRegistryActionsContributor;
 import com.microsoft.azure.toolkit.intellij.common.TerminalUtils;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.common.fileexplorer.VirtualFileActions;
 import com.microsoft.azure.toolkit.intellij.container.AzureDockerClient;
 import com.microsoft.azure.toolkit.intellij.containerregistry.dockerhost.RunOnDockerHostAction;
@@ -29,10 +29,23 @@ import com.microsoft.azure.toolkit.lib.containerregistry.ContainerRegistry;
 import com.microsoft.azure.toolkit.lib.containerregistry.Tag;
 import lombok.SneakyThrows;
 
+import javax.annotation.Nonnull;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class IntelliJContainerRegistryActionsContributor implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(ContainerRegistryActionsContributor.PULL_IMAGE, ContainerRegistryActionsContributor.INSPECT_IMAGE,
+                ContainerRegistryActionsContributor.LOGIN, ContainerRegistryActionsContributor.LOGOUT,
+                ContainerRegistryActionsContributor.RUN_LOCALLY)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
 
-public class IntelliJContainerRegistryActionsContributor implements IActionsContributor {
     @Override
     public void registerHandlers(AzureActionManager am) {
         am.registerHandler(ContainerRegistryActionsContributor.PULL_IMAGE, IntelliJContainerRegistryActionsContributor::pullImage);
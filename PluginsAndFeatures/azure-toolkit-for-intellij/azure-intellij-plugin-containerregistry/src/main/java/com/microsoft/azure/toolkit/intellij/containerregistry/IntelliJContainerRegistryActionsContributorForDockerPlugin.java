@@ -20,9 +20,9 @@ import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.wm.ToolWindowManager;
 import com.intellij.util.messages.MessageBus;
 import com.intellij.util.messages.MessageBusConnection;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.ide.containerregistry.ContainerRegistryActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.containerregistry.servicesview.AzureContainerRegistryProvider;
 import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
@@ -37,14 +37,21 @@ import org.apache.commons.lang3.StringUtils;
 import javax.annotation.Nonnull;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import static com.microsoft.azure.toolkit.intellij.containerregistry.servicesview.AzureContainerRegistryConfigurator.ENABLE_ADMIN_USER_DOC_LINK;
 
 @SuppressWarnings("UnstableApiUsage")
-public class IntelliJContainerRegistryActionsContributorForDockerPlugin implements IActionsContributor {
+public class IntelliJContainerRegistryActionsContributorForDockerPlugin implements ILazyActionsContributor {
     public static final String NULL_SERVICE_MESSAGE = "Failed to get Docker Registries root in \"Services\" view, please check whether \"Docker\" plugin is correctly installed.";
 
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Set.of(ResourceCommonActionsContributor.OPEN_IN_SERVICES_VIEW.getId());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         am.registerHandler(ResourceCommonActionsContributor.OPEN_IN_SERVICES_VIEW, (r, e) -> r instanceof ContainerRegistry,
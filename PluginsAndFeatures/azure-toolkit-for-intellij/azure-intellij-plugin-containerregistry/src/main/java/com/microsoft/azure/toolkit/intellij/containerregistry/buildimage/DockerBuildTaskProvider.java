@@ -26,6 +26,7 @@ import com.intellij.ui.content.ContentFactory;
 import com.microsoft.azure.toolkit.ide.common.icon.AzureIcons;
 import com.microsoft.azure.toolkit.intellij.common.IntelliJAzureIcons;
 import com.microsoft.azure.toolkit.intellij.container.AzureDockerClient;
+import com.microsoft.azure.toolkit.intellij.container.DockerProgressTracker;
 import com.microsoft.azure.toolkit.intellij.container.model.DockerImage;
 import com.microsoft.azure.toolkit.intellij.containerregistry.IDockerConfiguration;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
@@ -111,10 +112,15 @@ public class DockerBuildTaskProvider extends BeforeRunTaskProvider<DockerBuildTa
         }
 
         private BuildImageResultCallback createBuildImageResultCallback(@Nonnull final ConsoleView consoleView) {
+            final DockerProgressTracker tracker = new DockerProgressTracker(snapshot ->
+                consoleView.print("Pulling base image(s): " + snapshot + System.lineSeparator(), ConsoleViewContentType.SYSTEM_OUTPUT));
             return new BuildImageResultCallback() {
                 @Override
                 public void onNext(BuildResponseItem item) {
                     super.onNext(item);
+                    if (tracker.onNext(item)) {
+                        return;
+                    }
                     final String stream = item.getStream();
                     final String status = item.getStatus();
                     final String id = item.getId();
@@ -125,6 +131,12 @@ public class DockerBuildTaskProvider extends BeforeRunTaskProvider<DockerBuildTa
                     }
                 }
 
+                @Override
+                public void onComplete() {
+                    tracker.getSnapshot().getLayerSummary().forEach(l -> consoleView.print(l + System.lineSeparator(), ConsoleViewContentType.SYSTEM_OUTPUT));
+                    super.onComplete();
+                }
+
                 @Override
                 public void onError(Throwable throwable) {
                     super.onError(throwable);
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.container;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.BuildImageResultCallback;
+import com.github.dockerjava.api.model.PushResponseItem;
+import com.github.dockerjava.core.DefaultDockerClientConfig;
+import com.github.dockerjava.core.DockerClientBuilder;
+import com.github.dockerjava.zerodep.ZerodepDockerHttpClient;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes an image to a local registry, e.g. {@code docker run -d -p 5000:5000 registry:2}, and checks the progress
+ * reported by the tracker. Run with {@code -Dazure.toolkit.docker.integration=true}, the registry is
+ * {@code localhost:5000} unless {@code -Dazure.toolkit.docker.registry} is given.
+ */
+public class DockerProgressTrackerRegistryTest {
+    private static final String INTEGRATION_PROPERTY = "azure.toolkit.docker.integration";
+    private static final String REGISTRY_PROPERTY = "azure.toolkit.docker.registry";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private DockerClient client;
+    private String image;
+
+    @Before
+    public void setUp() throws IOException {
+        Assume.assumeTrue("Run with -D" + INTEGRATION_PROPERTY + "=true", Boolean.getBoolean(INTEGRATION_PROPERTY));
+        final DefaultDockerClientConfig config = DefaultDockerClientConfig.createDefaultConfigBuilder().build();
+        final ZerodepDockerHttpClient httpClient = new ZerodepDockerHttpClient.Builder()
+            .dockerHost(config.getDockerHost())
+            .sslConfig(config.getSSLConfig())
+            .build();
+        this.client = DockerClientBuilder.getInstance(config).withDockerHttpClient(httpClient).build();
+        this.image = String.format("%s/azure-toolkit-test/progress:%s", System.getProperty(REGISTRY_PROPERTY, "localhost:5000"),
+            UUID.randomUUID().toString().substring(0, 8));
+        // a layer of random content, so that the registry doesn't have it yet
+        final File dockerfile = this.temporaryFolder.newFile("Dockerfile");
+        Files.writeString(dockerfile.toPath(), "FROM busybox\nRUN head -c 8388608 /dev/urandom > /random\n");
+        this.client.buildImageCmd()
+            .withDockerfile(dockerfile)
+            .withBaseDirectory(this.temporaryFolder.getRoot())
+            .withTags(Set.of(this.image))
+            .exec(new BuildImageResultCallback())
+            .awaitImageId(5, TimeUnit.MINUTES);
+    }
+
+    @After
+    public void tearDown() {
+        if (this.client != null) {
+            this.client.removeImageCmd(this.image).withForce(true).exec();
+        }
+    }
+
+    @Test
+    public void testPushProgress() throws InterruptedException {
+        final List<DockerProgressTracker.Snapshot> snapshots = new CopyOnWriteArrayList<>();
+        final DockerProgressTracker tracker = push(snapshots);
+
+        final DockerProgressTracker.Snapshot summary = tracker.getSnapshot();
+        Assert.assertFalse(snapshots.isEmpty());
+        Assert.assertEquals(summary.getLayers().size(), summary.getFinishedLayers());
+        // the random layer is pushed, the busybox layer may exist from an earlier run
+        Assert.assertTrue(summary.getLayers().stream().anyMatch(l -> l.getState() == DockerProgressTracker.LayerState.DONE));
+        Assert.assertTrue(summary.getTransferredBytes() > 0);
+        Assert.assertEquals(summary.getTotalBytes(), summary.getTransferredBytes());
+        // a snapshot is only reported if a layer changed since the previous one
+        for (int i = 1; i < snapshots.size(); i++) {
+            Assert.assertNotEquals(describe(snapshots.get(i - 1)), describe(snapshots.get(i)));
+        }
+        for (int i = 1; i < snapshots.size(); i++) {
+            Assert.assertTrue(snapshots.get(i).getElapsedMillis() - snapshots.get(i - 1).getElapsedMillis() >= DockerProgressTracker.DEFAULT_UPDATE_INTERVAL_MS);
+        }
+    }
+
+    @Test
+    public void testPushAgainFindsExistingLayers() throws InterruptedException {
+        push(new CopyOnWriteArrayList<>());
+
+        final DockerProgressTracker tracker = push(new CopyOnWriteArrayList<>());
+
+        final DockerProgressTracker.Snapshot summary = tracker.getSnapshot();
+        Assert.assertFalse(summary.getLayers().isEmpty());
+        Assert.assertEquals(summary.getLayers().size(), summary.getExistingLayers());
+        Assert.assertEquals(0, summary.getTransferredBytes());
+    }
+
+    private DockerProgressTracker push(List<DockerProgressTracker.Snapshot> snapshots) throws InterruptedException {
+        final DockerProgressTracker tracker = new DockerProgressTracker(snapshots::add);
+        final List<String> errors = new CopyOnWriteArrayList<>();
+        this.client.pushImageCmd(this.image).exec(new ResultCallback.Adapter<PushResponseItem>() {
+            @Override
+            public void onNext(PushResponseItem item) {
+                if (item.isErrorIndicated()) {
+                    errors.add(String.valueOf(item.getErrorDetail()));
+                }
+                tracker.onNext(item);
+            }
+        }).awaitCompletion(5, TimeUnit.MINUTES);
+        Assert.assertEquals(List.of(), errors);
+        return tracker;
+    }
+
+    private static String describe(DockerProgressTracker.Snapshot snapshot) {
+        return snapshot.getLayers().stream().map(l -> l.getId() + l.getStatus() + l.getState() + l.getCurrent() + l.getTotal()).toList().toString();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.container;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dockerjava.api.model.PushResponseItem;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds the messages of a docker push to the tracker.
+ */
+public class DockerProgressTrackerTest {
+    private static final String LAYER = "0123456789ab";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final List<DockerProgressTracker.Snapshot> snapshots = new ArrayList<>();
+
+    @Test
+    public void testUnchangedLayerIsNotReported() throws IOException {
+        final DockerProgressTracker tracker = new DockerProgressTracker(this.snapshots::add, 0);
+
+        tracker.onNext(item("Waiting", LAYER, null, null));
+        tracker.onNext(item("Waiting", LAYER, null, null));
+        tracker.onNext(item("Pushing", LAYER, 100L, 1000L));
+        tracker.onNext(item("Pushing", LAYER, 100L, 1000L));
+        tracker.onNext(item("Pushing", LAYER, 600L, 1000L));
+        tracker.onNext(item("Pushed", LAYER, null, null));
+        tracker.onNext(item("Pushed", LAYER, null, null));
+
+        Assert.assertEquals(4, this.snapshots.size());
+        Assert.assertEquals(List.of(0L, 100L, 600L, 1000L), this.snapshots.stream().map(DockerProgressTracker.Snapshot::getTransferredBytes).toList());
+        Assert.assertEquals(1, this.snapshots.get(3).getFinishedLayers());
+    }
+
+    @Test
+    public void testChangesWithinIntervalAreCoalesced() throws IOException {
+        final DockerProgressTracker tracker = new DockerProgressTracker(this.snapshots::add, 60_000);
+
+        for (long current = 100; current <= 1000; current += 100) {
+            tracker.onNext(item("Pushing", LAYER, current, 1000L));
+        }
+
+        Assert.assertEquals(1, this.snapshots.size());
+        Assert.assertEquals(1000L, tracker.getSnapshot().getTransferredBytes());
+    }
+
+    @Test
+    public void testOtherMessagesAreNotConsumed() throws IOException {
+        final DockerProgressTracker tracker = new DockerProgressTracker(this.snapshots::add, 0);
+
+        Assert.assertFalse(tracker.onNext(item("The push refers to repository [localhost:5000/test]", null, null, null)));
+        Assert.assertFalse(tracker.onNext(item("latest: digest: sha256:0123 size: 528", "latest", null, null)));
+        Assert.assertTrue(tracker.onNext(item("Layer already exists", LAYER, null, null)));
+
+        Assert.assertEquals(1, this.snapshots.size());
+        Assert.assertEquals(1, this.snapshots.get(0).getExistingLayers());
+    }
+
+    static PushResponseItem item(String status, String id, Long current, Long total) throws IOException {
+        final StringBuilder json = new StringBuilder("{\"status\":").append(MAPPER.writeValueAsString(status));
+        if (id != null) {
+            json.append(",\"id\":").append(MAPPER.writeValueAsString(id));
+        }
+        if (current != null) {
+            json.append(",\"progressDetail\":{\"current\":").append(current).append(",\"total\":").append(total).append("}");
+        }
+        return MAPPER.readValue(json.append("}").toString(), PushResponseItem.class);
+    }
+}
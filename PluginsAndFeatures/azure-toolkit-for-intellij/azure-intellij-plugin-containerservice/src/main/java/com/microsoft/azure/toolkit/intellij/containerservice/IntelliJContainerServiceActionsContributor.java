@@ -8,9 +8,9 @@ package com.microsoft.azure.toolkit.intellij.containerservice;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.project.Project;
 import com.intellij.util.PlatformUtils;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.ide.containerservice.ContainerServiceActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.common.action.IntellijActionsContributor;
 import com.microsoft.azure.toolkit.intellij.containerservice.actions.DownloadKubuConfigAction;
 import com.microsoft.azure.toolkit.intellij.containerservice.actions.GetKubuCredentialAction;
@@ -26,12 +26,28 @@ import com.microsoft.azure.toolkit.lib.resource.ResourceGroup;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.microsoft.azure.toolkit.intellij.containerservice.creation.CreateKubernetesServiceAction.getDefaultConfig;
 
-public class IntelliJContainerServiceActionsContributor implements IActionsContributor {
+public class IntelliJContainerServiceActionsContributor implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(ResourceCommonActionsContributor.CREATE,
+                ContainerServiceActionsContributor.GROUP_CREATE_KUBERNETES_SERVICE,
+                ContainerServiceActionsContributor.GET_CREDENTIAL_USER,
+                ContainerServiceActionsContributor.GET_CREDENTIAL_ADMIN,
+                ContainerServiceActionsContributor.DOWNLOAD_CONFIG_USER,
+                ContainerServiceActionsContributor.DOWNLOAD_CONFIG_ADMIN,
+                ContainerServiceActionsContributor.OPEN_KUBERNETES_PLUGIN)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiPredicate<Object, AnActionEvent> serviceCondition = (r, e) -> r instanceof AzureContainerService;
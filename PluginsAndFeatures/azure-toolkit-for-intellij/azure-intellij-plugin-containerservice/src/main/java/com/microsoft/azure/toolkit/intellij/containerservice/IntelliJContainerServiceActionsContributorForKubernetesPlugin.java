@@ -6,17 +6,25 @@
 package com.microsoft.azure.toolkit.intellij.containerservice;
 
 import com.intellij.openapi.actionSystem.AnActionEvent;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.containerservice.ContainerServiceActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.lib.containerservice.KubernetesCluster;
 
+import javax.annotation.Nonnull;
+import java.util.Set;
 import java.util.function.BiPredicate;
 
 import static com.microsoft.azure.toolkit.intellij.containerservice.actions.OpenKubernetesPluginAction.selectKubernetesInKubernetesPlugin;
 
-public class IntelliJContainerServiceActionsContributorForKubernetesPlugin implements IActionsContributor {
+public class IntelliJContainerServiceActionsContributorForKubernetesPlugin implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Set.of(ContainerServiceActionsContributor.OPEN_KUBERNETES_PLUGIN.getId());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiPredicate<KubernetesCluster, AnActionEvent> clusterCondition = (r, e) -> r != null;
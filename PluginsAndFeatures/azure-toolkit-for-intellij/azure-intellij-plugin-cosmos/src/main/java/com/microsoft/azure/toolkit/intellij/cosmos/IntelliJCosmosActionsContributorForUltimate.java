@@ -15,8 +15,8 @@ import com.intellij.database.view.ui.DataSourceManagerDialog;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.registry.Registry;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.cosmos.CosmosActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
@@ -24,12 +24,20 @@ import com.microsoft.azure.toolkit.lib.cosmos.CosmosDBAccount;
 import com.microsoft.azure.toolkit.lib.cosmos.cassandra.CassandraCosmosDBAccount;
 import com.microsoft.azure.toolkit.lib.cosmos.mongo.MongoCosmosDBAccount;
 
+import javax.annotation.Nonnull;
+import java.util.Set;
 import java.util.function.BiConsumer;
 
 import static com.microsoft.azure.toolkit.intellij.cosmos.dbtools.AzureCosmosDbAccountParamEditor.KEY_COSMOS_ACCOUNT_ID;
 import static com.microsoft.azure.toolkit.intellij.cosmos.dbtools.AzureCosmosDbAccountParamEditor.KEY_FROM_AZURE_EXPLORER;
 
-public class IntelliJCosmosActionsContributorForUltimate implements IActionsContributor {
+public class IntelliJCosmosActionsContributorForUltimate implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Set.of(CosmosActionsContributor.OPEN_DATABASE_TOOL.getId());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiConsumer<CosmosDBAccount, AnActionEvent> openDatabaseHandler = (c, e) -> {
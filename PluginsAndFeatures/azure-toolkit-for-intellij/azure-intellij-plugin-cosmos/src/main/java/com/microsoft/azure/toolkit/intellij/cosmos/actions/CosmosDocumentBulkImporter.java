@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cosmos.actions;
+
+import com.azure.cosmos.CosmosException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.mongodb.MongoException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Streams documents out of a JSON array or NDJSON (newline delimited JSON) source and inserts them in batches with
+ * bounded concurrency. At most {@code concurrency * batchSize} parsed documents are held in heap at any time.
+ * Request-rate-too-large (429) responses pause all workers for the duration suggested by the service and retry
+ * the throttled document. A cancelled or interrupted import stops reading the source and returns a
+ * {@link Result#isCancelled() cancelled} result.
+ */
+@Slf4j
+public class CosmosDocumentBulkImporter {
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_CONCURRENCY = 4;
+    public static final int MAX_THROTTLE_RETRIES = 10;
+    private static final int MAX_RECORDED_ERRORS = 10;
+    private static final int STATUS_TOO_MANY_REQUESTS = 429;
+    private static final int MONGO_REQUEST_RATE_TOO_LARGE = 16500;
+    private static final Duration DEFAULT_BACKOFF = Duration.ofMillis(500);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+    private static final ObjectReader READER = new ObjectMapper().readerFor(ObjectNode.class);
+
+    private final Consumer<ObjectNode> inserter;
+    private final int batchSize;
+    private final int concurrency;
+    private final AtomicLong pausedUntil = new AtomicLong();
+
+    public CosmosDocumentBulkImporter(@Nonnull Consumer<ObjectNode> inserter) {
+        this(inserter, DEFAULT_BATCH_SIZE, DEFAULT_CONCURRENCY);
+    }
+
+    public CosmosDocumentBulkImporter(@Nonnull Consumer<ObjectNode> inserter, int batchSize, int concurrency) {
+        this.inserter = inserter;
+        this.batchSize = Math.max(1, batchSize);
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * @param cancelled checked between batches, import stops (without rolling back inserted documents) once it returns true,
+     *                  and the result is marked as cancelled
+     * @param listener  notified after every finished batch with the running result
+     */
+    @Nonnull
+    public Result importDocuments(@Nonnull InputStream source, @Nonnull BooleanSupplier cancelled, @Nonnull Consumer<Result> listener) throws IOException {
+        final Result result = new Result();
+        final Semaphore permits = new Semaphore(this.concurrency);
+        final ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("Cosmos Document Import", this.concurrency);
+        final AtomicReference<Throwable> fatal = new AtomicReference<>();
+        try (final MappingIterator<ObjectNode> documents = READER.readValues(source)) {
+            while (documents.hasNextValue() && Objects.isNull(fatal.get())) {
+                if (cancelled.getAsBoolean()) {
+                    result.cancelled = true;
+                    break;
+                }
+                final List<ObjectNode> batch = new ArrayList<>(this.batchSize);
+                while (batch.size() < this.batchSize && documents.hasNextValue()) {
+                    batch.add(documents.nextValue());
+                }
+                permits.acquire();
+                executor.execute(() -> {
+                    try {
+                        batch.forEach(d -> this.insert(d, result));
+                        listener.accept(result);
+                    } catch (final Throwable t) {
+                        fatal.compareAndSet(null, t);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+            permits.acquire(this.concurrency);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancelled = true;
+        } finally {
+            executor.shutdownNow();
+            result.finish();
+        }
+        if (Objects.nonNull(fatal.get())) {
+            throw new IOException(fatal.get());
+        }
+        return result;
+    }
+
+    private void insert(@Nonnull ObjectNode document, @Nonnull Result result) {
+        for (int attempt = 0; ; attempt++) {
+            this.awaitPause();
+            try {
+                this.inserter.accept(document);
+                result.imported.incrementAndGet();
+                return;
+            } catch (final RuntimeException e) {
+                final Duration retryAfter = getThrottleRetryAfter(e);
+                if (Objects.isNull(retryAfter) || attempt >= MAX_THROTTLE_RETRIES) {
+                    result.fail(document, e);
+                    return;
+                }
+                result.throttled.incrementAndGet();
+                final Duration backoff = retryAfter.isZero() ? DEFAULT_BACKOFF.multipliedBy(1L << Math.min(attempt, 6)) : retryAfter;
+                final long until = System.currentTimeMillis() + Math.min(backoff.toMillis(), MAX_BACKOFF.toMillis());
+                this.pausedUntil.accumulateAndGet(until, Math::max);
+            }
+        }
+    }
+
+    private void awaitPause() {
+        long wait;
+        while ((wait = this.pausedUntil.get() - System.currentTimeMillis()) > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(wait);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the suggested back-off if {@code e} is caused by request throttling (SQL API status 429, or
+     * MongoDB API error 16500), {@link Duration#ZERO} if no back-off is suggested, and {@code null} otherwise.
+     */
+    private static Duration getThrottleRetryAfter(@Nonnull Throwable e) {
+        for (final Throwable cause : ExceptionUtils.getThrowableList(e)) {
+            if (cause instanceof CosmosException && ((CosmosException) cause).getStatusCode() == STATUS_TOO_MANY_REQUESTS) {
+                final Duration retryAfter = ((CosmosException) cause).getRetryAfterDuration();
+                return Objects.isNull(retryAfter) ? Duration.ZERO : retryAfter;
+            }
+            if (cause instanceof MongoException && ((MongoException) cause).getCode() == MONGO_REQUEST_RATE_TOO_LARGE) {
+                return Duration.ZERO;
+            }
+        }
+        return null;
+    }
+
+    @Getter
+    public static class Result {
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong throttled = new AtomicLong();
+        private final List<String> errors = new ArrayList<>();
+        private final long startTime = System.currentTimeMillis();
+        private volatile long endTime = -1;
+        private volatile boolean cancelled;
+
+        private void fail(@Nonnull ObjectNode document, @Nonnull Throwable e) {
+            this.failed.incrementAndGet();
+            synchronized (this.errors) {
+                if (this.errors.size() < MAX_RECORDED_ERRORS) {
+                    final String id = document.hasNonNull("id") ? document.get("id").asText() : "<no id>";
+                    this.errors.add(String.format("%s: %s", id, ExceptionUtils.getRootCauseMessage(e)));
+                }
+            }
+            log.debug("failed to import document", e);
+        }
+
+        private void finish() {
+            this.endTime = System.currentTimeMillis();
+        }
+
+        public long getElapsedMillis() {
+            return (this.endTime > 0 ? this.endTime : System.currentTimeMillis()) - this.startTime;
+        }
+
+        public double getDocumentsPerSecond() {
+            return this.imported.get() * 1000.0 / Math.max(1, this.getElapsedMillis());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d document(s) imported, %d failed, %d throttled request(s), %.1f documents/s in %.1fs%s",
+                this.imported.get(), this.failed.get(), this.throttled.get(), this.getDocumentsPerSecond(), this.getElapsedMillis() / 1000.0,
+                this.cancelled ? " (cancelled)" : "");
+        }
+    }
+}
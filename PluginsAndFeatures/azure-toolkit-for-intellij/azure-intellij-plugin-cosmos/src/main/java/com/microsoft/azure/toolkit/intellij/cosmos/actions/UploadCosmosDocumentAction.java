@@ -3,31 +3,47 @@ package com.microsoft.azure.toolkit.intellij.cosmos.actions;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.intellij.openapi.fileChooser.FileChooserDescriptor;
-import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
 import com.intellij.openapi.fileChooser.FileChooserDialog;
 import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.common.task.AzureTask;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.lib.cosmos.ICosmosDocument;
 import com.microsoft.azure.toolkit.lib.cosmos.ICosmosDocumentContainer;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Set;
 
 public class UploadCosmosDocumentAction {
+    private static final Set<String> BULK_EXTENSIONS = Set.of("ndjson", "jsonl");
+
     public static void importDocument(@Nonnull ICosmosDocumentContainer<?> container, @Nonnull Project project) {
-        final FileChooserDescriptor json = FileChooserDescriptorFactory.createSingleFileDescriptor("json");
-        json.setTitle("Select the document to import");
+        final FileChooserDescriptor json = new FileChooserDescriptor(true, false, false, false, false, false)
+            .withFileFilter(file -> StringUtils.equalsAnyIgnoreCase(file.getExtension(), "json", "ndjson", "jsonl"));
+        json.setTitle("Select the document(s) to import");
+        json.setDescription("A JSON document, a JSON array of documents or a newline delimited JSON (.ndjson/.jsonl) file");
         final VirtualFile[] virtualFiles = AzureTaskManager.getInstance().runLater(() -> {
             final FileChooserDialog fileChooser = FileChooserFactory.getInstance().createFileChooser(json, project, null);
             return fileChooser.choose(project, LocalFileSystem.getInstance().findFileByPath(System.getProperty("user.home")));
         }).join();
         if (virtualFiles != null && virtualFiles.length > 0) {
-            try (final InputStream stream = virtualFiles[0].getInputStream()) {
+            final VirtualFile file = virtualFiles[0];
+            if (isBulkFile(file)) {
+                bulkImportDocuments(container, file, project);
+                return;
+            }
+            try (final InputStream stream = file.getInputStream()) {
                 final ObjectNode jsonNodes = new ObjectMapper().readValue(stream, ObjectNode.class);
                 final ICosmosDocument sqlDocument = container.importDocument(jsonNodes);
             } catch (IOException e) {
@@ -35,4 +51,49 @@ public class UploadCosmosDocumentAction {
             }
         }
     }
+
+    private static void bulkImportDocuments(@Nonnull ICosmosDocumentContainer<?> container, @Nonnull VirtualFile file, @Nonnull Project project) {
+        final AzureString title = AzureString.format("import documents from %s into %s", file.getName(), container.getName());
+        final AzureTask<Void> task = new AzureTask<>(project, title, true, () -> {
+            final ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+            indicator.setIndeterminate(false);
+            final CosmosDocumentBulkImporter importer = new CosmosDocumentBulkImporter(container::importDocument);
+            try (final CountingInputStream stream = new CountingInputStream(new BufferedInputStream(file.getInputStream()))) {
+                final long total = Math.max(1, file.getLength());
+                final CosmosDocumentBulkImporter.Result result = importer.importDocuments(stream, indicator::isCanceled, r -> {
+                    indicator.setFraction((double) stream.getByteCount() / total);
+                    indicator.setText2(r.toString());
+                });
+                final String summary = String.format("%s from file \"%s\" into \"%s\".", result, file.getName(), container.getName());
+                if (result.getFailed().get() > 0) {
+                    AzureMessager.getMessager().warning(AzureString.format("%s First errors:\n%s", summary, String.join("\n", result.getErrors())));
+                } else if (result.isCancelled()) {
+                    AzureMessager.getMessager().warning(AzureString.fromString(summary));
+                } else {
+                    AzureMessager.getMessager().success(AzureString.fromString(summary));
+                }
+            } catch (final IOException e) {
+                AzureMessager.getMessager().error(e);
+            }
+        });
+        AzureTaskManager.getInstance().runInBackground(task);
+    }
+
+    /**
+     * a file is imported in bulk if it is NDJSON or its first JSON token is an array.
+     */
+    private static boolean isBulkFile(@Nonnull VirtualFile file) {
+        if (BULK_EXTENSIONS.contains(StringUtils.lowerCase(file.getExtension()))) {
+            return true;
+        }
+        try (final InputStream stream = new BufferedInputStream(file.getInputStream())) {
+            int c;
+            while ((c = stream.read()) != -1 && Character.isWhitespace(c)) {
+                // skip leading whitespaces
+            }
+            return c == '[';
+        } catch (final IOException e) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cosmos.actions;
+
+import com.azure.cosmos.CosmosException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mongodb.MongoException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Imports documents by an inserter which fails or throttles some of them.
+ */
+public class CosmosDocumentBulkImporterTest {
+    /**
+     * the attempts of every document id, in milliseconds since the epoch
+     */
+    private final Map<String, List<Long>> attempts = new ConcurrentHashMap<>();
+
+    @Test
+    public void testThrottledDocumentIsRetriedAfterSuggestedBackOff() throws IOException {
+        final CosmosException throttled = cosmosException(429, Duration.ofMillis(300));
+        final CosmosDocumentBulkImporter importer = new CosmosDocumentBulkImporter(inserter(id -> {
+            if (id.equals("2") && this.attempts.get(id).size() == 1) {
+                throw throttled;
+            }
+        }), 2, 2);
+
+        final CosmosDocumentBulkImporter.Result result = importer.importDocuments(ndjson(5), () -> false, r -> {
+        });
+
+        Assert.assertEquals(5, result.getImported().get());
+        Assert.assertEquals(0, result.getFailed().get());
+        Assert.assertEquals(1, result.getThrottled().get());
+        Assert.assertFalse(result.isCancelled());
+        final List<Long> retried = this.attempts.get("2");
+        Assert.assertEquals(2, retried.size());
+        Assert.assertTrue(retried.get(1) - retried.get(0) >= 300);
+    }
+
+    @Test
+    public void testMongoRequestRateTooLargeIsRetried() throws IOException {
+        final CosmosDocumentBulkImporter importer = new CosmosDocumentBulkImporter(inserter(id -> {
+            if (id.equals("1") && this.attempts.get(id).size() == 1) {
+                throw new MongoException(16500, "Request rate is large");
+            }
+        }), 10, 1);
+
+        final CosmosDocumentBulkImporter.Result result = importer.importDocuments(ndjson(3), () -> false, r -> {
+        });
+
+        Assert.assertEquals(3, result.getImported().get());
+        Assert.assertEquals(1, result.getThrottled().get());
+        Assert.assertEquals(2, this.attempts.get("1").size());
+    }
+
+    @Test
+    public void testErrorMentioningThrottlingCodeIsNotRetried() throws IOException {
+        final CosmosDocumentBulkImporter importer = new CosmosDocumentBulkImporter(inserter(id -> {
+            if (id.equals("1")) {
+                throw new MongoException(11000, "E11000 duplicate key error, dup key: { _id: \"16500\" }");
+            }
+            if (id.equals("2")) {
+                throw cosmosException(409, null);
+            }
+        }), 10, 1);
+
+        final CosmosDocumentBulkImporter.Result result = importer.importDocuments(ndjson(3), () -> false, r -> {
+        });
+
+        Assert.assertEquals(1, result.getImported().get());
+        Assert.assertEquals(2, result.getFailed().get());
+        Assert.assertEquals(0, result.getThrottled().get());
+        Assert.assertEquals(1, this.attempts.get("1").size());
+        Assert.assertEquals(1, this.attempts.get("2").size());
+    }
+
+    @Test
+    public void testThrottlingGivesUpAfterMaxRetries() throws IOException {
+        final CosmosException throttled = cosmosException(429, Duration.ofMillis(1));
+        final CosmosDocumentBulkImporter importer = new CosmosDocumentBulkImporter(inserter(id -> {
+            if (id.equals("0")) {
+                throw throttled;
+            }
+        }), 10, 1);
+
+        final CosmosDocumentBulkImporter.Result result = importer.importDocuments(ndjson(2), () -> false, r -> {
+        });
+
+        Assert.assertEquals(1, result.getImported().get());
+        Assert.assertEquals(1, result.getFailed().get());
+        Assert.assertEquals(CosmosDocumentBulkImporter.MAX_THROTTLE_RETRIES, result.getThrottled().get());
+        Assert.assertEquals(CosmosDocumentBulkImporter.MAX_THROTTLE_RETRIES + 1, this.attempts.get("0").size());
+    }
+
+    @Test
+    public void testPartialFailureIsCounted() throws IOException {
+        final CosmosDocumentBulkImporter importer = new CosmosDocumentBulkImporter(inserter(id -> {
+            if (Integer.parseInt(id) % 2 == 0) {
+                throw new IllegalArgumentException("invalid document " + id);
+            }
+        }), 3, 4);
+        final String array = IntStream.range(0, 20).mapToObj(i -> "{\"id\":\"" + i + "\"}").collect(Collectors.joining(",", "[", "]"));
+
+        final CosmosDocumentBulkImporter.Result result = importer.importDocuments(stream(array), () -> false, r -> {
+        });
+
+        Assert.assertEquals(10, result.getImported().get());
+        Assert.assertEquals(10, result.getFailed().get());
+        Assert.assertEquals(10, result.getErrors().size());
+        Assert.assertTrue(result.getErrors().stream().allMatch(e -> e.contains("invalid document")));
+        Assert.assertEquals(20, this.attempts.size());
+    }
+
+    @Test
+    public void testCancelledImportIsReportedAsCancelled() throws IOException {
+        final AtomicInteger batches = new AtomicInteger();
+        final CosmosDocumentBulkImporter importer = new CosmosDocumentBulkImporter(inserter(id -> {
+        }), 10, 1);
+
+        final CosmosDocumentBulkImporter.Result result = importer.importDocuments(ndjson(100), () -> batches.get() >= 2, r -> batches.incrementAndGet());
+
+        Assert.assertTrue(result.isCancelled());
+        Assert.assertTrue(result.getImported().get() < 100);
+        Assert.assertEquals(result.getImported().get(), this.attempts.size());
+        Assert.assertTrue(result.toString().endsWith("(cancelled)"));
+    }
+
+    @Test
+    public void testInterruptedImportIsReportedAsCancelled() throws IOException {
+        final CosmosDocumentBulkImporter importer = new CosmosDocumentBulkImporter(inserter(id -> {
+        }), 10, 1);
+
+        Thread.currentThread().interrupt();
+        try {
+            final CosmosDocumentBulkImporter.Result result = importer.importDocuments(ndjson(100), () -> false, r -> {
+            });
+
+            Assert.assertTrue(result.isCancelled());
+            Assert.assertTrue(result.getImported().get() < 100);
+        } finally {
+            Assert.assertTrue(Thread.interrupted());
+        }
+    }
+
+    private Consumer<ObjectNode> inserter(@Nonnull Consumer<String> insert) {
+        return document -> {
+            final String id = document.get("id").asText();
+            this.attempts.computeIfAbsent(id, k -> new CopyOnWriteArrayList<>()).add(System.currentTimeMillis());
+            insert.accept(id);
+        };
+    }
+
+    private static CosmosException cosmosException(int statusCode, Duration retryAfter) {
+        final CosmosException e = Mockito.mock(CosmosException.class);
+        Mockito.when(e.getStatusCode()).thenReturn(statusCode);
+        Mockito.when(e.getRetryAfterDuration()).thenReturn(retryAfter);
+        return e;
+    }
+
+    private static InputStream ndjson(int count) {
+        return stream(IntStream.range(0, count).mapToObj(i -> "{\"id\":\"" + i + "\",\"value\":" + i + "}").collect(Collectors.joining("\n")));
+    }
+
+    private static InputStream stream(@Nonnull String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
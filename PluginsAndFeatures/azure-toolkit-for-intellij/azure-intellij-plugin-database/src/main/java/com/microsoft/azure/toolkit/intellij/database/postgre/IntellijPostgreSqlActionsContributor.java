@@ -9,9 +9,9 @@ import com.intellij.ide.plugins.PluginManagerCore;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.extensions.PluginId;
 import com.intellij.openapi.project.Project;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.ide.database.postgre.PostgreSqlActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.common.action.IntellijActionsContributor;
 import com.microsoft.azure.toolkit.intellij.connector.ConnectorDialog;
 import com.microsoft.azure.toolkit.intellij.database.connection.SqlDatabaseResource;
@@ -30,13 +30,24 @@ import com.microsoft.azure.toolkit.lib.postgre.PostgreSqlServer;
 import com.microsoft.azure.toolkit.lib.resource.ResourceGroup;
 
 import javax.annotation.Nonnull;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-public class IntellijPostgreSqlActionsContributor implements IActionsContributor {
+public class IntellijPostgreSqlActionsContributor implements ILazyActionsContributor {
     private static final String NAME_PREFIX = "PostgreSQL - %s";
     private static final String DEFAULT_DRIVER_CLASS_NAME = "org.postgresql.Driver";
 
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(ResourceCommonActionsContributor.CREATE, ResourceCommonActionsContributor.CONNECT,
+                PostgreSqlActionsContributor.GROUP_CREATE_POSTGRE, PostgreSqlActionsContributor.OPEN_DATABASE_TOOL)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiPredicate<Object, AnActionEvent> condition = (r, e) -> r instanceof AzurePostgreSql;
@@ -2,7 +2,7 @@ package com.microsoft.azure.toolkit.intellij.eventhubs;
 
 import com.azure.resourcemanager.eventhubs.models.EntityStatus;
 import com.intellij.openapi.actionSystem.AnActionEvent;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
@@ -19,11 +19,28 @@ import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.lib.eventhubs.EventHubsInstance;
 import com.microsoft.azure.toolkit.lib.eventhubs.EventHubsNamespace;
 
+import javax.annotation.Nonnull;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
-public class IntellijEventHubsActionsContributor implements IActionsContributor {
+public class IntellijEventHubsActionsContributor implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(EventHubsActionsContributor.ACTIVE_INSTANCE, EventHubsActionsContributor.DISABLE_INSTANCE,
+                EventHubsActionsContributor.SEND_DISABLE_INSTANCE, EventHubsActionsContributor.SEND_MESSAGE_INSTANCE,
+                EventHubsActionsContributor.START_LISTENING_INSTANCE,
+                EventHubsActionsContributor.STOP_LISTENING_INSTANCE,
+                EventHubsActionsContributor.COPY_CONNECTION_STRING,
+                EventHubsActionsContributor.GROUP_CREATE_EVENT_HUBS,
+                EventHubsActionsContributor.COPY_CONNECTION_STRING_NAMESPACE)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         registerActiveActionHandler(am);
@@ -6,13 +6,21 @@
 package com.microsoft.azure.toolkit.ide.guidance;
 
 import com.intellij.openapi.actionSystem.AnActionEvent;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 
+import javax.annotation.Nonnull;
 import java.util.Objects;
+import java.util.Set;
 
-public class IntelliJGuidanceActionsContributor implements IActionsContributor {
+public class IntelliJGuidanceActionsContributor implements ILazyActionsContributor {
+
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Set.of(ResourceCommonActionsContributor.SHOW_COURSES.getId());
+    }
 
     @Override
     public void registerHandlers(AzureActionManager am) {
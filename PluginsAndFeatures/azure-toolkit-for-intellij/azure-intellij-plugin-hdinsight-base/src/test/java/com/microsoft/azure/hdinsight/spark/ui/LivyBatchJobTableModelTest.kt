@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.spark.ui
+
+import com.microsoft.azure.hdinsight.spark.ui.livy.batch.LivyBatchJobTableModel
+import com.microsoft.azure.hdinsight.spark.ui.livy.batch.LivyBatchJobTableModel.JobPage
+import com.microsoft.azure.hdinsight.spark.ui.livy.batch.LivyBatchJobTableModel.JobPagedList
+import com.microsoft.azure.hdinsight.spark.ui.livy.batch.UniqueColumnNameTableSchema
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import rx.schedulers.Schedulers
+import javax.swing.event.TableModelEvent
+
+/**
+ * Pages through the 3 pages of 4 jobs of [getJobListPage], with the pages fetched again and the jobs refreshed in the
+ * calling thread.
+ */
+class LivyBatchJobTableModelTest {
+    private val fetched = mutableListOf<String?>()
+    private val events = mutableListOf<Triple<Int, Int, Int>>()
+
+    private fun createModel(maxCachedPages: Int = JobPagedList.DEFAULT_MAX_CACHED_PAGES,
+                            fetch: (String?) -> JobPage? = ::getJobListPage): LivyBatchJobTableModel {
+        val pagedJobs = JobPagedList(maxCachedPages, Schedulers.immediate(), Schedulers.immediate()).apply {
+            fetchNextPage = { link -> fetched.add(link); fetch(link) }
+            jobIdOf = { it[idColName] }
+        }
+
+        return LivyBatchJobTableModel(tableSchema, pagedJobs).apply {
+            addTableModelListener { events.add(Triple(it.type, it.firstRow, it.lastRow)) }
+            pagedJobs.firstJobPage = getJobListPage("http://page1")
+        }
+    }
+
+    private fun LivyBatchJobTableModel.idAt(row: Int): Any? = getJobDescriptor(row)[idColName]
+
+    private fun LivyBatchJobTableModel.stateAt(row: Int): Any? = getJobDescriptor(row)[stateColName]
+
+    private fun job(id: Int, state: String): UniqueColumnNameTableSchema.RowDescriptor =
+            tableSchema.MockSparkJobDescriptor(parseJSON("""{"id": $id, "state": "$state"}"""))
+
+    @Test
+    fun testNextPagesAreAppended() {
+        val model = createModel()
+
+        assertThat(model.rowCount).isEqualTo(4)
+        model.loadNextPage()
+        model.loadNextPage()
+        model.loadNextPage()
+
+        assertThat(model.rowCount).isEqualTo(12)
+        assertThat(model.pagedJobs.hasNextPage()).isFalse()
+        assertThat((0 until 12).map { model.idAt(it) }).isEqualTo((1..12).toList())
+        assertThat(fetched).containsExactly("http://page2", "http://page3")
+        assertThat(events).containsExactly(
+                Triple(TableModelEvent.INSERT, 4, 7),
+                Triple(TableModelEvent.INSERT, 8, 11))
+    }
+
+    @Test
+    fun testEvictedPageIsFetchedAgain() {
+        val model = createModel(maxCachedPages = 1)
+        model.loadNextPage()
+        model.loadNextPage()
+        events.clear()
+
+        // The first page is always kept, the 2nd page is evicted by the 3rd one
+        assertThat(model.idAt(0)).isEqualTo(1)
+        assertThat(model.idAt(8)).isEqualTo(9)
+        assertThat(fetched).containsExactly("http://page2", "http://page3")
+
+        // A placeholder is shown until the page is fetched again
+        assertThat(model.idAt(4)).isNull()
+        assertThat(fetched).containsExactly("http://page2", "http://page3", "http://page2")
+        assertThat(events).containsExactly(Triple(TableModelEvent.UPDATE, 4, 7))
+        assertThat((4..7).map { model.idAt(it) }).isEqualTo(listOf(5, 6, 7, 8))
+
+        // Which evicts the 3rd page in turn
+        assertThat(model.idAt(8)).isNull()
+        assertThat(fetched.last()).isEqualTo("http://page3")
+        assertThat(model.idAt(8)).isEqualTo(9)
+    }
+
+    @Test
+    fun testRunningJobsAreRefreshed() {
+        val model = createModel()
+        model.loadNextPage()
+        model.loadNextPage()
+        events.clear()
+        val polled = mutableListOf<Any?>()
+
+        val updated = model.refreshJobs(
+                2..9,
+                { it[stateColName] != "running" },
+                { polled.add(it[idColName]); job(it[idColName] as Int, "success") },
+                4)
+                .toList().toBlocking().single()
+
+        // The running job 1 is out of the rows, the others except 5 and 9 are terminated
+        assertThat(polled).containsExactly(5, 9)
+        assertThat(updated).containsExactly(4, 8)
+        assertThat(model.stateAt(4)).isEqualTo("success")
+        assertThat(model.stateAt(8)).isEqualTo("success")
+        assertThat(model.stateAt(0)).isEqualTo("running")
+        assertThat(events).containsExactly(
+                Triple(TableModelEvent.UPDATE, 4, 4),
+                Triple(TableModelEvent.UPDATE, 8, 8))
+    }
+
+    @Test
+    fun testFailedOrEmptyRefreshKeepsJob() {
+        val model = createModel()
+
+        val updated = model.refreshJobs(
+                0..3,
+                { false },
+                { if (it[idColName] == 1) throw IllegalStateException("service unavailable") else null },
+                4)
+                .toList().toBlocking().single()
+
+        assertThat(updated).isEmpty()
+        assertThat(model.stateAt(0)).isEqualTo("running")
+        assertThat(events).isEmpty()
+    }
+
+    @Test
+    fun testRefreshedJobIsUpdatedInItsCurrentRow() {
+        var reversed = false
+        // The jobs of the 2nd page are listed in reversed order when it's fetched again
+        val model = createModel(maxCachedPages = 1) { link ->
+            val page = getJobListPage(link)
+
+            if (link == "http://page2" && reversed) {
+                object : JobPage {
+                    override fun nextPageLink(): String? = page?.nextPageLink()
+
+                    override fun items(): List<UniqueColumnNameTableSchema.RowDescriptor>? = page?.items()?.reversed()
+                }
+            } else {
+                page
+            }
+        }
+        model.loadNextPage()
+        val job5 = model.getJobDescriptor(4)
+        model.loadNextPage()
+        val job9 = model.getJobDescriptor(8)
+        reversed = true
+        model.getJobDescriptor(4)
+        events.clear()
+
+        assertThat((4..7).map { model.idAt(it) }).isEqualTo(listOf(8, 7, 6, 5))
+        assertThat(model.updateJob(job5, job(5, "success"))).isEqualTo(7)
+        assertThat(model.stateAt(7)).isEqualTo("success")
+        assertThat(model.idAt(4)).isEqualTo(8)
+        assertThat(events).containsExactly(Triple(TableModelEvent.UPDATE, 7, 7))
+
+        // The 3rd page is evicted by the 2nd one fetched again, so the job 9 isn't updated
+        assertThat(model.updateJob(job9, job(9, "success"))).isEqualTo(-1)
+        assertThat(events).hasSize(1)
+    }
+
+    @Test
+    fun testResetDropsFetchedPages() {
+        val model = createModel()
+        model.loadNextPage()
+        model.loadNextPage()
+
+        model.pagedJobs.firstJobPage = getJobListPage("http://page1")
+
+        assertThat(model.rowCount).isEqualTo(4)
+        assertThat(model.pagedJobs.hasNextPage()).isTrue()
+        assertThat(model.updateJob(job(9, "running"), job(9, "success"))).isEqualTo(-1)
+    }
+}
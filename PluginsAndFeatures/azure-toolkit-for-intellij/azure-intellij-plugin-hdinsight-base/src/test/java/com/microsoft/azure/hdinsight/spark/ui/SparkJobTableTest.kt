@@ -108,7 +108,8 @@ class MockSparkBatchJobViewer : LivyBatchJobViewer() {
     override val jobViewerControl: Control by lazy { MockSparkBatchJobViewerControl(this@MockSparkBatchJobViewer) }
 }
 
-val jobView = MockSparkBatchJobViewer()
+// Created on use, since the viewer needs the IDE application while the pages below needn't
+val jobView by lazy { MockSparkBatchJobViewer() }
 val tableSchema = MockSparkLivyJobsTableSchema()
 
 fun parseJSON(json: String): SparkSubmitResponse {
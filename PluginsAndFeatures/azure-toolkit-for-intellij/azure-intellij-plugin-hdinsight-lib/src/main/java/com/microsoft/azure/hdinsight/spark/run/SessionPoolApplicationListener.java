@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.run;
+
+import com.intellij.ide.AppLifecycleListener;
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.SessionPool;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kills the warm Livy sessions of {@link SessionPool} when the IDE closes, so that they don't hold cluster resources
+ * until Livy's session timeout.
+ */
+public class SessionPoolApplicationListener implements AppLifecycleListener {
+    // closing the IDE waits for the kill requests, don't hold it for long on an unreachable cluster
+    private static final long KILL_TIMEOUT_SECONDS = 3;
+
+    @Override
+    public void appWillBeClosed(boolean isRestart) {
+        SessionPool.getInstance().killAll(KILL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+}
@@ -62,7 +62,7 @@ public class SparkBatchJobRunProcessHandler extends BaseProcessHandler<SparkBatc
                             new SparkSimpleLogStreamReader(SparkBatchJobRunProcessHandler.this,
                                                                 myProcess.getInputStream(),
                                                                 STDOUT);
-                    final BaseOutputReader stderrReader =
+                    final SparkDriverLogStreamReader stderrReader =
                             new SparkDriverLogStreamReader(SparkBatchJobRunProcessHandler.this,
                                                            myProcess.getErrorStream(),
                                                            SPARK_DRIVER_STDERR);
@@ -74,6 +74,9 @@ public class SparkBatchJobRunProcessHandler extends BaseProcessHandler<SparkBatc
                                 stdoutReader.waitFor();
                             }
                             catch (final InterruptedException ignore) { }
+                            finally {
+                                stderrReader.flushBatchedLines();
+                            }
                         }
                         finally {
                             onOSProcessTerminated(exitCode);
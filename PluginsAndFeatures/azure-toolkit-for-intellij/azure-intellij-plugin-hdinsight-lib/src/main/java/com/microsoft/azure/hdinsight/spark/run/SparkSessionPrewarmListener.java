@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.run;
+
+import com.intellij.execution.RunManagerListener;
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.microsoft.azure.hdinsight.common.ClusterManagerEx;
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
+import com.microsoft.azure.hdinsight.sdk.cluster.LivyCluster;
+import com.microsoft.azure.hdinsight.sdk.cluster.MfaEspCluster;
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.SessionPool;
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.SparkSession;
+import com.microsoft.azure.hdinsight.spark.run.configuration.LivySparkBatchJobRunConfiguration;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.Nullable;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Pre-creates a Livy interactive session in {@link SessionPool} for the cluster of the selected Spark run configuration,
+ * so that the helper upload session and the console started from it could skip the YARN cold start.
+ */
+public class SparkSessionPrewarmListener implements RunManagerListener, ILogger {
+    @Override
+    public void runConfigurationSelected(@Nullable final RunnerAndConfigurationSettings settings) {
+        if (settings == null || !(settings.getConfiguration() instanceof LivySparkBatchJobRunConfiguration)
+                || !SessionPool.getInstance().isEnabled()) {
+            return;
+        }
+
+        final LivySparkBatchJobRunConfiguration configuration = (LivySparkBatchJobRunConfiguration) settings.getConfiguration();
+        final String clusterName = configuration.getSubmitModel().getSubmissionParameter().getClusterName();
+        if (StringUtils.isBlank(clusterName)) {
+            return;
+        }
+
+        Observable.fromCallable(() -> ClusterManagerEx.getInstance().getClusterDetailByName(clusterName).orElse(null))
+                  .subscribeOn(Schedulers.io())
+                  .filter(cluster -> cluster instanceof LivyCluster && !(cluster instanceof MfaEspCluster))
+                  .subscribe(this::prewarm,
+                             err -> log().debug("Skip pre-warming Livy session for cluster " + clusterName + ": " + err));
+    }
+
+    private void prewarm(final IClusterDetail cluster) {
+        try {
+            final URI livyUri = URI.create(((LivyCluster) cluster).getLivyConnectionUrl());
+            // Livy rejects duplicated session names
+            final String name = "Warm session " + UUID.randomUUID().toString().substring(0, 8) + " for " + cluster.getName();
+            final SparkSession template = new SparkSession(name, livyUri, cluster.getHttpUserName(), cluster.getHttpPassword());
+
+            SessionPool.getInstance().prewarm(template);
+        } catch (Exception ex) {
+            log().debug("Skip pre-warming Livy session for cluster " + cluster.getName() + ": " + ex);
+        }
+    }
+}
@@ -34,6 +34,7 @@ import com.microsoft.azure.hdinsight.spark.ui.SparkBatchJobConfigurable;
 import com.microsoft.azure.hdinsight.spark.ui.SparkSubmissionJobUploadStorageWithUploadPathPanel;
 import com.microsoft.azure.toolkit.ide.common.store.AzureStoreManager;
 import com.microsoft.azure.toolkit.ide.common.store.ISecureStore;
+import com.microsoft.azure.toolkit.intellij.common.auth.IntelliJSecureStore;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import com.microsoft.azuretools.telemetry.TelemetryConstants;
@@ -50,6 +51,7 @@ import rx.Observable;
 //import javax.ws.rs.core.Application;
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -120,48 +122,70 @@ public class LivySparkBatchJobRunConfiguration extends ModuleBasedConfiguration<
 
         // SSH password
         final SparkSubmitAdvancedConfigModel advModel = toSubmitModel.getAdvancedConfigModel();
+        // Artifacts uploading storage credentials
+        final SparkSubmitJobUploadStorageModel storeModel = toSubmitModel.getJobUploadStorageModel();
 
+        // start loading all the credentials before waiting for any of them, so that they are read concurrently
+        CompletableFuture<String> sshPassword = null;
         if (advModel.enableRemoteDebug && advModel.getSshAuthType() == UsePassword) {
-            // Load password for no password input
-            try {
-                advModel.setClusterName(toSubmitModel.getClusterName());
-                advModel.setSshPassword(
-                        secureStore.loadPassword(advModel.getCredentialStoreAccount(), null, advModel.getSshUserName()));
-            } catch (final Throwable ex) {
-                log().warn("Can't load SSH ${advModel.sshUserName}'s password from Secure Store", ex);
-            }
+            advModel.setClusterName(toSubmitModel.getClusterName());
+            sshPassword = loadPasswordAsync(advModel.getCredentialStoreAccount(), advModel.getSshUserName());
         }
 
-        // Artifacts uploading storage credentials
-        final SparkSubmitJobUploadStorageModel storeModel = toSubmitModel.getJobUploadStorageModel();
-
         // Blob access key
+        CompletableFuture<String> blobKey = null;
         final String blobSecAccount = storeModel.getStorageAccount();
         if (blobSecAccount != null && StringUtils.isNoneBlank(blobSecAccount)) {
             final String blobSecService = SparkSubmitJobUploadStorageModelKt.getSecureStoreServiceOf(BLOB, blobSecAccount);
 
             if (blobSecService != null) {
-                try {
-                    storeModel.setStorageKey(secureStore.loadPassword(blobSecService, null, blobSecAccount));
-                } catch (final Throwable ex) {
-                    log().warn("Can't load Blob access key $storageAccount from Secure Store", ex);
-                }
+                blobKey = loadPasswordAsync(blobSecService, blobSecAccount);
             }
         }
 
         // ADLS Gen2 access key
+        CompletableFuture<String> gen2Key = null;
         final String gen2SecAccount = storeModel.getGen2Account();
         if (gen2SecAccount != null && StringUtils.isNoneBlank(gen2SecAccount)) {
             final String gen2SecService = SparkSubmitJobUploadStorageModelKt.getSecureStoreServiceOf(ADLS_GEN2, gen2SecAccount);
 
             if (gen2SecService != null) {
-                try {
-                    storeModel.setAccessKey(secureStore.loadPassword(gen2SecService, null, gen2SecAccount));
-                } catch (final Throwable ex) {
-                    log().warn("Can't load ADLS Gen2 access key $gen2Account from Secure Store", ex);
-                }
+                gen2Key = loadPasswordAsync(gen2SecService, gen2SecAccount);
             }
         }
+
+        if (sshPassword != null) {
+            // Load password for no password input
+            try {
+                advModel.setSshPassword(sshPassword.join());
+            } catch (final Throwable ex) {
+                log().warn("Can't load SSH ${advModel.sshUserName}'s password from Secure Store", ex);
+            }
+        }
+
+        if (blobKey != null) {
+            try {
+                storeModel.setStorageKey(blobKey.join());
+            } catch (final Throwable ex) {
+                log().warn("Can't load Blob access key $storageAccount from Secure Store", ex);
+            }
+        }
+
+        if (gen2Key != null) {
+            try {
+                storeModel.setAccessKey(gen2Key.join());
+            } catch (final Throwable ex) {
+                log().warn("Can't load ADLS Gen2 access key $gen2Account from Secure Store", ex);
+            }
+        }
+    }
+
+    @NotNull
+    private CompletableFuture<String> loadPasswordAsync(final String serviceName, final String userName) {
+        if (secureStore instanceof IntelliJSecureStore) {
+            return ((IntelliJSecureStore) secureStore).loadPasswordAsync(serviceName, null, userName);
+        }
+        return CompletableFuture.supplyAsync(() -> secureStore.loadPassword(serviceName, null, userName), Runnable::run);
     }
 
     public void saveToSecureStore(final SparkSubmitModel fromSubmitModel) {
@@ -24,66 +24,52 @@ package com.microsoft.azure.hdinsight.spark.console
 
 import com.microsoft.azure.hdinsight.common.logger.ILogger
 import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.Session
-import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.Statement
-import com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.StatementOutput
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.StatementExecutor
 import java.io.InputStream
 import java.nio.charset.StandardCharsets.UTF_8
-import java.util.*
+import java.util.concurrent.ConcurrentLinkedDeque
+import java.util.concurrent.atomic.AtomicInteger
 
-abstract class SparkLivySessionInputStream(val session: Session) : InputStream(), ILogger {
-    private var isClosed: Boolean = false
-    private var nextStatementId = 0
-    private var statementOutputQueue: ArrayDeque<Byte>? = null
+abstract class SparkLivySessionInputStream(val session: Session, executor: StatementExecutor) : InputStream(), ILogger {
+    @Volatile private var isClosed: Boolean = false
+    private val statementOutputQueue = ConcurrentLinkedDeque<Byte>()
+    private val statementOutputSize = AtomicInteger(0)
+
+    // The outputs are pushed by the executor once each statement is done, no more polling statements one by one
+    private val finishedSubscription = executor.finished.subscribe(
+            { execution ->
+                createStatementBytesQueue(execution)?.let {
+                    log().debug("Statement `${execution.firstLine}` result $it")
+                    val bytes = "$it\n".toByteArray(UTF_8)
+                    statementOutputQueue.addAll(bytes.toList())
+                    statementOutputSize.addAndGet(bytes.size)
+                }
+            },
+            { err -> log().debug("Can't get the statement output", err) })
 
     override fun read(): Int {
         if (isClosed) {
             return -1
         }
 
-        return statementOutputQueue?.pollFirst()?.toInt() ?: -1
+        val byte = statementOutputQueue.pollFirst() ?: return -1
+        statementOutputSize.decrementAndGet()
+
+        return byte.toInt() and 0xFF
     }
 
     override fun close() {
         this.isClosed = true
+        finishedSubscription.unsubscribe()
     }
 
     override fun available(): Int {
         if (this.isClosed || session.isStop) {
-            return 0;
-        }
-
-        if (isOutputEmpty()) {
-            fetchNextStatementOutput()
-
-            if (isOutputEmpty()) {
-                Thread.sleep(1000)
-            }
+            return 0
         }
 
-        return statementOutputQueue?.size ?: 0
-    }
-
-    abstract fun createStatementBytesQueue(output: StatementOutput): String?
-
-    private fun fetchNextStatementOutput() {
-        val statement = Statement(session, nextStatementId)
-
-        try {
-            statementOutputQueue = statement.get()
-                    .map { stm ->
-                        createStatementBytesQueue(stm.output)?.let {
-                            log().debug("Statement $nextStatementId result $it")
-                            ArrayDeque("$it\n".toByteArray(UTF_8).toList())
-                        }
-                    }
-                    .toBlocking()
-                    .singleOrDefault(null)
-
-            nextStatementId++
-        } catch (err: Exception) {
-            log().debug("Can't get the $nextStatementId output", err)
-        }
+        return statementOutputSize.get()
     }
 
-    private fun isOutputEmpty(): Boolean = (statementOutputQueue?.isEmpty() ?: true)
-}
\ No newline at end of file
+    abstract fun createStatementBytesQueue(execution: StatementExecutor.Execution): String?
+}
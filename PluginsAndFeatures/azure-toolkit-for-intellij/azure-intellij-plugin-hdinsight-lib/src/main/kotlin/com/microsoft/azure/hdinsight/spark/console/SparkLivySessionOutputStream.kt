@@ -22,14 +22,14 @@
 
 package com.microsoft.azure.hdinsight.spark.console
 
-import com.fasterxml.jackson.databind.ObjectMapper
 import com.microsoft.azure.hdinsight.common.logger.ILogger
 import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.Session
-import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.exceptions.StatementExecutionError
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.StatementExecutor
 import org.apache.commons.io.output.ByteArrayOutputStream
 import java.nio.charset.Charset
 
-class SparkLivySessionOutputStream(val session: Session) : ByteArrayOutputStream(), ILogger {
+class SparkLivySessionOutputStream(val session: Session, private val executor: StatementExecutor)
+    : ByteArrayOutputStream(), ILogger {
     override fun flush() {
         // Send the buffered statements into Livy services
         if (!session.isStarted) {
@@ -37,26 +37,16 @@ class SparkLivySessionOutputStream(val session: Session) : ByteArrayOutputStream
         }
 
         val codes = toString(Charset.defaultCharset())
+        reset()
+
+        if (codes.isBlank()) {
+            return
+        }
+
         log().debug("Send those codes to Livy: $codes")
 
-        session.runCodes(codes)
-                .doOnEach { reset() }
-                .toBlocking()
-                .subscribe(
-                        { result ->
-                            log().debug("Livy running results: ${ObjectMapper().writeValueAsString(result)}")
-                        },
-                        { err -> when (err.cause) {
-                            is StatementExecutionError -> log().debug(err.message)
-                            else -> throw SparkConsoleExceptions.LivySessionExecuteError(
-                                "Got the code `${
-                                    codes.split(
-                                        "\n"
-                                    ).first()
-                                }` execution error:",
-                                err.cause ?: err
-                            )
-                        }}
-                )
+        // Queue the codes without waiting for the previous statements, the results and errors are pushed to the
+        // console stdout and stderr streams by the executor
+        executor.submit(codes)
     }
-}
\ No newline at end of file
+}
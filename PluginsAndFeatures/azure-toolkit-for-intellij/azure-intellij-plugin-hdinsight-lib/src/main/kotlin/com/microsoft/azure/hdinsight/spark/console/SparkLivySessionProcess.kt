@@ -27,6 +27,7 @@ import com.intellij.remote.RemoteProcess
 import com.microsoft.azure.hdinsight.common.logger.ILogger
 import com.microsoft.azure.hdinsight.common.mvc.IdeSchedulers
 import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.Session
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.StatementExecutor
 import rx.Observable
 import java.io.InputStream
 import java.io.OutputStream
@@ -41,13 +42,16 @@ class SparkLivySessionProcess(
 
     override fun killProcessTree(): Boolean = true
 
-    private val stdOutStream: InputStream = SparkLivySessionStdOutStream(session)
-    private val stdErrStream: InputStream = SparkLivySessionStdErrStream(session)
-    private val stdInStream: OutputStream = SparkLivySessionOutputStream(session)
+    val statementExecutor = StatementExecutor(session)
+
+    private val stdOutStream: InputStream = SparkLivySessionStdOutStream(session, statementExecutor)
+    private val stdErrStream: InputStream = SparkLivySessionStdErrStream(session, statementExecutor)
+    private val stdInStream: OutputStream = SparkLivySessionOutputStream(session, statementExecutor)
 
     override fun waitFor(): Int = 0
 
     override fun destroy() {
+        statementExecutor.close()
         session.close()
         outputStream.close()
         errorStream.close()
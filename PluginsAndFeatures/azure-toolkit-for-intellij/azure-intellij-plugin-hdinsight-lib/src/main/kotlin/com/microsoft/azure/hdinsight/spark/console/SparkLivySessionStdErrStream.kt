@@ -23,19 +23,28 @@
 package com.microsoft.azure.hdinsight.spark.console
 
 import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.Session
-import com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.StatementOutput
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.StatementExecutor
 
-class SparkLivySessionStdErrStream(session: Session) : SparkLivySessionInputStream(session) {
-    override fun createStatementBytesQueue(output: StatementOutput): String? = when (output.status.toLowerCase()) {
-        "error" -> output.let {
-            // TODO: Should we add `ename` into the message? Currently, just align the output with Jupyter
-            val errorLines = """
-                |${it.evalue}
-                |Traceback:
-                |${it.traceback.joinToString("")}
-                """.trimMargin()
-            errorLines
+class SparkLivySessionStdErrStream(session: Session, executor: StatementExecutor)
+    : SparkLivySessionInputStream(session, executor) {
+    override fun createStatementBytesQueue(execution: StatementExecutor.Execution): String? {
+        execution.error?.let {
+            return "Got the code `${execution.firstLine}` execution error: ${it.message ?: it.toString()}"
+        }
+
+        val output = execution.statement.output ?: return null
+
+        return when (output.status.toLowerCase()) {
+            "error" -> output.let {
+                // TODO: Should we add `ename` into the message? Currently, just align the output with Jupyter
+                val errorLines = """
+                    |${it.evalue}
+                    |Traceback:
+                    |${it.traceback.joinToString("")}
+                    """.trimMargin()
+                errorLines
+            }
+            else -> null
         }
-        else -> null
     }
-}
\ No newline at end of file
+}
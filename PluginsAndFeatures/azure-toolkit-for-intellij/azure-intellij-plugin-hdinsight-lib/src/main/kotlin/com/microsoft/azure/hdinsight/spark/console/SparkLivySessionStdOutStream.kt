@@ -23,11 +23,25 @@
 package com.microsoft.azure.hdinsight.spark.console
 
 import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.Session
-import com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.StatementOutput
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.StatementExecutor
 
-class SparkLivySessionStdOutStream(session: Session) : SparkLivySessionInputStream(session) {
-    override fun createStatementBytesQueue(output: StatementOutput): String? = when (output.status.toLowerCase()) {
-        "ok" -> output.data["text/plain"]
-        else -> null
+class SparkLivySessionStdOutStream(session: Session, executor: StatementExecutor)
+    : SparkLivySessionInputStream(session, executor) {
+    override fun createStatementBytesQueue(execution: StatementExecutor.Execution): String? {
+        val statement = execution.statement
+        val output = statement.output ?: return null
+        val result = when (output.status.toLowerCase()) {
+            "ok" -> output.data["text/plain"]
+            else -> null
+        }
+
+        val elapsedMillis = statement.elapsedMillis
+        if (elapsedMillis < 0) {
+            return result
+        }
+
+        val timing = "[Statement ${statement.id} finished in ${"%.2f".format(elapsedMillis / 1000.0)}s]"
+
+        return if (result.isNullOrEmpty()) timing else "$result\n$timing"
     }
-}
\ No newline at end of file
+}
@@ -24,44 +24,102 @@ package com.microsoft.azure.hdinsight.spark.run
 
 import com.intellij.execution.process.ProcessHandler
 import com.intellij.execution.process.ProcessOutputTypes.SYSTEM
+import com.intellij.execution.ui.ConsoleViewContentType
+import com.intellij.openapi.util.Key
 import com.intellij.util.concurrency.AppExecutorUtil
 import com.intellij.util.io.BaseOutputReader
 import com.microsoft.azure.hdinsight.common.ConsoleViewLogLine
 import com.microsoft.azure.hdinsight.common.ConsoleViewTypeRegistrationListener.Companion.contentTypeKeyMap
 import com.microsoft.azure.hdinsight.common.MessageInfoType
-import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine
 import com.microsoft.azure.hdinsight.spark.common.log.SparkLogUtils
 import java.io.InputStream
 import java.nio.charset.Charset
 import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
 
 class SparkDriverLogStreamReader(val processHandler: ProcessHandler,
                                  inputStream: InputStream,
                                  private val logSource: String)
     : BaseOutputReader(inputStream, Charset.forName("UTF-8")) {
-    private val defaultMessageInfoType = MessageInfoType.Log
-    private var previousLogLine = SparkLogLine(logSource, defaultMessageInfoType, "")
+    companion object {
+        // Consecutive lines of the same type are notified together, at most after the delay to look streaming
+        private const val BATCH_FLUSH_DELAY_MS = 50L
+        private const val MAX_BATCH_LENGTH = 64 * 1024
+
+        // The second parameter of notifyTextAvailable() is of Key<Any> type and there are only 3 registered Keys:
+        // SYSTEM, STDOUT and STDERR. To support more log style, we registered more Keys in class
+        // ConsoleViewTypeRegistration at application startup. Resolve them once rather than per line.
+        private val outputTypeKeys: Map<MessageInfoType, Key<*>> = MessageInfoType.values().associateWith { type ->
+            val contentType = ConsoleViewLogLine.messageInfoTypeToConsoleViewContentType
+                    .getOrDefault(type, ConsoleViewContentType.ERROR_OUTPUT)
+
+            contentTypeKeyMap[contentType] ?: SYSTEM
+        }
+    }
+
+    private var previousMessageInfoType = MessageInfoType.Log
+
+    // Guarded by itself
+    private val batch = StringBuilder()
+    private var batchOutputType: Key<*> = SYSTEM
+    private var isBatchFlushScheduled = false
 
     init {
         start("Reading Spark Driver log $logSource")
     }
 
     override fun onTextAvailable(s: String) {
-        val currentLogLine = SparkLogLine(logSource, defaultMessageInfoType, s)
-        val typedLogLine = SparkLogUtils.mapTypedMessageByLog4jLevels(previousLogLine, currentLogLine)
-        val consoleViewLogLine = ConsoleViewLogLine(typedLogLine)
-
-        // The second parameter is of Key<Any> type and there are only 3 registered Keys: SYSTEM, STDOUT and STDERR.
-        // To support more log style, we registered more Keys in class ConsoleViewTypeRegistration at application
-        // startup
-        processHandler.notifyTextAvailable(
-                consoleViewLogLine.formatText, contentTypeKeyMap[consoleViewLogLine.contentType] ?: SYSTEM)
-
-        // Update previous log line
-        previousLogLine = typedLogLine
+        // Classify the line without allocating log line objects
+        val messageInfoType = SparkLogUtils.classifyByLog4jLevels(previousMessageInfoType, s)
+        val outputType = outputTypeKeys[messageInfoType] ?: SYSTEM
+        previousMessageInfoType = messageInfoType
+
+        var end = s.length
+        while (end > 0 && s[end - 1] == '\n') {
+            end--
+        }
+
+        synchronized(batch) {
+            if (outputType != batchOutputType) {
+                flushBatch()
+                batchOutputType = outputType
+            }
+
+            batch.append(logSource).append(": ").append(s, 0, end).append('\n')
+
+            if (batch.length >= MAX_BATCH_LENGTH) {
+                flushBatch()
+            } else if (!isBatchFlushScheduled) {
+                isBatchFlushScheduled = true
+                AppExecutorUtil.getAppScheduledExecutorService().schedule({
+                    synchronized(batch) {
+                        isBatchFlushScheduled = false
+                        flushBatch()
+                    }
+                }, BATCH_FLUSH_DELAY_MS, TimeUnit.MILLISECONDS)
+            }
+        }
+    }
+
+    /**
+     * Notify the batched lines at once, should be called after the reader is finished
+     */
+    fun flushBatchedLines() {
+        synchronized(batch) {
+            flushBatch()
+        }
+    }
+
+    private fun flushBatch() {
+        if (batch.isEmpty()) {
+            return
+        }
+
+        processHandler.notifyTextAvailable(batch.toString(), batchOutputType)
+        batch.setLength(0)
     }
 
     override fun executeOnPooledThread(runnable: Runnable): Future<*> {
         return AppExecutorUtil.getAppExecutorService().submit(runnable)
     }
-}
\ No newline at end of file
+}
@@ -28,15 +28,16 @@ import com.microsoft.azure.hdinsight.sdk.common.azure.serverless.AzureSparkCosmo
 import com.microsoft.azure.projectarcadia.common.ArcadiaSparkComputeManager
 import com.microsoft.azure.sqlbigdata.sdk.cluster.SqlBigDataLivyLinkClusterDetail
 import rx.Observable
-import rx.Observable.fromCallable
 
 object SparkClustersServices {
     val arisSparkClustersRefreshed: Observable<List<IClusterDetail>>
-        get() = fromCallable {
-            ClusterManagerEx.getInstance().clusterDetails.asSequence()
-                    .filter { it is SqlBigDataLivyLinkClusterDetail }
-                    .toList()
-        }.share()
+        get() = ClusterManagerEx.getInstance().fetchClusterDetails()
+                    .map { clusters -> clusters.filter { it is SqlBigDataLivyLinkClusterDetail } }
+                    .share()
+
+    val arisSparkClustersChanged: Observable<List<IClusterDetail>>
+        get() = ClusterManagerEx.getInstance().clusterDetailsChanged
+                    .map { clusters -> clusters.filter { it is SqlBigDataLivyLinkClusterDetail } }
 
     val cosmosSparkClustersRefreshed: Observable<List<IClusterDetail>>
         get() = AzureSparkCosmosClusterManager.getInstance().fetchClusters()
@@ -53,10 +54,13 @@ object SparkClustersServices {
                     .map { it.accounts.asIterable().toList() }
                     .share()
 
+    // The cached clusters at once, and then the refreshed ones if they're changed
     val hdinsightSparkClustersRefreshed: Observable<List<IClusterDetail>>
-        get() = fromCallable {
-            ClusterManagerEx.getInstance().clusterDetails.asSequence()
-                    .filter { ClusterManagerEx.getInstance().hdInsightClusterFilterPredicate.test(it) }
-                    .toList()
-        }.share()
+        get() = ClusterManagerEx.getInstance().fetchClusterDetails()
+                    .map { clusters -> clusters.filter { ClusterManagerEx.getInstance().hdInsightClusterFilterPredicate.test(it) } }
+                    .share()
+
+    val hdinsightSparkClustersChanged: Observable<List<IClusterDetail>>
+        get() = ClusterManagerEx.getInstance().clusterDetailsChanged
+                    .map { clusters -> clusters.filter { ClusterManagerEx.getInstance().hdInsightClusterFilterPredicate.test(it) } }
 }
@@ -34,9 +34,11 @@ import com.microsoft.azure.hdinsight.common.viewmodels.ComponentWithBrowseButton
 import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail
 import com.microsoft.azure.hdinsight.sdk.common.azure.serverless.AzureSparkCosmosClusterManager
 import com.microsoft.azure.hdinsight.spark.service.SparkClustersServices.arcadiaSparkClustersRefreshed
+import com.microsoft.azure.hdinsight.spark.service.SparkClustersServices.arisSparkClustersChanged
 import com.microsoft.azure.hdinsight.spark.service.SparkClustersServices.arisSparkClustersRefreshed
 import com.microsoft.azure.hdinsight.spark.service.SparkClustersServices.cosmosServerlessSparkAccountsRefreshed
 import com.microsoft.azure.hdinsight.spark.service.SparkClustersServices.cosmosSparkClustersRefreshed
+import com.microsoft.azure.hdinsight.spark.service.SparkClustersServices.hdinsightSparkClustersChanged
 import com.microsoft.azure.hdinsight.spark.service.SparkClustersServices.hdinsightSparkClustersRefreshed
 import com.microsoft.azure.projectarcadia.common.ArcadiaSparkComputeManager
 import com.microsoft.azure.sqlbigdata.sdk.cluster.SqlBigDataLivyLinkClusterDetail
@@ -133,6 +135,10 @@ open class SparkClusterListRefreshableCombo: ILogger, Disposable {
         open val clusterDetailsWithRefresh: Observable<out List<IClusterDetail>>
                 get() = hdinsightSparkClustersRefreshed
 
+        // The cluster list changes found by the refreshing triggered anywhere else
+        open val clusterDetailsChanged: Observable<out List<IClusterDetail>>
+                get() = hdinsightSparkClustersChanged
+
         val selectedCluster: IClusterDetail?
             get() = clusterListModelBehavior.value.selectedItem as? IClusterDetail
 
@@ -178,6 +184,14 @@ open class SparkClusterListRefreshableCombo: ILogger, Disposable {
                             { log().warn("Refresh cluster failure", it) }
                     )
 
+            clusterDetailsChanged
+                    .takeUntil { Disposer.isDisposed(this) }
+                    .observeOn(myIdeaSchedulers.dispatchUIThread())
+                    .subscribe(
+                            { clusterListModelBehavior.onNext(ImmutableComboBoxModel(it.toTypedArray())) },
+                            { log().warn("Update changed clusters failure", it) }
+                    )
+
         }
 
         open fun findClusterById(clustersModel: ComboBoxModel<IClusterDetail>, id: Any?): IClusterDetail? {
@@ -185,7 +199,7 @@ open class SparkClusterListRefreshableCombo: ILogger, Disposable {
         }
     }
 
-    open val viewModel: ViewModel = ViewModel(ClusterManagerEx.getInstance().cachedClusters
+    open val viewModel: ViewModel = ViewModel(ClusterManagerEx.getInstance().cachedOrLastKnownClusters
             .filter { ClusterManagerEx.getInstance().hdInsightClusterFilterPredicate.test(it) }
             .toTypedArray()).apply { Disposer.register(this@SparkClusterListRefreshableCombo, this@apply) }
 
@@ -200,6 +214,9 @@ class CosmosSparkClustersCombo: SparkClusterListRefreshableCombo() {
 
         override val clusterDetailsWithRefresh: Observable<out List<IClusterDetail>>
                 get() = cosmosSparkClustersRefreshed
+
+        override val clusterDetailsChanged: Observable<out List<IClusterDetail>>
+                get() = never()
     }
 
     override val viewModel = ViewModel().apply { Disposer.register(this@CosmosSparkClustersCombo, this@apply) }
@@ -213,6 +230,9 @@ class ArisSparkClusterListRefreshableCombo: SparkClusterListRefreshableCombo() {
 
         override val clusterDetailsWithRefresh: Observable<out List<IClusterDetail>>
                 get() = arisSparkClustersRefreshed
+
+        override val clusterDetailsChanged: Observable<out List<IClusterDetail>>
+                get() = arisSparkClustersChanged
     }
 
     override val viewModel = ViewModel().apply { Disposer.register(this@ArisSparkClusterListRefreshableCombo, this@apply) }
@@ -227,6 +247,9 @@ class CosmosServerlessSparkAccountsCombo: SparkClusterListRefreshableCombo() {
 
         override val clusterDetailsWithRefresh: Observable<out List<IClusterDetail>>
                 get() = cosmosServerlessSparkAccountsRefreshed
+
+        override val clusterDetailsChanged: Observable<out List<IClusterDetail>>
+                get() = never()
     }
 
     override val viewModel: SparkClusterListRefreshableCombo.ViewModel by lazy { ViewModel() }
@@ -240,6 +263,9 @@ class ArcadiaSparkClusterListRefreshableCombo: SparkClusterListRefreshableCombo(
             .toTypedArray()) {
         override val clusterDetailsWithRefresh: Observable<out List<IClusterDetail>>
                 get() = arcadiaSparkClustersRefreshed
+
+        override val clusterDetailsChanged: Observable<out List<IClusterDetail>>
+                get() = never()
     }
 
     override val viewModel = ViewModel().apply { Disposer.register(this@ArcadiaSparkClusterListRefreshableCombo, this@apply) }
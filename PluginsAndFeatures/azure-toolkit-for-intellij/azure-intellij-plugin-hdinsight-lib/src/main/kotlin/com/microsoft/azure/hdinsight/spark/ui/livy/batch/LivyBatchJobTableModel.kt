@@ -25,37 +25,278 @@ package com.microsoft.azure.hdinsight.spark.ui.livy.batch
 import com.intellij.util.ui.ColumnInfo
 import com.intellij.util.ui.SortableColumnModel
 import com.microsoft.azure.Page
-import com.microsoft.azure.PagedList
+import com.microsoft.azure.hdinsight.common.logger.ILogger
+import com.microsoft.intellij.rxjava.IdeaSchedulers
+import rx.Observable
+import rx.Scheduler
+import rx.schedulers.Schedulers
 import javax.swing.RowSorter
 import javax.swing.table.AbstractTableModel
 
-class LivyBatchJobTableModel(private val schema: UniqueColumnNameTableSchema? = null)
-    : AbstractTableModel(), SortableColumnModel {
+class LivyBatchJobTableModel @JvmOverloads constructor(
+        private val schema: UniqueColumnNameTableSchema? = null,
+        val pagedJobs: JobPagedList = JobPagedList())
+    : AbstractTableModel(), SortableColumnModel, ILogger {
     interface JobPage : Page<UniqueColumnNameTableSchema.RowDescriptor> {
         override fun items(): List<UniqueColumnNameTableSchema.RowDescriptor>?
     }
 
-    class JobPagedList : PagedList<UniqueColumnNameTableSchema.RowDescriptor>() {
+    /**
+     * The jobs paged list with a windowed cache. The row ranges of all fetched pages are remembered, but only the
+     * items of the first page and the most recently used pages are kept. The rows of an evicted page are fetched
+     * again by the page link asynchronously when they are accessed. All methods should be called in dispatch thread.
+     *
+     * @param ioScheduler the scheduler to fetch the pages again and to refresh the jobs on
+     * @param uiScheduler the scheduler to get the fetched pages and refreshed jobs back on, the dispatch thread if null
+     */
+    class JobPagedList @JvmOverloads constructor(
+            private val maxCachedPages: Int = DEFAULT_MAX_CACHED_PAGES,
+            val ioScheduler: Scheduler = Schedulers.io(),
+            private val uiScheduler: Scheduler? = null) : ILogger {
+        companion object {
+            const val DEFAULT_MAX_CACHED_PAGES = 20
+        }
+
+        private class PageSlot(val link: String?, val firstRow: Int, val size: Int) {
+            val lastRow: Int
+                get() = firstRow + size - 1
+        }
+
+        private val slots = mutableListOf<PageSlot>()
+
+        // The first page has no link to fetch again, so it's always kept
+        private var firstPageItems: MutableList<UniqueColumnNameTableSchema.RowDescriptor> = mutableListOf()
+
+        private val cachedPages = object : LinkedHashMap<Int, MutableList<UniqueColumnNameTableSchema.RowDescriptor>>(
+                16, 0.75f, true) {
+            override fun removeEldestEntry(
+                    eldest: MutableMap.MutableEntry<Int, MutableList<UniqueColumnNameTableSchema.RowDescriptor>>?)
+                    : Boolean = size > maxCachedPages
+        }
+
+        private val refetchingPages = mutableSetOf<Int>()
+
+        private var nextPageLink: String? = null
+
         var firstJobPage : JobPage? = null
             set(value) {
                 field = value
 
-                clear()
-                setCurrentPage(value)
+                slots.clear()
+                firstPageItems = mutableListOf()
+                cachedPages.clear()
+                nextPageLink = null
+                value?.let { addPage(null, it) }
             }
 
-        override fun nextPage(nextPageLink: String?): Page<UniqueColumnNameTableSchema.RowDescriptor>? =
-                fetchNextPage?.invoke(nextPageLink)
-
         var fetchNextPage: ((nexPageLink: String?) -> JobPage?)? = null
 
-        // Override by an empty method since we won't like to load all jobs at once.
-        // And all results of size(), toArray(), lastIndexOf() are the currently cached
-        // jobs.
-        override fun loadAll() { }
+        /**
+         * Get the key to find the row of a job by, rows are matched by the job rather than by position since an
+         * evicted page fetched again may list other jobs. Identity by default.
+         */
+        var jobIdOf: (UniqueColumnNameTableSchema.RowDescriptor) -> Any? = { it }
+
+        /**
+         * Called with the row range of an evicted page once it's fetched again
+         */
+        var onRowsRefetched: ((firstRow: Int, lastRow: Int) -> Unit)? = null
+
+        val size: Int
+            get() = slots.lastOrNull()?.let { it.firstRow + it.size } ?: 0
+
+        val dispatchScheduler: Scheduler
+            get() = uiScheduler ?: IdeaSchedulers().dispatchUIThread()
+
+        fun hasNextPage(): Boolean = !nextPageLink.isNullOrBlank()
+
+        /**
+         * Fetch the next page and append its rows
+         *
+         * @return the count of rows appended
+         */
+        fun loadNextPage(): Int {
+            val link = nextPageLink ?: return 0
+            nextPageLink = null
+
+            val page = fetchNextPage?.invoke(link) ?: return 0
+
+            return addPage(link, page).size
+        }
+
+        /**
+         * @return the job of the row, or null if the row's page is evicted and being fetched again
+         */
+        operator fun get(row: Int): UniqueColumnNameTableSchema.RowDescriptor? {
+            val pageIndex = findPageIndex(row).takeIf { it >= 0 } ?: return null
+
+            return getCachedPageItems(pageIndex)?.getOrNull(row - slots[pageIndex].firstRow)
+        }
+
+        /**
+         * Replace the job in place, wherever its row is now, if its page is still kept
+         *
+         * @param expected the job to replace
+         * @param job the job to replace with
+         * @return the row replaced, or -1 if the job isn't kept any more
+         */
+        fun replace(expected: UniqueColumnNameTableSchema.RowDescriptor,
+                    job: UniqueColumnNameTableSchema.RowDescriptor): Int {
+            val jobId = jobIdOf(expected) ?: return -1
+            // Iterating doesn't count as an access, so the LRU order of the pages is kept
+            val keptPages = sequenceOf(0 to firstPageItems) + cachedPages.entries.asSequence().map { it.key to it.value }
+
+            for ((pageIndex, items) in keptPages) {
+                val index = items.indexOfFirst { jobIdOf(it) == jobId }
+
+                if (index >= 0) {
+                    items[index] = job
+
+                    return slots[pageIndex].firstRow + index
+                }
+            }
+
+            return -1
+        }
+
+        private fun addPage(link: String?, page: JobPage): PageSlot {
+            val items = page.items()?.toMutableList() ?: mutableListOf()
+            val slot = PageSlot(link, size, items.size)
+
+            if (slots.isEmpty()) {
+                firstPageItems = items
+            } else {
+                cachedPages[slots.size] = items
+            }
+
+            slots.add(slot)
+            nextPageLink = page.nextPageLink()
+
+            return slot
+        }
+
+        private fun findPageIndex(row: Int): Int {
+            if (row < 0 || row >= size) {
+                return -1
+            }
+
+            var low = 0
+            var high = slots.size - 1
+
+            while (low < high) {
+                val mid = (low + high + 1) ushr 1
+
+                if (slots[mid].firstRow <= row) {
+                    low = mid
+                } else {
+                    high = mid - 1
+                }
+            }
+
+            return low
+        }
+
+        private fun getCachedPageItems(pageIndex: Int): MutableList<UniqueColumnNameTableSchema.RowDescriptor>? {
+            if (pageIndex == 0) {
+                return firstPageItems
+            }
+
+            return cachedPages[pageIndex] ?: run {
+                refetchPage(pageIndex)
+
+                null
+            }
+        }
+
+        private fun refetchPage(pageIndex: Int) {
+            val fetch = fetchNextPage ?: return
+            val slot = slots[pageIndex]
+
+            if (!refetchingPages.add(pageIndex)) {
+                return
+            }
+
+            Observable.fromCallable { fetch(slot.link)?.items()?.toMutableList() ?: mutableListOf() }
+                    .subscribeOn(ioScheduler)
+                    .observeOn(dispatchScheduler)
+                    .doOnTerminate { refetchingPages.remove(pageIndex) }
+                    .subscribe(
+                            { items ->
+                                // Drop it if the jobs have been reset during fetching
+                                if (slots.getOrNull(pageIndex) === slot) {
+                                    // Keep the row range, the rows beyond the page's original size are dropped
+                                    cachedPages[pageIndex] = items.take(slot.size).toMutableList()
+                                    onRowsRefetched?.invoke(slot.firstRow, slot.lastRow)
+                                }
+                            },
+                            { err -> log().warn("Fetch the jobs page ${slot.link} again failed. $err") })
+        }
+    }
+
+    init {
+        pagedJobs.onRowsRefetched = { firstRow, lastRow -> fireTableRowsUpdated(firstRow, lastRow) }
     }
 
-    val pagedJobs = JobPagedList()
+    // Shown for the rows being fetched again
+    private val loadingJob: UniqueColumnNameTableSchema.RowDescriptor by lazy {
+        (schema ?: UniqueColumnNameTableSchema(arrayOf())).RowDescriptor()
+    }
+
+    fun loadNextPage() {
+        val firstRow = pagedJobs.size
+        val loaded = pagedJobs.loadNextPage()
+
+        if (loaded > 0) {
+            fireTableRowsInserted(firstRow, firstRow + loaded - 1)
+        }
+    }
+
+    /**
+     * Update the row of the job with the refreshed one, if the job is still kept
+     *
+     * @return the row updated, or -1 if not updated
+     */
+    fun updateJob(job: UniqueColumnNameTableSchema.RowDescriptor,
+                  refreshed: UniqueColumnNameTableSchema.RowDescriptor): Int {
+        val row = pagedJobs.replace(job, refreshed)
+
+        if (row >= 0) {
+            fireTableRowsUpdated(row, row)
+        }
+
+        return row
+    }
+
+    /**
+     * Re-poll the loaded jobs of the rows which aren't terminated, at most [maxConcurrency] at a time, and update
+     * them in place. The refreshed jobs are matched by the job rather than the row, since the rows may be refetched
+     * or reset meanwhile.
+     *
+     * @param refresh the function to get the latest job, called in pooled threads, null for no update
+     * @return the rows updated, emitted in the dispatch thread
+     */
+    fun refreshJobs(rows: IntRange,
+                    isTerminated: (UniqueColumnNameTableSchema.RowDescriptor) -> Boolean,
+                    refresh: (UniqueColumnNameTableSchema.RowDescriptor) -> UniqueColumnNameTableSchema.RowDescriptor?,
+                    maxConcurrency: Int): Observable<Int> {
+        val jobsToRefresh = rows.mapNotNull { row -> pagedJobs[row] }.filterNot(isTerminated)
+
+        return Observable.from(jobsToRefresh)
+                .flatMap({ job ->
+                    Observable.fromCallable { refresh(job) }
+                            .subscribeOn(pagedJobs.ioScheduler)
+                            .onErrorReturn { err ->
+                                log().warn("Refresh the job ${pagedJobs.jobIdOf(job)} failed. $err")
+
+                                null
+                            }
+                            .filter { it != null }
+                            .map { job to it!! }
+                }, maxConcurrency)
+                .observeOn(pagedJobs.dispatchScheduler)
+                .map { (job, refreshed) -> updateJob(job, refreshed) }
+                .filter { it >= 0 }
+    }
 
     /**
      * Methods from abstract class [AbstractTableModel] and interface [javax.swing.table.TableModel]
@@ -96,5 +337,5 @@ class LivyBatchJobTableModel(private val schema: UniqueColumnNameTableSchema? =
     // For the row object as a job descriptor
     override fun getRowValue(row: Int): Any = getJobDescriptor(row)
 
-    fun getJobDescriptor(row: Int): UniqueColumnNameTableSchema.RowDescriptor = pagedJobs[row]
+    fun getJobDescriptor(row: Int): UniqueColumnNameTableSchema.RowDescriptor = pagedJobs[row] ?: loadingJob
 }
\ No newline at end of file
@@ -22,20 +22,29 @@
 
 package com.microsoft.azure.hdinsight.spark.ui.livy.batch
 
+import com.intellij.openapi.Disposable
 import com.intellij.ui.components.JBScrollPane
 import com.intellij.ui.table.JBTable
 import com.intellij.util.ui.ColumnInfo
 import com.intellij.util.ui.UIUtil
+import com.microsoft.azure.hdinsight.common.logger.ILogger
 import com.microsoft.azure.hdinsight.common.mvc.IdeaSettableControlView
 import com.microsoft.azure.hdinsight.spark.ui.livy.batch.LivyBatchJobTableModel.*
 import java.awt.Component
 import java.awt.Graphics
 import java.awt.Point
 import javax.swing.ListSelectionModel.SINGLE_SELECTION
+import javax.swing.Timer
 import javax.swing.table.TableCellEditor
 import javax.swing.table.TableCellRenderer
 
-abstract class LivyBatchJobTableViewport : IdeaSettableControlView<LivyBatchJobTableViewport.Model>{
+abstract class LivyBatchJobTableViewport
+    : IdeaSettableControlView<LivyBatchJobTableViewport.Model>, Disposable, ILogger {
+    companion object {
+        const val JOBS_REFRESH_INTERVAL_MS = 5000
+        const val MAX_JOBS_REFRESH_CONCURRENCY = 4
+    }
+
     data class Model(
         var tableModel: LivyBatchJobTableModel = LivyBatchJobTableModel(),
         var firstJobPage: JobPage? = null
@@ -56,6 +65,30 @@ abstract class LivyBatchJobTableViewport : IdeaSettableControlView<LivyBatchJobT
          * @param nextPageLink next page link to get, null for end of pages
          */
         fun onNextPage(nextPageLink: String?): JobPage?
+
+        /**
+         * Event handler for Job table to get the latest job of a visible row in non-terminal state, called in
+         * a pooled thread
+         *
+         * @param job the job descriptor shown
+         * @return the refreshed job descriptor, null for no update
+         */
+        fun onJobRefresh(job: UniqueColumnNameTableSchema.RowDescriptor): UniqueColumnNameTableSchema.RowDescriptor? =
+                null
+
+        /**
+         * Check whether the job is in terminal state, whose row needn't be refreshed
+         *
+         * @param job the job descriptor shown
+         */
+        fun isJobTerminated(job: UniqueColumnNameTableSchema.RowDescriptor): Boolean = true
+
+        /**
+         * Get the ID of the job to find its row by when it's refreshed, the job descriptor itself by default
+         *
+         * @param job the job descriptor shown
+         */
+        fun getJobId(job: UniqueColumnNameTableSchema.RowDescriptor): Any? = job
     }
 
     abstract val viewportControl: Control
@@ -107,16 +140,41 @@ abstract class LivyBatchJobTableViewport : IdeaSettableControlView<LivyBatchJobT
             val lastRowInView = table.rowAtPoint(Point(0, viewRect.y + viewRect.height - 1)).takeIf { it >=0 }
                 ?: lastTableRow
 
-            if (lastRowInView == lastTableRow) {
-                (table.model as? LivyBatchJobTableModel)?.pagedJobs?.apply {
-                    if (hasNextPage()) {
-                        loadNextPage()
-                    }
-                }
+            if (lastRowInView == lastTableRow && table.jobTableModel.pagedJobs.hasNextPage()) {
+                table.jobTableModel.loadNextPage()
             }
         }
     }
 
+    // Re-poll the visible jobs not terminated, and update them in place
+    private var isRefreshingJobs = false
+    private val jobsRefreshTimer = Timer(JOBS_REFRESH_INTERVAL_MS) { refreshVisibleJobs() }.apply { start() }
+
+    private fun refreshVisibleJobs() {
+        if (isRefreshingJobs || !table.isShowing) {
+            return
+        }
+
+        val viewRect = scrollableTable.viewport.viewRect
+        val firstRowInView = table.rowAtPoint(Point(0, viewRect.y)).takeIf { it >= 0 } ?: return
+        val lastRowInView = table.rowAtPoint(Point(0, viewRect.y + viewRect.height - 1)).takeIf { it >= 0 }
+                ?: (table.rowCount - 1)
+        val control = viewportControl
+
+        isRefreshingJobs = true
+        table.jobTableModel
+                .refreshJobs(firstRowInView..lastRowInView, control::isJobTerminated, control::onJobRefresh,
+                        MAX_JOBS_REFRESH_CONCURRENCY)
+                .doOnTerminate { isRefreshingJobs = false }
+                .subscribe(
+                        { },
+                        { err -> log().warn("Refresh the visible jobs failed. $err") })
+    }
+
+    override fun dispose() {
+        jobsRefreshTimer.stop()
+    }
+
     val component: Component = scrollableTable
 
     override fun setDataInDispatch(from: Model) {
@@ -125,10 +183,10 @@ abstract class LivyBatchJobTableViewport : IdeaSettableControlView<LivyBatchJobT
 
             table.model = from.tableModel.apply {
                 // TODO: improve the pagination user experiences by async
-                // Currently, the PagedList implementation will fetch the following pages as much as possible
-                // after set the firstJobPage. For better user experiences, the pages loading can be async
-                // and one by one.
+                // Currently, the next page is fetched in dispatch thread when the last row is scrolled into view,
+                // only the evicted pages are fetched again asynchronously.
                 pagedJobs.fetchNextPage = { viewportControl.onNextPage(it) }
+                pagedJobs.jobIdOf = { viewportControl.getJobId(it) }
                 pagedJobs.firstJobPage = from.firstJobPage
             }
         }
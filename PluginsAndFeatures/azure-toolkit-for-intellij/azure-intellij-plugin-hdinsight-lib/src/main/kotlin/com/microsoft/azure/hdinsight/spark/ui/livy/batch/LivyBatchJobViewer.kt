@@ -68,6 +68,7 @@ abstract class LivyBatchJobViewer : Disposable, IdeaSettableControlView<LivyBatc
     }
 
     override fun dispose() {
+        jobTableViewport.dispose()
         EditorFactory.getInstance().releaseEditor(jobDetailViewer)
     }
 
@@ -1,20 +1,33 @@
 package com.microsoft.azure.toolkit.intellij.hdinsight;
 
 import com.intellij.openapi.actionSystem.AnActionEvent;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.hdinsight.spark.HDInsightActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.hdinsight.actions.OpenAzureStorageFormAction;
 import com.microsoft.azure.toolkit.intellij.hdinsight.actions.OpenLinkAClusterAction;
 import com.microsoft.azure.toolkit.intellij.hdinsight.actions.OpenSparkJobViewAction;
+import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.common.model.AzResource;
 import com.microsoft.azure.toolkit.lib.common.model.AzResourceModule;
 import com.microsoft.azure.toolkit.lib.hdinsight.SparkClusterNode;
 
+import javax.annotation.Nonnull;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-public class IntellijHDInsightActionsContributor implements IActionsContributor {
+public class IntellijHDInsightActionsContributor implements ILazyActionsContributor {
+
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(HDInsightActionsContributor.OPEN_HDINSIGHT_JOB_VIEW, HDInsightActionsContributor.LINK_A_CLUSTER,
+                HDInsightActionsContributor.OPEN_AZURE_STORAGE_EXPLORER_ON_MODULE)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
 
     @Override
     public void registerHandlers(AzureActionManager am) {
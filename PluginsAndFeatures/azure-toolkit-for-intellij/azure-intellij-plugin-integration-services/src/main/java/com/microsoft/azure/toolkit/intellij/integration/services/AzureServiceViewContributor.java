@@ -16,7 +16,9 @@ import com.microsoft.azure.toolkit.ide.common.component.ActionNode;
 import com.microsoft.azure.toolkit.ide.common.component.Node;
 import com.microsoft.azure.toolkit.ide.common.icon.AzureIcons;
 import com.microsoft.azure.toolkit.ide.common.store.AzureStoreManager;
+import com.microsoft.azure.toolkit.ide.common.store.ISecureStore;
 import com.microsoft.azure.toolkit.intellij.common.IntelliJAzureIcons;
+import com.microsoft.azure.toolkit.intellij.common.auth.IntelliJSecureStore;
 import com.microsoft.azure.toolkit.intellij.explorer.AzureExplorer;
 import com.microsoft.azure.toolkit.intellij.explorer.TypeGroupedServicesRootNode;
 import com.microsoft.azure.toolkit.lib.Azure;
@@ -122,12 +124,19 @@ public class AzureServiceViewContributor implements ServiceViewContributor<NodeV
 
     @Nonnull
     private static List<? extends AbstractAzResource<?, ?, ?>> loadConnectionStringResources() {
-        return AzureResourceManager.getInstance().getResources().stream()
+        final List<String> ids = AzureResourceManager.getInstance().getResources().stream()
             .map(String::toLowerCase).distinct()
             .filter(id -> AbstractConnectionStringAzResourceModule.CONNECTION_STRING_SUBSCRIPTION_ID.equalsIgnoreCase(ResourceId.fromString(id).subscriptionId()))
+            .toList();
+        final ISecureStore store = AzureStoreManager.getInstance().getSecureStore();
+        if (store instanceof IntelliJSecureStore intellijStore) {
+            // read the connection strings concurrently instead of one by one
+            intellijStore.prefetch(CONNECTION_STRING_RESOURCES, ids, null).join();
+        }
+        return ids.stream()
             .map(id -> {
                 try {
-                    final String string = AzureStoreManager.getInstance().getSecureStore().loadPassword(CONNECTION_STRING_RESOURCES, id, null);
+                    final String string = store.loadPassword(CONNECTION_STRING_RESOURCES, id, null);
                     if (StringUtils.isNotBlank(string)) {
                         return Azure.az().getOrInitByIdAndConnectionString(id, string.trim());
                     }
@@ -6,12 +6,13 @@
 package com.microsoft.azure.toolkit.intellij.keyvault;
 
 import com.intellij.openapi.actionSystem.AnActionEvent;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.ide.keyvault.KeyVaultActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.keyvault.creation.certificate.CertificateCreationActions;
 import com.microsoft.azure.toolkit.intellij.keyvault.creation.key.KeyCreationActions;
 import com.microsoft.azure.toolkit.intellij.keyvault.creation.secret.SecretCreationActions;
+import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.keyvault.AzureKeyVault;
 import com.microsoft.azure.toolkit.lib.keyvault.CredentialVersion;
@@ -23,12 +24,25 @@ import com.microsoft.azure.toolkit.lib.keyvault.secret.Secret;
 import com.microsoft.azure.toolkit.lib.keyvault.secret.SecretModule;
 import com.microsoft.azure.toolkit.lib.resource.ResourceGroup;
 
+import javax.annotation.Nonnull;
+import java.util.Set;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.microsoft.azure.toolkit.intellij.keyvault.creation.KeyVaultCreationActions.createNewKeyVault;
 import static com.microsoft.azure.toolkit.intellij.keyvault.creation.KeyVaultCreationActions.getDefaultConfig;
 
-public class IntelliJKeyVaultActionsContributor implements IActionsContributor {
+public class IntelliJKeyVaultActionsContributor implements ILazyActionsContributor {
+
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(ResourceCommonActionsContributor.CREATE, KeyVaultActionsContributor.GROUP_CREATE_KEY_VAULT,
+                KeyVaultActionsContributor.DOWNLOAD_CREDENTIAL_VERSION,
+                KeyVaultActionsContributor.SHOW_CREDENTIAL_VERSION)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
 
     @Override
     public void registerHandlers(AzureActionManager am) {
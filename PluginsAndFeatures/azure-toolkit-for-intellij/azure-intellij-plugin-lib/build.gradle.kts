@@ -37,6 +37,8 @@ dependencies {
     annotationProcessor(libs.lombok)
     implementation(libs.azureToolkitCommonLib)
     aspect(libs.azureToolkitCommonLib)
+    testImplementation("junit:junit:4.13.2")
+    testImplementation("org.mockito:mockito-core:3.9.0")
 
     implementation("org.dom4j:dom4j:2.1.3") {
         exclude(group = "javax.xml.stream", module = "stax-api")
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Shared pump for stdout/stderr of local child processes, replacing a dedicated {@link ReadStreamLineThread} per stream.
+ * <p>
+ * Process pipes are not selectable, so a single daemon thread polls every registered stream with
+ * {@link InputStream#available()}, reads only what is ready (never blocks on an idle process), decodes it with a reusable
+ * per-stream {@link CharsetDecoder} (multi-byte characters may span reads) and hands complete lines to the consumer in
+ * chunks of up to {@link #MAX_CHUNK_LINES} lines or {@link #MAX_CHUNK_DELAY_MS}ms, whichever comes first.
+ * Consumers are called on the pump thread and must not block.
+ */
+@Slf4j
+public class ProcessOutputPump {
+    public static final int MAX_CHUNK_LINES = 512;
+    public static final long MAX_CHUNK_DELAY_MS = 50;
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    private static final long MAX_IDLE_SLEEP_MS = 20;
+    private static final long EXIT_GRACE_MS = 200;
+    private static final ProcessOutputPump instance = new ProcessOutputPump();
+
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+    private final Object lock = new Object();
+    @Getter
+    private final Metrics metrics = new Metrics();
+    private Thread thread;
+
+    public static ProcessOutputPump getInstance() {
+        return instance;
+    }
+
+    public Registration register(@Nonnull Process process, @Nonnull InputStream stream, @Nonnull Consumer<List<String>> chunkConsumer) {
+        return register(process, stream, Charset.defaultCharset(), chunkConsumer);
+    }
+
+    public Registration register(@Nonnull Process process, @Nonnull InputStream stream, @Nonnull Charset charset,
+                                 @Nonnull Consumer<List<String>> chunkConsumer) {
+        final Registration registration = new Registration(process, stream, charset, chunkConsumer);
+        synchronized (lock) {
+            registrations.add(registration);
+            if (thread == null || !thread.isAlive()) {
+                thread = new Thread(this::pump, "Azure Process Output Pump");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            lock.notifyAll();
+        }
+        return registration;
+    }
+
+    private void pump() {
+        long idleSleep = 0;
+        long lastSample = System.currentTimeMillis();
+        long lastLines = 0;
+        while (true) {
+            synchronized (lock) {
+                while (registrations.isEmpty()) {
+                    try {
+                        lock.wait();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+            boolean progressed = false;
+            long backlog = 0;
+            for (final Registration registration : registrations) {
+                progressed |= registration.poll();
+                backlog += registration.backlog;
+                if (registration.isClosed()) {
+                    registrations.remove(registration);
+                }
+            }
+            final long now = System.currentTimeMillis();
+            metrics.backlogBytes = backlog;
+            metrics.activeStreams = registrations.size();
+            if (now - lastSample >= 1000) {
+                final long lines = metrics.totalLines.get();
+                metrics.linesPerSecond = (lines - lastLines) * 1000.0 / (now - lastSample);
+                lastLines = lines;
+                lastSample = now;
+            }
+            idleSleep = progressed ? 0 : Math.min(Math.max(1, idleSleep * 2), MAX_IDLE_SLEEP_MS);
+            if (idleSleep > 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(idleSleep);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Getter
+    public static class Metrics {
+        private final AtomicLong totalLines = new AtomicLong();
+        private final AtomicLong totalChunks = new AtomicLong();
+        private volatile double linesPerSecond;
+        /**
+         * bytes reported ready by the registered streams but not yet read by the pump.
+         */
+        private volatile long backlogBytes;
+        private volatile int activeStreams;
+    }
+
+    public class Registration {
+        private final Process process;
+        private final InputStream stream;
+        private final Consumer<List<String>> consumer;
+        private final CharsetDecoder decoder;
+        private final ByteBuffer bytes = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private final CharBuffer chars = CharBuffer.allocate(READ_BUFFER_SIZE);
+        private final StringBuilder partial = new StringBuilder();
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private List<String> pending = new ArrayList<>();
+        private long pendingSince;
+        private long backlog;
+        private long deadSince;
+
+        private Registration(Process process, InputStream stream, Charset charset, Consumer<List<String>> consumer) {
+            this.process = process;
+            this.stream = stream;
+            this.consumer = consumer;
+            this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        public boolean isClosed() {
+            return closed.getCount() == 0;
+        }
+
+        /**
+         * waits until all output of the process has been read and delivered to the consumer.
+         */
+        public boolean awaitClosed(long timeout, @Nonnull TimeUnit unit) throws InterruptedException {
+            return closed.await(timeout, unit);
+        }
+
+        /**
+         * @return true if any byte was read
+         */
+        private boolean poll() {
+            if (isClosed()) {
+                return false;
+            }
+            try {
+                final int available = stream.available();
+                backlog = available;
+                if (available > 0) {
+                    final int read = stream.read(bytes.array(), bytes.position(), Math.min(available, bytes.remaining()));
+                    if (read > 0) {
+                        bytes.position(bytes.position() + read);
+                        decode(false);
+                        flushIfDue(false);
+                        return true;
+                    }
+                } else if (!process.isAlive()) {
+                    // don't block on reading EOF, the pipe may be inherited and kept open by a grandchild process
+                    final long now = System.currentTimeMillis();
+                    deadSince = deadSince > 0 ? deadSince : now;
+                    if (now - deadSince >= EXIT_GRACE_MS) {
+                        close();
+                        return true;
+                    }
+                }
+                flushIfDue(false);
+            } catch (final IOException e) {
+                log.debug("failed to read process output", e);
+                close();
+            }
+            return false;
+        }
+
+        private void decode(boolean endOfInput) {
+            bytes.flip();
+            CoderResult result;
+            do {
+                // an incomplete multi-byte sequence at the end stays in `bytes` until more input arrives
+                result = decoder.decode(bytes, chars, endOfInput);
+                drainChars();
+            } while (result.isOverflow());
+            if (endOfInput) {
+                decoder.flush(chars);
+                drainChars();
+            }
+            bytes.compact();
+        }
+
+        private void drainChars() {
+            chars.flip();
+            splitLines();
+            chars.clear();
+        }
+
+        private void splitLines() {
+            while (chars.hasRemaining()) {
+                final char c = chars.get();
+                if (c == '\n') {
+                    final int length = partial.length();
+                    if (length > 0 && partial.charAt(length - 1) == '\r') {
+                        partial.setLength(length - 1);
+                    }
+                    addLine(partial.toString());
+                    partial.setLength(0);
+                } else {
+                    partial.append(c);
+                }
+            }
+        }
+
+        private void addLine(String line) {
+            if (pending.isEmpty()) {
+                pendingSince = System.currentTimeMillis();
+            }
+            pending.add(line);
+            if (pending.size() >= MAX_CHUNK_LINES) {
+                flushIfDue(true);
+            }
+        }
+
+        private void flushIfDue(boolean force) {
+            if (pending.isEmpty() || (!force && System.currentTimeMillis() - pendingSince < MAX_CHUNK_DELAY_MS)) {
+                return;
+            }
+            final List<String> chunk = pending;
+            pending = new ArrayList<>();
+            metrics.totalLines.addAndGet(chunk.size());
+            metrics.totalChunks.incrementAndGet();
+            try {
+                consumer.accept(chunk);
+            } catch (final Throwable t) {
+                log.warn("failed to consume process output", t);
+            }
+        }
+
+        private void close() {
+            if (isClosed()) {
+                return;
+            }
+            decode(true);
+            if (partial.length() > 0) {
+                addLine(partial.toString());
+                partial.setLength(0);
+            }
+            flushIfDue(true);
+            backlog = 0;
+            try {
+                stream.close();
+            } catch (final IOException e) {
+                log.debug("failed to close process output stream", e);
+            }
+            closed.countDown();
+        }
+    }
+}
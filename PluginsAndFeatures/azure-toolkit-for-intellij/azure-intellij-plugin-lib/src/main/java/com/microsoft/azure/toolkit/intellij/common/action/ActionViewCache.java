@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.action;
+
+import com.microsoft.azure.toolkit.lib.common.event.AzureEvent;
+import com.microsoft.azure.toolkit.lib.common.event.AzureEventBus;
+import com.microsoft.azure.toolkit.lib.common.model.AzResource;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.swing.*;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches the views of actions on Azure resources, so that the repeated updates of toolbars and context menus are
+ * lookups. A view is cached by the action, the resource and the version of the resource state, the version is bumped
+ * on the status change and refresh of the resource, and the versions of all resources are bumped on the change of
+ * the account or selected subscriptions. The time of building views is recorded per action, slow ones are logged.
+ */
+@Slf4j
+public class ActionViewCache {
+    private static final int MAX_CACHED_VIEWS = 4096;
+    private static final long SLOW_VIEW_NANOS = 50_000_000;
+    private static final String[] RESOURCE_EVENTS = {"resource.status_changed.resource", "resource.refreshed.resource"};
+    private static final String[] ACCOUNT_EVENTS = {"account.logged_in.account", "account.logged_out.account", "account.subscription_changed.account"};
+    private static final ActionViewCache instance = new ActionViewCache();
+
+    private final Map<String, AtomicLong> resourceVersions = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong(0);
+    private final Map<String, BuildStats> buildStats = new ConcurrentHashMap<>();
+    private final Map<Key, View> views = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, View> eldest) {
+            return size() > MAX_CACHED_VIEWS;
+        }
+    });
+
+    private ActionViewCache() {
+        final AzureEventBus.EventListener onResourceChanged = new AzureEventBus.EventListener(this::onResourceChanged);
+        for (final String type : RESOURCE_EVENTS) {
+            AzureEventBus.on(type, onResourceChanged);
+        }
+        final AzureEventBus.EventListener onAccountChanged = new AzureEventBus.EventListener(e -> this.globalVersion.incrementAndGet());
+        for (final String type : ACCOUNT_EVENTS) {
+            AzureEventBus.on(type, onAccountChanged);
+        }
+    }
+
+    public static ActionViewCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Get the cached view of the action on the source, or build it if the source isn't a resource or its state changed
+     */
+    @Nonnull
+    public View get(@Nonnull String actionId, @Nullable Object source, @Nullable String place, @Nonnull Supplier<View> builder) {
+        if (!(source instanceof AzResource)) {
+            return build(actionId, builder);
+        }
+        final String resourceId = ((AzResource) source).getId();
+        final long version = this.resourceVersions.computeIfAbsent(resourceId, id -> new AtomicLong(0)).get();
+        final Key key = new Key(actionId, resourceId, place, this.globalVersion.get(), version);
+        final View cached = this.views.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final View view = build(actionId, builder);
+        this.views.put(key, view);
+        return view;
+    }
+
+    /**
+     * @return the build stats of views by action id, only the actions with slow builds are included
+     */
+    @Nonnull
+    public Map<String, BuildStats> getSlowBuildStats() {
+        return Collections.unmodifiableMap(this.buildStats);
+    }
+
+    private View build(@Nonnull String actionId, @Nonnull Supplier<View> builder) {
+        final long start = System.nanoTime();
+        final View view = builder.get();
+        final long elapsed = System.nanoTime() - start;
+        if (elapsed > SLOW_VIEW_NANOS) {
+            final BuildStats stats = this.buildStats.computeIfAbsent(actionId, id -> new BuildStats());
+            stats.record(elapsed);
+            log.info("Slow view of action {}: {}ms, {} slow build(s), max {}ms", actionId, elapsed / 1_000_000, stats.getSlowBuilds(), stats.getMaxNanos() / 1_000_000);
+        }
+        return view;
+    }
+
+    private void onResourceChanged(@Nonnull AzureEvent event) {
+        final Object source = event.getSource();
+        if (source instanceof AzResource) {
+            this.resourceVersions.computeIfAbsent(((AzResource) source).getId(), id -> new AtomicLong(0)).incrementAndGet();
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final String actionId;
+        private final String resourceId;
+        @Nullable
+        private final String place;
+        private final long globalVersion;
+        private final long resourceVersion;
+    }
+
+    /**
+     * The presentation of an action resolved from its view
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class View {
+        public static final View INVISIBLE = new View(false, false, null, null, null);
+
+        private final boolean visible;
+        private final boolean enabled;
+        @Nullable
+        private final String text;
+        @Nullable
+        private final String description;
+        @Nullable
+        private final Icon icon;
+    }
+
+    @Getter
+    public static class BuildStats {
+        private long slowBuilds;
+        private long totalNanos;
+        private long maxNanos;
+
+        private synchronized void record(long nanos) {
+            this.slowBuilds++;
+            this.totalNanos += nanos;
+            this.maxNanos = Math.max(this.maxNanos, nanos);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.action;
+
+import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
+import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Registers the actions, handlers and groups of the {@link IActionsContributor}s to an {@link AzureActionManager}:
+ * the eager ones on {@link #start()}, the {@link ILazyActionsContributor}s on demand of their ids.
+ */
+@Slf4j
+class ActionsContributorRegistry {
+    private static final int SLOWEST_CONTRIBUTORS_LOGGED = 5;
+
+    private final AzureActionManager am;
+    private final List<IActionsContributor> contributors;
+    /**
+     * the lazy contributors not registered yet, by the ids of the actions and groups they register
+     */
+    private final Map<String, ILazyActionsContributor> owners = new ConcurrentHashMap<>();
+    /**
+     * the lazy contributors not registered yet, by the ids of the actions they register handlers on
+     */
+    private final Map<String, List<ILazyActionsContributor>> handlers = new ConcurrentHashMap<>();
+    private final Set<ILazyActionsContributor> registering = new HashSet<>();
+    /**
+     * the time spent in registration by each contributor, in nanoseconds
+     */
+    private final Map<String, Long> registrationNanos = new ConcurrentHashMap<>();
+    private volatile boolean started;
+
+    ActionsContributorRegistry(@Nonnull AzureActionManager am, @Nonnull List<? extends IActionsContributor> contributors) {
+        this.am = am;
+        this.contributors = contributors.stream().sorted(Comparator.comparing(IActionsContributor::getOrder)).collect(Collectors.toList());
+    }
+
+    /**
+     * Register the eager contributors and keep the lazy ones to be registered on demand.
+     */
+    void start() {
+        this.contributors.stream().filter(c -> c instanceof ILazyActionsContributor).map(c -> (ILazyActionsContributor) c).forEach(c -> {
+            c.getDeclaredIds().forEach(id -> this.owners.put(id, c));
+            c.getHandledIds().forEach(id -> this.handlers.merge(id, List.of(c), (a, b) -> Stream.concat(a.stream(), b.stream()).toList()));
+        });
+        final List<IActionsContributor> eagerContributors = this.contributors.stream().filter(c -> !(c instanceof ILazyActionsContributor)).toList();
+        eagerContributors.forEach(c -> this.timed(c, IActionsContributor::registerActions));
+        eagerContributors.forEach(c -> this.timed(c, IActionsContributor::registerHandlers));
+        eagerContributors.forEach(c -> this.timed(c, IActionsContributor::registerGroups));
+        this.started = true;
+        log.info("Registered Azure actions of {} contributors in {}ms ({} on demand), slowest: {}", eagerContributors.size(),
+            this.registrationNanos.values().stream().mapToLong(Long::longValue).sum() / 1_000_000,
+            this.contributors.size() - eagerContributors.size(), getRegistrationMillis().entrySet().stream()
+                .limit(SLOWEST_CONTRIBUTORS_LOGGED).map(e -> e.getKey() + "=" + e.getValue() + "ms").collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * @return the time spent in registration by each contributor in milliseconds, the slowest first
+     */
+    @Nonnull
+    Map<String, Long> getRegistrationMillis() {
+        return Collections.unmodifiableMap(this.registrationNanos.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue() / 1_000_000, (a, b) -> a, LinkedHashMap::new)));
+    }
+
+    /**
+     * Register the lazy contributors the id is declared or, once started, handled by, if they are not registered yet.
+     * The handlers of an action are not needed while the contributors are registered at startup, so that registering
+     * handlers on an action at startup doesn't register the lazy contributors handling it as well.
+     */
+    void registerOnDemand(@Nonnull String id) {
+        if (!this.owners.containsKey(id) && !(this.started && this.handlers.containsKey(id))) {
+            return;
+        }
+        synchronized (this.registering) {
+            final List<ILazyActionsContributor> pending = new ArrayList<>();
+            Optional.ofNullable(this.owners.get(id)).ifPresent(pending::add);
+            if (this.started) {
+                Optional.ofNullable(this.handlers.get(id)).ifPresent(pending::addAll);
+            }
+            pending.stream().distinct().sorted(Comparator.comparingInt(this.contributors::indexOf)).forEach(c -> this.register(c, id));
+        }
+    }
+
+    private void register(@Nonnull ILazyActionsContributor contributor, @Nonnull String id) {
+        // its own ids are looked up while it's registering
+        if (!this.registering.add(contributor)) {
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            if (this.started) {
+                // the handler registered last takes precedence, so the contributors ordered before it handling the same actions go first
+                final int index = this.contributors.indexOf(contributor);
+                contributor.getHandledIds().stream().map(this.handlers::get).filter(Objects::nonNull).flatMap(List::stream)
+                    .filter(c -> this.contributors.indexOf(c) < index).distinct().toList()
+                    .forEach(c -> this.register(c, id));
+            }
+            this.timed(contributor, IActionsContributor::registerActions);
+            this.timed(contributor, IActionsContributor::registerHandlers);
+            this.timed(contributor, IActionsContributor::registerGroups);
+        } finally {
+            contributor.getDeclaredIds().forEach(this.owners::remove);
+            contributor.getHandledIds().forEach(handled -> this.handlers.computeIfPresent(handled, (k, contributors) -> {
+                final List<ILazyActionsContributor> rest = contributors.stream().filter(c -> c != contributor).toList();
+                return rest.isEmpty() ? null : rest;
+            }));
+            this.registering.remove(contributor);
+        }
+        log.debug("Registered Azure actions of {} on demand of {} in {}ms", contributor.getClass().getSimpleName(), id, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void timed(IActionsContributor contributor, BiConsumer<IActionsContributor, AzureActionManager> registration) {
+        final long start = System.nanoTime();
+        try {
+            registration.accept(contributor, this.am);
+        } finally {
+            this.registrationNanos.merge(contributor.getClass().getSimpleName(), System.nanoTime() - start, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.action;
+
+import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * An {@link IActionsContributor} registered on demand instead of at startup: its actions, handlers and groups are
+ * registered by {@link IntellijAzureActionManager} on the first lookup of any of its declared ids, or, once the
+ * startup registration is done, on the first lookup or use of any action it registers handlers on.
+ * The handlers of its actions should be registered by itself, since other contributors registering handlers
+ * on its actions at startup defeat the laziness.
+ */
+public interface ILazyActionsContributor extends IActionsContributor {
+    /**
+     * @return the ids of the actions and groups registered by this contributor
+     */
+    @Nonnull
+    default Set<String> getDeclaredIds() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * @return the ids of the actions registered by other contributors which this contributor registers handlers on
+     */
+    @Nonnull
+    default Set<String> getHandledIds() {
+        return Collections.emptySet();
+    }
+}
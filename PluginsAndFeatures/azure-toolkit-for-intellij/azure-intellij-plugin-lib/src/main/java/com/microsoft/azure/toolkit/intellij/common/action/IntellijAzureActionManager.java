@@ -32,8 +32,8 @@ import org.apache.commons.lang3.StringUtils;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.swing.*;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -43,18 +43,47 @@ import static com.microsoft.azure.toolkit.lib.common.action.Action.PLACE;
 public class IntellijAzureActionManager extends AzureActionManager {
     private static final ExtensionPointName<IActionsContributor> actionsExtensionPoint =
         ExtensionPointName.create("com.microsoft.tooling.msservices.intellij.azure.actions");
+    /**
+     * the created instance, available to the groups created while registering, before the service is initialized
+     */
+    @Nullable
+    private static volatile IntellijAzureActionManager current;
 
     /**
      * register {@code ACTION_SOURCE} as data key, so that PreCachedDataContext can pre cache it.
      */
     private static final DataKey<Object> ACTION_SOURCE = DataKey.create(Action.SOURCE);
 
+    private final ActionsContributorRegistry registry;
+
     private IntellijAzureActionManager() {
         super();
-        final List<IActionsContributor> contributors = actionsExtensionPoint.getExtensionList();
-        contributors.stream().sorted(Comparator.comparing(IActionsContributor::getOrder)).forEach((e) -> e.registerActions(this));
-        contributors.stream().sorted(Comparator.comparing(IActionsContributor::getOrder)).forEach((e) -> e.registerHandlers(this));
-        contributors.stream().sorted(Comparator.comparing(IActionsContributor::getOrder)).forEach((e) -> e.registerGroups(this));
+        current = this;
+        this.registry = new ActionsContributorRegistry(this, actionsExtensionPoint.getExtensionList());
+        this.registry.start();
+    }
+
+    /**
+     * @return the time spent in registration by each contributor in milliseconds, the slowest first
+     */
+    public Map<String, Long> getRegistrationMillis() {
+        return this.registry.getRegistrationMillis();
+    }
+
+    /**
+     * Register the lazy contributors declaring or handling the id, if they are not registered yet
+     */
+    private static void registerOnDemand(String id) {
+        Optional.ofNullable(current).map(am -> am.registry).ifPresent(r -> r.registerOnDemand(id));
+    }
+
+    /**
+     * Get the native action by id, registering the lazy contributor declaring it on demand
+     */
+    @Nullable
+    public static AnAction getNativeAction(String id) {
+        registerOnDemand(id);
+        return ActionManager.getInstance().getAction(id);
     }
 
     public <D> void registerAction(Action<D> action) {
@@ -70,6 +99,7 @@ public class IntellijAzureActionManager extends AzureActionManager {
     @SuppressWarnings("unchecked")
     @Override
     public <D> Action<D> getAction(Action.Id<D> id) {
+        registerOnDemand(id.getId());
         final AnAction origin = ActionManager.getInstance().getAction(id.getId());
         if (Objects.isNull(origin)) {
             return null;
@@ -96,6 +126,7 @@ public class IntellijAzureActionManager extends AzureActionManager {
 
     @Override
     public IActionGroup getGroup(String id) {
+        registerOnDemand(id);
         return (ActionGroupWrapper) ActionManager.getInstance().getAction(id);
     }
 
@@ -137,7 +168,7 @@ public class IntellijAzureActionManager extends AzureActionManager {
         public ShortcutSet getShortcuts() {
             final Object shortcuts = action.getShortcut();
             if (shortcuts instanceof Action.Id) {
-                return ActionManager.getInstance().getAction(((Action.Id<?>) shortcuts).getId()).getShortcutSet();
+                return Objects.requireNonNull(getNativeAction(((Action.Id<?>) shortcuts).getId())).getShortcutSet();
             } else if (shortcuts instanceof String) {
                 return CustomShortcutSet.fromString((String) shortcuts);
             } else if (shortcuts instanceof String[]) {
@@ -162,6 +193,7 @@ public class IntellijAzureActionManager extends AzureActionManager {
 
         @Override
         public void actionPerformed(@Nonnull AnActionEvent e) {
+            registerOnDemand(this.action.getId().getId());
             final T source = getSource(e);
             final ActionInstance<T> instance = this.action.instantiate(source, e);
             instance.getContext().setTelemetryProperty(PLACE, StringUtils.firstNonBlank(e.getPlace(), EMPTY_PLACE));
@@ -170,8 +202,23 @@ public class IntellijAzureActionManager extends AzureActionManager {
 
         @Override
         public void update(@Nonnull AnActionEvent e) {
+            registerOnDemand(this.action.getId().getId());
             final T source = getSource(e);
             final Presentation presentation = e.getPresentation();
+            final ActionViewCache.View view = ActionViewCache.getInstance()
+                .get(this.action.getId().getId(), source, e.getPlace(), () -> this.buildView(source, e));
+
+            presentation.setVisible(view.isVisible());
+            if (view.isVisible()) {
+                presentation.setEnabled(view.isEnabled());
+                presentation.setIcon(view.getIcon());
+                presentation.setText(view.getText());
+                presentation.setDescription(view.getDescription());
+            }
+        }
+
+        @Nonnull
+        private ActionViewCache.View buildView(@Nullable T source, @Nonnull AnActionEvent e) {
             final ActionInstance<T> instance = action.instantiate(source, e);
             final IView.Label view = Optional.of(instance).map(ActionInstance::getView).orElse(Action.View.INVISIBLE);
             final boolean visible;
@@ -188,13 +235,11 @@ public class IntellijAzureActionManager extends AzureActionManager {
                 visible = !isResourceInOtherSubs && view.isVisible();
             }
 
-            presentation.setVisible(visible);
-            if (visible) {
-                presentation.setEnabled(view.isEnabled());
-                presentation.setIcon(Optional.ofNullable(view.getIconPath()).map(IntelliJAzureIcons::getIcon).orElse(null));
-                presentation.setText(view.getLabel());
-                presentation.setDescription(view.getDescription());
+            if (!visible) {
+                return ActionViewCache.View.INVISIBLE;
             }
+            return new ActionViewCache.View(true, view.isEnabled(), view.getLabel(), view.getDescription(),
+                Optional.ofNullable(view.getIconPath()).map(IntelliJAzureIcons::getIcon).orElse(null));
         }
     }
 
@@ -283,8 +328,7 @@ public class IntellijAzureActionManager extends AzureActionManager {
                         this.addSeparator(title);
                     }
                 } else if (StringUtils.isNotBlank(actionId)) {
-                    final ActionManager am = ActionManager.getInstance();
-                    final AnAction action = am.getAction(actionId);
+                    final AnAction action = getNativeAction(actionId);
                     if (action instanceof com.intellij.openapi.actionSystem.ActionGroup) {
                         this.add(action);
                     } else if (Objects.nonNull(action)) {
@@ -7,14 +7,27 @@ package com.microsoft.azure.toolkit.intellij.common.auth;
 
 import com.intellij.credentialStore.CredentialAttributes;
 import com.intellij.ide.passwordSafe.PasswordSafe;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.microsoft.azure.toolkit.ide.common.store.ISecureStore;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 import static com.intellij.credentialStore.CredentialAttributesKt.generateServiceName;
 
+/**
+ * Secure store backed by the IntelliJ PasswordSafe. Reading the PasswordSafe may take tens of milliseconds and prompt
+ * with KeePass, libsecret or Keychain, so the loaded credentials are cached in memory for the IDE session. The missing
+ * ones are not cached, since they may be saved later, e.g. by other IDE windows. The cache of a credential is invalidated
+ * when it's saved, forgotten or migrated through this store.
+ */
 public class IntelliJSecureStore implements ISecureStore {
     static IntelliJSecureStore INSTANCE = null;
 
@@ -25,11 +38,22 @@ public class IntelliJSecureStore implements ISecureStore {
         return INSTANCE;
     }
 
+    // Leverage IntelliJ PasswordSafe component
+    private final PasswordSafe passwordSafe;
+    private final Executor executor;
+    /**
+     * the loaded or loading credentials by the service name and user name of their attributes
+     */
+    private final Map<String, CompletableFuture<Optional<String>>> cache = new ConcurrentHashMap<>();
+
     private IntelliJSecureStore() {
+        this(PasswordSafe.getInstance(), AppExecutorUtil.getAppExecutorService());
     }
 
-    // Leverage IntelliJ PasswordSafe component
-    private PasswordSafe passwordSafe = PasswordSafe.getInstance();
+    IntelliJSecureStore(@Nonnull PasswordSafe passwordSafe, @Nonnull Executor executor) {
+        this.passwordSafe = passwordSafe;
+        this.executor = executor;
+    }
 
     @Nullable
     @Override
@@ -50,21 +74,54 @@ public class IntelliJSecureStore implements ISecureStore {
 
     @Override
     public void savePassword(@Nonnull String serviceName, @Nullable String key, @Nullable String userName, @Nonnull String password) {
-        passwordSafe.setPassword(makeKey(serviceName, key, userName), password);
+        final CredentialAttributes attributes = makeKey(serviceName, key, userName);
+        passwordSafe.setPassword(attributes, password);
+        invalidate(attributes);
     }
 
     @Override
     @Nullable
     public String loadPassword(@Nonnull String serviceName, @Nullable String key, @Nullable String userName) {
-        return passwordSafe.getPassword(makeKey(serviceName, key, userName));
+        // loaded in the current thread, or wait for the loading in progress
+        return load(makeKey(serviceName, key, userName), Runnable::run).join().orElse(null);
+    }
+
+    /**
+     * Load password or credential from the secure store in background, the cached one is returned immediately
+     */
+    @Nonnull
+    public CompletableFuture<String> loadPasswordAsync(@Nonnull String serviceName, @Nullable String key, @Nullable String userName) {
+        return load(makeKey(serviceName, key, userName), executor).thenApply(v -> v.orElse(null));
+    }
+
+    /**
+     * Load the credentials of the keys of a service in background concurrently, so that the following loads of them
+     * wait for the loading in progress or are served from the cache instead of reading the PasswordSafe one by one.
+     * The returned future completes when all of them are loaded, failing to load any of them doesn't fail it.
+     */
+    @Nonnull
+    public CompletableFuture<Void> prefetch(@Nonnull String serviceName, @Nonnull Collection<String> keys, @Nullable String userName) {
+        return CompletableFuture.allOf(keys.stream()
+                .map(key -> loadPasswordAsync(serviceName, key, userName).exceptionally(t -> null))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Clear the cached credentials, e.g. after they are changed outside this store
+     */
+    public void clearCache() {
+        cache.clear();
     }
 
     @Override
     public void forgetPassword(@Nonnull String serviceName, @Nullable String key, @Nullable String userName) {
         CredentialAttributes oldKey = StringUtils.isNotBlank(userName) ? new CredentialAttributes(key, userName) :
                 new CredentialAttributes(key);
+        final CredentialAttributes newKey = makeKey(serviceName, key, userName);
         passwordSafe.setPassword(oldKey, null);
-        passwordSafe.setPassword(makeKey(serviceName, key, userName), null);
+        passwordSafe.setPassword(newKey, null);
+        invalidate(oldKey);
+        invalidate(newKey);
     }
 
     @Override
@@ -77,6 +134,41 @@ public class IntelliJSecureStore implements ISecureStore {
             passwordSafe.setPassword(newKey, passwordSafe.getPassword(oldKey));
         }
         passwordSafe.setPassword(oldKey, null);
+        invalidate(oldKey);
+        invalidate(newKey);
+    }
+
+    @Nonnull
+    private CompletableFuture<Optional<String>> load(@Nonnull CredentialAttributes attributes, @Nonnull Executor executor) {
+        final String cacheKey = toCacheKey(attributes);
+        final CompletableFuture<Optional<String>> loading = new CompletableFuture<>();
+        final CompletableFuture<Optional<String>> existing = cache.putIfAbsent(cacheKey, loading);
+        if (existing != null) {
+            return existing;
+        }
+        executor.execute(() -> {
+            try {
+                final String password = passwordSafe.getPassword(attributes);
+                if (password == null) {
+                    // the loads waiting for it get the miss, the following ones read the PasswordSafe again
+                    cache.remove(cacheKey, loading);
+                }
+                loading.complete(Optional.ofNullable(password));
+            } catch (final Throwable t) {
+                cache.remove(cacheKey, loading);
+                loading.completeExceptionally(t);
+            }
+        });
+        return loading;
+    }
+
+    private void invalidate(@Nonnull CredentialAttributes attributes) {
+        cache.remove(toCacheKey(attributes));
+    }
+
+    @Nonnull
+    private static String toCacheKey(@Nonnull CredentialAttributes attributes) {
+        return attributes.getServiceName() + "\n" + StringUtils.defaultString(attributes.getUserName());
     }
 
     @Nonnull
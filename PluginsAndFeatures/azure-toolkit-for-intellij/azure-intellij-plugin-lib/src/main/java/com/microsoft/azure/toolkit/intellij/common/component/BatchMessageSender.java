@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.component;
+
+import com.microsoft.azure.toolkit.intellij.common.messager.IntellijAzureMessager;
+import com.microsoft.azure.toolkit.lib.common.messager.IAzureMessage;
+import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
+import com.microsoft.azure.toolkit.lib.common.operation.OperationContext;
+import com.microsoft.azure.toolkit.lib.resource.message.ISenderReceiver;
+import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Sends messages in batches to load test a consumer. The messages are the lines of an NDJSON file or generated from a
+ * template, grouped into batches bounded by message count and bytes like an {@code EventDataBatch}, and paced to the
+ * target rate. Up to {@link Options#getConcurrency()} batches are sent at a time, each in an operation of its own whose
+ * messager records the failures, so the per message output of {@link ISenderReceiver#sendMessage} is suppressed and
+ * only the progress is emitted.
+ */
+@RequiredArgsConstructor
+public class BatchMessageSender {
+    public static final String SEQUENCE_PLACEHOLDER = "{seq}";
+    public static final String TIME_PLACEHOLDER = "{time}";
+
+    @Nonnull
+    private final ISenderReceiver instance;
+    @Nonnull
+    private final Options options;
+
+    /**
+     * @return the progress after each batch sent, completed when all messages are sent
+     */
+    public Flux<Progress> send() {
+        return Flux.defer(() -> {
+            final long startMillis = System.currentTimeMillis();
+            final AtomicLong queued = new AtomicLong(0);
+            final AtomicLong sent = new AtomicLong(0);
+            final AtomicLong failed = new AtomicLong(0);
+
+            return batches().flatMap(batch -> {
+                // Catch up to the target rate if the previous batches were sent slowly
+                final long dueMillis = options.getRate() > 0 ? startMillis + queued.get() * 1000 / options.getRate() : 0;
+                queued.addAndGet(batch.size());
+
+                return Mono.delay(Duration.ofMillis(Math.max(0, dueMillis - System.currentTimeMillis())))
+                        .then(Mono.fromCallable(() -> sendBatch(batch)).subscribeOn(Schedulers.boundedElastic()))
+                        .map(failedInBatch -> {
+                            sent.addAndGet(batch.size() - failedInBatch);
+                            failed.addAndGet(failedInBatch);
+                            return new Progress(sent.get(), failed.get(), System.currentTimeMillis() - startMillis);
+                        });
+            }, Math.max(1, options.getConcurrency()));
+        });
+    }
+
+    /**
+     * Send the messages of the batch one by one. The messager is set to the operation of the batch rather than the
+     * context of the pooled thread, so that it's neither shared with other batches nor left to later operations.
+     *
+     * @return the count of the messages failed
+     */
+    @AzureOperation(name = "internal/common.send_message_batch")
+    int sendBatch(@Nonnull final List<String> batch) {
+        final SendResultMessager messager = new SendResultMessager();
+        OperationContext.current().setMessager(messager);
+        int failed = 0;
+        for (final String message : batch) {
+            // the sending is disposed, e.g. stopped by user
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            messager.setFailed(false);
+            try {
+                instance.sendMessage(message);
+            } catch (final RuntimeException e) {
+                messager.setFailed(true);
+            }
+            if (messager.isFailed()) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    private Flux<List<String>> batches() {
+        return Flux.defer(() -> {
+            final int[] batchCount = {0};
+            final long[] batchBytes = {0};
+
+            return messages().bufferUntil(message -> {
+                final int bytes = message.getBytes(StandardCharsets.UTF_8).length;
+                final boolean isFull = batchCount[0] > 0 &&
+                        (batchCount[0] >= options.getBatchSize() || batchBytes[0] + bytes > options.getMaxBatchBytes());
+
+                if (isFull) {
+                    batchCount[0] = 0;
+                    batchBytes[0] = 0;
+                }
+
+                batchCount[0]++;
+                batchBytes[0] += bytes;
+
+                return isFull;
+            }, true);
+        });
+    }
+
+    private Flux<String> messages() {
+        final File file = options.getFile();
+        if (file != null) {
+            return Flux.using(() -> Files.lines(file.toPath(), StandardCharsets.UTF_8), Flux::fromStream, Stream::close)
+                    .filter(StringUtils::isNotBlank);
+        }
+
+        return Flux.range(1, Math.max(0, options.getCount()))
+                .map(seq -> StringUtils.replaceEach(options.getTemplate(),
+                        new String[]{SEQUENCE_PLACEHOLDER, TIME_PLACEHOLDER},
+                        new String[]{String.valueOf(seq), Instant.now().toString()}));
+    }
+
+    @Data
+    public static class Options {
+        /**
+         * the NDJSON file whose non-blank lines are sent, the messages are generated from the template if it's null
+         */
+        @Nullable
+        private File file;
+        private String template = "{\"seq\": " + SEQUENCE_PLACEHOLDER + ", \"time\": \"" + TIME_PLACEHOLDER + "\"}";
+        private int count = 1000;
+        /**
+         * messages per second, not limited if it's not positive
+         */
+        private int rate = 100;
+        private int batchSize = 100;
+        private int maxBatchBytes = 1024 * 1024;
+        private int concurrency = 8;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Progress {
+        private final long sent;
+        private final long failed;
+        private final long elapsedMillis;
+
+        public long getRate() {
+            return elapsedMillis > 0 ? (sent + failed) * 1000 / elapsedMillis : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Sent %d message(s)%s in %.1fs (%d msg/s)",
+                    sent, failed > 0 ? ", " + failed + " failed," : "", elapsedMillis / 1000.0, getRate());
+        }
+    }
+
+    /**
+     * Records the failure of a message sending instead of showing it per message
+     */
+    private static class SendResultMessager extends IntellijAzureMessager {
+        @Getter
+        @Setter
+        private volatile boolean failed;
+
+        @Override
+        public boolean show(IAzureMessage msg) {
+            if (msg.getRawMessage().getType() == IAzureMessage.Type.ERROR) {
+                failed = true;
+            }
+
+            return true;
+        }
+    }
+}
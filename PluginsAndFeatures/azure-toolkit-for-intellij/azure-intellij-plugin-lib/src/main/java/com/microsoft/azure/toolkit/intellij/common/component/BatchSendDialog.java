@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.component;
+
+import com.intellij.openapi.fileChooser.FileChooser;
+import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.ui.TextFieldWithBrowseButton;
+import com.intellij.openapi.ui.ValidationInfo;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.ui.components.JBRadioButton;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.util.ui.FormBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.swing.*;
+import java.io.File;
+
+/**
+ * Configures the {@link BatchMessageSender.Options} of a batch sending.
+ */
+public class BatchSendDialog extends DialogWrapper {
+    private final JBRadioButton generateRadio = new JBRadioButton("Generate messages", true);
+    private final JBRadioButton fileRadio = new JBRadioButton("Replay NDJSON file (one message per line)");
+    private final JBTextField templateInput = new JBTextField();
+    private final JBTextField countInput = new JBTextField();
+    private final TextFieldWithBrowseButton fileInput = new TextFieldWithBrowseButton();
+    private final JBTextField rateInput = new JBTextField();
+    private final JBTextField batchSizeInput = new JBTextField();
+    private final JBTextField maxBatchBytesInput = new JBTextField();
+    private final JBTextField concurrencyInput = new JBTextField();
+
+    public BatchSendDialog(@Nullable Project project, @Nonnull BatchMessageSender.Options options) {
+        super(project, false);
+        setTitle("Send Messages in Batch");
+        final ButtonGroup group = new ButtonGroup();
+        group.add(generateRadio);
+        group.add(fileRadio);
+        generateRadio.addActionListener(e -> updateEnabled());
+        fileRadio.addActionListener(e -> updateEnabled());
+        fileInput.addActionListener(e -> {
+            final VirtualFile file = FileChooser.chooseFile(FileChooserDescriptorFactory.createSingleFileDescriptor(), project, null);
+            if (file != null) {
+                fileInput.setText(file.getPath());
+            }
+        });
+        setValue(options);
+        init();
+    }
+
+    @Nullable
+    @Override
+    protected JComponent createCenterPanel() {
+        return FormBuilder.createFormBuilder()
+                .addComponent(generateRadio)
+                .addLabeledComponent("Template (" + BatchMessageSender.SEQUENCE_PLACEHOLDER + ", " +
+                        BatchMessageSender.TIME_PLACEHOLDER + "):", templateInput)
+                .addLabeledComponent("Count:", countInput)
+                .addComponent(fileRadio)
+                .addLabeledComponent("File:", fileInput)
+                .addSeparator()
+                .addLabeledComponent("Messages per second (0 for unlimited):", rateInput)
+                .addLabeledComponent("Max messages per batch:", batchSizeInput)
+                .addLabeledComponent("Max bytes per batch:", maxBatchBytesInput)
+                .addLabeledComponent("Concurrent sends:", concurrencyInput)
+                .getPanel();
+    }
+
+    @Nullable
+    @Override
+    protected ValidationInfo doValidate() {
+        if (fileRadio.isSelected() && !new File(fileInput.getText()).isFile()) {
+            return new ValidationInfo("Select an existing NDJSON file", fileInput);
+        }
+        if (generateRadio.isSelected() && StringUtils.isBlank(templateInput.getText())) {
+            return new ValidationInfo("Template is required", templateInput);
+        }
+        for (final JBTextField input : new JBTextField[]{countInput, batchSizeInput, maxBatchBytesInput, concurrencyInput}) {
+            if (input.isEnabled() && NumberUtils.toInt(input.getText(), 0) <= 0) {
+                return new ValidationInfo("A positive integer is required", input);
+            }
+        }
+        if (NumberUtils.toInt(rateInput.getText(), -1) < 0) {
+            return new ValidationInfo("A non-negative integer is required", rateInput);
+        }
+        return null;
+    }
+
+    @Nonnull
+    public BatchMessageSender.Options getValue() {
+        final BatchMessageSender.Options options = new BatchMessageSender.Options();
+        options.setFile(fileRadio.isSelected() ? new File(fileInput.getText()) : null);
+        options.setTemplate(templateInput.getText());
+        options.setCount(NumberUtils.toInt(countInput.getText(), options.getCount()));
+        options.setRate(NumberUtils.toInt(rateInput.getText(), options.getRate()));
+        options.setBatchSize(NumberUtils.toInt(batchSizeInput.getText(), options.getBatchSize()));
+        options.setMaxBatchBytes(NumberUtils.toInt(maxBatchBytesInput.getText(), options.getMaxBatchBytes()));
+        options.setConcurrency(NumberUtils.toInt(concurrencyInput.getText(), options.getConcurrency()));
+        return options;
+    }
+
+    private void setValue(@Nonnull BatchMessageSender.Options options) {
+        fileRadio.setSelected(options.getFile() != null);
+        generateRadio.setSelected(options.getFile() == null);
+        fileInput.setText(options.getFile() == null ? StringUtils.EMPTY : options.getFile().getPath());
+        templateInput.setText(options.getTemplate());
+        countInput.setText(String.valueOf(options.getCount()));
+        rateInput.setText(String.valueOf(options.getRate()));
+        batchSizeInput.setText(String.valueOf(options.getBatchSize()));
+        maxBatchBytesInput.setText(String.valueOf(options.getMaxBatchBytes()));
+        concurrencyInput.setText(String.valueOf(options.getConcurrency()));
+        updateEnabled();
+    }
+
+    private void updateEnabled() {
+        templateInput.setEnabled(generateRadio.isSelected());
+        countInput.setEnabled(generateRadio.isSelected());
+        fileInput.setEnabled(fileRadio.isSelected());
+    }
+}
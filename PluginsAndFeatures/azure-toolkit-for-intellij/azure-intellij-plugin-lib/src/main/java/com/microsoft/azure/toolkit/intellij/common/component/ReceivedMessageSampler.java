@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.component;
+
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Bounds the console output of received messages. Up to {@link #DEFAULT_MAX_PRINTS_PER_SECOND} outputs are printed in
+ * a second, the others are skipped and only the latest of them are kept in a ring buffer. Every second with outputs
+ * skipped, {@link #tick()} gives a summary with the received rate per partition and samples from the ring buffer.
+ */
+public class ReceivedMessageSampler {
+    public static final int DEFAULT_MAX_PRINTS_PER_SECOND = 200;
+    public static final int DEFAULT_SAMPLES = 5;
+    private static final String UNKNOWN_PARTITION = "-";
+    private static final Pattern PARTITION_PATTERN = Pattern.compile("partition \\(\"?([^\")]+)\"?\\)", Pattern.CASE_INSENSITIVE);
+
+    private final int maxPrintsPerSecond;
+    private final int samples;
+    private final Deque<String> skipped;
+    private final Map<String, Long> receivedPerPartition = new TreeMap<>();
+    private long windowStartMillis = System.currentTimeMillis();
+    private int printed;
+    private long skippedCount;
+
+    public ReceivedMessageSampler() {
+        this(DEFAULT_MAX_PRINTS_PER_SECOND, DEFAULT_SAMPLES);
+    }
+
+    public ReceivedMessageSampler(int maxPrintsPerSecond, int samples) {
+        this.maxPrintsPerSecond = maxPrintsPerSecond;
+        this.samples = samples;
+        this.skipped = new ArrayDeque<>(samples);
+    }
+
+    /**
+     * Record an output of the receiving
+     *
+     * @return true if the output should be printed now, false if it's skipped
+     */
+    public synchronized boolean offer(@Nonnull final String output) {
+        final Matcher matcher = PARTITION_PATTERN.matcher(output);
+        if (matcher.find()) {
+            receivedPerPartition.merge(matcher.group(1), 1L, Long::sum);
+        } else if (StringUtils.containsIgnoreCase(output, "received")) {
+            receivedPerPartition.merge(UNKNOWN_PARTITION, 1L, Long::sum);
+        }
+
+        if (printed < maxPrintsPerSecond) {
+            printed++;
+            return true;
+        }
+
+        if (skipped.size() >= samples) {
+            skipped.pollFirst();
+        }
+        skipped.addLast(output);
+        skippedCount++;
+        return false;
+    }
+
+    /**
+     * Start a new window, should be called every second
+     *
+     * @return the summary of the last window if any output was skipped, otherwise null
+     */
+    @Nullable
+    public synchronized String tick() {
+        final long now = System.currentTimeMillis();
+        final double seconds = Math.max(1, now - windowStartMillis) / 1000.0;
+        String summary = null;
+        if (skippedCount > 0) {
+            final String rates = receivedPerPartition.entrySet().stream()
+                    .map(e -> String.format("partition %s: %.0f/s", e.getKey(), e.getValue() / seconds))
+                    .collect(Collectors.joining(", "));
+            summary = String.format("[Received %.0f msg/s%s, %d output(s) skipped, the latest:]\n%s\n",
+                    receivedPerPartition.values().stream().mapToLong(Long::longValue).sum() / seconds,
+                    StringUtils.isEmpty(rates) ? "" : " (" + rates + ")",
+                    skippedCount,
+                    skipped.stream().map(s -> StringUtils.removeEnd(s, "\n")).collect(Collectors.joining("\n")));
+        }
+
+        windowStartMillis = now;
+        receivedPerPartition.clear();
+        skipped.clear();
+        skippedCount = 0;
+        printed = 0;
+        return summary;
+    }
+}
@@ -20,23 +20,31 @@ import com.microsoft.azure.toolkit.lib.resource.message.ISenderReceiver;
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
 import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.swing.*;
+import java.time.Duration;
 import java.util.Optional;
 
 public class SenderReceiverPanel extends JPanel {
     @Getter
     private JPanel contentPanel;
     private AzureActionButton<Void> sendMessageBtn;
+    private AzureActionButton<Void> batchSendBtn;
     private ExpandableTextField messageInput;
     private JPanel listenPanel;
     private JPanel sendPanel;
     private final ISenderReceiver instance;
     private final ConsoleView consoleView;
+    private final Project project;
+    private final ReceivedMessageSampler receivedMessageSampler = new ReceivedMessageSampler();
+    private BatchMessageSender.Options batchSendOptions = new BatchMessageSender.Options();
+    @Nullable
+    private Disposable batchSending;
     @Nullable
     private RunProcessHandler listenProcessHandler;
     private AzureEventBus.EventListener listener;
@@ -44,6 +52,7 @@ public class SenderReceiverPanel extends JPanel {
     public SenderReceiverPanel(Project project, ISenderReceiver ServiceBusInstance) {
         super();
         this.consoleView = new ConsoleViewImpl(project, true);
+        this.project = project;
         this.instance = ServiceBusInstance;
         $$$setupUI$$$();
         this.init();
@@ -60,10 +69,15 @@ public class SenderReceiverPanel extends JPanel {
         final Disposable subscribe = Mono.fromRunnable(this::execute)
                 .subscribeOn(Schedulers.boundedElastic())
                 .subscribe();
+        // print the summary of the received messages skipped every second
+        final Disposable sampling = Flux.interval(Duration.ofSeconds(1))
+                .subscribe(i -> Optional.ofNullable(receivedMessageSampler.tick())
+                        .ifPresent(summary -> consoleView.print(summary, ConsoleViewContentType.LOG_INFO_OUTPUT)));
         listenProcessHandler.addProcessListener(new ProcessAdapter() {
             @Override
             public void processTerminated(@Nonnull ProcessEvent event) {
                 subscribe.dispose();
+                sampling.dispose();
             }
         });
     }
@@ -76,6 +90,7 @@ public class SenderReceiverPanel extends JPanel {
 
     public void dispose() {
         AzureEventBus.off("resource.status_changed.resource", listener);
+        Optional.ofNullable(this.batchSending).ifPresent(Disposable::dispose);
     }
 
     private void init() {
@@ -86,6 +101,7 @@ public class SenderReceiverPanel extends JPanel {
                 new GridConstraints(0, 0, 1, 1, 0, GridConstraints.ALIGN_FILL,
                         3, 3, null, null, null, 0));
         this.sendMessageBtn.setEnabled(instance.isSendEnabled());
+        this.batchSendBtn.setEnabled(instance.isSendEnabled());
         this.initListeners();
     }
 
@@ -95,9 +111,11 @@ public class SenderReceiverPanel extends JPanel {
             final Object source = azureEvent.getSource();
             if (source instanceof ISenderReceiver && ((ISenderReceiver) source).getId().equals(this.instance.getId())) {
                 this.sendMessageBtn.setEnabled(instance.isSendEnabled());
+                this.batchSendBtn.setEnabled(instance.isSendEnabled());
             }
         });
         this.sendMessageBtn.addActionListener(e -> sendMessage());
+        this.batchSendBtn.addActionListener(e -> toggleBatchSending());
         this.messageInput.addActionListener(e -> sendMessage());
         AzureEventBus.on("resource.status_changed.resource", listener);
     }
@@ -106,13 +124,43 @@ public class SenderReceiverPanel extends JPanel {
         final String message = messageInput.getText();
         messageInput.setText(StringUtils.EMPTY);
         AzureTaskManager.getInstance().runInBackground("send message",() -> {
-            OperationContext.current().setMessager(new ConsoleMessager(consoleView));
+            OperationContext.current().setMessager(new ConsoleMessager(consoleView, null));
             instance.sendMessage(message);
         });
     }
 
+    private synchronized void toggleBatchSending() {
+        if (this.batchSending != null && !this.batchSending.isDisposed()) {
+            this.batchSending.dispose();
+            consoleView.print("Batch sending is stopped.\n", ConsoleViewContentType.LOG_WARNING_OUTPUT);
+            this.onBatchSendingTerminated();
+            return;
+        }
+        final BatchSendDialog dialog = new BatchSendDialog(project, batchSendOptions);
+        if (!dialog.showAndGet()) {
+            return;
+        }
+        this.batchSendOptions = dialog.getValue();
+        this.batchSendBtn.setText("Stop sending");
+        consoleView.print("Start sending messages in batch...\n", ConsoleViewContentType.SYSTEM_OUTPUT);
+        // report the progress at most every second rather than per batch
+        this.batchSending = new BatchMessageSender(instance, batchSendOptions).send()
+                .sample(Duration.ofSeconds(1))
+                .doFinally(signal -> AzureTaskManager.getInstance().runLater(this::onBatchSendingTerminated))
+                .subscribe(progress -> consoleView.print(progress + "\n", ConsoleViewContentType.SYSTEM_OUTPUT),
+                        error -> consoleView.print(StringUtils.appendIfMissing(error.getMessage(), StringUtils.LF), ConsoleViewContentType.ERROR_OUTPUT));
+    }
+
+    private synchronized void onBatchSendingTerminated() {
+        // a new batch sending may have been started
+        if (this.batchSending == null || this.batchSending.isDisposed()) {
+            this.batchSending = null;
+            this.batchSendBtn.setText("Send in batch...");
+        }
+    }
+
     private void execute() {
-        final ConsoleMessager messager = new ConsoleMessager(consoleView);
+        final ConsoleMessager messager = new ConsoleMessager(consoleView, receivedMessageSampler);
         OperationContext.current().setMessager(messager);
         instance.startReceivingMessage();
     }
@@ -127,15 +175,22 @@ public class SenderReceiverPanel extends JPanel {
 
     private static class ConsoleMessager extends IntellijAzureMessager {
         private final ConsoleView view;
+        @Nullable
+        private final ReceivedMessageSampler sampler;
 
-        public ConsoleMessager(ConsoleView view) {
+        public ConsoleMessager(ConsoleView view, @Nullable ReceivedMessageSampler sampler) {
             super();
             this.view = view;
+            this.sampler = sampler;
         }
 
         @Override
         public boolean show(IAzureMessage msg) {
             final IAzureMessage raw = msg.getRawMessage();
+            final boolean isOutput = raw.getType() == IAzureMessage.Type.INFO || raw.getType() == IAzureMessage.Type.SUCCESS;
+            if (isOutput && sampler != null && !sampler.offer(raw.getMessage().toString())) {
+                return true;
+            }
             if (raw.getType() == IAzureMessage.Type.INFO) {
                 view.print(raw.getMessage().toString(), ConsoleViewContentType.SYSTEM_OUTPUT);
                 return true;
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.action;
+
+import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
+import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * Registers contributors which take a while to register their handlers, as the service contributors creating icons,
+ * editors and dialogs do, and the ones looking up the actions of each other.
+ */
+public class ActionsContributorRegistryTest {
+    private static final int HEAVY_MILLIS = 20;
+    private static final int CONTRIBUTORS = 10;
+
+    private final List<String> registered = new CopyOnWriteArrayList<>();
+    private ActionsContributorRegistry registry;
+
+    @Test
+    public void testStartupRegistrationTimeDropsWithLazyContributors() {
+        final long eagerMillis = startup(IntStream.range(0, CONTRIBUTORS)
+            .mapToObj(i -> (IActionsContributor) new EagerContributor("eager" + i, this::heavy)).toList());
+        Assert.assertEquals(CONTRIBUTORS, this.registered.size());
+        Assert.assertTrue(this.registry.getRegistrationMillis().get("EagerContributor") >= CONTRIBUTORS * HEAVY_MILLIS);
+        this.registered.clear();
+
+        final long lazyMillis = startup(IntStream.range(0, CONTRIBUTORS)
+            .mapToObj(i -> (IActionsContributor) new LazyContributor("lazy" + i, Set.of(), Set.of("action" + i), this::heavy)).toList());
+        Assert.assertEquals(List.of(), this.registered);
+        Assert.assertTrue(this.registry.getRegistrationMillis().isEmpty());
+
+        Assert.assertTrue(eagerMillis >= CONTRIBUTORS * HEAVY_MILLIS);
+        Assert.assertTrue(String.format("eager: %dms, lazy: %dms", eagerMillis, lazyMillis), lazyMillis < eagerMillis / 2);
+
+        // only the contributor handling the action looked up pays the cost, once
+        this.registry.registerOnDemand("action3");
+        this.registry.registerOnDemand("action3");
+        Assert.assertEquals(List.of("lazy3"), this.registered);
+        Assert.assertTrue(this.registry.getRegistrationMillis().get("LazyContributor") >= HEAVY_MILLIS);
+    }
+
+    @Test
+    public void testHandlersRegisteredAtStartupDontRegisterLazyContributors() {
+        final LazyContributor lazy = new LazyContributor("lazy", Set.of(), Set.of("shared"), () -> {
+        });
+        // registering a handler looks the action up
+        final EagerContributor eager = new EagerContributor("eager", () -> this.registry.registerOnDemand("shared"));
+
+        startup(List.of(lazy, eager));
+        Assert.assertEquals(List.of("eager"), this.registered);
+
+        this.registry.registerOnDemand("shared");
+        Assert.assertEquals(List.of("eager", "lazy"), this.registered);
+    }
+
+    @Test
+    public void testDeclaredIdsLookedUpAtStartupAreRegistered() {
+        final LazyContributor lazy = new LazyContributor("lazy", Set.of("own"), Set.of(), () -> this.registry.registerOnDemand("own"));
+        final EagerContributor eager = new EagerContributor("eager", () -> this.registry.registerOnDemand("own"));
+
+        startup(List.of(lazy, eager));
+
+        Assert.assertEquals(List.of("eager", "lazy"), this.registered);
+    }
+
+    @Test
+    public void testContributorsHandlingSameActionAreRegisteredInOrder() {
+        final LazyContributor first = new LazyContributor("first", Set.of(), Set.of("shared", "x"), () -> {
+        });
+        final LazyContributor second = new LazyContributor("second", Set.of(), Set.of("shared", "y"), () -> {
+        });
+        final LazyContributor other = new LazyContributor("other", Set.of(), Set.of("z"), () -> {
+        });
+        startup(List.of(first, second, other));
+
+        // the handler of the second takes precedence over the first's, as if both were registered at startup
+        this.registry.registerOnDemand("y");
+        Assert.assertEquals(List.of("first", "second"), this.registered);
+
+        this.registry.registerOnDemand("shared");
+        this.registry.registerOnDemand("x");
+        Assert.assertEquals(List.of("first", "second"), this.registered);
+    }
+
+    private long startup(@Nonnull List<IActionsContributor> contributors) {
+        this.registry = new ActionsContributorRegistry(Mockito.mock(AzureActionManager.class), contributors);
+        final long start = System.nanoTime();
+        this.registry.start();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private void heavy() {
+        try {
+            Thread.sleep(HEAVY_MILLIS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class EagerContributor implements IActionsContributor {
+        private final String name;
+        private final Runnable registration;
+
+        EagerContributor(@Nonnull String name, @Nonnull Runnable registration) {
+            this.name = name;
+            this.registration = registration;
+        }
+
+        @Override
+        public void registerHandlers(AzureActionManager am) {
+            registered.add(this.name);
+            this.registration.run();
+        }
+    }
+
+    private class LazyContributor extends EagerContributor implements ILazyActionsContributor {
+        private final Set<String> declaredIds;
+        private final Set<String> handledIds;
+
+        LazyContributor(@Nonnull String name, @Nonnull Set<String> declaredIds, @Nonnull Set<String> handledIds, @Nonnull Runnable registration) {
+            super(name, registration);
+            this.declaredIds = declaredIds;
+            this.handledIds = handledIds;
+        }
+
+        @Nonnull
+        @Override
+        public Set<String> getDeclaredIds() {
+            return this.declaredIds;
+        }
+
+        @Nonnull
+        @Override
+        public Set<String> getHandledIds() {
+            return this.handledIds;
+        }
+    }
+}
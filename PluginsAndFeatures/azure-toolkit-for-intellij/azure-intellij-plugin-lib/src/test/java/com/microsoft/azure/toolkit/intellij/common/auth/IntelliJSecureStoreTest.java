@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.auth;
+
+import com.intellij.credentialStore.CredentialAttributes;
+import com.intellij.ide.passwordSafe.PasswordSafe;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads credentials through the store from a PasswordSafe which counts its reads, the background loads are run by the
+ * test when it's ready for them.
+ */
+public class IntelliJSecureStoreTest {
+    private static final String SERVICE = "Test Service";
+
+    /**
+     * the passwords in the PasswordSafe by key
+     */
+    private final Map<String, String> passwords = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> reads = new ConcurrentHashMap<>();
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private IntelliJSecureStore store;
+
+    @Before
+    public void setUp() {
+        final PasswordSafe passwordSafe = Mockito.mock(PasswordSafe.class);
+        Mockito.when(passwordSafe.getPassword(Mockito.any())).thenAnswer(invocation -> {
+            final String key = keyOf(invocation.getArgument(0));
+            this.reads.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            if ("broken".equals(this.passwords.get(key))) {
+                throw new IllegalStateException("the PasswordSafe is locked");
+            }
+            return this.passwords.get(key);
+        });
+        Mockito.doAnswer(invocation -> {
+            final String key = keyOf(invocation.getArgument(0));
+            final String password = invocation.getArgument(1);
+            if (password == null) {
+                this.passwords.remove(key);
+            } else {
+                this.passwords.put(key, password);
+            }
+            return null;
+        }).when(passwordSafe).setPassword(Mockito.any(), Mockito.any());
+        this.store = new IntelliJSecureStore(passwordSafe, this.tasks::add);
+        this.passwords.put("alpha", "secret");
+    }
+
+    @Test
+    public void testLoadedPasswordIsCached() {
+        Assert.assertEquals("secret", this.store.loadPassword(SERVICE, "alpha", null));
+        Assert.assertEquals("secret", this.store.loadPassword(SERVICE, "alpha", null));
+
+        Assert.assertEquals(1, reads("alpha"));
+    }
+
+    @Test
+    public void testMissingPasswordIsNotCached() {
+        Assert.assertNull(this.store.loadPassword(SERVICE, "beta", null));
+        this.passwords.put("beta", "saved elsewhere");
+
+        Assert.assertEquals("saved elsewhere", this.store.loadPassword(SERVICE, "beta", null));
+        Assert.assertEquals(2, reads("beta"));
+    }
+
+    @Test
+    public void testSaveAndForgetInvalidateCache() {
+        this.store.loadPassword(SERVICE, "alpha", null);
+
+        this.store.savePassword(SERVICE, "alpha", null, "changed");
+        Assert.assertEquals("changed", this.store.loadPassword(SERVICE, "alpha", null));
+
+        this.store.forgetPassword(SERVICE, "alpha", null);
+        Assert.assertNull(this.store.loadPassword(SERVICE, "alpha", null));
+        Assert.assertEquals(3, reads("alpha"));
+    }
+
+    @Test
+    public void testClearCache() {
+        this.store.loadPassword(SERVICE, "alpha", null);
+
+        this.store.clearCache();
+
+        Assert.assertEquals("secret", this.store.loadPassword(SERVICE, "alpha", null));
+        Assert.assertEquals(2, reads("alpha"));
+    }
+
+    @Test
+    public void testLoadsInProgressAreShared() {
+        final CompletableFuture<String> first = this.store.loadPasswordAsync(SERVICE, "alpha", null);
+        final CompletableFuture<String> second = this.store.loadPasswordAsync(SERVICE, "alpha", null);
+        Assert.assertFalse(first.isDone());
+        Assert.assertEquals(1, this.tasks.size());
+
+        runTasks();
+
+        Assert.assertEquals("secret", first.join());
+        Assert.assertEquals("secret", second.join());
+        Assert.assertEquals("secret", this.store.loadPassword(SERVICE, "alpha", null));
+        Assert.assertEquals(1, reads("alpha"));
+    }
+
+    @Test
+    public void testMissIsSharedWithLoadsInProgressOnly() {
+        final CompletableFuture<String> first = this.store.loadPasswordAsync(SERVICE, "beta", null);
+        final CompletableFuture<String> second = this.store.loadPasswordAsync(SERVICE, "beta", null);
+
+        runTasks();
+
+        Assert.assertNull(first.join());
+        Assert.assertNull(second.join());
+        Assert.assertEquals(1, reads("beta"));
+        Assert.assertNull(this.store.loadPassword(SERVICE, "beta", null));
+        Assert.assertEquals(2, reads("beta"));
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() {
+        this.passwords.put("gamma", "broken");
+        Assert.assertThrows(CompletionException.class, () -> this.store.loadPassword(SERVICE, "gamma", null));
+
+        this.passwords.put("gamma", "unlocked");
+        Assert.assertEquals("unlocked", this.store.loadPassword(SERVICE, "gamma", null));
+        Assert.assertEquals(2, reads("gamma"));
+    }
+
+    @Test
+    public void testPrefetchLoadsKeysConcurrently() {
+        this.passwords.put("beta", "other");
+        this.passwords.put("gamma", "broken");
+
+        final CompletableFuture<Void> prefetching = this.store.prefetch(SERVICE, List.of("alpha", "beta", "gamma"), null);
+        Assert.assertEquals(3, this.tasks.size());
+        // the loads issued meanwhile wait for the prefetching ones
+        final CompletableFuture<String> alpha = this.store.loadPasswordAsync(SERVICE, "alpha", null);
+        Assert.assertEquals(3, this.tasks.size());
+
+        runTasks();
+
+        Assert.assertTrue(prefetching.isDone());
+        Assert.assertFalse(prefetching.isCompletedExceptionally());
+        Assert.assertEquals("secret", alpha.join());
+        Assert.assertEquals("other", this.store.loadPassword(SERVICE, "beta", null));
+        Assert.assertEquals(1, reads("alpha"));
+        Assert.assertEquals(1, reads("beta"));
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = this.tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private int reads(@Nonnull String key) {
+        return this.reads.getOrDefault(key, new AtomicInteger()).get();
+    }
+
+    @Nonnull
+    private static String keyOf(@Nonnull CredentialAttributes attributes) {
+        final String serviceName = attributes.getServiceName();
+        return serviceName.substring(serviceName.lastIndexOf(' ') + 1);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.component;
+
+import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
+import com.microsoft.azure.toolkit.lib.resource.message.ISenderReceiver;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Sends messages to an instance which fails some of them, either by throwing or by reporting the error to the messager
+ * of the operation, as the senders of event hubs and service bus do.
+ */
+public class BatchMessageSenderTest {
+    private static final Pattern SEQUENCE = Pattern.compile("\"seq\": (\\d+)");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private final List<String> received = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testGeneratedMessagesAreSentInBatches() {
+        final BatchMessageSender.Options options = options(25, 10);
+
+        final List<BatchMessageSender.Progress> progress = send(options, message -> {
+        });
+
+        Assert.assertEquals(List.of(10L, 20L, 25L), progress.stream().map(BatchMessageSender.Progress::getSent).collect(Collectors.toList()));
+        Assert.assertEquals(0, progress.get(2).getFailed());
+        Assert.assertEquals(IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList()),
+            this.received.stream().map(BatchMessageSenderTest::sequence).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testFileMessagesAreBatchedByBytes() throws IOException {
+        final File file = this.temporaryFolder.newFile("messages.ndjson");
+        final String line = "{\"value\": \"" + "x".repeat(88) + "\"}";
+        Files.writeString(file.toPath(), String.join("\n", line, line, "", line, line, "  ", line), StandardCharsets.UTF_8);
+        final BatchMessageSender.Options options = options(0, 100);
+        options.setFile(file);
+        options.setMaxBatchBytes(250);
+
+        final List<BatchMessageSender.Progress> progress = send(options, message -> {
+        });
+
+        // the blank lines are skipped, 2 messages of 100 bytes fit in a batch
+        Assert.assertEquals(List.of(2L, 4L, 5L), progress.stream().map(BatchMessageSender.Progress::getSent).collect(Collectors.toList()));
+        Assert.assertEquals(5, this.received.size());
+    }
+
+    @Test
+    public void testFailuresAreCountedPerMessage() {
+        final BatchMessageSender.Options options = options(50, 5);
+        options.setConcurrency(4);
+
+        final List<BatchMessageSender.Progress> progress = send(options, message -> {
+            final int seq = sequence(message);
+            if (seq % 5 == 0) {
+                throw new IllegalStateException("failed to send " + seq);
+            }
+            if (seq % 7 == 0) {
+                AzureMessager.getMessager().error("failed to send " + seq);
+            }
+        });
+
+        // 5, 10, ..., 50 are thrown and 7, 14, 21, 28, 42, 49 are reported
+        final BatchMessageSender.Progress last = progress.get(progress.size() - 1);
+        Assert.assertEquals(10, progress.size());
+        Assert.assertEquals(16, last.getFailed());
+        Assert.assertEquals(34, last.getSent());
+        Assert.assertTrue(last.toString().contains("16 failed"));
+    }
+
+    @Test
+    public void testSendingIsPacedToRate() {
+        final BatchMessageSender.Options options = options(20, 5);
+        options.setRate(100);
+
+        final List<BatchMessageSender.Progress> progress = send(options, message -> {
+        });
+
+        // the 4th batch is due 150ms after the start at 100 msg/s
+        Assert.assertEquals(20, progress.get(3).getSent());
+        Assert.assertTrue(progress.get(3).getElapsedMillis() >= 150);
+    }
+
+    private List<BatchMessageSender.Progress> send(@Nonnull BatchMessageSender.Options options, @Nonnull Consumer<String> send) {
+        final ISenderReceiver instance = Mockito.mock(ISenderReceiver.class, invocation -> {
+            if ("sendMessage".equals(invocation.getMethod().getName())) {
+                final String message = invocation.getArgument(0);
+                this.received.add(message);
+                send.accept(message);
+            }
+            return Mockito.RETURNS_DEFAULTS.answer(invocation);
+        });
+        return new BatchMessageSender(instance, options).send().collectList().block();
+    }
+
+    private static BatchMessageSender.Options options(int count, int batchSize) {
+        final BatchMessageSender.Options options = new BatchMessageSender.Options();
+        options.setCount(count);
+        options.setBatchSize(batchSize);
+        options.setRate(0);
+        options.setConcurrency(1);
+        return options;
+    }
+
+    private static int sequence(@Nonnull String message) {
+        final Matcher matcher = SEQUENCE.matcher(message);
+        Assert.assertTrue(matcher.find());
+        return Integer.parseInt(matcher.group(1));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.common.component;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Offers the outputs of receiving messages faster than they are printed.
+ */
+public class ReceivedMessageSamplerTest {
+    @Test
+    public void testOutputsBeyondLimitAreSkipped() {
+        final ReceivedMessageSampler sampler = new ReceivedMessageSampler(3, 5);
+
+        for (int i = 1; i <= 3; i++) {
+            Assert.assertTrue(sampler.offer("Message received: " + i + "\n"));
+        }
+        Assert.assertFalse(sampler.offer("Message received: 4\n"));
+        Assert.assertFalse(sampler.offer("Message received: 5\n"));
+
+        final String summary = sampler.tick();
+        Assert.assertNotNull(summary);
+        Assert.assertTrue(summary.contains("2 output(s) skipped"));
+        Assert.assertTrue(summary.contains("Message received: 4\nMessage received: 5\n"));
+        Assert.assertFalse(summary.contains("Message received: 3"));
+    }
+
+    @Test
+    public void testLatestSkippedOutputsAreSampled() {
+        final ReceivedMessageSampler sampler = new ReceivedMessageSampler(1, 2);
+
+        sampler.offer("a");
+        sampler.offer("b");
+        sampler.offer("c");
+        sampler.offer("d");
+
+        final String summary = sampler.tick();
+        Assert.assertNotNull(summary);
+        Assert.assertTrue(summary.contains("3 output(s) skipped"));
+        Assert.assertTrue(summary.endsWith("\nc\nd\n"));
+        Assert.assertFalse(summary.contains("\nb\n"));
+    }
+
+    @Test
+    public void testWindowIsResetByTick() {
+        final ReceivedMessageSampler sampler = new ReceivedMessageSampler(1, 2);
+        sampler.offer("a");
+        sampler.offer("b");
+        Assert.assertNotNull(sampler.tick());
+
+        Assert.assertTrue(sampler.offer("c"));
+        // nothing is skipped in this window
+        Assert.assertNull(sampler.tick());
+    }
+
+    @Test
+    public void testReceivedRateIsGivenPerPartition() {
+        final ReceivedMessageSampler sampler = new ReceivedMessageSampler(1, 5);
+
+        sampler.offer("Message received from partition (\"0\"): a");
+        sampler.offer("Message received from partition (\"1\"): b");
+        sampler.offer("Message received from partition (0): c");
+        sampler.offer("Message received: d");
+        sampler.offer("Connecting to the instance");
+
+        final String summary = sampler.tick();
+        Assert.assertNotNull(summary);
+        Assert.assertTrue(summary.contains("partition 0: "));
+        Assert.assertTrue(summary.contains("partition 1: "));
+        Assert.assertTrue(summary.contains("partition -: "));
+        Assert.assertTrue(summary.contains("4 output(s) skipped"));
+    }
+}
@@ -2,16 +2,24 @@ package com.microsoft.azure.toolkit.intellij.explorer.action;
 
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.wm.ToolWindowManager;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.explorer.AzureExplorer;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 
+import javax.annotation.Nonnull;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiConsumer;
 
-public class AzureExplorerActionsContributor implements IActionsContributor {
+public class AzureExplorerActionsContributor implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Set.of(ResourceCommonActionsContributor.OPEN_AZURE_EXPLORER.getId());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiConsumer<Object, AnActionEvent> openAzureExplorer = (ignore, e) -> Optional.ofNullable(e).map(AnActionEvent::getProject)
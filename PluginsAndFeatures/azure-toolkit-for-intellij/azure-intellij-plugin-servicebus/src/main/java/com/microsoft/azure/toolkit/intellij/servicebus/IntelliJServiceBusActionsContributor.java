@@ -7,7 +7,7 @@ package com.microsoft.azure.toolkit.intellij.servicebus;
 
 import com.azure.resourcemanager.servicebus.models.EntityStatus;
 import com.intellij.openapi.actionSystem.AnActionEvent;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
@@ -24,10 +24,29 @@ import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.lib.servicebus.ServiceBusNamespace;
 import com.microsoft.azure.toolkit.lib.servicebus.model.ServiceBusInstance;
 
+import javax.annotation.Nonnull;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class IntelliJServiceBusActionsContributor implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(ServiceBusActionsContributor.ACTIVE_INSTANCE, ServiceBusActionsContributor.DISABLE_INSTANCE,
+                ServiceBusActionsContributor.SEND_DISABLE_INSTANCE,
+                ServiceBusActionsContributor.RECEIVE_DISABLE_INSTANCE,
+                ServiceBusActionsContributor.COPY_CONNECTION_STRING,
+                ServiceBusActionsContributor.SEND_MESSAGE_INSTANCE,
+                ServiceBusActionsContributor.START_RECEIVING_INSTANCE,
+                ServiceBusActionsContributor.STOP_RECEIVING_INSTANCE,
+                ServiceBusActionsContributor.GROUP_CREATE_SERVICE_BUS,
+                ServiceBusActionsContributor.COPY_NAMESPACE_CONNECTION_STRING)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
 
-public class IntelliJServiceBusActionsContributor implements IActionsContributor {
     @Override
     public void registerHandlers(AzureActionManager am) {
         registerActiveActionHandler(am);
@@ -1,19 +1,35 @@
 package com.microsoft.azure.toolkit.intellij.sparkoncosmos;
 
 import com.intellij.openapi.actionSystem.AnActionEvent;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.cosmos.spark.SparkOnCosmosActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.sparkoncosmos.actions.*;
+import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.common.model.AzResource;
 import com.microsoft.azure.toolkit.lib.common.model.AzResourceModule;
 import com.microsoft.azure.toolkit.lib.sparkoncosmos.SparkOnCosmosADLAccountNode;
 import com.microsoft.azure.toolkit.lib.sparkoncosmos.SparkOnCosmosClusterNode;
 
+import javax.annotation.Nonnull;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class IntellijSOCActionsContributor implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(SparkOnCosmosActionsContributor.PROVISION_CLUSTER,
+                SparkOnCosmosActionsContributor.SUBMIT_SOC_SERVERLESS_JOB,
+                SparkOnCosmosActionsContributor.VIEW_SOC_SERVERLESS_JOB,
+                SparkOnCosmosActionsContributor.DELETE_CLUSTER, SparkOnCosmosActionsContributor.VIEW_CLUSTER_STATUS,
+                SparkOnCosmosActionsContributor.UPDATE_CLUSTER, SparkOnCosmosActionsContributor.SUBMIT_CLUSTER_JOB)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
 
-public class IntellijSOCActionsContributor implements IActionsContributor {
     @Override
     public void registerHandlers(AzureActionManager am) {
 
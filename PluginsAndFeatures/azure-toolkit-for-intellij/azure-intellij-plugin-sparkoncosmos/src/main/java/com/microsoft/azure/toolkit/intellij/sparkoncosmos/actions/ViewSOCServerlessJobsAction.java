@@ -7,15 +7,14 @@ import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.wm.ToolWindowManager;
 import com.intellij.ui.content.Content;
 import com.intellij.ui.content.ContentFactory;
+import com.microsoft.azure.cosmosserverlessspark.spark.ui.livy.batch.CosmosServerlessSparkBatchJobPage;
 import com.microsoft.azure.cosmosserverlessspark.spark.ui.livy.batch.CosmosServerlessSparkBatchJobsTableSchema;
 import com.microsoft.azure.cosmosserverlessspark.spark.ui.livy.batch.CosmosServerlessSparkBatchJobsViewer;
 import com.microsoft.azure.cosmosspark.serverexplore.cosmossparknode.CosmosSparkADLAccountNode;
 import com.microsoft.azure.hdinsight.sdk.common.azure.serverless.AzureSparkServerlessAccount;
-import com.microsoft.azure.hdinsight.sdk.rest.azure.serverless.spark.models.SparkBatchJobList;
 import com.microsoft.azure.hdinsight.spark.ui.livy.batch.LivyBatchJobTableModel;
 import com.microsoft.azure.hdinsight.spark.ui.livy.batch.LivyBatchJobTableViewport;
 import com.microsoft.azure.hdinsight.spark.ui.livy.batch.LivyBatchJobViewer;
-import com.microsoft.azure.hdinsight.spark.ui.livy.batch.UniqueColumnNameTableSchema;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import com.microsoft.azure.toolkit.lib.sparkoncosmos.SparkOnCosmosADLAccountNode;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
@@ -24,9 +23,6 @@ import com.microsoft.azuretools.telemetry.TelemetryConstants;
 import com.microsoft.azuretools.telemetrywrapper.*;
 import rx.Observable;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 public class ViewSOCServerlessJobsAction {
     public static void view(SparkOnCosmosADLAccountNode target, AnActionEvent e) {
         AzureTaskManager.getInstance().runLater(()-> {
@@ -58,7 +54,7 @@ public class ViewSOCServerlessJobsAction {
                                                         new LivyBatchJobViewer.Model(
                                                                 new LivyBatchJobTableViewport.Model(
                                                                         new LivyBatchJobTableModel(new CosmosServerlessSparkBatchJobsTableSchema()),
-                                                                        getFirstJobPage(account, jobList)),
+                                                                        new CosmosServerlessSparkBatchJobPage(account, jobList)),
                                                                 null
                                                         );
                                                 this.setData(refreshedModel);
@@ -79,7 +75,7 @@ public class ViewSOCServerlessJobsAction {
                                     new LivyBatchJobViewer.Model(
                                             new LivyBatchJobTableViewport.Model(
                                                     new LivyBatchJobTableModel(new CosmosServerlessSparkBatchJobsTableSchema()),
-                                                    getFirstJobPage(account, sparkBatchJobList)),
+                                                    new CosmosServerlessSparkBatchJobPage(account, sparkBatchJobList)),
                                             null
                                     );
                             jobView.setData(model);
@@ -100,30 +96,4 @@ public class ViewSOCServerlessJobsAction {
         return adlAccountName + " Jobs";
     }
 
-    @NotNull
-    private static LivyBatchJobTableModel.JobPage getFirstJobPage(@NotNull AzureSparkServerlessAccount account,
-                                                           @NotNull SparkBatchJobList jobList) {
-        return new LivyBatchJobTableModel.JobPage() {
-            @Nullable
-            @Override
-            public List<UniqueColumnNameTableSchema.RowDescriptor> items() {
-                CosmosServerlessSparkBatchJobsTableSchema tableSchema = new CosmosServerlessSparkBatchJobsTableSchema();
-                return jobList.value().stream()
-                        .sorted((job1, job2) -> job1.state().compareTo(job2.state()) != 0
-                                // sort by job state in ascending order
-                                ? job1.state().compareTo(job2.state())
-                                // then sort by submit time in descending order
-                                : -job1.submitTime().compareTo(job2.submitTime()))
-                        .map(sparkBatchJob -> tableSchema.new CosmosServerlessSparkJobDescriptor(account, sparkBatchJob))
-                        .collect(Collectors.toList());
-            }
-
-            @Nullable
-            @Override
-            public String nextPageLink() {
-                return jobList.nextLink();
-            }
-        };
-    }
-
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.cosmosserverlessspark.spark.ui.livy.batch
+
+import com.microsoft.azure.hdinsight.sdk.common.azure.serverless.AzureSparkServerlessAccount
+import com.microsoft.azure.hdinsight.sdk.rest.azure.serverless.spark.models.SparkBatchJob
+import com.microsoft.azure.hdinsight.sdk.rest.azure.serverless.spark.models.SparkBatchJobList
+import com.microsoft.azure.hdinsight.spark.ui.livy.batch.LivyBatchJobTableModel
+import com.microsoft.azure.hdinsight.spark.ui.livy.batch.UniqueColumnNameTableSchema
+
+class CosmosServerlessSparkBatchJobPage(private val account: AzureSparkServerlessAccount,
+                                        private val jobList: SparkBatchJobList) : LivyBatchJobTableModel.JobPage {
+    override fun items(): List<UniqueColumnNameTableSchema.RowDescriptor>? {
+        val tableSchema = CosmosServerlessSparkBatchJobsTableSchema()
+
+        return jobList.value()
+                // sort by job state in ascending order, then by submit time in descending order
+                .sortedWith(compareBy<SparkBatchJob> { it.state() }.thenByDescending { it.submitTime() })
+                .map { tableSchema.CosmosServerlessSparkJobDescriptor(account, it) }
+    }
+
+    override fun nextPageLink(): String? = jobList.nextLink()
+}
@@ -23,6 +23,7 @@
 package com.microsoft.azure.cosmosserverlessspark.spark.ui.livy.batch
 
 import com.microsoft.azure.hdinsight.common.logger.ILogger
+import com.microsoft.azure.hdinsight.sdk.rest.azure.serverless.spark.models.SchedulerState
 import com.microsoft.azure.hdinsight.spark.ui.livy.batch.LivyBatchJobTableModel
 import com.microsoft.azure.hdinsight.spark.ui.livy.batch.LivyBatchJobViewer
 import com.microsoft.azure.hdinsight.spark.ui.livy.batch.UniqueColumnNameTableSchema
@@ -36,10 +37,32 @@ import rx.Observable
 
 class CosmosServerlessSparkBatchJobsViewerControl(private val view: CosmosServerlessSparkBatchJobsViewer) : LivyBatchJobViewer.Control, ILogger {
     override fun onNextPage(nextPageLink: String?): LivyBatchJobTableModel.JobPage? {
-        log().warn("Trying to get next page which is not supported for now.")
-        return null
+        if (nextPageLink.isNullOrBlank()) {
+            return null
+        }
+
+        return view.account.getSparkBatchJobList(nextPageLink)
+                .map { CosmosServerlessSparkBatchJobPage(view.account, it) }
+                .doOnError { err -> log().warn("Get the Cosmos Serverless Spark batch jobs page $nextPageLink failed. $err") }
+                .onErrorReturn { null }
+                .toBlocking()
+                .firstOrDefault(null)
+    }
+
+    override fun getJobId(job: UniqueColumnNameTableSchema.RowDescriptor): Any? = job[jobUuidColName]
+
+    override fun onJobRefresh(job: UniqueColumnNameTableSchema.RowDescriptor): UniqueColumnNameTableSchema.RowDescriptor? {
+        val jobDesc = job as? CosmosServerlessSparkBatchJobsTableSchema.CosmosServerlessSparkJobDescriptor ?: return null
+
+        return view.account.getSparkBatchJobRequest(jobDesc[jobUuidColName].toString())
+                .map { CosmosServerlessSparkBatchJobsTableSchema().CosmosServerlessSparkJobDescriptor(view.account, it) }
+                .toBlocking()
+                .firstOrDefault(null)
     }
 
+    override fun isJobTerminated(job: UniqueColumnNameTableSchema.RowDescriptor): Boolean =
+            job[jobStateColName] == SchedulerState.ENDED.toString()
+
     override fun onJobSelected(jobSelected: UniqueColumnNameTableSchema.RowDescriptor?) {
         val jobDesc = (jobSelected as? CosmosServerlessSparkBatchJobsTableSchema.CosmosServerlessSparkJobDescriptor)?.let { arrayOf(it) }
             ?: emptyArray()
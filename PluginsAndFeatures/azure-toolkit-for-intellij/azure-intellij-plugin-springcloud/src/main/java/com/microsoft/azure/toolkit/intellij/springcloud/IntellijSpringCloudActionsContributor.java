@@ -7,10 +7,10 @@ package com.microsoft.azure.toolkit.intellij.springcloud;
 
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.project.Project;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.ide.guidance.GuidanceViewManager;
 import com.microsoft.azure.toolkit.ide.springcloud.SpringCloudActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.springcloud.creation.CreateSpringCloudAppAction;
 import com.microsoft.azure.toolkit.intellij.springcloud.creation.CreateSpringCloudClusterAction;
 import com.microsoft.azure.toolkit.intellij.springcloud.deplolyment.DeploySpringCloudAppAction;
@@ -18,6 +18,7 @@ import com.microsoft.azure.toolkit.intellij.springcloud.remotedebug.AttachDebugg
 import com.microsoft.azure.toolkit.intellij.springcloud.remotedebug.EnableRemoteDebuggingAction;
 import com.microsoft.azure.toolkit.intellij.springcloud.streaminglog.SpringCloudStreamingLogAction;
 import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzService;
 import com.microsoft.azure.toolkit.lib.common.model.AzResource;
@@ -28,16 +29,32 @@ import com.microsoft.azure.toolkit.lib.springcloud.SpringCloudAppInstance;
 import com.microsoft.azure.toolkit.lib.springcloud.SpringCloudCluster;
 import com.microsoft.azure.toolkit.lib.springcloud.SpringCloudClusterDraft;
 
+import javax.annotation.Nonnull;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-public class IntellijSpringCloudActionsContributor implements IActionsContributor {
+public class IntellijSpringCloudActionsContributor implements ILazyActionsContributor {
     private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyMMddHHmmss");
 
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(ResourceCommonActionsContributor.GETTING_STARTED, ResourceCommonActionsContributor.CREATE,
+                SpringCloudActionsContributor.GROUP_CREATE_CLUSTER, ResourceCommonActionsContributor.DEPLOY,
+                SpringCloudActionsContributor.STREAM_LOG_APP, SpringCloudActionsContributor.STREAM_LOG,
+                SpringCloudActionsContributor.ENABLE_REMOTE_DEBUGGING,
+                SpringCloudActionsContributor.DISABLE_REMOTE_DEBUGGING,
+                SpringCloudActionsContributor.ATTACH_DEBUGGER, SpringCloudActionsContributor.ATTACH_DEBUGGER_APP)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         this.registerGettingStartActionHandler(am);
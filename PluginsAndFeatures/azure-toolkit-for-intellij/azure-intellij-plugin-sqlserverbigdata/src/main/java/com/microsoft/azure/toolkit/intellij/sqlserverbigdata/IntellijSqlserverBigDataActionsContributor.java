@@ -1,17 +1,25 @@
 package com.microsoft.azure.toolkit.intellij.sqlserverbigdata;
 
 import com.intellij.openapi.actionSystem.AnActionEvent;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.sqlserver.spark.SqlserverBigDataActionsContributor;
 import com.microsoft.azure.toolkit.ide.sqlserver.spark.SqlserverBigDataNodeProvider;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.sqlserverbigdata.actions.LinkClusterAction;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.sqlserverbigdata.SqlserverBigDataModule;
 
+import javax.annotation.Nonnull;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 
-public class IntellijSqlserverBigDataActionsContributor implements IActionsContributor {
+public class IntellijSqlserverBigDataActionsContributor implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Set.of(SqlserverBigDataActionsContributor.LINK_CLUSTER.getId());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiPredicate<Object, AnActionEvent> linkClusterCondition = (r, e) -> r instanceof Object;
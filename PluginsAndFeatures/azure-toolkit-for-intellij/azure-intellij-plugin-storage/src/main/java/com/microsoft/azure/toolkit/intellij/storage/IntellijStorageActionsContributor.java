@@ -7,9 +7,9 @@ package com.microsoft.azure.toolkit.intellij.storage;
 
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.project.Project;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.ide.storage.StorageActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.storage.azurite.AzuriteService;
 import com.microsoft.azure.toolkit.intellij.storage.component.StorageCreationDialog;
 import com.microsoft.azure.toolkit.intellij.storage.creation.CreateStorageAccountAction;
@@ -26,12 +26,34 @@ import com.microsoft.azure.toolkit.lib.storage.queue.QueueModule;
 import com.microsoft.azure.toolkit.lib.storage.share.ShareModule;
 import com.microsoft.azure.toolkit.lib.storage.table.TableModule;
 
+import javax.annotation.Nonnull;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-public class IntellijStorageActionsContributor implements IActionsContributor {
+public class IntellijStorageActionsContributor implements ILazyActionsContributor {
     public static final Action.Id<Project> INSTALL_AZURITE = Action.Id.of("user/storage.install_azurite");
 
+    @Nonnull
+    @Override
+    public Set<String> getDeclaredIds() {
+        return Set.of(INSTALL_AZURITE.getId());
+    }
+
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(ResourceCommonActionsContributor.CREATE, StorageActionsContributor.OPEN_FILE,
+                StorageActionsContributor.CREATE_BLOB, StorageActionsContributor.CREATE_FILE,
+                StorageActionsContributor.CREATE_DIRECTORY, StorageActionsContributor.UPLOAD_FILES,
+                StorageActionsContributor.UPLOAD_FILE, StorageActionsContributor.DOWNLOAD_FILE,
+                StorageActionsContributor.COPY_FILE_URL, StorageActionsContributor.COPY_FILE_SAS_URL,
+                StorageActionsContributor.GROUP_CREATE_ACCOUNT)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiPredicate<Object, AnActionEvent> condition = (r, e) -> r instanceof AzureStorageAccount;
@@ -19,6 +19,7 @@ import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.microsoft.azure.toolkit.intellij.common.fileexplorer.VirtualFileActions;
 import com.microsoft.azure.toolkit.intellij.storage.component.FileCreationDialog;
+import com.microsoft.azure.toolkit.intellij.storage.transfer.StorageFileDownloader;
 import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.bundle.AzureString;
 import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
@@ -53,7 +54,7 @@ public class StorageFileActions {
             return;
         }
         final AzureString title = OperationBundle.description("boundary/storage.load_content.file", file.getName());
-        final AzureTask<Void> task = new AzureTask<>(project, title, false, () -> {
+        final AzureTask<Void> task = new AzureTask<>(project, title, true, () -> {
             final ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
             indicator.setIndeterminate(true);
             final FileEditorManager manager = FileEditorManager.getInstance(project);
@@ -64,7 +65,7 @@ public class StorageFileActions {
                 downloadAndOpen(file, project);
             }
         });
-        AzureTaskManager.getInstance().runInModal(task);
+        AzureTaskManager.getInstance().runInBackground(task);
     }
 
     @SneakyThrows
@@ -73,7 +74,7 @@ public class StorageFileActions {
         final FileEditorManager fileEditorManager = FileEditorManager.getInstance(project);
         final File temp = FileUtil.createTempFile("", file.getName(), true);
         temp.delete();
-        file.download(Path.of(temp.getAbsolutePath()));
+        new StorageFileDownloader(file).download(Path.of(temp.getAbsolutePath()), ProgressManager.getInstance().getProgressIndicator());
         final VirtualFile virtualFile = VirtualFileActions.createVirtualFile(file.getId(), file.getName(), temp, fileEditorManager);
         final Function<String, Boolean> onSave = content -> {
             final AzureString title = OperationBundle.description("internal/storage.save_content.file", file.getName());
@@ -218,20 +219,25 @@ public class StorageFileActions {
             final VirtualFile vf = FileChooser.chooseFile(fileChooserDescriptor, null, null);
             if (vf != null) {
                 final AzureString title = OperationBundle.description("boundary/storage.download_file.file|dir", file.getName(), vf.getPath());
-                manager.runInModal(title, () -> {
+                final AzureTask<Void> task = new AzureTask<>(project, title, true, () -> {
                     final ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
-                    indicator.setIndeterminate(true);
                     final Path dest = Paths.get(Objects.requireNonNull(vf).getPath(), file.getName());
-                    file.download(dest);
+                    downloadTo(file, dest, indicator);
                     final File destFile = dest.toFile();
                     if (destFile.exists()) {
                         VirtualFileActions.notifyDownloadSuccess(file.getName(), destFile, project);
                     }
                 });
+                manager.runInBackground(task);
             }
         });
     }
 
+    @SneakyThrows
+    private static void downloadTo(@Nonnull StorageFile file, @Nonnull Path dest, ProgressIndicator indicator) {
+        new StorageFileDownloader(file).download(dest, indicator);
+    }
+
     public static void copyUrl(StorageFile file, Project project) {
         final String url = file.getUrl();
         CopyPasteManager.getInstance().setContents(new StringSelection(url));
@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.storage.transfer;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.io.HttpRequests;
+import com.microsoft.azure.toolkit.lib.storage.model.StorageFile;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Downloads a {@link StorageFile} by fetching fixed-size byte ranges of its SAS url concurrently into a
+ * pre-allocated {@code <dest>.part} file. Completed ranges are recorded in a {@code <dest>.azdownload} journal,
+ * so an interrupted or cancelled download resumes from the missing ranges as long as the remote ETag is unchanged.
+ * A range is forced to the disk before it is journaled, so a resumed file never has holes after a crash.
+ * Small files, and files whose endpoint doesn't support ranges, fall back to {@link StorageFile#download(Path)}.
+ * Either way the download stops when the given {@link ProgressIndicator} is cancelled.
+ */
+@Slf4j
+public class StorageFileDownloader {
+    public static final long DEFAULT_RANGE_SIZE = 8 * FileUtils.ONE_MB;
+    public static final long DEFAULT_PARALLEL_THRESHOLD = 32 * FileUtils.ONE_MB;
+    public static final int DEFAULT_CONCURRENCY = 8;
+    private static final int MAX_RANGE_ATTEMPTS = 3;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PART_SUFFIX = ".part";
+    private static final String JOURNAL_SUFFIX = ".azdownload";
+
+    @Nonnull
+    private final StorageFile file;
+    private final long rangeSize;
+    private final long parallelThreshold;
+    private final int concurrency;
+    @Getter
+    private final AtomicLong downloadedBytes = new AtomicLong();
+
+    public StorageFileDownloader(@Nonnull StorageFile file) {
+        this(file, DEFAULT_RANGE_SIZE, DEFAULT_PARALLEL_THRESHOLD, DEFAULT_CONCURRENCY);
+    }
+
+    public StorageFileDownloader(@Nonnull StorageFile file, long rangeSize, long parallelThreshold, int concurrency) {
+        this.file = file;
+        this.rangeSize = rangeSize;
+        this.parallelThreshold = parallelThreshold;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    public void download(@Nonnull Path dest, @Nullable ProgressIndicator indicator) throws IOException {
+        final RemoteFileInfo remote = this.file.getSize() < this.parallelThreshold ? null : this.fetchRemoteInfo();
+        if (Objects.isNull(remote) || !remote.isRangeSupported()) {
+            this.downloadSequentially(dest, indicator);
+            return;
+        }
+        final Path part = dest.resolveSibling(dest.getFileName() + PART_SUFFIX);
+        final Path journalPath = dest.resolveSibling(dest.getFileName() + JOURNAL_SUFFIX);
+        final Journal journal = Journal.loadOrCreate(journalPath, part, remote, this.rangeSize);
+        this.downloadedBytes.set(journal.getCompletedBytes());
+        if (Objects.nonNull(indicator)) {
+            indicator.setIndeterminate(false);
+        }
+        try (final RandomAccessFile raf = new RandomAccessFile(part.toFile(), "rw")) {
+            if (raf.length() != remote.getLength()) {
+                raf.setLength(remote.getLength());
+            }
+            this.downloadRanges(remote, raf.getChannel(), journal, indicator);
+        }
+        verifyChecksum(part, remote);
+        Files.move(part, dest, StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(journalPath);
+    }
+
+    /**
+     * download the whole file by {@link StorageFile#download(Path)} into {@code <dest>.part}, which is moved to
+     * {@code dest} once complete, the download is abandoned if the indicator is cancelled.
+     */
+    private void downloadSequentially(@Nonnull Path dest, @Nullable ProgressIndicator indicator) throws IOException {
+        if (Objects.isNull(indicator)) {
+            this.file.download(dest);
+            return;
+        }
+        indicator.setIndeterminate(true);
+        final Path part = dest.resolveSibling(dest.getFileName() + PART_SUFFIX);
+        final Future<?> future = AppExecutorUtil.getAppExecutorService().submit(() -> {
+            this.file.download(part);
+            return null;
+        });
+        try {
+            await(future, indicator, () -> {});
+        } catch (final ProcessCanceledException | IOException e) {
+            future.cancel(true);
+            FileUtils.deleteQuietly(part.toFile());
+            throw e;
+        }
+        Files.move(part, dest, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void downloadRanges(@Nonnull RemoteFileInfo remote, @Nonnull FileChannel channel, @Nonnull Journal journal,
+                                @Nullable ProgressIndicator indicator) throws IOException {
+        final ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("Azure Storage Download", this.concurrency);
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < journal.getRangeCount(); i++) {
+                if (!journal.isCompleted(i)) {
+                    final int index = i;
+                    futures.add(executor.submit(() -> {
+                        this.downloadRange(remote, channel, journal, index, indicator);
+                        return null;
+                    }));
+                }
+            }
+            final long start = System.currentTimeMillis();
+            final long resumedBytes = this.downloadedBytes.get();
+            for (final Future<?> future : futures) {
+                await(future, indicator, () -> this.reportProgress(Objects.requireNonNull(indicator), remote.getLength(), resumedBytes, start));
+            }
+            if (Objects.nonNull(indicator)) {
+                this.reportProgress(indicator, remote.getLength(), resumedBytes, start);
+            }
+        } catch (final ProcessCanceledException | IOException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * wait for the future, checking the cancellation of the indicator and calling {@code onTick} periodically.
+     */
+    private void await(@Nonnull Future<?> future, @Nullable ProgressIndicator indicator, @Nonnull Runnable onTick) throws IOException {
+        while (true) {
+            try {
+                future.get(200, TimeUnit.MILLISECONDS);
+                return;
+            } catch (final TimeoutException e) {
+                if (Objects.nonNull(indicator)) {
+                    indicator.checkCanceled();
+                    onTick.run();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("download of " + this.file.getName() + " is interrupted", e);
+            } catch (final ExecutionException e) {
+                if (Objects.nonNull(indicator)) {
+                    // a range stopped by the cancellation fails, which is reported as the cancellation
+                    indicator.checkCanceled();
+                }
+                throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+            }
+        }
+    }
+
+    private void downloadRange(@Nonnull RemoteFileInfo remote, @Nonnull FileChannel channel, @Nonnull Journal journal, int index,
+                               @Nullable ProgressIndicator indicator) throws IOException {
+        final long offset = index * journal.getRangeSize();
+        final long end = Math.min(offset + journal.getRangeSize(), remote.getLength()) - 1;
+        for (int attempt = 1; ; attempt++) {
+            final AtomicLong written = new AtomicLong();
+            try {
+                HttpRequests.request(remote.getUrl())
+                    .tuner(connection -> {
+                        connection.setRequestProperty("Range", String.format("bytes=%d-%d", offset, end));
+                        connection.setRequestProperty("If-Match", remote.getETag());
+                    })
+                    .connect(request -> {
+                        final int code = ((HttpURLConnection) request.getConnection()).getResponseCode();
+                        if (code != HttpURLConnection.HTTP_PARTIAL) {
+                            throw new IOException(String.format("unexpected response code %d for range %d-%d", code, offset, end));
+                        }
+                        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                        try (final InputStream in = request.getInputStream()) {
+                            int read;
+                            while ((read = in.read(buffer.array())) != -1) {
+                                if (Thread.currentThread().isInterrupted() || (Objects.nonNull(indicator) && indicator.isCanceled())) {
+                                    throw new IOException("download is cancelled");
+                                }
+                                buffer.position(0).limit(read);
+                                long position = offset + written.get();
+                                while (buffer.hasRemaining()) {
+                                    position += channel.write(buffer, position);
+                                }
+                                written.addAndGet(read);
+                                this.downloadedBytes.addAndGet(read);
+                            }
+                        }
+                        return null;
+                    });
+                if (written.get() != end - offset + 1) {
+                    throw new IOException(String.format("range %d-%d is truncated at %d bytes", offset, end, written.get()));
+                }
+                // the range must be on the disk before the journal says so, or a crash leaves a hole in a resumed file
+                channel.force(false);
+                journal.markCompleted(index);
+                return;
+            } catch (final IOException e) {
+                this.downloadedBytes.addAndGet(-written.get());
+                if (attempt >= MAX_RANGE_ATTEMPTS || Thread.currentThread().isInterrupted() || (Objects.nonNull(indicator) && indicator.isCanceled())) {
+                    throw e;
+                }
+                log.warn(String.format("failed to download range %d-%d of %s (attempt %d), retrying", offset, end, this.file.getName(), attempt), e);
+            }
+        }
+    }
+
+    private void reportProgress(@Nonnull ProgressIndicator indicator, long total, long resumedBytes, long start) {
+        final long downloaded = this.downloadedBytes.get();
+        final long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        final long speed = (downloaded - resumedBytes) * 1000 / elapsed;
+        indicator.setFraction((double) downloaded / total);
+        indicator.setText2(String.format("%s of %s (%s/s)", StringUtil.formatFileSize(downloaded), StringUtil.formatFileSize(total), StringUtil.formatFileSize(speed)));
+    }
+
+    @Nullable
+    private RemoteFileInfo fetchRemoteInfo() {
+        final String url;
+        try {
+            url = this.file.getSasUrl();
+        } catch (final Throwable e) {
+            log.warn(String.format("failed to generate SAS url of %s, fallback to sequential download", this.file.getName()), e);
+            return null;
+        }
+        try {
+            return HttpRequests.head(url).connect(request -> {
+                final HttpURLConnection connection = (HttpURLConnection) request.getConnection();
+                return new RemoteFileInfo(url, connection.getContentLengthLong(), connection.getHeaderField("ETag"),
+                    connection.getHeaderField("Content-MD5"), StringUtils.equalsIgnoreCase(connection.getHeaderField("Accept-Ranges"), "bytes"));
+            });
+        } catch (final IOException e) {
+            log.warn(String.format("failed to get properties of %s, fallback to sequential download", this.file.getName()), e);
+            return null;
+        }
+    }
+
+    private static void verifyChecksum(@Nonnull Path part, @Nonnull RemoteFileInfo remote) throws IOException {
+        if (StringUtils.isBlank(remote.getContentMd5())) {
+            return;
+        }
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (final NoSuchAlgorithmException e) {
+            return;
+        }
+        try (final FileChannel channel = FileChannel.open(part, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE * 16);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        final String actual = Base64.getEncoder().encodeToString(digest.digest());
+        if (!StringUtils.equals(actual, remote.getContentMd5())) {
+            Files.deleteIfExists(part);
+            Files.deleteIfExists(part.resolveSibling(StringUtils.removeEnd(part.getFileName().toString(), PART_SUFFIX) + JOURNAL_SUFFIX));
+            throw new IOException(String.format("MD5 mismatch of downloaded file (expected: %s, actual: %s)", remote.getContentMd5(), actual));
+        }
+    }
+
+    @Getter
+    private static class RemoteFileInfo {
+        private final String url;
+        private final long length;
+        private final String eTag;
+        @Nullable
+        private final String contentMd5;
+        private final boolean rangeSupported;
+
+        private RemoteFileInfo(String url, long length, String eTag, @Nullable String contentMd5, boolean rangeSupported) {
+            this.url = url;
+            this.length = length;
+            this.eTag = eTag;
+            this.contentMd5 = contentMd5;
+            this.rangeSupported = rangeSupported && length > 0 && StringUtils.isNotBlank(eTag);
+        }
+    }
+
+    /**
+     * records completed ranges of a download, persisted after each range so that it survives IDE restarts.
+     */
+    private static class Journal {
+        private static final String KEY_ETAG = "etag";
+        private static final String KEY_LENGTH = "length";
+        private static final String KEY_RANGE_SIZE = "rangeSize";
+        private static final String KEY_COMPLETED = "completed";
+
+        private final Path path;
+        private final String eTag;
+        private final long length;
+        @Getter
+        private final long rangeSize;
+        private final BitSet completed;
+
+        private Journal(Path path, String eTag, long length, long rangeSize, BitSet completed) {
+            this.path = path;
+            this.eTag = eTag;
+            this.length = length;
+            this.rangeSize = rangeSize;
+            this.completed = completed;
+        }
+
+        static Journal loadOrCreate(@Nonnull Path path, @Nonnull Path part, @Nonnull RemoteFileInfo remote, long rangeSize) throws IOException {
+            if (Files.isRegularFile(path) && Files.isRegularFile(part)) {
+                final Properties props = new Properties();
+                try (final Reader reader = Files.newBufferedReader(path)) {
+                    props.load(reader);
+                    final boolean sameRemote = StringUtils.equals(props.getProperty(KEY_ETAG), remote.getETag()) &&
+                        Long.parseLong(props.getProperty(KEY_LENGTH, "-1")) == remote.getLength();
+                    if (sameRemote) {
+                        final BitSet completed = new BitSet();
+                        for (final String index : StringUtils.split(props.getProperty(KEY_COMPLETED, ""), ',')) {
+                            completed.set(Integer.parseInt(index.trim()));
+                        }
+                        return new Journal(path, remote.getETag(), remote.getLength(), Long.parseLong(props.getProperty(KEY_RANGE_SIZE)), completed);
+                    }
+                } catch (final IOException | RuntimeException e) {
+                    log.warn(String.format("ignore corrupted download journal %s", path), e);
+                }
+            }
+            Files.deleteIfExists(part);
+            final Journal journal = new Journal(path, remote.getETag(), remote.getLength(), rangeSize, new BitSet());
+            journal.save();
+            return journal;
+        }
+
+        int getRangeCount() {
+            return (int) ((this.length + this.rangeSize - 1) / this.rangeSize);
+        }
+
+        synchronized boolean isCompleted(int index) {
+            return this.completed.get(index);
+        }
+
+        synchronized long getCompletedBytes() {
+            long bytes = 0;
+            for (int i = this.completed.nextSetBit(0); i >= 0; i = this.completed.nextSetBit(i + 1)) {
+                bytes += Math.min(this.rangeSize, this.length - i * this.rangeSize);
+            }
+            return bytes;
+        }
+
+        synchronized void markCompleted(int index) throws IOException {
+            this.completed.set(index);
+            this.save();
+        }
+
+        private void save() throws IOException {
+            final Properties props = new Properties();
+            props.setProperty(KEY_ETAG, this.eTag);
+            props.setProperty(KEY_LENGTH, String.valueOf(this.length));
+            props.setProperty(KEY_RANGE_SIZE, String.valueOf(this.rangeSize));
+            props.setProperty(KEY_COMPLETED, this.completed.stream().mapToObj(String::valueOf).reduce((a, b) -> a + "," + b).orElse(""));
+            final Path temp = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+            try (final Writer writer = Files.newBufferedWriter(temp)) {
+                props.store(writer, "Azure Storage download journal");
+            }
+            Files.move(temp, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.toolkit.intellij.storage.transfer;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.microsoft.azure.toolkit.lib.storage.model.StorageFile;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Downloads a file by ranges from a local server which stands in for the SAS url of a blob.
+ */
+public class StorageFileDownloaderTest {
+    private static final int RANGE_SIZE = 64 * 1024;
+    private static final int RANGE_COUNT = 11;
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private HttpServer server;
+    private StorageFile file;
+    private Path dest;
+    private final byte[] content = new byte[RANGE_SIZE * (RANGE_COUNT - 1) + 1000];
+    /**
+     * the indexes of the ranges requested from the server
+     */
+    private final List<Integer> requested = new CopyOnWriteArrayList<>();
+    private final AtomicInteger served = new AtomicInteger();
+    private volatile String eTag = "\"0x1\"";
+    private volatile Set<Integer> failing = Set.of();
+    private volatile boolean cancelled;
+    private volatile int cancelAfterServed = Integer.MAX_VALUE;
+
+    @Before
+    public void setUp() throws IOException {
+        for (int i = 0; i < this.content.length; i++) {
+            this.content[i] = (byte) (i % 251);
+        }
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/blob", this::serve);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.start();
+        this.file = Mockito.mock(StorageFile.class);
+        Mockito.when(this.file.getName()).thenReturn("blob");
+        Mockito.when(this.file.getSize()).thenReturn((long) this.content.length);
+        Mockito.when(this.file.getSasUrl()).thenReturn("http://localhost:" + this.server.getAddress().getPort() + "/blob?sig=test");
+        this.dest = this.temporaryFolder.getRoot().toPath().resolve("blob.bin");
+    }
+
+    @After
+    public void tearDown() {
+        this.server.stop(0);
+    }
+
+    @Test
+    public void testRangesAreAssembled() throws IOException {
+        new StorageFileDownloader(this.file, RANGE_SIZE, 0, 4).download(this.dest, null);
+
+        Assert.assertArrayEquals(this.content, Files.readAllBytes(this.dest));
+        Assert.assertEquals(allRanges(0), new TreeSet<>(this.requested));
+        Assert.assertFalse(Files.exists(this.dest.resolveSibling("blob.bin.part")));
+        Assert.assertFalse(Files.exists(this.dest.resolveSibling("blob.bin.azdownload")));
+    }
+
+    @Test
+    public void testResumeFetchesOnlyMissingRanges() throws IOException {
+        // the connection is lost from the 4th range on
+        this.failing = allRanges(3);
+        Assert.assertThrows(IOException.class, () -> downloader().download(this.dest, null));
+        Assert.assertTrue(Files.exists(this.dest.resolveSibling("blob.bin.azdownload")));
+
+        this.failing = Set.of();
+        this.requested.clear();
+        downloader().download(this.dest, null);
+
+        Assert.assertEquals(allRanges(3), new TreeSet<>(this.requested));
+        Assert.assertArrayEquals(this.content, Files.readAllBytes(this.dest));
+    }
+
+    @Test
+    public void testChangedBlobIsDownloadedAgain() throws IOException {
+        this.failing = allRanges(3);
+        Assert.assertThrows(IOException.class, () -> downloader().download(this.dest, null));
+
+        this.failing = Set.of();
+        this.eTag = "\"0x2\"";
+        this.requested.clear();
+        downloader().download(this.dest, null);
+
+        Assert.assertEquals(allRanges(0), new TreeSet<>(this.requested));
+        Assert.assertArrayEquals(this.content, Files.readAllBytes(this.dest));
+    }
+
+    @Test
+    public void testCancelledDownloadResumes() throws IOException {
+        final ProgressIndicator indicator = Mockito.mock(ProgressIndicator.class);
+        Mockito.when(indicator.isCanceled()).thenAnswer(i -> this.cancelled);
+        Mockito.doAnswer(i -> {
+            if (this.cancelled) {
+                throw new ProcessCanceledException();
+            }
+            return null;
+        }).when(indicator).checkCanceled();
+        this.cancelAfterServed = 2;
+
+        Assert.assertThrows(ProcessCanceledException.class, () -> downloader().download(this.dest, indicator));
+        Assert.assertFalse(Files.exists(this.dest));
+        Assert.assertTrue(Files.exists(this.dest.resolveSibling("blob.bin.azdownload")));
+
+        this.cancelled = false;
+        this.cancelAfterServed = Integer.MAX_VALUE;
+        this.requested.clear();
+        downloader().download(this.dest, indicator);
+
+        // the range being read when cancelled may be requested again, the completed ones are not
+        Assert.assertFalse(this.requested.contains(0));
+        Assert.assertEquals(RANGE_COUNT - 1, this.requested.stream().mapToInt(i -> i).max().orElse(-1));
+        Assert.assertArrayEquals(this.content, Files.readAllBytes(this.dest));
+    }
+
+    /**
+     * download one range at a time, so the ranges completed before a failure are known
+     */
+    private StorageFileDownloader downloader() {
+        return new StorageFileDownloader(this.file, RANGE_SIZE, 0, 1);
+    }
+
+    private static Set<Integer> allRanges(int from) {
+        return IntStream.range(from, RANGE_COUNT).boxed().collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getResponseHeaders().set("ETag", this.eTag);
+            exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(this.content.length));
+                exchange.getResponseHeaders().set("Content-MD5", md5(this.content));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            final Matcher matcher = RANGE.matcher(String.valueOf(exchange.getRequestHeaders().getFirst("Range")));
+            if (!matcher.matches() || !this.eTag.equals(exchange.getRequestHeaders().getFirst("If-Match"))) {
+                exchange.sendResponseHeaders(412, -1);
+                return;
+            }
+            final int start = Integer.parseInt(matcher.group(1));
+            final int end = Integer.parseInt(matcher.group(2));
+            final int index = start / RANGE_SIZE;
+            this.requested.add(index);
+            if (this.failing.contains(index)) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(206, end - start + 1);
+            try (final OutputStream out = exchange.getResponseBody()) {
+                out.write(this.content, start, end - start + 1);
+            }
+            if (this.served.incrementAndGet() >= this.cancelAfterServed) {
+                this.cancelled = true;
+            }
+        }
+    }
+
+    private static String md5(byte[] bytes) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("MD5").digest(bytes));
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -7,12 +7,13 @@ package com.microsoft.azure.toolkit.intellij.vm;
 
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.util.PlatformUtils;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.ide.vm.VirtualMachineActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.vm.creation.CreateVirtualMachineAction;
 import com.microsoft.azure.toolkit.intellij.vm.ssh.ConnectUsingSshActionCommunityImpl;
 import com.microsoft.azure.toolkit.lib.Azure;
+import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.common.model.AzResource;
 import com.microsoft.azure.toolkit.lib.compute.AzureCompute;
@@ -21,11 +22,24 @@ import com.microsoft.azure.toolkit.lib.compute.virtualmachine.VirtualMachineDraf
 import com.microsoft.azure.toolkit.lib.resource.ResourceGroup;
 import org.apache.commons.lang3.StringUtils;
 
+import javax.annotation.Nonnull;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class IntelliJVMActionsContributor implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(ResourceCommonActionsContributor.CREATE, ResourceCommonActionsContributor.START,
+                ResourceCommonActionsContributor.STOP, ResourceCommonActionsContributor.RESTART,
+                VirtualMachineActionsContributor.GROUP_CREATE_VM, VirtualMachineActionsContributor.CONNECT_SSH)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
 
-public class IntelliJVMActionsContributor implements IActionsContributor {
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiPredicate<Object, AnActionEvent> createCondition = (r, e) -> r instanceof AzureCompute;
@@ -6,18 +6,31 @@
 package com.microsoft.azure.toolkit.intellij.vm;
 
 import com.intellij.openapi.actionSystem.AnActionEvent;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.vm.VirtualMachineActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.vm.ssh.AddSshConfigAction;
 import com.microsoft.azure.toolkit.intellij.vm.ssh.BrowseRemoteHostSftpAction;
 import com.microsoft.azure.toolkit.intellij.vm.ssh.ConnectUsingSshActionUltimateImpl;
+import com.microsoft.azure.toolkit.lib.common.action.Action;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.compute.virtualmachine.VirtualMachine;
 
+import javax.annotation.Nonnull;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class IntelliJVMActionsContributorForUltimate implements ILazyActionsContributor {
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Stream.of(VirtualMachineActionsContributor.ADD_SSH_CONFIG, VirtualMachineActionsContributor.CONNECT_SSH,
+                VirtualMachineActionsContributor.SFTP_CONNECTION)
+            .map(Action.Id::getId).collect(Collectors.toSet());
+    }
 
-public class IntelliJVMActionsContributorForUltimate implements IActionsContributor {
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiConsumer<VirtualMachine, AnActionEvent> addSshConfigHandler = (c, e) -> AddSshConfigAction
@@ -16,10 +16,11 @@ import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.icon.AzureIcons;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.intellij.common.action.IntellijActionsContributor;
+import com.microsoft.azure.toolkit.intellij.common.auth.IntelliJSecureStore;
 import com.microsoft.azure.toolkit.intellij.connector.dotazure.AzureModule;
 import com.microsoft.azure.toolkit.intellij.connector.dotazure.ConnectionManager;
 import com.microsoft.azure.toolkit.intellij.connector.dotazure.DeploymentTargetManager;
@@ -35,15 +36,17 @@ import com.microsoft.azure.toolkit.lib.common.messager.AzureMessager;
 import com.microsoft.azure.toolkit.lib.common.task.AzureTaskManager;
 import org.apache.commons.lang3.tuple.Pair;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class ResourceConnectionActionsContributor implements IActionsContributor {
+public class ResourceConnectionActionsContributor implements ILazyActionsContributor {
     public static final Action.Id<Object> REFRESH_CONNECTIONS = Action.Id.of("user/connector.refresh_connections");
     public static final Action.Id<AzureModule> ADD_CONNECTION = Action.Id.of("boundary/connector.add_connection");
     public static final Action.Id<Connection<?, ?>> EDIT_CONNECTION = Action.Id.of("user/connector.edit_connection");
@@ -68,6 +71,16 @@ public class ResourceConnectionActionsContributor implements IActionsContributor
     public static final String EXPLORER_MODULE_ROOT_ACTIONS = "actions.connector.explorer_module_root";
     public static final String EXPLORER_MODULE_LOCAL_CONNECTIONS_ACTIONS = "actions.connector.explorer_local_connections";
 
+    @Nonnull
+    @Override
+    public Set<String> getDeclaredIds() {
+        return Stream.concat(Stream.of(REFRESH_MODULE, REFRESH_MODULE_CONNECTIONS, REFRESH_MODULE_TARGETS, REFRESH_ENVIRONMENT_VARIABLES,
+                    HIDE_AZURE, CONNECT_TO_MODULE, REFRESH_CONNECTIONS, ADD_CONNECTION, EDIT_CONNECTION, EDIT_ENV_FILE_IN_EDITOR,
+                    FIX_CONNECTION, REMOVE_CONNECTION, COPY_ENV_KEY, COPY_ENV_PAIR, COPY_ENV_VARS).map(Action.Id::getId),
+                Stream.of(EXPLORER_MODULE_ROOT_ACTIONS, EXPLORER_MODULE_LOCAL_CONNECTIONS_ACTIONS, MODULE_ACTIONS, CONNECTION_ACTIONS))
+            .collect(Collectors.toSet());
+    }
+
     @Override
     public void registerActions(AzureActionManager am) {
         new Action<>(REFRESH_MODULE)
@@ -85,6 +98,8 @@ public class ResourceConnectionActionsContributor implements IActionsContributor
             .withLabel("Refresh")
             .withIcon(AzureIcons.Action.REFRESH.getIconPath())
             .withHandler((connectionManager, e) -> {
+                // the credentials of the connections may be changed outside the plugin, e.g. in the password settings
+                IntelliJSecureStore.getInstance().clearCache();
                 connectionManager.reload();
                 AzureEventBus.emit("connector.module_connections_changed", connectionManager);
             })
@@ -278,6 +293,7 @@ public class ResourceConnectionActionsContributor implements IActionsContributor
     }
 
     private static void refreshConnections(AnActionEvent e) {
+        IntelliJSecureStore.getInstance().clearCache();
         Objects.requireNonNull(e.getProject())
             .getMessageBus().syncPublisher(ConnectionTopics.CONNECTIONS_REFRESHED)
             .connectionsRefreshed();
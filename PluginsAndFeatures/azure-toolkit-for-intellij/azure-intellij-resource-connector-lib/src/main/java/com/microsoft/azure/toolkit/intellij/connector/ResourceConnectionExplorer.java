@@ -8,7 +8,6 @@ package com.microsoft.azure.toolkit.intellij.connector;
 import com.intellij.facet.ProjectFacetManager;
 import com.intellij.ide.CommonActionsManager;
 import com.intellij.ide.DefaultTreeExpander;
-import com.intellij.openapi.actionSystem.ActionManager;
 import com.intellij.openapi.actionSystem.ActionPlaces;
 import com.intellij.openapi.actionSystem.DefaultActionGroup;
 import com.intellij.openapi.actionSystem.impl.ActionToolbarImpl;
@@ -20,6 +19,7 @@ import com.intellij.ui.content.ContentFactory;
 import com.intellij.util.messages.MessageBusConnection;
 import com.microsoft.azure.toolkit.ide.common.component.Node;
 import com.microsoft.azure.toolkit.ide.common.icon.AzureIcons;
+import com.microsoft.azure.toolkit.intellij.common.action.IntellijAzureActionManager;
 import com.microsoft.azure.toolkit.intellij.common.component.Tree;
 import com.microsoft.azure.toolkit.intellij.connector.dotazure.AzureModule;
 import com.microsoft.azure.toolkit.intellij.connector.dotazure.Profile;
@@ -117,11 +117,10 @@ public class ResourceConnectionExplorer extends Tree {
         private ActionToolbarImpl initToolbar() {
             final DefaultActionGroup group = new DefaultActionGroup();
             final AzureActionManager ijAm = AzureActionManager.getInstance();
-            final ActionManager am = ActionManager.getInstance();
             final CommonActionsManager manager = CommonActionsManager.getInstance();
-            group.add(am.getAction(ResourceConnectionActionsContributor.REFRESH_CONNECTIONS.getId()));
-            group.add(am.getAction(ResourceConnectionActionsContributor.ADD_CONNECTION.getId()));
-            group.add(am.getAction(ResourceConnectionActionsContributor.REMOVE_CONNECTION.getId()));
+            group.add(IntellijAzureActionManager.getNativeAction(ResourceConnectionActionsContributor.REFRESH_CONNECTIONS.getId()));
+            group.add(IntellijAzureActionManager.getNativeAction(ResourceConnectionActionsContributor.ADD_CONNECTION.getId()));
+            group.add(IntellijAzureActionManager.getNativeAction(ResourceConnectionActionsContributor.REMOVE_CONNECTION.getId()));
             group.addSeparator();
             // expand and collapse
             final DefaultTreeExpander expander = new DefaultTreeExpander(this.tree);
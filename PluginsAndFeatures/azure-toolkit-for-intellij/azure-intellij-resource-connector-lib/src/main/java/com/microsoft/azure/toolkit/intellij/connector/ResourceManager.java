@@ -9,6 +9,7 @@ import com.intellij.openapi.components.PersistentStateComponent;
 import com.intellij.openapi.components.State;
 import com.intellij.openapi.components.Storage;
 import com.intellij.openapi.extensions.ExtensionPointName;
+import com.microsoft.azure.toolkit.intellij.connector.keyvalue.KeyValueResource;
 import com.microsoft.azure.toolkit.lib.common.messager.ExceptionNotification;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
 import lombok.extern.slf4j.Slf4j;
@@ -110,6 +111,8 @@ public interface ResourceManager {
         @ExceptionNotification
         @AzureOperation(name = "boundary/connector.load_connection_resources")
         public void loadState(@Nonnull Element resourcesEle) {
+            KeyValueResource.Definition.INSTANCE.prefetch(resourcesEle.getChildren().stream()
+                .filter(e -> ResourceManager.getDefinition(e.getAttributeValue(ATTR_DEFINITION)) instanceof KeyValueResource.Definition).toList());
             for (final Element resourceEle : resourcesEle.getChildren()) {
                 final String resDef = resourceEle.getAttributeValue(ATTR_DEFINITION);
                 final ResourceDefinition<?> definition = ResourceManager.getDefinition(resDef);
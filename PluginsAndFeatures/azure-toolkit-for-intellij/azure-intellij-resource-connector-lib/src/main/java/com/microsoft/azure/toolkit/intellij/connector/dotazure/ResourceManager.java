@@ -11,6 +11,7 @@ import com.intellij.openapi.util.JDOMUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.microsoft.azure.toolkit.intellij.connector.Resource;
 import com.microsoft.azure.toolkit.intellij.connector.ResourceDefinition;
+import com.microsoft.azure.toolkit.intellij.connector.keyvalue.KeyValueResource;
 import com.microsoft.azure.toolkit.lib.common.exception.AzureToolkitRuntimeException;
 import com.microsoft.azure.toolkit.lib.common.messager.ExceptionNotification;
 import com.microsoft.azure.toolkit.lib.common.operation.AzureOperation;
@@ -131,6 +132,8 @@ public class ResourceManager {
         }
         this.resources.clear();
         final Element resourcesEle = JDOMUtil.load(resourcesFile.toNioPath());
+        KeyValueResource.Definition.INSTANCE.prefetch(resourcesEle.getChildren().stream()
+            .filter(e -> ResourceManager.getDefinition(e.getAttributeValue(ATTR_DEFINITION)) instanceof KeyValueResource.Definition).toList());
         for (final Element resourceEle : resourcesEle.getChildren()) {
             final String resDef = resourceEle.getAttributeValue(ATTR_DEFINITION);
             final ResourceDefinition<?> definition = ResourceManager.getDefinition(resDef);
@@ -106,7 +106,7 @@ public class KeyValueResource implements Resource<KeyValueData> {
 
         @Override
         public Resource<KeyValueData> read(@Nonnull Element element) {
-            final String id = Optional.ofNullable(element.getChildTextTrim("resourceId")).orElseGet(() -> element.getChildTextTrim("dataId"));
+            final String id = getDataId(element);
             final String name = element.getChildTextTrim("name");
             final String connectionString = IntelliJSecureStore.getInstance().loadPassword(Definition.class.getName(), id, null);
             final KeyValueData target = Objects.isNull(id) ? null :
@@ -114,6 +114,20 @@ public class KeyValueResource implements Resource<KeyValueData> {
             return Optional.ofNullable(target).map(this::define).orElse(null);
         }
 
+        /**
+         * Load the values of the resources of the elements in background concurrently, so that reading the elements
+         * one by one doesn't read the secure store one by one.
+         */
+        public void prefetch(@Nonnull List<Element> elements) {
+            final List<String> ids = elements.stream().map(Definition::getDataId).filter(Objects::nonNull).toList();
+            IntelliJSecureStore.getInstance().prefetch(Definition.class.getName(), ids, null);
+        }
+
+        @Nullable
+        private static String getDataId(@Nonnull Element element) {
+            return Optional.ofNullable(element.getChildTextTrim("resourceId")).orElseGet(() -> element.getChildTextTrim("dataId"));
+        }
+
         @Nullable
         @Override
         public String getIcon() {
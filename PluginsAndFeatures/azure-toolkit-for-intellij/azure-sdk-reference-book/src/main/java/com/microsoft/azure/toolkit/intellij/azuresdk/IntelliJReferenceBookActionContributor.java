@@ -6,9 +6,9 @@
 package com.microsoft.azure.toolkit.intellij.azuresdk;
 
 import com.intellij.openapi.actionSystem.AnActionEvent;
-import com.microsoft.azure.toolkit.ide.common.IActionsContributor;
 import com.microsoft.azure.toolkit.ide.common.action.ResourceCommonActionsContributor;
 import com.microsoft.azure.toolkit.intellij.azuresdk.referencebook.OpenReferenceBookAction;
+import com.microsoft.azure.toolkit.intellij.common.action.ILazyActionsContributor;
 import com.microsoft.azure.toolkit.lib.common.action.AzureActionManager;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzResource;
 import com.microsoft.azure.toolkit.lib.common.model.AbstractAzService;
@@ -18,10 +18,11 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 
-public class IntelliJReferenceBookActionContributor implements IActionsContributor {
+public class IntelliJReferenceBookActionContributor implements ILazyActionsContributor {
     private static Map<String, String> SERVICE_FEATURE_MAP = new HashMap<>() {
         {
             put("Microsoft.ContainerService", "Container Service");
@@ -68,6 +69,12 @@ public class IntelliJReferenceBookActionContributor implements IActionsContribut
         }
     };
 
+    @Nonnull
+    @Override
+    public Set<String> getHandledIds() {
+        return Set.of(ResourceCommonActionsContributor.OPEN_AZURE_REFERENCE_BOOK.getId());
+    }
+
     @Override
     public void registerHandlers(AzureActionManager am) {
         final BiPredicate<Object, AnActionEvent> condition = (r, e) -> r instanceof AbstractAzService<?, ?>
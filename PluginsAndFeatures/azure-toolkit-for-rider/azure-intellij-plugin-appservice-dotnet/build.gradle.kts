@@ -1,3 +1,5 @@
+import org.jetbrains.intellij.platform.gradle.TestFrameworkType
+
 plugins {
     alias(libs.plugins.kotlin)
     alias(libs.plugins.serialization)
@@ -23,6 +25,7 @@ dependencies {
         bundledModule("intellij.rider")
         bundledPlugins(listOf("com.jetbrains.restClient"))
         instrumentationTools()
+        testFramework(TestFrameworkType.Bundled)
     }
 
     implementation(libs.azureToolkitAuthLib)
@@ -46,4 +49,14 @@ dependencies {
         exclude(group = "org.jetbrains.kotlinx", module = "kotlinx-coroutines-jdk8")
         exclude(group = "org.jetbrains.kotlinx", module = "kotlinx-serialization-json")
     }
+
+    testImplementation(libs.junit)
+    testImplementation(libs.opentest4j)
+}
+
+tasks {
+    test {
+        // the benchmarks are skipped unless enabled, e.g. by -Dazure.toolkit.benchmark=true
+        systemProperties(System.getProperties().filterKeys { it.toString().startsWith("azure.toolkit.benchmark") }.mapKeys { it.key.toString() })
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018-2024 JetBrains s.r.o. and contributors. Use of this source code is governed by the MIT license.
+ */
+
+package com.microsoft.azure.toolkit.intellij.appservice
+
+import com.intellij.openapi.application.PathManager
+import com.intellij.openapi.diagnostic.logger
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import org.apache.commons.codec.digest.DigestUtils
+import java.io.File
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * The folders where [ArtifactZipPackager.packIncremental] keeps the package of the last deployment, one per project and
+ * deployment target, so that they outlive the temporary publish folders. The least recently used folders are evicted
+ * beyond [maxPackages], and the ones not used for [maxAge]. A folder is used by one deployment at a time, see [withFolderLock].
+ */
+class ArtifactPackageCache(
+    private val root: File,
+    private val maxPackages: Int = DEFAULT_MAX_PACKAGES,
+    private val maxAge: Duration = DEFAULT_MAX_AGE
+) {
+    companion object {
+        private val LOG = logger<ArtifactPackageCache>()
+        const val DEFAULT_MAX_PACKAGES = 10
+        val DEFAULT_MAX_AGE: Duration = Duration.ofDays(30)
+
+        /**
+         * the locks of the folders by their absolute paths, shared by the instances since each deployment gets its own
+         */
+        private val folderLocks = ConcurrentHashMap<File, Mutex>()
+
+        fun getInstance() = ArtifactPackageCache(PathManager.getSystemDir().resolve("azure-deploy-packages").toFile())
+    }
+
+    /**
+     * @param projectKey the key of the project which is stable across IDE restarts, e.g. [com.intellij.openapi.project.Project.getLocationHash]
+     * @param targetId the resource id of the deployment target, which is case-insensitive
+     */
+    fun getFolder(projectKey: String, targetId: String): File =
+        root.resolve(projectKey).resolve(DigestUtils.sha256Hex(targetId.lowercase()).take(16))
+
+    /**
+     * Run the block holding the lock of the folder, e.g. packaging into it and uploading the package from it, so that the
+     * concurrent deployments to the same target wait instead of overwriting the package being written or uploaded.
+     */
+    suspend fun <T> withFolderLock(folder: File, block: suspend () -> T): T =
+        folderLocks.computeIfAbsent(folder.absoluteFile) { Mutex() }.withLock { block() }
+
+    /**
+     * Delete the package folders beyond the limits, the least recently used first.
+     *
+     * @param inUse the folder of the current deployment, which is never deleted, nor are the folders locked by others
+     */
+    fun evict(inUse: File?) {
+        val folders = root.listFiles()
+            ?.flatMap { project -> project.listFiles()?.filter { it.isDirectory }.orEmpty() }
+            ?.filter { it != inUse && folderLocks[it.absoluteFile]?.isLocked != true }
+            .orEmpty()
+        val kept = if (inUse != null) maxPackages - 1 else maxPackages
+        val now = System.currentTimeMillis()
+        folders.map { it to lastUsed(it) }
+            .sortedByDescending { it.second }
+            .filterIndexed { index, (_, lastUsed) -> index >= kept || now - lastUsed > maxAge.toMillis() }
+            .forEach { (folder, _) ->
+                if (!folder.deleteRecursively()) {
+                    LOG.warn("Unable to delete the cached package $folder")
+                }
+            }
+        root.listFiles()?.filter { it.isDirectory && it.list()?.isEmpty() == true }?.forEach { it.delete() }
+    }
+
+    /**
+     * @return the last time the package in the folder was used, the manifest is written on every use
+     */
+    private fun lastUsed(folder: File): Long = folder.listFiles()?.maxOfOrNull { it.lastModified() } ?: folder.lastModified()
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2018-2024 JetBrains s.r.o. and contributors. Use of this source code is governed by the MIT license.
+ */
+
+package com.microsoft.azure.toolkit.intellij.appservice
+
+import com.intellij.openapi.diagnostic.logger
+import com.intellij.openapi.util.text.StringUtil
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.encodeToString
+import kotlinx.serialization.json.Json
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream
+import org.apache.commons.compress.archivers.zip.ZipFile
+import java.io.File
+import java.io.IOException
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.security.MessageDigest
+import java.util.zip.ZipEntry
+
+/**
+ * Packages a publish folder into a ZIP in a single pass: the excluded entries are skipped while writing, the files of
+ * already compressed types are stored instead of deflated, and the progress is reported by the bytes written.
+ *
+ * With [packIncremental], the ZIP and a content-hash manifest of its entries are kept in a cache folder. The cached ZIP
+ * is reused if no file changed, otherwise the unchanged entries are copied from it without recompression and only the
+ * changed files are compressed.
+ */
+class ArtifactZipPackager(
+    private val excludedEntries: Set<String> = emptySet(),
+    private val updateStatusText: (String) -> Unit = {}
+) {
+    companion object {
+        private val LOG = logger<ArtifactZipPackager>()
+        private const val BUFFER_SIZE = 64 * 1024
+        private const val PROGRESS_STEP_PERCENT = 10
+        private const val MANIFEST_FILE = "manifest.json"
+        private const val PACKAGE_FILE = "package.zip"
+
+        private val STORED_EXTENSIONS = setOf(
+            "png", "jpg", "jpeg", "gif", "webp", "ico",
+            "zip", "gz", "br", "7z", "nupkg", "snupkg",
+            "woff", "woff2", "mp3", "mp4", "webm"
+        )
+
+        private val json = Json { ignoreUnknownKeys = true }
+
+        fun isCompressed(entryName: String) = entryName.substringAfterLast('.', "").lowercase() in STORED_EXTENSIONS
+    }
+
+    fun pack(sourceFolder: File, zipFile: File): PackResult {
+        val entries = collectEntries(sourceFolder)
+        return write(entries, zipFile, null, emptySet())
+    }
+
+    /**
+     * Package the folder into `package.zip` of the cache folder, reusing the package of the last run in it.
+     *
+     * @return the result, whose ZIP file is kept in the cache folder for the next run
+     */
+    fun packIncremental(sourceFolder: File, cacheFolder: File): PackResult {
+        val zipFile = File(cacheFolder, PACKAGE_FILE)
+        val manifestFile = File(cacheFolder, MANIFEST_FILE)
+        val previous = readManifest(manifestFile)?.takeIf { zipFile.isFile }
+        val entries = collectEntries(sourceFolder)
+        val current = Manifest(entries.associate { it.name to describe(it, previous?.entries?.get(it.name)) })
+        val unchanged = current.entries.filter { (name, entry) -> previous?.entries?.get(name)?.sha256 == entry.sha256 }.keys
+
+        if (previous != null && unchanged.size == current.entries.size && previous.entries.keys == current.entries.keys
+            && hasEntries(zipFile, current.entries.keys)
+        ) {
+            writeManifest(manifestFile, current)
+            return PackResult(zipFile, emptyList(), emptyList(), true)
+        }
+
+        val tempFile = File(cacheFolder, "$PACKAGE_FILE.tmp")
+        val result = try {
+            write(entries, tempFile, previous?.let { zipFile }, unchanged)
+        } catch (e: Exception) {
+            // the cached package is broken, fallback to package all
+            LOG.warn("Unable to reuse the cached package $zipFile", e)
+            Files.deleteIfExists(tempFile.toPath())
+            write(entries, tempFile, null, emptySet())
+        }
+        // the old manifest is deleted first, so it never describes the new package if interrupted before the new one is written
+        Files.deleteIfExists(manifestFile.toPath())
+        Files.move(tempFile.toPath(), zipFile.toPath(), StandardCopyOption.REPLACE_EXISTING)
+        writeManifest(manifestFile, current)
+        return result.copy(zipFile = zipFile)
+    }
+
+    /**
+     * @param previousZip the package to copy the raw data of the unchanged entries from
+     */
+    private fun write(entries: List<Entry>, zipFile: File, previousZip: File?, unchanged: Set<String>): PackResult {
+        val progress = Progress(entries.sumOf { if (it.file.isFile) it.file.length() else 0L })
+        val buffer = ByteArray(BUFFER_SIZE)
+        val compressed = mutableListOf<String>()
+        val copied = mutableListOf<String>()
+        zipFile.parentFile?.mkdirs()
+
+        val previous = previousZip?.let { ZipFile(it) }
+        previous.use {
+            // the file output is seekable, so the sizes and CRC of the stored entries are written back after their data
+            ZipArchiveOutputStream(zipFile).use { zip ->
+                for (entry in entries) {
+                    val previousEntry = if (entry.name in unchanged) previous?.getEntry(entry.name) else null
+                    if (previousEntry != null) {
+                        previous!!.getRawInputStream(previousEntry).use { zip.addRawArchiveEntry(previousEntry, it) }
+                        copied.add(entry.name)
+                        progress.add(entry.file.length())
+                        continue
+                    }
+
+                    val archiveEntry = ZipArchiveEntry(entry.file, entry.name)
+                    if (entry.file.isDirectory) {
+                        zip.putArchiveEntry(archiveEntry)
+                        zip.closeArchiveEntry()
+                        continue
+                    }
+
+                    archiveEntry.method = if (isCompressed(entry.name)) ZipEntry.STORED else ZipEntry.DEFLATED
+                    zip.putArchiveEntry(archiveEntry)
+                    entry.file.inputStream().use { input ->
+                        while (true) {
+                            val read = input.read(buffer)
+                            if (read < 0) break
+                            zip.write(buffer, 0, read)
+                            progress.add(read.toLong())
+                        }
+                    }
+                    zip.closeArchiveEntry()
+                    compressed.add(entry.name)
+                }
+            }
+        }
+        return PackResult(zipFile, compressed, copied, false)
+    }
+
+    /**
+     * @return the files and empty directories under the folder by their entry names, without the excluded ones
+     */
+    private fun collectEntries(sourceFolder: File): List<Entry> = sourceFolder.walkTopDown()
+        .filter { it != sourceFolder && (it.isFile || it.list()?.isEmpty() == true) }
+        .map { Entry(it.relativeTo(sourceFolder).invariantSeparatorsPath + if (it.isDirectory) "/" else "", it) }
+        .filter { it.name !in excludedEntries }
+        .sortedBy { it.name }
+        .toList()
+
+    /**
+     * @return the manifest entry of the file, the content is hashed only if its size or modified time changed
+     */
+    private fun describe(entry: Entry, previous: ManifestEntry?): ManifestEntry {
+        val size = if (entry.file.isFile) entry.file.length() else 0L
+        val lastModified = entry.file.lastModified()
+        if (previous != null && previous.size == size && previous.lastModified == lastModified) {
+            return previous
+        }
+        if (entry.file.isDirectory) {
+            return ManifestEntry(size, lastModified, "")
+        }
+
+        val digest = MessageDigest.getInstance("SHA-256")
+        val buffer = ByteArray(BUFFER_SIZE)
+        entry.file.inputStream().use { input ->
+            while (true) {
+                val read = input.read(buffer)
+                if (read < 0) break
+                digest.update(buffer, 0, read)
+            }
+        }
+        return ManifestEntry(size, lastModified, digest.digest().joinToString("") { "%02x".format(it) })
+    }
+
+    /**
+     * @return whether the package can be read and has exactly the entries, i.e. it's not truncated or replaced
+     */
+    private fun hasEntries(zipFile: File, names: Set<String>): Boolean = try {
+        ZipFile(zipFile).use { zip -> zip.entries.asSequence().map { it.name }.toSet() == names }
+    } catch (e: IOException) {
+        LOG.warn("Unable to reuse the cached package $zipFile", e)
+        false
+    }
+
+    private fun readManifest(manifestFile: File): Manifest? {
+        if (!manifestFile.isFile) return null
+        return try {
+            json.decodeFromString<Manifest>(manifestFile.readText())
+        } catch (e: Exception) {
+            LOG.warn("Unable to read the package manifest $manifestFile", e)
+            null
+        }
+    }
+
+    private fun writeManifest(manifestFile: File, manifest: Manifest) {
+        manifestFile.parentFile?.mkdirs()
+        val tempFile = File(manifestFile.parentFile, ".tmp")
+        tempFile.writeText(json.encodeToString(manifest))
+        Files.move(tempFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+    }
+
+    /**
+     * @property compressedEntries the entries compressed from the files in this run
+     * @property copiedEntries the entries copied from the previous package without recompression
+     * @property reused whether the previous package is reused as is since no file changed
+     */
+    data class PackResult(
+        val zipFile: File,
+        val compressedEntries: List<String>,
+        val copiedEntries: List<String>,
+        val reused: Boolean
+    )
+
+    @Serializable
+    private data class Manifest(val entries: Map<String, ManifestEntry>)
+
+    @Serializable
+    private data class ManifestEntry(val size: Long, val lastModified: Long, val sha256: String)
+
+    private data class Entry(val name: String, val file: File)
+
+    private inner class Progress(private val totalBytes: Long) {
+        private var writtenBytes = 0L
+        private var reportedPercent = 0
+
+        fun add(bytes: Long) {
+            writtenBytes += bytes
+            if (totalBytes <= 0) return
+            val percent = (writtenBytes * 100 / totalBytes).toInt()
+            if (percent >= reportedPercent + PROGRESS_STEP_PERCENT) {
+                reportedPercent = percent - percent % PROGRESS_STEP_PERCENT
+                updateStatusText(
+                    "Creating ZIP: $reportedPercent% (${StringUtil.formatFileSize(writtenBytes)} of ${StringUtil.formatFileSize(totalBytes)})"
+                )
+            }
+        }
+    }
+}
@@ -16,7 +16,6 @@ import com.intellij.openapi.components.Service
 import com.intellij.openapi.components.service
 import com.intellij.openapi.diagnostic.logger
 import com.intellij.openapi.project.Project
-import com.intellij.openapi.util.io.FileUtil
 import com.jetbrains.rider.model.PublishableProjectModel
 import com.microsoft.azure.toolkit.intellij.legacy.ArtifactService
 import com.microsoft.azure.toolkit.lib.appservice.AppServiceAppBase
@@ -24,16 +23,15 @@ import com.microsoft.azure.toolkit.lib.appservice.function.FunctionAppBase
 import com.microsoft.azure.toolkit.lib.appservice.webapp.WebAppBase
 import com.microsoft.azure.toolkit.lib.common.model.AzResource
 import kotlinx.coroutines.reactor.awaitSingleOrNull
-import org.zeroturnaround.zip.ZipUtil
 import java.io.File
 import java.io.IOException
-import java.nio.file.Files
 
 @Service(Service.Level.PROJECT)
 class DotNetAppServiceDeployer(private val project: Project) {
     companion object {
         fun getInstance(project: Project): DotNetAppServiceDeployer = project.service()
         private val LOG = logger<DotNetAppServiceDeployer>()
+        private const val LOCAL_SETTINGS_FILE = "local.settings.json"
     }
 
     suspend fun deploy(
@@ -60,16 +58,7 @@ class DotNetAppServiceDeployer(private val project: Project) {
             }
 
         val artifactFolder = publishProjectResult.getOrThrow()
-        updateStatusText("Creating ${publishableProject.projectName} project ZIP...")
-        val zipFile = packageWebAppArtifactDirectory(artifactFolder)
-            ?: return Result.failure(ExecutionException("Unable to create zip archive with project artifacts"))
-        updateStatusText("Project ZIP is created: ${zipFile.absolutePath}")
-
-        return deploy(
-            target,
-            zipFile,
-            updateStatusText
-        )
+        return packageAndDeploy(target, publishableProject, artifactFolder, emptySet(), updateStatusText)
     }
 
     suspend fun deploy(
@@ -96,16 +85,7 @@ class DotNetAppServiceDeployer(private val project: Project) {
             }
 
         val artifactFolder = publishProjectResult.getOrThrow()
-        updateStatusText("Creating ${publishableProject.projectName} project ZIP...")
-        val zipFile = packageFunctionAppArtifactDirectory(artifactFolder)
-            ?: return Result.failure(ExecutionException("Unable to create zip archive with project artifacts"))
-        updateStatusText("Project ZIP is created: ${zipFile.absolutePath}")
-
-        return deploy(
-            target,
-            zipFile,
-            updateStatusText
-        )
+        return packageAndDeploy(target, publishableProject, artifactFolder, setOf(LOCAL_SETTINGS_FILE), updateStatusText)
     }
 
     private fun checkIfTargetIsValid(target: AppServiceAppBase<*, *, *>) {
@@ -126,23 +106,53 @@ class DotNetAppServiceDeployer(private val project: Project) {
         }
     }
 
-    private fun packageWebAppArtifactDirectory(artifactFolder: File): File? {
-        try {
-            val zipFile = Files.createTempFile(artifactFolder.nameWithoutExtension, ".zip").toFile()
-            ZipUtil.pack(artifactFolder, zipFile)
-            return zipFile
-        } catch (e: IOException) {
-            LOG.error("Unable to package the artifact directory", e)
-            return null
+    /**
+     * Package the artifact folder and deploy the package, holding the lock of its cache folder until it's uploaded, so
+     * that the concurrent deployments to the same target don't overwrite the package of each other.
+     */
+    private suspend fun packageAndDeploy(
+        target: AppServiceAppBase<*, *, *>,
+        publishableProject: PublishableProjectModel,
+        artifactFolder: File,
+        excludedEntries: Set<String>,
+        updateStatusText: (String) -> Unit
+    ): Result<Unit> {
+        val cache = ArtifactPackageCache.getInstance()
+        val cacheFolder = cache.getFolder(project.locationHash, target.id)
+        return cache.withFolderLock(cacheFolder) {
+            updateStatusText("Creating ${publishableProject.projectName} project ZIP...")
+            val zipFile = packageArtifactDirectory(cache, cacheFolder, artifactFolder, excludedEntries, updateStatusText)
+                ?: return@withFolderLock Result.failure(ExecutionException("Unable to create zip archive with project artifacts"))
+            updateStatusText("Project ZIP is created: ${zipFile.absolutePath}")
+
+            deploy(
+                target,
+                zipFile,
+                updateStatusText
+            )
         }
     }
 
-    private fun packageFunctionAppArtifactDirectory(artifactFolder: File): File? {
+    /**
+     * Package the artifact folder incrementally, the package and its manifest of the last deployment to the target are
+     * kept in the [ArtifactPackageCache] of the project, so that only the changed files are compressed again.
+     */
+    private fun packageArtifactDirectory(
+        cache: ArtifactPackageCache,
+        cacheFolder: File,
+        artifactFolder: File,
+        excludedEntries: Set<String>,
+        updateStatusText: (String) -> Unit
+    ): File? {
         try {
-            val zipFile = Files.createTempFile(artifactFolder.nameWithoutExtension, ".zip").toFile()
-            ZipUtil.pack(artifactFolder, zipFile)
-            ZipUtil.removeEntry(zipFile, "local.settings.json")
-            return zipFile
+            val result = ArtifactZipPackager(excludedEntries, updateStatusText).packIncremental(artifactFolder, cacheFolder)
+            cache.evict(cacheFolder)
+            if (result.reused) {
+                updateStatusText("No file changed since the last deployment, reusing its ZIP")
+            } else if (result.copiedEntries.isNotEmpty()) {
+                updateStatusText("Compressed ${result.compressedEntries.size} changed file(s), reused ${result.copiedEntries.size} from the last deployment")
+            }
+            return result.zipFile
         } catch (e: IOException) {
             LOG.error("Unable to package the artifact directory", e)
             return null
@@ -175,8 +185,6 @@ class DotNetAppServiceDeployer(private val project: Project) {
 
         updateStatusText("Successfully deployed the artifact to ${webAppBase.defaultHostname()}")
 
-        FileUtil.delete(zipFile)
-
         if (!target.getFormalStatus().isRunning) {
             updateStatusText("Starting the application after deploying artifacts...")
             target.start()
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018-2024 JetBrains s.r.o. and contributors. Use of this source code is governed by the MIT license.
+ */
+
+package com.microsoft.azure.toolkit.intellij.appservice
+
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.time.Duration
+import java.util.Collections
+
+class ArtifactPackageCacheTest {
+    companion object {
+        private const val PROJECT_KEY = "WebApp.a1b2c3d4"
+        private const val TARGET_ID = "/subscriptions/0000/resourceGroups/rg/providers/Microsoft.Web/sites/app"
+    }
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    @Test
+    fun testFolderIsStableAcrossDeployments() {
+        val root = temporaryFolder.newFolder("cache")
+        val folder = ArtifactPackageCache(root).getFolder(PROJECT_KEY, TARGET_ID)
+
+        assertEquals(folder, ArtifactPackageCache(root).getFolder(PROJECT_KEY, TARGET_ID.uppercase()))
+        assertNotEquals(folder, ArtifactPackageCache(root).getFolder(PROJECT_KEY, "$TARGET_ID-staging"))
+        assertNotEquals(folder, ArtifactPackageCache(root).getFolder("Other.a1b2c3d4", TARGET_ID))
+
+        // each deployment publishes to a new temporary folder
+        val first = ArtifactZipPackager().packIncremental(createPublishFolder("publish1"), folder)
+        val second = ArtifactZipPackager().packIncremental(createPublishFolder("publish2"), ArtifactPackageCache(root).getFolder(PROJECT_KEY, TARGET_ID))
+        assertFalse(first.reused)
+        assertTrue(second.reused)
+        assertEquals(first.zipFile, second.zipFile)
+    }
+
+    @Test
+    fun testEvictLeastRecentlyUsed() {
+        val root = temporaryFolder.newFolder("cache")
+        val cache = ArtifactPackageCache(root, maxPackages = 3)
+        val now = System.currentTimeMillis()
+        val folders = (0 until 5).map { index -> createPackage(cache.getFolder(PROJECT_KEY, "$TARGET_ID$index"), now - index * 60_000L) }
+
+        cache.evict(folders[4])
+
+        assertEquals(listOf(true, true, false, false, true), folders.map { it.exists() })
+    }
+
+    @Test
+    fun testEvictUnusedForMaxAge() {
+        val root = temporaryFolder.newFolder("cache")
+        val cache = ArtifactPackageCache(root, maxAge = Duration.ofDays(30))
+        val now = System.currentTimeMillis()
+        val recent = createPackage(cache.getFolder(PROJECT_KEY, TARGET_ID), now)
+        val stale = createPackage(cache.getFolder("Other.a1b2c3d4", TARGET_ID), now - Duration.ofDays(31).toMillis())
+
+        cache.evict(null)
+
+        assertTrue(recent.exists())
+        assertFalse(stale.exists())
+        // the folder of the project is removed with its last package
+        assertFalse(stale.parentFile.exists())
+    }
+
+    @Test
+    fun testDeploymentsToSameTargetWaitForEachOther() = runBlocking {
+        val root = temporaryFolder.newFolder("cache")
+        val events = Collections.synchronizedList(mutableListOf<String>())
+        val deployments = listOf("first", "second").map { name ->
+            launch {
+                // each deployment gets its own instance
+                val cache = ArtifactPackageCache(root)
+                cache.withFolderLock(cache.getFolder(PROJECT_KEY, TARGET_ID)) {
+                    events.add("$name packaging")
+                    delay(50)
+                    events.add("$name uploaded")
+                }
+            }
+        }
+        val other = launch {
+            val cache = ArtifactPackageCache(root)
+            cache.withFolderLock(cache.getFolder(PROJECT_KEY, "$TARGET_ID-staging")) {
+                events.add("other packaging")
+                delay(10)
+            }
+        }
+        (deployments + other).forEach { it.join() }
+
+        assertEquals(listOf("first packaging", "first uploaded"), events.filter { it.startsWith("first") })
+        assertEquals(events.indexOf("first uploaded") + 1, events.indexOf("second packaging"))
+        // the deployment to another target doesn't wait
+        assertTrue(events.indexOf("other packaging") < events.indexOf("first uploaded"))
+    }
+
+    @Test
+    fun testEvictSkipsFoldersInUseByOtherDeployments() = runBlocking {
+        val root = temporaryFolder.newFolder("cache")
+        val cache = ArtifactPackageCache(root, maxPackages = 1)
+        val now = System.currentTimeMillis()
+        val folders = (0 until 3).map { index -> createPackage(cache.getFolder(PROJECT_KEY, "$TARGET_ID$index"), now - index * 60_000L) }
+
+        ArtifactPackageCache(root).withFolderLock(folders[1]) {
+            cache.evict(folders[0])
+        }
+
+        assertEquals(listOf(true, true, false), folders.map { it.exists() })
+    }
+
+    private fun createPublishFolder(name: String): File {
+        val folder = temporaryFolder.newFolder(name)
+        File(folder, "App.dll").writeBytes(ByteArray(4096) { it.toByte() })
+        File(folder, "appsettings.json").writeText("{}")
+        folder.listFiles()!!.forEach { it.setLastModified(1_700_000_000_000L) }
+        return folder
+    }
+
+    private fun createPackage(folder: File, lastUsed: Long): File {
+        folder.mkdirs()
+        listOf("package.zip", "manifest.json").forEach { File(folder, it).apply { writeText(it) }.setLastModified(lastUsed) }
+        folder.setLastModified(lastUsed)
+        return folder
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018-2024 JetBrains s.r.o. and contributors. Use of this source code is governed by the MIT license.
+ */
+
+package com.microsoft.azure.toolkit.intellij.appservice
+
+import com.intellij.openapi.util.text.StringUtil
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Assume.assumeTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.zeroturnaround.zip.ZipUtil
+import java.io.File
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+import kotlin.system.measureNanoTime
+
+/**
+ * Compares the single pass packaging of [ArtifactZipPackager] with packing the whole publish folder and removing the
+ * excluded entry afterwards, as the function app deployment did, on a synthetic publish folder of 500 MB by default.
+ *
+ * It writes more than 1 GB to the temporary folder, so it's skipped unless run by
+ * `./gradlew :azure-intellij-plugin-appservice-dotnet:test -Dazure.toolkit.benchmark=true`, the size of the folder is
+ * set by `-Dazure.toolkit.benchmark.publishFolderMegabytes`.
+ */
+class ArtifactZipPackagerBenchmark {
+    companion object {
+        private const val BENCHMARK_PROPERTY = "azure.toolkit.benchmark"
+        private const val FOLDER_MEGABYTES_PROPERTY = "azure.toolkit.benchmark.publishFolderMegabytes"
+        private const val DEFAULT_FOLDER_MEGABYTES = 500
+        private const val ROUNDS = 3
+        private const val LOCAL_SETTINGS_FILE = "local.settings.json"
+        private const val MEGABYTE = 1024 * 1024
+    }
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    @Test
+    fun singlePassVersusPackThenRemove() {
+        assumeTrue("Run with -D$BENCHMARK_PROPERTY=true", java.lang.Boolean.getBoolean(BENCHMARK_PROPERTY))
+        val publishFolder = temporaryFolder.newFolder("publish")
+        val folderBytes = Integer.getInteger(FOLDER_MEGABYTES_PROPERTY, DEFAULT_FOLDER_MEGABYTES).toLong() * MEGABYTE
+        createPublishFolder(publishFolder, folderBytes)
+
+        var singlePassNanos = Long.MAX_VALUE
+        var packThenRemoveNanos = Long.MAX_VALUE
+        repeat(ROUNDS) { round ->
+            val singlePassZip = File(temporaryFolder.root, "single-pass-$round.zip")
+            singlePassNanos = minOf(singlePassNanos, measureNanoTime {
+                ArtifactZipPackager(setOf(LOCAL_SETTINGS_FILE)).pack(publishFolder, singlePassZip)
+            })
+            val packThenRemoveZip = File(temporaryFolder.root, "pack-then-remove-$round.zip")
+            packThenRemoveNanos = minOf(packThenRemoveNanos, measureNanoTime {
+                ZipUtil.pack(publishFolder, packThenRemoveZip)
+                ZipUtil.removeEntry(packThenRemoveZip, LOCAL_SETTINGS_FILE)
+            })
+
+            assertFalse(ZipUtil.containsEntry(singlePassZip, LOCAL_SETTINGS_FILE))
+            assertFalse(ZipUtil.containsEntry(packThenRemoveZip, LOCAL_SETTINGS_FILE))
+            println(
+                "Round ${round + 1}: single pass ${StringUtil.formatFileSize(singlePassZip.length())}, " +
+                        "pack then remove ${StringUtil.formatFileSize(packThenRemoveZip.length())}"
+            )
+            singlePassZip.delete()
+            packThenRemoveZip.delete()
+        }
+
+        println(
+            "Packaging ${StringUtil.formatFileSize(folderBytes)}, best of $ROUNDS: " +
+                    "single pass ${TimeUnit.NANOSECONDS.toMillis(singlePassNanos)} ms, " +
+                    "pack then remove ${TimeUnit.NANOSECONDS.toMillis(packThenRemoveNanos)} ms"
+        )
+        assertTrue(singlePassNanos < packThenRemoveNanos)
+    }
+
+    /**
+     * Create a folder like the output of `dotnet publish`: assemblies which are partly compressible, static web assets
+     * which are already compressed, scripts and settings which are well compressible.
+     */
+    private fun createPublishFolder(folder: File, totalBytes: Long) {
+        val random = Random(42)
+        File(folder, LOCAL_SETTINGS_FILE).writeText("""{ "IsEncrypted": false, "Values": { "AzureWebJobsStorage": "UseDevelopmentStorage=true" } }""")
+        File(folder, "appsettings.json").writeText("""{ "Logging": { "LogLevel": { "Default": "Information" } } }""")
+
+        var writtenBytes = 0L
+        var index = 0
+        while (writtenBytes < totalBytes) {
+            val (file, content) = when (index % 10) {
+                in 0..5 -> File(folder, "Assembly$index.dll") to assembly(random, random.nextInt(MEGABYTE / 4, 8 * MEGABYTE))
+                in 6..8 -> File(folder, "wwwroot/images/image$index.png") to random.nextBytes(random.nextInt(16 * 1024, 2 * MEGABYTE))
+                else -> File(folder, "wwwroot/js/script$index.js") to script(random, random.nextInt(16 * 1024, MEGABYTE))
+            }
+            file.parentFile.mkdirs()
+            file.writeBytes(content)
+            writtenBytes += content.size
+            index++
+        }
+    }
+
+    /**
+     * @return random blocks mixed with repeated ones, which deflate to about half of the size like assemblies
+     */
+    private fun assembly(random: Random, size: Int): ByteArray {
+        val result = ByteArray(size)
+        val block = random.nextBytes(4096)
+        for (offset in 0 until size step block.size) {
+            val length = minOf(block.size, size - offset)
+            if (random.nextBoolean()) random.nextBytes(result, offset, offset + length) else block.copyInto(result, offset, 0, length)
+        }
+        return result
+    }
+
+    private fun script(random: Random, size: Int): ByteArray {
+        val words = listOf("function", "return", "const", "let", "var", "if", "else", "this", "value", "=>", "{", "}", ";", "\n")
+        val builder = StringBuilder(size)
+        while (builder.length < size) {
+            builder.append(words[random.nextInt(words.size)]).append(' ')
+        }
+        return builder.toString().toByteArray()
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018-2024 JetBrains s.r.o. and contributors. Use of this source code is governed by the MIT license.
+ */
+
+package com.microsoft.azure.toolkit.intellij.appservice
+
+import org.apache.commons.compress.archivers.zip.ZipFile
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+/**
+ * Runs the incremental packaging twice over a local publish folder.
+ */
+class ArtifactZipPackagerTest {
+    companion object {
+        private const val LOCAL_SETTINGS_FILE = "local.settings.json"
+        private const val MODIFIED = 1_700_000_000_000L
+        private val FILES = mapOf(
+            "App.dll" to ByteArray(64 * 1024) { (it % 251).toByte() },
+            "App.deps.json" to """{ "runtimeTarget": { "name": ".NETCoreApp,Version=v8.0" } }""".toByteArray(),
+            "wwwroot/favicon.ico" to ByteArray(1024) { (it * 31).toByte() },
+            "wwwroot/js/site.js" to "console.log('site');".toByteArray(),
+            LOCAL_SETTINGS_FILE to """{ "IsEncrypted": false }""".toByteArray()
+        )
+        private val ENTRIES = FILES.keys.filter { it != LOCAL_SETTINGS_FILE }.sorted()
+    }
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+    private lateinit var publishFolder: File
+    private lateinit var cacheFolder: File
+
+    @Before
+    fun setUp() {
+        publishFolder = temporaryFolder.newFolder("publish")
+        cacheFolder = temporaryFolder.newFolder("cache")
+        FILES.forEach { (name, content) -> writeFile(name, content, MODIFIED) }
+    }
+
+    @Test
+    fun testUnchangedPackageIsReused() {
+        val first = pack()
+        assertFalse(first.reused)
+        assertEquals(ENTRIES, first.compressedEntries.sorted())
+        val packaged = first.zipFile.readBytes()
+
+        val second = pack()
+
+        assertTrue(second.reused)
+        assertTrue(second.compressedEntries.isEmpty())
+        assertTrue(second.copiedEntries.isEmpty())
+        assertArrayEquals(packaged, second.zipFile.readBytes())
+        assertPackaged(second.zipFile)
+    }
+
+    @Test
+    fun testOnlyChangedFileIsCompressed() {
+        pack()
+        writeFile("wwwroot/js/site.js", "console.log('changed');".toByteArray(), MODIFIED + 1000)
+
+        val second = pack()
+
+        assertFalse(second.reused)
+        assertEquals(listOf("wwwroot/js/site.js"), second.compressedEntries)
+        assertEquals(ENTRIES - "wwwroot/js/site.js", second.copiedEntries.sorted())
+        assertPackaged(second.zipFile)
+    }
+
+    @Test
+    fun testTouchedFileIsNotCompressed() {
+        pack()
+        // same content with a new modified time, e.g. published again
+        File(publishFolder, "App.dll").setLastModified(MODIFIED + 1000)
+
+        val second = pack()
+
+        assertTrue(second.reused)
+        assertPackaged(second.zipFile)
+    }
+
+    @Test
+    fun testBrokenPackageIsPackagedAgain() {
+        val first = pack()
+        first.zipFile.writeText("not a zip")
+
+        val second = pack()
+
+        assertFalse(second.reused)
+        assertEquals(ENTRIES, second.compressedEntries.sorted())
+        assertTrue(second.copiedEntries.isEmpty())
+        assertPackaged(second.zipFile)
+    }
+
+    @Test
+    fun testBrokenManifestIsPackagedAgain() {
+        pack()
+        File(cacheFolder, "manifest.json").writeText("{")
+
+        val second = pack()
+
+        assertFalse(second.reused)
+        assertEquals(ENTRIES, second.compressedEntries.sorted())
+        assertTrue(second.copiedEntries.isEmpty())
+        assertPackaged(second.zipFile)
+    }
+
+    private fun pack() = ArtifactZipPackager(setOf(LOCAL_SETTINGS_FILE)).packIncremental(publishFolder, cacheFolder)
+
+    private fun writeFile(name: String, content: ByteArray, modified: Long) {
+        val file = File(publishFolder, name)
+        file.parentFile.mkdirs()
+        file.writeBytes(content)
+        file.setLastModified(modified)
+    }
+
+    /**
+     * Check the package has the current content of the files, but the excluded ones.
+     */
+    private fun assertPackaged(zipFile: File) {
+        ZipFile(zipFile).use { zip ->
+            assertEquals(ENTRIES, zip.entries.asSequence().map { it.name }.sorted().toList())
+            for (name in ENTRIES) {
+                val content = zip.getInputStream(zip.getEntry(name)).use { it.readBytes() }
+                assertArrayEquals(name, File(publishFolder, name).readBytes(), content)
+            }
+        }
+    }
+}
@@ -1,3 +1,5 @@
+import org.jetbrains.intellij.platform.gradle.TestFrameworkType
+
 plugins {
     alias(libs.plugins.kotlin)
     alias(libs.plugins.serialization)
@@ -22,6 +24,7 @@ dependencies {
         jetbrainsRuntime()
         bundledPlugins(listOf("org.jetbrains.plugins.terminal"))
         instrumentationTools()
+        testFramework(TestFrameworkType.Bundled)
     }
 
     implementation(libs.javaWebSocket)
@@ -60,4 +63,7 @@ dependencies {
     implementation(libs.coroutinesReactor) {
         exclude(group = "org.jetbrains.kotlinx", module = "kotlinx-coroutines-core")
     }
+
+    testImplementation(libs.junit)
+    testImplementation(libs.opentest4j)
 }
@@ -39,8 +39,10 @@ class UploadToCloudShellAction : AnAction() {
                 title = "Select File(s) To Upload To Azure Cloud Shell"
             }
             FileChooser.chooseFiles(descriptor, project, null, null, object : FileChooser.FileChooserConsumer {
-                override fun consume(files: MutableList<VirtualFile>) = files.forEach {
-                    activeConnector.uploadFile(it.name, it)
+                override fun consume(files: MutableList<VirtualFile>) {
+                    if (files.isNotEmpty()) {
+                        activeConnector.uploadFiles(files.toList())
+                    }
                 }
 
                 override fun cancelled() {
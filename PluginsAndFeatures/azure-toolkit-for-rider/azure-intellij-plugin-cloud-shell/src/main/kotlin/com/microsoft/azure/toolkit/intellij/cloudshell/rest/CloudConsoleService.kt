@@ -8,12 +8,12 @@ import com.intellij.openapi.Disposable
 import com.intellij.openapi.components.Service
 import com.intellij.openapi.components.service
 import com.intellij.openapi.project.Project
-import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.util.io.move
 import com.microsoft.azure.toolkit.intellij.cloudshell.CloudShellAccessTokenService
 import io.ktor.client.*
 import io.ktor.client.call.*
 import io.ktor.client.engine.cio.*
+import io.ktor.client.plugins.*
 import io.ktor.client.plugins.auth.*
 import io.ktor.client.plugins.auth.providers.*
 import io.ktor.client.plugins.contentnegotiation.*
@@ -23,11 +23,14 @@ import io.ktor.http.*
 import io.ktor.serialization.kotlinx.json.*
 import io.ktor.utils.io.*
 import io.ktor.utils.io.core.*
+import io.ktor.utils.io.streams.*
 import kotlinx.serialization.ExperimentalSerializationApi
 import kotlinx.serialization.json.Json
 import java.nio.file.Path
 import kotlin.io.path.appendBytes
 import kotlin.io.path.createTempFile
+import kotlin.io.path.fileSize
+import kotlin.io.path.inputStream
 
 @Service(Service.Level.PROJECT)
 class CloudConsoleService : Disposable {
@@ -154,16 +157,27 @@ class CloudConsoleService : Disposable {
         return response.body<PreviewPortResult>()
     }
 
-    suspend fun uploadFileToTerminal(url: String, fileName: String, file: VirtualFile): Boolean {
+    /**
+     * Upload the file, its content is streamed instead of being loaded into memory.
+     *
+     * @param onProgress the listener of the bytes sent and the total bytes of the request
+     */
+    suspend fun uploadFileToTerminal(
+        url: String,
+        fileName: String,
+        file: Path,
+        onProgress: (Long, Long) -> Unit = { _, _ -> }
+    ): Boolean {
         val response = client.post(url) {
             setBody(MultiPartFormDataContent(
                 formData {
-                    append("uploading-file", file.contentsToByteArray(), Headers.build {
+                    append("uploading-file", InputProvider(file.fileSize()) { file.inputStream().asInput() }, Headers.build {
                         append(HttpHeaders.ContentType, ContentType.Application.OctetStream)
                         append(HttpHeaders.ContentDisposition, "filename=\"$fileName\"")
                     })
                 }
             ))
+            onUpload { bytesSentTotal, contentLength -> onProgress(bytesSentTotal, contentLength) }
         }
 
         return response.status.isSuccess()
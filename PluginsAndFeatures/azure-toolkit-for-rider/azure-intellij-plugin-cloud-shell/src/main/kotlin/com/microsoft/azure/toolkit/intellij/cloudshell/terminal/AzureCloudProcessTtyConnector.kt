@@ -15,6 +15,7 @@ import com.jediterm.core.util.TermSize
 import com.jediterm.terminal.ProcessTtyConnector
 import com.microsoft.azure.toolkit.intellij.cloudshell.CloudShellService
 import com.microsoft.azure.toolkit.intellij.cloudshell.rest.CloudConsoleService
+import com.microsoft.azure.toolkit.intellij.cloudshell.upload.CloudShellUploadService
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.launch
 import org.jetbrains.plugins.terminal.cloud.CloudTerminalProcess
@@ -39,14 +40,19 @@ class AzureCloudProcessTtyConnector(
 
     fun getPreviewPorts() = openPreviewPorts.sorted()
 
-    fun uploadFile(fileName: String, file: VirtualFile) {
-        val cloudConsoleService = CloudConsoleService.getInstance(project)
-        scope.launch {
-            val result = cloudConsoleService.uploadFileToTerminal(uploadFileToTerminalUrl, fileName, file)
-            if (!result) {
-                LOG.warn("Could not upload file to the cloud terminal")
-            }
-        }
+    fun uploadFiles(files: List<VirtualFile>) {
+        CloudShellUploadService.getInstance(project).upload(uploadFileToTerminalUrl, files.map { it.toNioPath() })
+    }
+
+    fun resumeUpload() {
+        CloudShellUploadService.getInstance(project).resume(uploadFileToTerminalUrl)
+    }
+
+    /**
+     * Offer to resume the uploads interrupted in the previous terminals, e.g. before the IDE restarted
+     */
+    fun offerResumeUpload() {
+        CloudShellUploadService.getInstance(project).offerResume(uploadFileToTerminalUrl)
     }
 
     fun openPreviewPort(port: Int, openInBrowser: Boolean) {
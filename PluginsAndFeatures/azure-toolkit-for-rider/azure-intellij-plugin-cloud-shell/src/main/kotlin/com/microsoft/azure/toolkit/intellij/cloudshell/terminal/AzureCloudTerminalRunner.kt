@@ -63,6 +63,7 @@ class AzureCloudTerminalRunner(
 
         cloudShellService.registerConnector(connector)
         Disposer.register(cloudShellService, connector)
+        connector.offerResumeUpload()
 
         return connector
     }
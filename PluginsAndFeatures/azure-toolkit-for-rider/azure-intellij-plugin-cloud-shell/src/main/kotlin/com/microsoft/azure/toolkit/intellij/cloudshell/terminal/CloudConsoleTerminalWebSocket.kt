@@ -22,12 +22,10 @@ class CloudConsoleTerminalWebSocket(serverURI: URI): WebSocketClient(serverURI)
     private val socketReceiver = PipedOutputStream()
     val inputStream = PipedInputStream()
 
-    private val socketSender = PipedInputStream()
-    val outputStream = MyPipedOutputStream(this)
+    val outputStream = CoalescingWebSocketOutputStream(this)
 
     override fun onOpen(handshakedata: ServerHandshake?) {
         socketReceiver.connect(inputStream)
-        outputStream.connect(socketSender)
     }
 
     override fun onMessage(message: String?) {
@@ -62,19 +60,6 @@ class CloudConsoleTerminalWebSocket(serverURI: URI): WebSocketClient(serverURI)
             socketReceiver.close()
 
             outputStream.close()
-            socketSender.close()
-        }
-    }
-
-    class MyPipedOutputStream(private val socket: CloudConsoleTerminalWebSocket) : PipedOutputStream() {
-        override fun write(b: Int) {
-            socket.send(b.toChar().toString())
-            super.write(b)
-        }
-
-        override fun write(b: ByteArray, off: Int, len: Int) {
-            socket.send(b.toString(Charsets.UTF_8))
-            super.write(b, off, len)
         }
     }
 }
\ No newline at end of file
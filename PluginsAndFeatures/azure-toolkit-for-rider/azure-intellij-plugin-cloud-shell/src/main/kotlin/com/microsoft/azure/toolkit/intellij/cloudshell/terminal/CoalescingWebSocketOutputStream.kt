@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018-2024 JetBrains s.r.o. and contributors. Use of this source code is governed by the MIT license.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cloudshell.terminal
+
+import com.intellij.openapi.diagnostic.logger
+import com.intellij.util.concurrency.AppExecutorUtil
+import org.java_websocket.WebSocket
+import org.java_websocket.WebSocketImpl
+import org.java_websocket.client.WebSocketClient
+import org.java_websocket.exceptions.WebsocketNotConnectedException
+import java.io.IOException
+import java.io.OutputStream
+import java.nio.ByteBuffer
+import java.nio.CharBuffer
+import java.nio.charset.CodingErrorAction
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+
+/**
+ * Sends the terminal input to the websocket as text frames, coalescing the bytes written within a short time window
+ * or up to a byte budget into one frame. The bytes are decoded as UTF-8 across writes, so an incomplete sequence at
+ * the end of a frame is kept for the next one. Writers are blocked while the send queue of the socket is too large.
+ *
+ * [flush] doesn't send the buffered bytes immediately, since the terminal flushes after every keystroke; they are sent
+ * at the end of the window. [close] sends whatever is left.
+ */
+class CoalescingWebSocketOutputStream(
+    private val socket: WebSocket,
+    private val windowMillis: Long = DEFAULT_WINDOW_MILLIS,
+    private val maxFrameBytes: Int = DEFAULT_MAX_FRAME_BYTES,
+    private val maxQueuedBytes: Long = DEFAULT_MAX_QUEUED_BYTES,
+    private val scheduler: ScheduledExecutorService = AppExecutorUtil.getAppScheduledExecutorService()
+) : OutputStream() {
+    companion object {
+        private val LOG = logger<CoalescingWebSocketOutputStream>()
+        const val DEFAULT_WINDOW_MILLIS = 5L
+        const val DEFAULT_MAX_FRAME_BYTES = 16 * 1024
+        const val DEFAULT_MAX_QUEUED_BYTES = 256 * 1024L
+        private const val BACK_PRESSURE_POLL_MILLIS = 10L
+    }
+
+    private val lock = Any()
+    private val pending = ByteBuffer.allocate(maxFrameBytes)
+    private val chars = CharBuffer.allocate(maxFrameBytes)
+    private val decoder = Charsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+    private var scheduledFlush: ScheduledFuture<*>? = null
+    @Volatile
+    private var closed = false
+
+    override fun write(b: Int) {
+        write(byteArrayOf(b.toByte()), 0, 1)
+    }
+
+    override fun write(b: ByteArray, off: Int, len: Int) {
+        if (off < 0 || len < 0 || off + len > b.size) throw IndexOutOfBoundsException()
+        var offset = off
+        var remaining = len
+        while (remaining > 0) {
+            awaitSendQueue()
+            synchronized(lock) {
+                ensureOpen()
+                val count = minOf(remaining, pending.remaining())
+                pending.put(b, offset, count)
+                offset += count
+                remaining -= count
+                if (!pending.hasRemaining()) {
+                    sendPending(false)
+                }
+                if (pending.position() > 0 && scheduledFlush == null) {
+                    scheduledFlush = scheduler.schedule(::flushScheduled, windowMillis, TimeUnit.MILLISECONDS)
+                }
+            }
+        }
+    }
+
+    override fun flush() {
+        ensureOpen()
+    }
+
+    override fun close() {
+        synchronized(lock) {
+            if (closed) return
+            closed = true
+            scheduledFlush?.cancel(false)
+            scheduledFlush = null
+            sendPending(true)
+        }
+    }
+
+    private fun flushScheduled() {
+        synchronized(lock) {
+            scheduledFlush = null
+            if (!closed) {
+                sendPending(false)
+            }
+        }
+    }
+
+    /**
+     * Decode and send the pending bytes, an incomplete UTF-8 sequence at the end is kept unless [endOfInput].
+     */
+    private fun sendPending(endOfInput: Boolean) {
+        pending.flip()
+        decoder.decode(pending, chars, endOfInput)
+        if (endOfInput) {
+            decoder.flush(chars)
+            decoder.reset()
+        }
+        pending.compact()
+        chars.flip()
+        if (chars.hasRemaining()) {
+            val text = chars.toString()
+            try {
+                socket.send(text)
+            } catch (e: WebsocketNotConnectedException) {
+                LOG.debug("Dropping ${text.length} char(s) of the cloud console input, the socket is closed")
+            }
+        }
+        chars.clear()
+    }
+
+    /**
+     * Block the writer while the frames queued for sending exceed the budget, until they are sent or the socket closes.
+     */
+    private fun awaitSendQueue() {
+        while (queuedBytes() > maxQueuedBytes) {
+            ensureOpen()
+            if (!socket.isOpen) throw IOException("Pipe closed")
+            try {
+                Thread.sleep(BACK_PRESSURE_POLL_MILLIS)
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+                throw IOException("Interrupted while waiting for the cloud console socket", e)
+            }
+        }
+    }
+
+    private fun queuedBytes(): Long {
+        val connection = (socket as? WebSocketClient)?.connection ?: socket
+        val queue = (connection as? WebSocketImpl)?.outQueue ?: return 0
+        return queue.sumOf { it.remaining().toLong() }
+    }
+
+    private fun ensureOpen() {
+        // same message as the closed pipe it replaces, which the tty connector ignores
+        if (closed) throw IOException("Pipe closed")
+    }
+}
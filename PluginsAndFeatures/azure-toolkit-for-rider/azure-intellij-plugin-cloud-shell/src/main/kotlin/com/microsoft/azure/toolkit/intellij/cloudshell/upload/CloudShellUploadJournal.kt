@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018-2024 JetBrains s.r.o. and contributors. Use of this source code is governed by the MIT license.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cloudshell.upload
+
+import com.intellij.openapi.diagnostic.logger
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.encodeToString
+import kotlinx.serialization.json.Json
+import java.io.IOException
+import java.nio.file.Path
+import kotlin.io.path.createDirectories
+import kotlin.io.path.deleteIfExists
+import kotlin.io.path.exists
+import kotlin.io.path.fileSize
+import kotlin.io.path.getLastModifiedTime
+import kotlin.io.path.isRegularFile
+import kotlin.io.path.readText
+import kotlin.io.path.writeText
+
+/**
+ * Records the files of the last upload and which of them were acknowledged by Cloud Shell, so that an interrupted
+ * upload is resumed with the files not uploaded yet. A file changed since it was acknowledged is uploaded again.
+ */
+class CloudShellUploadJournal(val journalFile: Path) {
+    companion object {
+        private val LOG = logger<CloudShellUploadJournal>()
+        private val json = Json { ignoreUnknownKeys = true }
+    }
+
+    private var entries: MutableList<Entry> = read()
+
+    @Synchronized
+    fun start(files: List<UploadFile>) {
+        entries = files.map { Entry(it.path, it.size, it.modified, false) }.toMutableList()
+        write()
+    }
+
+    @Synchronized
+    fun acknowledge(file: UploadFile) {
+        val index = entries.indexOfFirst { it.path == file.path }
+        if (index < 0) return
+        entries[index] = Entry(file.path, file.size, file.modified, true)
+        if (entries.all { it.uploaded }) {
+            clear()
+        } else {
+            write()
+        }
+    }
+
+    /**
+     * @return the files not uploaded yet, or changed since they were uploaded, the files removed since are skipped
+     */
+    @Synchronized
+    fun pending(): List<Path> = entries
+        .filter { entry ->
+            val current = UploadFile.ofOrNull(Path.of(entry.path)) ?: return@filter false
+            !entry.uploaded || current.size != entry.size || current.modified != entry.modified
+        }
+        .map { Path.of(it.path) }
+
+    @Synchronized
+    fun clear() {
+        entries = mutableListOf()
+        journalFile.deleteIfExists()
+    }
+
+    private fun read(): MutableList<Entry> {
+        if (!journalFile.exists()) return mutableListOf()
+        return try {
+            json.decodeFromString<Journal>(journalFile.readText()).files.toMutableList()
+        } catch (e: Exception) {
+            LOG.warn("Unable to read the upload journal $journalFile", e)
+            mutableListOf()
+        }
+    }
+
+    private fun write() {
+        try {
+            journalFile.parent?.createDirectories()
+            journalFile.writeText(json.encodeToString(Journal(entries)))
+        } catch (e: Exception) {
+            LOG.warn("Unable to write the upload journal $journalFile", e)
+        }
+    }
+
+    data class UploadFile(val path: String, val size: Long, val modified: Long) {
+        companion object {
+            fun of(file: Path) = UploadFile(file.toString(), file.fileSize(), file.getLastModifiedTime().toMillis())
+
+            fun ofOrNull(file: Path) = try {
+                if (file.isRegularFile()) of(file) else null
+            } catch (e: IOException) {
+                null
+            }
+        }
+    }
+
+    @Serializable
+    private data class Journal(val files: List<Entry>)
+
+    @Serializable
+    private data class Entry(val path: String, val size: Long, val modified: Long, val uploaded: Boolean)
+}
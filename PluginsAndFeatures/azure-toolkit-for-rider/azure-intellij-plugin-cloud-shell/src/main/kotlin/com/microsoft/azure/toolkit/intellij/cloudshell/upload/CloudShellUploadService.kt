@@ -0,0 +1,183 @@
+/*
+ * Copyright 2018-2024 JetBrains s.r.o. and contributors. Use of this source code is governed by the MIT license.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cloudshell.upload
+
+import com.intellij.notification.Notification
+import com.intellij.notification.NotificationAction
+import com.intellij.notification.NotificationType
+import com.intellij.openapi.application.PathManager
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.text.StringUtil
+import com.intellij.platform.ide.progress.withBackgroundProgress
+import com.intellij.platform.util.progress.reportRawProgress
+import com.microsoft.azure.toolkit.intellij.cloudshell.CloudShellService
+import com.microsoft.azure.toolkit.intellij.cloudshell.rest.CloudConsoleService
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import org.apache.commons.codec.digest.DigestUtils
+import java.nio.file.Path
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.io.path.exists
+import kotlin.io.path.listDirectoryEntries
+import kotlin.io.path.name
+
+/**
+ * Uploads files to Cloud Shell by a [CloudShellUploader], the upload progress and the throughput of the current file are
+ * shown in a background task.
+ *
+ * The uploaded files are recorded in a [CloudShellUploadJournal] per project and upload URL, so an interrupted upload
+ * can be resumed. The URL changes with every terminal, so the journals left by the previous terminals of the project,
+ * e.g. before the IDE restarted, are resumed through the current one. A journal records one upload at a time, so the
+ * uploads through the same terminal wait for each other.
+ */
+@Service(Service.Level.PROJECT)
+class CloudShellUploadService(
+    private val project: Project,
+    private val scope: CoroutineScope
+) {
+    companion object {
+        fun getInstance(project: Project): CloudShellUploadService = project.service()
+    }
+
+    private val journalFolder = PathManager.getSystemDir().resolve("azure-cloud-shell/upload-journals/${project.locationHash}")
+    private val journals = ConcurrentHashMap<Path, CloudShellUploadJournal>()
+
+    /**
+     * the locks of the journals by their files, a journal is uploading while its lock is held
+     */
+    private val journalLocks = ConcurrentHashMap<Path, Mutex>()
+
+    fun upload(uploadUrl: String, files: List<Path>) = scope.launch(Dispatchers.Default) {
+        val journal = getJournal(uploadUrl)
+        getLock(journal).withLock {
+            // the files are taken when the upload starts, so that the journal records what is uploaded
+            val uploadFiles = files.map { CloudShellUploadJournal.UploadFile.of(it) }
+            journal.start(uploadFiles)
+            uploadFiles(uploadUrl, journal, uploadFiles)
+        }
+    }
+
+    /**
+     * Upload the files of the interrupted uploads of the project which are not uploaded yet, the files removed since are
+     * skipped.
+     */
+    fun resume(uploadUrl: String) = scope.launch(Dispatchers.Default) {
+        val journal = getJournal(uploadUrl)
+        val lock = getLock(journal)
+        // the files of an upload in progress are not interrupted
+        if (!lock.tryLock()) return@launch
+        try {
+            val interrupted = getInterruptedJournals(journal)
+            val files = (journal.pending() + interrupted.flatMap { it.pending() }).distinct()
+            if (files.isEmpty()) {
+                (interrupted + journal).forEach { it.clear() }
+                return@launch
+            }
+            // the files are taken over by the journal of the current upload URL
+            val uploadFiles = files.map { CloudShellUploadJournal.UploadFile.of(it) }
+            journal.start(uploadFiles)
+            interrupted.forEach { it.clear() }
+            uploadFiles(uploadUrl, journal, uploadFiles)
+        } finally {
+            lock.unlock()
+        }
+    }
+
+    /**
+     * Offer to resume the interrupted uploads of the project, e.g. when a terminal is opened after the IDE restarted.
+     */
+    fun offerResume(uploadUrl: String) = scope.launch(Dispatchers.IO) {
+        val journal = getJournal(uploadUrl)
+        val interrupted = getInterruptedJournals(journal)
+        val count = (journal.pending() + interrupted.flatMap { it.pending() }).distinct().size
+        if (count == 0) {
+            interrupted.forEach { it.clear() }
+            return@launch
+        }
+
+        Notification(
+            "Azure CloudShell",
+            "Upload to Azure Cloud Shell was interrupted",
+            "$count file(s) were not uploaded to Azure Cloud Shell",
+            NotificationType.INFORMATION
+        )
+            .addAction(NotificationAction.createSimpleExpiring("Resume upload") {
+                resume(uploadUrl)
+            })
+            .addAction(NotificationAction.createSimpleExpiring("Discard") {
+                (interrupted + journal).forEach { it.clear() }
+            })
+            .notify(project)
+    }
+
+    private fun getJournal(uploadUrl: String): CloudShellUploadJournal {
+        val journalFile = journalFolder.resolve("${DigestUtils.sha256Hex(uploadUrl).take(16)}.json")
+        return journals.computeIfAbsent(journalFile) { CloudShellUploadJournal(it) }
+    }
+
+    private fun getLock(journal: CloudShellUploadJournal): Mutex = journalLocks.computeIfAbsent(journal.journalFile) { Mutex() }
+
+    /**
+     * @return the journals of the other upload URLs of the project which are not uploading
+     */
+    private fun getInterruptedJournals(current: CloudShellUploadJournal): List<CloudShellUploadJournal> {
+        if (!journalFolder.exists()) return emptyList()
+        return journalFolder.listDirectoryEntries("*.json")
+            .filter { it != current.journalFile && journalLocks[it]?.isLocked != true }
+            .map { journals.computeIfAbsent(it) { file -> CloudShellUploadJournal(file) } }
+    }
+
+    /**
+     * Upload the files recorded in the journal, whose lock is held by the caller.
+     */
+    private suspend fun uploadFiles(uploadUrl: String, journal: CloudShellUploadJournal, files: List<CloudShellUploadJournal.UploadFile>) {
+        val service = CloudConsoleService.getInstance(project)
+        val uploader = CloudShellUploader(journal) { file, onProgress ->
+            service.uploadFileToTerminal(uploadUrl, file.name, file) { sent, _ -> onProgress(sent) }
+        }
+        val failed = try {
+            withBackgroundProgress(project, "Uploading ${files.size} file(s) to Azure Cloud Shell...") {
+                reportRawProgress { reporter ->
+                    val totalBytes = files.sumOf { it.size }.coerceAtLeast(1)
+                    uploader.upload(files) { file, fileSentBytes, fileNanos, sentBytes ->
+                        reporter.fraction((sentBytes.toDouble() / totalBytes).coerceIn(0.0, 1.0))
+                        reporter.details("${file.name}: ${formatThroughput(fileSentBytes, fileNanos)}")
+                    }
+                }
+            }
+        } catch (e: CancellationException) {
+            notifyIncomplete("Upload to Azure Cloud Shell was cancelled")
+            throw e
+        }
+
+        if (failed.isNotEmpty()) {
+            notifyIncomplete("Unable to upload ${failed.joinToString { it.name }} to Azure Cloud Shell")
+        }
+    }
+
+    private fun notifyIncomplete(content: String) {
+        Notification(
+            "Azure CloudShell",
+            "Upload to Azure Cloud Shell is incomplete",
+            content,
+            NotificationType.WARNING
+        )
+            .addAction(NotificationAction.createSimpleExpiring("Resume upload") {
+                CloudShellService.getInstance(project).activeConnector()?.resumeUpload()
+            })
+            .notify(project)
+    }
+
+    private fun formatThroughput(bytes: Long, nanos: Long): String {
+        val bytesPerSecond = if (nanos > 0) bytes * 1_000_000_000 / nanos else bytes
+        return "${StringUtil.formatFileSize(bytesPerSecond)}/s"
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018-2024 JetBrains s.r.o. and contributors. Use of this source code is governed by the MIT license.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cloudshell.upload
+
+import com.intellij.openapi.diagnostic.logger
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import java.nio.file.Path
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.io.path.fileSize
+import kotlin.io.path.name
+
+/**
+ * Uploads files by a bounded pool of parallel uploads, a failed upload is retried. Each file acknowledged by Cloud Shell
+ * is recorded in the [journal], so that the files not uploaded are known if the upload fails or is interrupted. It's
+ * recorded as it was when the upload started, so that a file changed while uploading is uploaded again on resume.
+ *
+ * @param uploadFile uploads the file and reports the bytes sent of it, returns whether the file is acknowledged
+ */
+class CloudShellUploader(
+    private val journal: CloudShellUploadJournal,
+    private val maxParallelUploads: Int = DEFAULT_MAX_PARALLEL_UPLOADS,
+    private val maxAttempts: Int = DEFAULT_MAX_ATTEMPTS,
+    private val retryDelayMillis: Long = DEFAULT_RETRY_DELAY_MILLIS,
+    private val uploadFile: suspend (file: Path, onProgress: (Long) -> Unit) -> Boolean
+) {
+    companion object {
+        private val LOG = logger<CloudShellUploader>()
+        const val DEFAULT_MAX_PARALLEL_UPLOADS = 4
+        const val DEFAULT_MAX_ATTEMPTS = 3
+        const val DEFAULT_RETRY_DELAY_MILLIS = 1000L
+    }
+
+    fun interface ProgressListener {
+        /**
+         * @param fileSentBytes the bytes sent of the file in the current attempt
+         * @param fileNanos the time elapsed since the current attempt of the file started
+         * @param sentBytes the bytes sent of all the files
+         */
+        fun onProgress(file: Path, fileSentBytes: Long, fileNanos: Long, sentBytes: Long)
+    }
+
+    /**
+     * @param files the snapshots of the files taken before the upload started, e.g. the ones the journal is started with
+     * @return the files not uploaded after all the attempts
+     */
+    suspend fun upload(
+        files: List<CloudShellUploadJournal.UploadFile>,
+        listener: ProgressListener = ProgressListener { _, _, _, _ -> }
+    ): List<Path> {
+        val failed = ConcurrentLinkedQueue<Path>()
+        val sentBytes = AtomicLong()
+        val semaphore = Semaphore(maxParallelUploads)
+        coroutineScope {
+            files.forEach { snapshot ->
+                launch {
+                    semaphore.withPermit {
+                        val file = Path.of(snapshot.path)
+                        if (upload(file, sentBytes, listener)) {
+                            journal.acknowledge(snapshot)
+                        } else {
+                            failed.add(file)
+                        }
+                    }
+                }
+            }
+        }
+        return failed.toList()
+    }
+
+    private suspend fun upload(file: Path, sentBytes: AtomicLong, listener: ProgressListener): Boolean {
+        for (attempt in 1..maxAttempts) {
+            val start = System.nanoTime()
+            var fileSentBytes = 0L
+            try {
+                val result = uploadFile(file) { sent ->
+                    val total = sentBytes.addAndGet(sent - fileSentBytes)
+                    fileSentBytes = sent
+                    listener.onProgress(file, sent, System.nanoTime() - start, total)
+                }
+                if (result) {
+                    LOG.debug("Uploaded ${file.name} (${file.fileSize()} bytes) to the cloud terminal in ${(System.nanoTime() - start) / 1_000_000} ms")
+                    return true
+                }
+                LOG.warn("Could not upload ${file.name} to the cloud terminal, attempt $attempt of $maxAttempts")
+            } catch (e: CancellationException) {
+                throw e
+            } catch (e: Exception) {
+                LOG.warn("Could not upload ${file.name} to the cloud terminal, attempt $attempt of $maxAttempts", e)
+            }
+            // the file is sent again from the start
+            sentBytes.addAndGet(-fileSentBytes)
+            if (attempt < maxAttempts) {
+                delay(retryDelayMillis * attempt)
+            }
+        }
+        return false
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2018-2024 JetBrains s.r.o. and contributors. Use of this source code is governed by the MIT license.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cloudshell.terminal
+
+import org.java_websocket.WebSocket
+import org.java_websocket.WebSocketImpl
+import org.java_websocket.client.WebSocketClient
+import org.java_websocket.handshake.ClientHandshake
+import org.java_websocket.handshake.ServerHandshake
+import org.java_websocket.server.WebSocketServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.io.InputStream
+import java.net.InetSocketAddress
+import java.net.Socket
+import java.net.URI
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.concurrent.thread
+
+/**
+ * Writes the terminal input to an in-process websocket server.
+ */
+class CoalescingWebSocketOutputStreamTest {
+    companion object {
+        private const val TIMEOUT_SECONDS = 10L
+    }
+
+    private lateinit var server: RecordingServer
+    private lateinit var scheduler: ScheduledExecutorService
+    private val clients = mutableListOf<WebSocketClient>()
+    private val sockets = mutableListOf<Socket>()
+
+    @Before
+    fun setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor()
+        server = RecordingServer().apply {
+            isReuseAddr = true
+            start()
+        }
+        assertTrue(server.started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+    }
+
+    @After
+    fun tearDown() {
+        clients.forEach { it.closeBlocking() }
+        sockets.forEach { it.close() }
+        server.stop(1000)
+        scheduler.shutdownNow()
+    }
+
+    @Test
+    fun testKeystrokesWithinWindowAreOneFrame() {
+        val output = CoalescingWebSocketOutputStream(connect(), windowMillis = 200, scheduler = scheduler)
+
+        // the terminal writes and flushes every keystroke
+        "ls -la\r".forEach { key ->
+            output.write(key.code)
+            output.flush()
+        }
+
+        assertEquals(listOf("ls -la\r"), server.awaitMessages(1))
+        output.close()
+    }
+
+    @Test
+    fun testFramesOfSeparateWindows() {
+        val output = CoalescingWebSocketOutputStream(connect(), windowMillis = 20, scheduler = scheduler)
+
+        output.write("ls".toByteArray())
+        assertEquals(listOf("ls"), server.awaitMessages(1))
+        output.write("\r".toByteArray())
+
+        assertEquals(listOf("ls", "\r"), server.awaitMessages(2))
+        output.close()
+    }
+
+    @Test
+    fun testCharacterSplitAcrossWritesArrivesIntact() {
+        val output = CoalescingWebSocketOutputStream(connect(), windowMillis = 20, scheduler = scheduler)
+        val euro = "€".toByteArray()
+
+        output.write(euro, 0, 1)
+        // the window elapses with an incomplete sequence, which is kept for the next frame
+        Thread.sleep(200)
+        output.write(euro, 1, euro.size - 1)
+
+        assertEquals(listOf("€"), server.awaitMessages(1))
+        output.close()
+    }
+
+    @Test
+    fun testCharacterSplitAcrossFramesArrivesIntact() {
+        val output = CoalescingWebSocketOutputStream(connect(), windowMillis = 20, maxFrameBytes = 4, scheduler = scheduler)
+
+        // the first frame is full in the middle of the first "€"
+        output.write("ab€€".toByteArray())
+        output.close()
+
+        val text = server.awaitText("ab€€".length)
+        assertEquals("ab€€", text)
+        assertTrue(server.messages.size > 1)
+        assertFalse(server.messages.any { it.contains('\uFFFD') })
+    }
+
+    @Test
+    fun testWriterWaitsForSendQueue() {
+        // the server sends to a client which doesn't read until released, so the send queue of the server grows
+        val client = connectRawClient()
+        val connection = server.awaitConnection()
+        val maxQueuedBytes = 64 * 1024L
+        val output = CoalescingWebSocketOutputStream(connection, windowMillis = 20, maxQueuedBytes = maxQueuedBytes, scheduler = scheduler)
+        val chunk = ByteArray(16 * 1024) { 'x'.code.toByte() }
+        val totalBytes = 16L * 1024 * 1024
+        val writtenBytes = AtomicLong()
+        val writer = CompletableFuture<Unit>()
+        thread {
+            try {
+                while (writtenBytes.get() < totalBytes) {
+                    output.write(chunk)
+                    writtenBytes.addAndGet(chunk.size.toLong())
+                }
+                output.close()
+                writer.complete(Unit)
+            } catch (e: Throwable) {
+                writer.completeExceptionally(e)
+            }
+        }
+
+        // the writer is blocked once the socket buffers are full and the queue exceeds the budget
+        assertTrue(awaitStalled(writtenBytes))
+        assertFalse(writer.isDone)
+        assertTrue(queuedBytes(connection) > maxQueuedBytes)
+        // and it isn't far beyond the budget, i.e. one frame more at most
+        assertTrue(queuedBytes(connection) <= maxQueuedBytes + chunk.size + 16)
+
+        thread { drain(client.getInputStream()) }
+        writer.get(60, TimeUnit.SECONDS)
+        assertEquals(totalBytes, writtenBytes.get())
+    }
+
+    private fun connect(): WebSocket {
+        val client = object : WebSocketClient(URI("ws://localhost:${server.port}")) {
+            override fun onOpen(handshake: ServerHandshake) {}
+            override fun onMessage(message: String) {}
+            override fun onClose(code: Int, reason: String?, remote: Boolean) {}
+            override fun onError(ex: Exception) {}
+        }
+        clients.add(client)
+        assertTrue(client.connectBlocking(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+        return client
+    }
+
+    /**
+     * Connect by a plain socket with a small receive buffer, which reads nothing after the handshake.
+     */
+    private fun connectRawClient(): Socket {
+        val socket = Socket()
+        sockets.add(socket)
+        socket.receiveBufferSize = 4096
+        socket.connect(InetSocketAddress("localhost", server.port))
+        socket.getOutputStream().write(
+            ("GET / HTTP/1.1\r\nHost: localhost:${server.port}\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n" +
+                    "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\nSec-WebSocket-Version: 13\r\n\r\n").toByteArray()
+        )
+        val response = StringBuilder()
+        val input = socket.getInputStream()
+        while (!response.endsWith("\r\n\r\n")) {
+            val read = input.read()
+            if (read < 0) break
+            response.append(read.toChar())
+        }
+        assertTrue(response.toString(), response.startsWith("HTTP/1.1 101"))
+        return socket
+    }
+
+    private fun awaitStalled(writtenBytes: AtomicLong): Boolean {
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30)
+        var last = -1L
+        while (System.nanoTime() < deadline) {
+            val current = writtenBytes.get()
+            if (current == last) return true
+            last = current
+            Thread.sleep(500)
+        }
+        return false
+    }
+
+    private fun queuedBytes(connection: WebSocket) = (connection as WebSocketImpl).outQueue.sumOf { it.remaining().toLong() }
+
+    private fun drain(input: InputStream) {
+        val buffer = ByteArray(64 * 1024)
+        try {
+            while (input.read(buffer) >= 0) {
+                // discard
+            }
+        } catch (e: Exception) {
+            // closed by the test
+        }
+    }
+
+    private class RecordingServer : WebSocketServer(InetSocketAddress("localhost", 0)) {
+        val started = CountDownLatch(1)
+        val messages = CopyOnWriteArrayList<String>()
+        private val connection = CompletableFuture<WebSocket>()
+
+        override fun onStart() = started.countDown()
+        override fun onOpen(conn: WebSocket, handshake: ClientHandshake) {
+            connection.complete(conn)
+        }
+
+        override fun onClose(conn: WebSocket, code: Int, reason: String?, remote: Boolean) {}
+        override fun onMessage(conn: WebSocket, message: String) {
+            messages.add(message)
+        }
+
+        override fun onError(conn: WebSocket?, ex: Exception) {}
+
+        fun awaitConnection(): WebSocket = connection.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+
+        fun awaitMessages(count: Int): List<String> {
+            val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS)
+            while (messages.size < count && System.nanoTime() < deadline) {
+                Thread.sleep(10)
+            }
+            // a frame more than expected arrives within the window
+            Thread.sleep(100)
+            return messages.toList()
+        }
+
+        fun awaitText(length: Int): String {
+            val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS)
+            while (messages.joinToString("").length < length && System.nanoTime() < deadline) {
+                Thread.sleep(10)
+            }
+            return messages.joinToString("")
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2018-2024 JetBrains s.r.o. and contributors. Use of this source code is governed by the MIT license.
+ */
+
+package com.microsoft.azure.toolkit.intellij.cloudshell.upload
+
+import com.microsoft.azure.toolkit.intellij.cloudshell.rest.CloudConsoleService
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.net.InetSocketAddress
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+import java.util.concurrent.CopyOnWriteArrayList
+import kotlin.io.path.exists
+import kotlin.io.path.name
+import kotlin.io.path.setLastModifiedTime
+import kotlin.io.path.writeBytes
+
+/**
+ * Uploads files to a local server which stands in for the upload endpoint of a cloud terminal.
+ */
+class CloudShellUploaderTest {
+    companion object {
+        private const val UPLOAD_PATH = "/terminals/1/upload"
+        private val FILE_NAME = "filename=\"([^\"]+)\"".toRegex()
+    }
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+    private lateinit var server: HttpServer
+    private lateinit var service: CloudConsoleService
+    private lateinit var uploadUrl: String
+    private lateinit var journalFile: Path
+
+    /**
+     * the names of the files acknowledged by the server
+     */
+    private val received = CopyOnWriteArrayList<String>()
+
+    /**
+     * the names of the files whose upload the server breaks off after a part of the content
+     */
+    @Volatile
+    private var failing = emptySet<String>()
+
+    @Before
+    fun setUp() {
+        server = HttpServer.create(InetSocketAddress("localhost", 0), 0).apply {
+            createContext(UPLOAD_PATH, ::receiveFile)
+            start()
+        }
+        service = CloudConsoleService()
+        uploadUrl = "http://localhost:${server.address.port}$UPLOAD_PATH"
+        journalFile = temporaryFolder.root.toPath().resolve("journals/upload.json")
+    }
+
+    @After
+    fun tearDown() {
+        server.stop(0)
+        service.dispose()
+    }
+
+    @Test
+    fun testResumeSendsOnlyFilesNotAcknowledged() = runBlocking {
+        val files = (1..6).map { createFile("file$it.bin") }
+        val journal = CloudShellUploadJournal(journalFile)
+        journal.start(snapshots(files))
+        failing = setOf("file3.bin", "file5.bin")
+
+        val failed = createUploader(journal).upload(snapshots(files))
+
+        assertEquals(listOf("file3.bin", "file5.bin"), failed.map { it.name }.sorted())
+        assertEquals(listOf("file1.bin", "file2.bin", "file4.bin", "file6.bin"), received.sorted())
+
+        // resumed from the journal on the disk, e.g. after the IDE restarted
+        received.clear()
+        failing = emptySet()
+        val resumed = CloudShellUploadJournal(journalFile)
+        val pending = resumed.pending()
+        assertEquals(listOf("file3.bin", "file5.bin"), pending.map { it.name }.sorted())
+
+        assertTrue(createUploader(resumed).upload(snapshots(pending)).isEmpty())
+        assertEquals(listOf("file3.bin", "file5.bin"), received.sorted())
+        // the journal is removed once all the files are acknowledged
+        assertFalse(journalFile.exists())
+        assertTrue(CloudShellUploadJournal(journalFile).pending().isEmpty())
+    }
+
+    @Test
+    fun testResumeSendsFilesChangedSinceAcknowledged() = runBlocking {
+        val files = (1..3).map { createFile("file$it.bin") }
+        val journal = CloudShellUploadJournal(journalFile)
+        journal.start(snapshots(files))
+        failing = setOf("file2.bin")
+        createUploader(journal).upload(snapshots(files))
+
+        files[0].writeBytes(ByteArray(1024) { 1 })
+        files[0].setLastModifiedTime(FileTime.fromMillis(System.currentTimeMillis() + 60_000))
+
+        assertEquals(listOf("file1.bin", "file2.bin"), CloudShellUploadJournal(journalFile).pending().map { it.name }.sorted())
+    }
+
+    @Test
+    fun testResumeSkipsRemovedFiles() = runBlocking {
+        val files = (1..3).map { createFile("file$it.bin") }
+        val journal = CloudShellUploadJournal(journalFile)
+        journal.start(snapshots(files))
+        failing = setOf("file2.bin", "file3.bin")
+        createUploader(journal).upload(snapshots(files))
+
+        files[2].toFile().delete()
+
+        assertEquals(listOf("file2.bin"), CloudShellUploadJournal(journalFile).pending().map { it.name })
+    }
+
+    @Test
+    fun testResumeSendsFilesChangedWhileUploading() = runBlocking {
+        val files = (1..3).map { createFile("file$it.bin") }
+        val journal = CloudShellUploadJournal(journalFile)
+        val snapshots = snapshots(files)
+        journal.start(snapshots)
+        failing = setOf("file3.bin")
+        val uploader = CloudShellUploader(journal, retryDelayMillis = 10) { file, onProgress ->
+            val uploaded = service.uploadFileToTerminal(uploadUrl, file.name, file) { sent, _ -> onProgress(sent) }
+            if (file.name == "file2.bin") {
+                // saved again in the IDE once its content was sent
+                file.writeBytes(ByteArray(1024) { 2 })
+                file.setLastModifiedTime(FileTime.fromMillis(System.currentTimeMillis() + 60_000))
+            }
+            uploaded
+        }
+
+        assertEquals(listOf("file3.bin"), uploader.upload(snapshots).map { it.name })
+
+        assertEquals(listOf("file1.bin", "file2.bin"), received.sorted())
+        // the content acknowledged is not the one of the file now
+        assertEquals(listOf("file2.bin", "file3.bin"), CloudShellUploadJournal(journalFile).pending().map { it.name }.sorted())
+    }
+
+    private fun snapshots(files: List<Path>) = files.map { CloudShellUploadJournal.UploadFile.of(it) }
+
+    private fun createUploader(journal: CloudShellUploadJournal) = CloudShellUploader(journal, retryDelayMillis = 10) { file, onProgress ->
+        service.uploadFileToTerminal(uploadUrl, file.name, file) { sent, _ -> onProgress(sent) }
+    }
+
+    private fun createFile(name: String): Path {
+        val file = temporaryFolder.root.toPath().resolve(name)
+        file.writeBytes(ByteArray(256 * 1024) { (it % 251).toByte() })
+        return file
+    }
+
+    private fun receiveFile(exchange: HttpExchange) {
+        exchange.use {
+            val input = exchange.requestBody
+            val head = input.readNBytes(1024).toString(Charsets.ISO_8859_1)
+            val name = FILE_NAME.find(head)?.groupValues?.get(1)
+            if (name == null || name in failing) {
+                // the rest of the content is not received
+                exchange.sendResponseHeaders(500, -1)
+                return
+            }
+            input.readAllBytes()
+            received.add(name)
+            exchange.sendResponseHeaders(200, -1)
+        }
+    }
+}
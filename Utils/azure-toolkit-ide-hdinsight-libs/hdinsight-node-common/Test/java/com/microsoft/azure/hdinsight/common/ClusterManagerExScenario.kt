@@ -22,6 +22,7 @@
 
 package com.microsoft.azure.hdinsight.common
 
+import com.microsoft.azure.hdinsight.metadata.ClusterMetaDataService
 import com.microsoft.azure.hdinsight.sdk.cluster.ClusterDetail
 import com.microsoft.azure.hdinsight.sdk.cluster.EmulatorClusterDetail
 import com.microsoft.azure.hdinsight.sdk.cluster.HDInsightAdditionalClusterDetail
@@ -35,6 +36,7 @@ import org.assertj.core.api.Assertions.assertThat
 import org.mockito.ArgumentMatchers.anyString
 import org.mockito.Mockito
 import org.mockito.Mockito.*
+import java.util.concurrent.TimeUnit
 
 class ClusterManagerExScenario {
     data class SimpleCluster(val name: String,
@@ -146,4 +148,19 @@ class ClusterManagerExScenario {
         assertThat(clusterMagr!!.clusterDetails).extracting("title")
                 .containsAll(clusterDetailsExpect)
     }
-}
\ No newline at end of file
+
+    @Given("^check the cluster details changed event should be emitted with:$")
+    fun checkClusterDetailsChanged(clusterDetailsExpect: List<String>) {
+        ClusterMetaDataService.getInstance().addCachedClusters(emptyList())
+
+        val changed = clusterMagr!!.clusterDetailsChanged
+                .take(1)
+                .toBlocking()
+                .toFuture()
+
+        clusterMagr!!.clusterDetails
+
+        assertThat(changed.get(10, TimeUnit.SECONDS)).extracting("title")
+                .containsExactlyInAnyOrderElementsOf(clusterDetailsExpect)
+    }
+}
@@ -32,6 +32,7 @@ import io.cucumber.java.en.Given
 import io.cucumber.java.en.Then
 import org.assertj.core.api.Assertions.assertThat
 import java.net.URI
+import java.util.concurrent.TimeUnit
 import kotlin.test.fail
 
 class SessionScenario {
@@ -39,6 +40,7 @@ class SessionScenario {
     var sessionMock: Session? = null
     var code: String = ""
     var result: Map<String, String>? = null
+    var executions: List<StatementExecutor.Execution> = emptyList()
     var userAgent: String? = null
 
     @Before
@@ -121,6 +123,33 @@ class SessionScenario {
                 .containsExactlyElementsOf(outputExpect)
     }
 
+    @And("^submit the following codes to the statement executor of livy Spark interactive session$")
+    fun submitCodesToExecutor(codes: List<String>) {
+        val executor = StatementExecutor(sessionMock!!)
+        val finished = executor.finished
+                .take(codes.size)
+                .toList()
+                .toBlocking()
+                .toFuture()
+
+        codes.forEach { executor.submit(it) }
+        executions = finished.get(10, TimeUnit.SECONDS)
+        executor.close()
+    }
+
+    @Then("^check the statement executor finished outputs should be$")
+    fun checkExecutorOutputs(outputExpect: List<String>) {
+        assertThat(executions.map { it.error }).containsOnlyNulls()
+        assertThat(executions.map { it.statement.output.data["text/plain"] })
+                .containsExactlyElementsOf(outputExpect)
+        assertThat(executions.map { it.statement.elapsedMillis }).allMatch { it >= 0 }
+    }
+
+    @Then("^check (\\d+) statements are posted to '(.*)'$")
+    fun checkStatementsPosted(countExpect: Int, urlExpect: String) {
+        WireMock.verify(countExpect, WireMock.postRequestedFor(urlEqualTo(urlExpect)))
+    }
+
     @Then("^those request headers UA fields are different$")
     fun checkHeaderUaBeDifferent() {
         val uas = httpServerMock!!.livyServerMock.allServeEvents
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.storage.adlsgen2;
+
+import com.microsoft.azure.hdinsight.sdk.common.SharedKeyHttpObservable;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Uploads a file in parallel chunks with the shared key authorization to a local server which stands in for an ADLS
+ * Gen2 account, the server verifies the signature of every request as the storage service does.
+ */
+public class ADLSGen2FSOperationTest {
+    private static final String ACCOUNT = "testaccount";
+    private static final String KEY = Base64.getEncoder().encodeToString("the shared key of the test account".getBytes(StandardCharsets.UTF_8));
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int CHUNK_COUNT = 9;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private HttpServer server;
+    private File src;
+    private final byte[] content = new byte[CHUNK_SIZE * (CHUNK_COUNT - 1) + 1000];
+    /**
+     * the data appended, by position
+     */
+    private final Map<Long, byte[]> appended = new ConcurrentSkipListMap<>();
+    private final List<String> rejected = new CopyOnWriteArrayList<>();
+    private final List<String> appendContentTypes = new CopyOnWriteArrayList<>();
+    private volatile long flushed = -1;
+
+    @Before
+    public void setUp() throws IOException {
+        for (int i = 0; i < this.content.length; i++) {
+            this.content[i] = (byte) (i % 251);
+        }
+        this.src = this.temporaryFolder.newFile("artifact.jar");
+        Files.write(this.src.toPath(), this.content);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/fs", this::serve);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.start();
+    }
+
+    @After
+    public void tearDown() {
+        this.server.stop(0);
+    }
+
+    @Test
+    public void testParallelChunksAreSignedWithSentContentType() {
+        final Boolean result = operation(KEY).uploadData(url("/fs/dir/artifact.jar"), this.src).toBlocking().single();
+
+        Assert.assertTrue(result);
+        Assert.assertEquals(new ArrayList<String>(), this.rejected);
+        Assert.assertEquals(CHUNK_COUNT, this.appended.size());
+        Assert.assertTrue(this.appendContentTypes.stream().allMatch(type -> type.startsWith("application/octet-stream")));
+        Assert.assertArrayEquals(this.content, assemble());
+        Assert.assertEquals(this.content.length, this.flushed);
+    }
+
+    @Test
+    public void testRequestsSignedWithOtherKeyAreRejected() {
+        final String otherKey = Base64.getEncoder().encodeToString("some other key".getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertThrows(RuntimeException.class,
+                () -> operation(otherKey).uploadData(url("/fs/dir/artifact.jar"), this.src).toBlocking().single());
+        Assert.assertFalse(this.rejected.isEmpty());
+        Assert.assertEquals(-1, this.flushed);
+    }
+
+    private ADLSGen2FSOperation operation(String key) {
+        return new ADLSGen2FSOperation(new SharedKeyHttpObservable(ACCOUNT, key))
+                .setChunkSize(CHUNK_SIZE)
+                .setParallelism(4)
+                .setChunkRetries(0);
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + this.server.getAddress().getPort() + path;
+    }
+
+    private byte[] assemble() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        this.appended.forEach((position, data) -> {
+            Assert.assertEquals(out.size(), position.longValue());
+            out.write(data, 0, data.length);
+        });
+        return out.toByteArray();
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            final byte[] body;
+            try (final InputStream in = exchange.getRequestBody()) {
+                body = IOUtils.toByteArray(in);
+            }
+            final Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            final String expected = "SharedKey " + ACCOUNT + ":" + sign(stringToSign(exchange, query));
+            if (!expected.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                this.rejected.add(exchange.getRequestMethod() + " " + exchange.getRequestURI());
+                exchange.sendResponseHeaders(403, -1);
+                return;
+            }
+            if ("append".equals(query.get("action"))) {
+                this.appendContentTypes.add(String.valueOf(exchange.getRequestHeaders().getFirst("Content-Type")));
+                this.appended.put(Long.parseLong(query.get("position")), body);
+                exchange.sendResponseHeaders(202, -1);
+            } else if ("flush".equals(query.get("action"))) {
+                this.flushed = Long.parseLong(query.get("position"));
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                exchange.sendResponseHeaders(400, -1);
+            }
+        }
+    }
+
+    /**
+     * The string to sign of the shared key authorization, built from the request as it is received.
+     */
+    private static String stringToSign(HttpExchange exchange, Map<String, String> query) {
+        final Headers headers = exchange.getRequestHeaders();
+        final String contentLength = header(headers, "Content-Length");
+        final String canonicalizedHeaders = headers.keySet().stream()
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .filter(name -> name.startsWith("x-ms-"))
+                .sorted()
+                .map(name -> name + ":" + header(headers, name))
+                .collect(Collectors.joining("\n"));
+        final StringBuilder canonicalizedResource = new StringBuilder("/").append(ACCOUNT).append(exchange.getRequestURI().getPath());
+        query.forEach((name, value) -> canonicalizedResource.append("\n").append(name.toLowerCase(Locale.ROOT)).append(":").append(value));
+
+        return String.join("\n",
+                exchange.getRequestMethod(),
+                header(headers, "Content-Encoding"),
+                header(headers, "Content-Language"),
+                "0".equals(contentLength) ? "" : contentLength,
+                header(headers, "Content-MD5"),
+                header(headers, "Content-Type"),
+                header(headers, "Date"),
+                header(headers, "If-Modified-Since"),
+                header(headers, "If-Match"),
+                header(headers, "If-None-Match"),
+                header(headers, "If-Unmodified-Since"),
+                header(headers, "Range"),
+                canonicalizedHeaders,
+                canonicalizedResource.toString());
+    }
+
+    private static String header(Headers headers, String name) {
+        final String value = headers.getFirst(name);
+        return value == null ? "" : value;
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        final Map<String, String> query = new TreeMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (final String pair : rawQuery.split("&")) {
+            final int eq = pair.indexOf('=');
+            query.put(URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8),
+                    eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static String sign(String stringToSign) {
+        try {
+            final Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(Base64.getDecoder().decode(KEY), "HmacSHA256"));
+            return Base64.getEncoder().encodeToString(mac.doFinal(stringToSign.getBytes(StandardCharsets.UTF_8)));
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
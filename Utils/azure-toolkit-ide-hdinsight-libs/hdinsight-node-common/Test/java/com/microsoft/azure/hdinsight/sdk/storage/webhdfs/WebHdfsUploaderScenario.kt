@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.storage.webhdfs
+
+import com.github.tomakehurst.wiremock.client.WireMock
+import com.github.tomakehurst.wiremock.http.RequestMethod
+import com.microsoft.azure.hdinsight.sdk.common.HttpObservable
+import com.microsoft.azure.hdinsight.spark.common.MockHttpService
+import io.cucumber.java.After
+import io.cucumber.java.Before
+import io.cucumber.java.en.And
+import io.cucumber.java.en.Given
+import io.cucumber.java.en.Then
+import io.cucumber.java.en.When
+import org.assertj.core.api.Assertions.assertThat
+import java.io.File
+import java.net.URI
+import java.nio.file.Files
+import kotlin.random.Random
+
+class WebHdfsUploaderScenario {
+    companion object {
+        private const val UPLOAD_SCENARIO = "WebHDFS upload"
+    }
+
+    private var httpServerMock: MockHttpService? = null
+    private var localFile: File? = null
+    private var segmentSize: Long = WebHdfsUploader.DEFAULT_SEGMENT_SIZE
+    private var result: WebHdfsUploader.Result? = null
+    private var error: Throwable? = null
+    private val progress = mutableListOf<Long>()
+
+    @Before
+    fun setUp() {
+        httpServerMock = MockHttpService()
+    }
+
+    @After
+    fun cleanUp() {
+        localFile?.delete()
+        httpServerMock?.livyServerMock?.stop()
+    }
+
+    @Given("^a local file of (\\d+) bytes to upload$")
+    fun createLocalFile(size: Int) {
+        localFile = Files.createTempFile("webhdfs", ".jar").toFile().apply {
+            writeBytes(Random.nextBytes(size))
+        }
+    }
+
+    @And("^mock a WebHDFS service for (.+) request '(.+)' redirecting to '(.+)'$")
+    fun mockNamenode(method: String, url: String, location: String) {
+        httpServerMock!!.stubWithHeader(method, url, 307, "", mapOf("Location" to httpServerMock!!.normalizeResponse(location)))
+    }
+
+    @And("^mock a WebHDFS service for (.+) request '(.+)' to return '(.*)' with status code (\\d+)$")
+    fun mockService(method: String, url: String, response: String, statusCode: Int) {
+        httpServerMock!!.stub(method, url, statusCode, response)
+    }
+
+    @And("^mock a WebHDFS service in state '(.+)' for (.+) request '(.+)' to return '(.*)' with status code (\\d+), then move to '(.+)'$")
+    fun mockServiceInState(state: String, method: String, url: String, response: String, statusCode: Int, nextState: String) {
+        WireMock.configureFor(httpServerMock!!.port)
+        WireMock.stubFor(WireMock.request(method, WireMock.urlEqualTo(url))
+                .inScenario(UPLOAD_SCENARIO)
+                .whenScenarioStateIs(state)
+                .willSetStateTo(nextState)
+                .willReturn(WireMock.aResponse()
+                        .withStatus(statusCode)
+                        .withBody(httpServerMock!!.normalizeResponse(response))))
+    }
+
+    @When("^upload the local file to '(.+)' in segments of (\\d+) bytes$")
+    fun upload(path: String, segmentSize: Long) {
+        uploadWithRetries(path, segmentSize, 0)
+    }
+
+    @When("^upload the local file to '(.+)' in segments of (\\d+) bytes with (\\d+) retries$")
+    fun uploadWithRetries(path: String, segmentSize: Long, retries: Int) {
+        this.segmentSize = segmentSize
+        WebHdfsUploader(HttpObservable())
+                .setSegmentSize(segmentSize)
+                .setRetries(retries)
+                .upload(localFile!!, URI.create(httpServerMock!!.completeUrl(path))) { progress.add(it) }
+                .toBlocking()
+                .subscribe({ result = it }, { error = it })
+    }
+
+    @Then("^check the upload succeeded with (\\d+) bytes$")
+    fun checkUploaded(bytes: Long) {
+        assertThat(error).isNull()
+        assertThat(result!!.bytes).isEqualTo(bytes)
+        assertThat(progress.last()).isEqualTo(bytes)
+    }
+
+    @And("^check the upload resumed (\\d+) time\\(s\\)$")
+    fun checkResumed(resumes: Int) {
+        assertThat(result!!.resumes).isEqualTo(resumes)
+    }
+
+    @Then("^check the upload failed with message containing '(.+)'$")
+    fun checkFailed(message: String) {
+        assertThat(result).isNull()
+        assertThat(error!!.message).contains(message)
+    }
+
+    @And("^check the data sent by (.+) requests to '(.+)' should be in the following sizes$")
+    fun checkSentSegments(method: String, urlPrefix: String, sizes: List<Int>) {
+        val sent = httpServerMock!!.livyServerMock.allServeEvents
+                .filter { it.request.method == RequestMethod.fromString(method) && it.request.url.startsWith(urlPrefix) }
+                .sortedBy { it.request.loggedDate }
+                .map { it.request.body.size }
+
+        assertThat(sent).isEqualTo(sizes)
+    }
+
+    @And("^check the data of the last (.+) request to '(.+)' should be the local file from offset (\\d+)$")
+    fun checkLastSentData(method: String, urlPrefix: String, offset: Int) {
+        val last = httpServerMock!!.livyServerMock.allServeEvents
+                .filter { it.request.method == RequestMethod.fromString(method) && it.request.url.startsWith(urlPrefix) }
+                .maxByOrNull { it.request.loggedDate }!!
+                .request.body
+        val local = localFile!!.readBytes()
+
+        assertThat(last).isEqualTo(local.copyOfRange(offset, local.size))
+    }
+
+    @And("^check the data received under '(.+)' should be the local file$")
+    fun checkReceivedData(urlPrefix: String) {
+        val received = httpServerMock!!.livyServerMock.allServeEvents
+                .filter { it.request.url.startsWith(urlPrefix) }
+                .sortedBy { it.request.loggedDate }
+                .map { it.request.body }
+                .reduce { acc, bytes -> acc + bytes }
+
+        assertThat(received).isEqualTo(localFile!!.readBytes())
+    }
+}
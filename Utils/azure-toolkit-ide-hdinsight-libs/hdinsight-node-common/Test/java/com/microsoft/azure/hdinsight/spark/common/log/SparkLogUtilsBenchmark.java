@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.common.log;
+
+import com.microsoft.azure.hdinsight.common.MessageInfoType;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+import static com.microsoft.azure.hdinsight.common.MessageInfoType.Error;
+import static com.microsoft.azure.hdinsight.common.MessageInfoType.*;
+
+/**
+ * Compares the Spark driver log line classifying of the previous regex matching, which allocates a log line and a
+ * formatted text per line, with the prefix scan classifying and the batching of consecutive lines of the same type,
+ * which is what SparkDriverLogStreamReader does for the console. Run {@link #main(String[])} with the test classpath,
+ * it's not a part of the unit tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SparkLogUtilsBenchmark {
+    private static final String LOG_SOURCE = "stderr";
+    private static final int LINES = 10000;
+
+    private static final String[] TEMPLATES = {
+            "21/03/01 10:00:%02d INFO TaskSetManager: Finished task %d.0 in stage 3.0 (TID 42) in 120 ms on wn1 (executor 1)\n",
+            "21/03/01 10:00:%02d INFO BlockManagerInfo: Added broadcast_%d_piece0 in memory on wn2:43210 (size: 5.2 KB)\n",
+            "21/03/01 10:00:%02d WARN NativeCodeLoader: Unable to load native-hadoop library, %d\n",
+            "21/03/01 10:00:%02d ERROR Executor: Exception in task %d.0 in stage 3.0 (TID 42)\n",
+            "\tat org.apache.spark.rdd.RDD.computeOrReadCheckpoint(RDD.scala:%d%d)\n",
+            "21/03/01 10:00:%02d DEBUG ContextCleaner: Got cleaning task CleanAccum(%d)\n"
+    };
+
+    // Mostly INFO, with some stack traces
+    private static final int[] TEMPLATE_PICKS = { 0, 0, 0, 1, 1, 2, 3, 4, 4, 5 };
+
+    private final List<String> lines = new ArrayList<>(LINES);
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+
+        for (int i = 0; i < LINES; i++) {
+            lines.add(String.format(TEMPLATES[TEMPLATE_PICKS[random.nextInt(TEMPLATE_PICKS.length)]], i % 60, i));
+        }
+    }
+
+    @Benchmark
+    public void regexPerLine(final Blackhole blackhole) {
+        SparkLogLine previous = new SparkLogLine(LOG_SOURCE, Log, "");
+
+        for (final String line : lines) {
+            final SparkLogLine typed = mapByRegex(previous, new SparkLogLine(LOG_SOURCE, Log, line));
+
+            // Formatted as ConsoleViewLogLine does, and notified line by line
+            blackhole.consume(StringUtils.stripEnd(typed.getLogSource() + ": " + typed.getRawLog(), "\n") + "\n");
+            blackhole.consume(typed.getMessageInfoType());
+            previous = typed;
+        }
+    }
+
+    @Benchmark
+    public void scanAndBatch(final Blackhole blackhole) {
+        final StringBuilder batch = new StringBuilder();
+        MessageInfoType previous = Log;
+        MessageInfoType batchType = Log;
+
+        for (final String line : lines) {
+            final MessageInfoType type = SparkLogUtils.classifyByLog4jLevels(previous, line);
+            previous = type;
+
+            if (type != batchType && batch.length() > 0) {
+                blackhole.consume(batch.toString());
+                batch.setLength(0);
+            }
+
+            batchType = type;
+
+            int end = line.length();
+            while (end > 0 && line.charAt(end - 1) == '\n') {
+                end--;
+            }
+
+            batch.append(LOG_SOURCE).append(": ").append(line, 0, end).append('\n');
+        }
+
+        blackhole.consume(batch.toString());
+    }
+
+    @Benchmark
+    public void scanOnly(final Blackhole blackhole) {
+        MessageInfoType previous = Log;
+
+        for (final String line : lines) {
+            previous = SparkLogUtils.classifyByLog4jLevels(previous, line);
+            blackhole.consume(previous);
+        }
+    }
+
+    /**
+     * The previous implementation of {@link SparkLogUtils#mapTypedMessageByLog4jLevels(SparkLogLine, SparkLogLine)}
+     */
+    private static SparkLogLine mapByRegex(final SparkLogLine previous, final SparkLogLine current) {
+        final String msg = current.getRawLog();
+        final Matcher matcher = SparkLogUtils.log4jLevelRegex.matcher(msg);
+
+        if (matcher.find()) {
+            final String level = matcher.group("level");
+            switch (level.toUpperCase()) {
+                case "FATAL": case "ERROR":
+                    return new SparkLogLine(current.getLogSource(), Error, msg);
+                case "WARN":
+                    return new SparkLogLine(current.getLogSource(), Warning, msg);
+                case "INFO":
+                    return new SparkLogLine(current.getLogSource(), Info, msg);
+                default:
+                    return current;
+            }
+        }
+
+        return new SparkLogLine(current.getLogSource(), previous.getMessageInfoType(), msg);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(SparkLogUtilsBenchmark.class.getSimpleName())
+                           .build())
+                .run();
+    }
+}
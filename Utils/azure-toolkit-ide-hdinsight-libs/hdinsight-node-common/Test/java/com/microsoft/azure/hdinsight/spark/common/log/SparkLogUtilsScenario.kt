@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) Microsoft Corporation
+ *
+ * All rights reserved.
+ *
+ * MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED *AS IS*, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.microsoft.azure.hdinsight.spark.common.log
+
+import com.microsoft.azure.hdinsight.common.MessageInfoType
+import io.cucumber.datatable.DataTable
+import io.cucumber.java.en.Then
+import kotlin.test.assertEquals
+
+class SparkLogUtilsScenario {
+    @Then("^classifying the log lines should match the following types$")
+    fun checkClassifyByLog4jLevels(linesTable: DataTable) {
+        linesTable.asMaps(String::class.java, String::class.java)
+                .forEach {
+                    val previous = MessageInfoType.valueOf(it["previous"]!!)
+                    val line = it["line"] ?: ""
+                    val expected = MessageInfoType.valueOf(it["type"]!!)
+
+                    assertEquals(expected, SparkLogUtils.classifyByLog4jLevels(previous, line), "Classify `$line`")
+
+                    // Should be the same as the regex based mapping
+                    val typedLine = SparkLogUtils.mapTypedMessageByLog4jLevels(
+                            SparkLogLine("stderr", previous, ""), SparkLogLine("stderr", MessageInfoType.Log, line))
+                    assertEquals(expected, typedLine.messageInfoType, "Map `$line`")
+                }
+    }
+}
@@ -21,6 +21,17 @@ Feature: ClusterManagerEx tests
       | link0Mock [Linked]               |
       | emu0Mock (Spark: 1.6.0 Emulator) |
 
+  Scenario: getClusterDetails emits the changed clusters
+    Given Linked HDInsight clusters are:
+      | name      | storageAccount | storageKey | username | password | subscription |
+      | link0Mock | link0sa0       | link0saKey | my@foo   | myPass   |              |
+    Given emulated HDInsight clusters are:
+      | name      | storageAccount | storageKey | username | password | subscription |
+      | emu0Mock  | emu0sa0        |            |          |          |              |
+    Then check the cluster details changed event should be emitted with:
+      | link0Mock [Linked]               |
+      | emu0Mock (Spark: 1.6.0 Emulator) |
+
   Scenario: getClusterDetails unit tests with Azure subscription, without linked cluster
     Given subscriptions mocked are:
       | name      | isSelected |
@@ -45,6 +45,23 @@ Feature: Livy Interactive Session Tests
     Then check Spark interactive session statement run result stdout should be
       | Hello World! |
 
+  Scenario: StatementExecutor pipelines statements IT positive case with mocked http server
+    Given setup a mock livy interactive service for POST request '/sessions' to return '{"id":6,"appId":null,"owner":null,"proxyUser":null,"state":"starting","kind":"spark","appInfo":{"driverLogUrl":null,"sparkUiUrl":null},"log":[]}' with status code 200
+    And setup a mock livy interactive service for GET request '/sessions/6' to return '{"id":6,"appId":"application_1517029729598_0086","owner":null,"proxyUser":null,"state":"idle","kind":"spark","appInfo":{"driverLogUrl":null,"sparkUiUrl":null},"log":[]}' with status code 200
+    And create a livy Spark interactive session instance with name 'testSparkREPL'
+    And create the Spark interactive session, and save the response
+    Given setup a mock livy interactive service for POST request '/sessions/6/statements' to return '{"id":0,"state":"waiting","output":null}' with status code 200
+    And setup a mock livy interactive service for GET request '/sessions/6/statements/0' to return '{"id":0,"state":"available","output":{"status":"ok","execution_count":0,"data":{"text/plain":"Hello World!"}},"progress":1.0,"started":1517029730000,"completed":1517029730120}' with status code 200
+    And submit the following codes to the statement executor of livy Spark interactive session
+      | println("Hello World!") |
+      | println("Hello World!") |
+      | println("Hello World!") |
+    Then check the statement executor finished outputs should be
+      | Hello World! |
+      | Hello World! |
+      | Hello World! |
+    Then check 3 statements are posted to '/sessions/6/statements'
+
   Scenario: Session.create() UA with random UUID IT positive case with mocked http server
     Given setup a mock livy interactive service for POST request '/sessions' to return '{"id":6,"appId":null,"owner":null,"proxyUser":null,"state":"starting","kind":"spark","appInfo":{"driverLogUrl":null,"sparkUiUrl":null},"log":[]}' with status code 200
     And create a livy Spark interactive session instance with name 'testSparkREPL1'
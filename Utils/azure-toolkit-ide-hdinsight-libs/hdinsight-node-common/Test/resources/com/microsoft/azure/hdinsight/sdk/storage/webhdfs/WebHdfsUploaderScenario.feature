@@ -0,0 +1,55 @@
+Feature: WebHDFS Uploader Tests
+
+  Scenario: Upload a small file with one streamed CREATE request
+    Given a local file of 1500000 bytes to upload
+    And mock a WebHDFS service for PUT request '/webhdfs/v1/tmp/app.jar?op=CREATE&overwrite=true&permission=777' redirecting to 'http://localhost:${port}/datanode/tmp/app.jar?op=CREATE&overwrite=true'
+    And mock a WebHDFS service for PUT request '/datanode/tmp/app.jar?op=CREATE&overwrite=true' to return '' with status code 201
+    And mock a WebHDFS service for GET request '/webhdfs/v1/tmp/app.jar?op=GETFILESTATUS' to return '{"FileStatus":{"length":1500000,"type":"FILE"}}' with status code 200
+    When upload the local file to '/webhdfs/v1/tmp/app.jar' in segments of 2097152 bytes
+    Then check the upload succeeded with 1500000 bytes
+    And check the data sent by PUT requests to '/datanode/' should be in the following sizes
+      | 1500000 |
+    And check the data received under '/datanode/' should be the local file
+
+  Scenario: Upload a large file with CREATE and APPEND segments
+    Given a local file of 2500000 bytes to upload
+    And mock a WebHDFS service for PUT request '/webhdfs/v1/tmp/app.jar?op=CREATE&overwrite=true&permission=777' redirecting to 'http://localhost:${port}/datanode/tmp/app.jar?op=CREATE&overwrite=true'
+    And mock a WebHDFS service for PUT request '/datanode/tmp/app.jar?op=CREATE&overwrite=true' to return '' with status code 201
+    And mock a WebHDFS service for POST request '/webhdfs/v1/tmp/app.jar?op=APPEND' redirecting to 'http://localhost:${port}/datanode/tmp/app.jar?op=APPEND'
+    And mock a WebHDFS service for POST request '/datanode/tmp/app.jar?op=APPEND' to return '' with status code 200
+    And mock a WebHDFS service for GET request '/webhdfs/v1/tmp/app.jar?op=GETFILESTATUS' to return '{"FileStatus":{"length":2500000,"type":"FILE"}}' with status code 200
+    When upload the local file to '/webhdfs/v1/tmp/app.jar' in segments of 1048576 bytes
+    Then check the upload succeeded with 2500000 bytes
+    And check the data sent by PUT requests to '/datanode/' should be in the following sizes
+      | 1048576 |
+    And check the data sent by POST requests to '/datanode/' should be in the following sizes
+      | 1048576 |
+      | 402848  |
+    And check the data received under '/datanode/' should be the local file
+
+  Scenario: Upload fails when the remote length mismatches
+    Given a local file of 1500000 bytes to upload
+    And mock a WebHDFS service for PUT request '/webhdfs/v1/tmp/app.jar?op=CREATE&overwrite=true&permission=777' redirecting to 'http://localhost:${port}/datanode/tmp/app.jar?op=CREATE&overwrite=true'
+    And mock a WebHDFS service for PUT request '/datanode/tmp/app.jar?op=CREATE&overwrite=true' to return '' with status code 201
+    And mock a WebHDFS service for GET request '/webhdfs/v1/tmp/app.jar?op=GETFILESTATUS' to return '{"FileStatus":{"length":1000,"type":"FILE"}}' with status code 200
+    When upload the local file to '/webhdfs/v1/tmp/app.jar' in segments of 2097152 bytes
+    Then check the upload failed with message containing 'but 1500000 bytes are expected'
+
+  Scenario: Resume a failed APPEND from the remote length
+    Given a local file of 2500000 bytes to upload
+    And mock a WebHDFS service for PUT request '/webhdfs/v1/tmp/app.jar?op=CREATE&overwrite=true&permission=777' redirecting to 'http://localhost:${port}/datanode/tmp/app.jar?op=CREATE&overwrite=true'
+    And mock a WebHDFS service for PUT request '/datanode/tmp/app.jar?op=CREATE&overwrite=true' to return '' with status code 201
+    And mock a WebHDFS service for POST request '/webhdfs/v1/tmp/app.jar?op=APPEND' redirecting to 'http://localhost:${port}/datanode/tmp/app.jar?op=APPEND'
+    And mock a WebHDFS service in state 'Started' for POST request '/datanode/tmp/app.jar?op=APPEND' to return '' with status code 500, then move to 'Append Failed'
+    And mock a WebHDFS service in state 'Append Failed' for GET request '/webhdfs/v1/tmp/app.jar?op=GETFILESTATUS' to return '{"FileStatus":{"length":1548576,"type":"FILE"}}' with status code 200, then move to 'Resuming'
+    And mock a WebHDFS service in state 'Resuming' for POST request '/datanode/tmp/app.jar?op=APPEND' to return '' with status code 200, then move to 'Appended'
+    And mock a WebHDFS service in state 'Appended' for GET request '/webhdfs/v1/tmp/app.jar?op=GETFILESTATUS' to return '{"FileStatus":{"length":2500000,"type":"FILE"}}' with status code 200, then move to 'Verified'
+    When upload the local file to '/webhdfs/v1/tmp/app.jar' in segments of 1048576 bytes with 1 retries
+    Then check the upload succeeded with 2500000 bytes
+    And check the upload resumed 1 time(s)
+    And check the data sent by PUT requests to '/datanode/' should be in the following sizes
+      | 1048576 |
+    And check the data sent by POST requests to '/datanode/' should be in the following sizes
+      | 1048576 |
+      | 951424  |
+    And check the data of the last POST request to '/datanode/' should be the local file from offset 1548576
@@ -0,0 +1,20 @@
+Feature: SparkLogUtils tests
+
+  Scenario: classifyByLog4jLevels() unit tests
+    Then classifying the log lines should match the following types
+      | previous | line                                                              | type    |
+      | Log      | 21/03/01 10:00:00 INFO SparkContext: Running Spark version 3.1.1  | Info    |
+      | Log      | 21/03/01 10:00:00 WARN NativeCodeLoader: Unable to load           | Warning |
+      | Log      | 21/03/01 10:00:00 ERROR Executor: Exception in task 0.0           | Error   |
+      | Log      | 21/03/01 10:00:00 FATAL Driver: Out of memory                     | Error   |
+      | Info     | 21/03/01 10:00:00 DEBUG BlockManager: Putting block               | Log     |
+      | Warning  | 21/03/01 10:00:00 TRACE BlockManager: Putting block               | Log     |
+      | Log      | [main] warn  org.apache.spark.SparkConf - deprecated              | Warning |
+      | Log      | Error: the input path doesn't exist                               | Error   |
+      | Error    |   at org.apache.spark.rdd.RDD.compute(RDD.scala:100)              | Error   |
+      | Info     | Information about WARNINGS and INFORMATIONAL messages             | Info    |
+      | Warning  | ERROR_CODE=1, WARN_COUNT=2                                        | Warning |
+      | Log      | Job 1 finished: INFO, then WARN                                   | Info    |
+      | Log      | BlockManagerError happened                                        | Log     |
+      | Log      | warn                                                              | Warning |
+      | Info     |                                                                   | Info    |
@@ -27,10 +27,17 @@ import com.microsoft.tooling.msservices.components.DefaultLoader;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import rx.Observable;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+import rx.subjects.SerializedSubject;
+import rx.subjects.Subject;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -52,10 +59,27 @@ public class ClusterManagerEx implements ILogger {
     private List<IClusterDetail> additionalClusterDetails = new ArrayList<>();
     private List<IClusterDetail> emulatorClusterDetails = new ArrayList<>();
 
-    private boolean isListClusterSuccess = false;
+    // written by the refreshing on IO threads
+    private volatile boolean isListClusterSuccess = false;
     private boolean isListAdditionalClusterSuccess = false;
     private boolean isListEmulatorClusterSuccess = false;
-    private boolean isSelectedSubscriptionExist = false;
+    private volatile boolean isSelectedSubscriptionExist = false;
+
+    /**
+     * The clusters persisted by the previous IDE session, only shown before the first refreshing and never put into the
+     * cache, so that the cluster lookups still refresh instead of resolving against them. Null if not loaded yet.
+     */
+    @Nullable
+    private volatile ImmutableList<IClusterDetail> lastKnownClusters = null;
+
+    /**
+     * The on-going refreshing shared by the concurrent callers, null if there is none
+     */
+    @Nullable
+    private Observable<ImmutableList<IClusterDetail>> refreshing = null;
+
+    private static final Subject<ImmutableList<IClusterDetail>, ImmutableList<IClusterDetail>> clusterDetailsChanged =
+            new SerializedSubject<>(PublishSubject.create());
 
     private ClusterManagerEx() {
     }
@@ -65,7 +89,11 @@ public class ClusterManagerEx implements ILogger {
             synchronized (ClusterManagerEx.class) {
                 if (instance == null) {
                     instance = new ClusterManagerEx();
-                    AzureEventBus.on("account.logged_out.account", new AzureEventBus.EventListener(e -> instance.setCachedClusters(instance.additionalClusterDetails)));
+                    AzureEventBus.on("account.logged_out.account", new AzureEventBus.EventListener(e -> {
+                        instance.setCachedClusters(instance.additionalClusterDetails);
+                        instance.lastKnownClusters = null;
+                        DefaultLoader.getIdeHelper().unsetApplicationProperty(CommonConst.HDINSIGHT_LAST_KNOWN_CLUSTERS);
+                    }));
                 }
             }
         }
@@ -214,50 +242,222 @@ public class ClusterManagerEx implements ILogger {
      * @return all kinds of cluster details
      */
     public ImmutableList<IClusterDetail> getClusterDetails() {
-        List<IClusterDetail> linkedClusters;
-        if (!isListAdditionalClusterSuccess()) {
+        return refreshClusterDetails().toBlocking().single();
+    }
+
+    /**
+     * Load all kinds of cluster details concurrently and set them to cache, the callers during an on-going refreshing
+     * share its result rather than starting another one.
+     *
+     * @return the refreshed cluster details
+     */
+    @NotNull
+    public Observable<ImmutableList<IClusterDetail>> refreshClusterDetails() {
+        synchronized (this) {
+            if (refreshing == null) {
+                refreshing = loadClusterDetails()
+                        .doOnTerminate(() -> {
+                            synchronized (this) {
+                                refreshing = null;
+                            }
+                        })
+                        .cache();
+            }
+
+            return refreshing;
+        }
+    }
+
+    /**
+     * Stale-while-revalidate cluster details, the cached clusters (or the last known ones persisted by the previous IDE
+     * session) are emitted at once, followed by the refreshed ones if they're different.
+     *
+     * @return the cluster details, one or two emissions
+     */
+    @NotNull
+    public Observable<ImmutableList<IClusterDetail>> fetchClusterDetails() {
+        return Observable.defer(() -> {
+            final ImmutableList<IClusterDetail> stale = getCachedOrLastKnownClusters();
+            final Observable<ImmutableList<IClusterDetail>> fresh = refreshClusterDetails();
+
+            return stale.isEmpty()
+                   ? fresh
+                   : Observable.concat(Observable.just(stale), fresh)
+                               .distinctUntilChanged(ClusterManagerEx::getFingerprint);
+        });
+    }
+
+    /**
+     * @return the cluster details when a refreshing finds them changed, such as clusters created, deleted or stopped
+     */
+    @NotNull
+    public Observable<ImmutableList<IClusterDetail>> getClusterDetailsChanged() {
+        return clusterDetailsChanged;
+    }
+
+    private Observable<ImmutableList<IClusterDetail>> loadClusterDetails() {
+        final Observable<List<IClusterDetail>> linkedClustersLoading = Observable.fromCallable(() -> {
+            if (isListAdditionalClusterSuccess()) {
+                return getAdditionalClusterDetails();
+            }
+
             try {
-                linkedClusters = loadAdditionalClusters();
+                return loadAdditionalClusters();
             } catch (JsonSyntaxException ignored) {
-                linkedClusters = emptyList();
+                return emptyList();
             }
-        } else {
-            linkedClusters = getAdditionalClusterDetails();
+        }).subscribeOn(Schedulers.io());
+
+        final Observable<List<IClusterDetail>> emulatorClustersLoading = Observable.fromCallable(() -> {
+            if (isListEmulatorClusterSuccess()) {
+                return getEmulatorClusterDetails();
+            }
+
+            try {
+                return loadEmulatorClusters();
+            } catch (JsonSyntaxException ignored) {
+                return emptyList();
+            }
+        }).subscribeOn(Schedulers.io());
+
+        // Get clusters from Subscription, an empty list for non-logged in user.
+        final Observable<List<ClusterDetail>> subscriptionClustersLoading =
+                Observable.fromCallable(this::getSubscriptionHDInsightClusters).subscribeOn(Schedulers.io());
+
+        return Observable.zip(linkedClustersLoading, emulatorClustersLoading, subscriptionClustersLoading,
+                              (linkedClusters, emulatorClusters, clusterDetailsFromSubscription) -> {
+            // Sort the merged clusters before set it to cache, sorting algorithm is based on cluster name
+            final ImmutableSortedSet<IClusterDetail> mergedClusters =
+                    new ImmutableSortedSet.Builder<IClusterDetail>(ComparableCluster::compareTo)
+                            .addAll(linkedClusters)
+                            .addAll(emulatorClusters)
+                            .addAll(clusterDetailsFromSubscription)
+                            .build();
+
+            final ImmutableList<IClusterDetail> previousClusters;
+            final ImmutableList<IClusterDetail> currentClusters;
+
+            synchronized (this) {
+                previousClusters = getCachedClusters();
+
+                setAdditionalClusterDetails(linkedClusters);
+                isListAdditionalClusterSuccess = true;
+
+                setEmulatorClusterDetails(emulatorClusters);
+                isListEmulatorClusterSuccess = true;
+
+                setCachedClusters(mergedClusters.asList());
+                isListClusterSuccess = true;
+                lastKnownClusters = null;
+
+                currentClusters = getCachedClusters();
+            }
+
+            saveLastKnownClusters(clusterDetailsFromSubscription);
+
+            if (!getFingerprint(previousClusters).equals(getFingerprint(currentClusters))) {
+                clusterDetailsChanged.onNext(currentClusters);
+            }
+
+            return currentClusters;
+        });
+    }
+
+    /**
+     * @return the cached clusters, or the linked clusters and the last known subscription clusters persisted if there
+     *         is no cache yet, such as just after IDE starts. The last known clusters are for display only, they're
+     *         kept out of the cache.
+     */
+    @NotNull
+    public ImmutableList<IClusterDetail> getCachedOrLastKnownClusters() {
+        final ImmutableList<IClusterDetail> cachedClusters = getCachedClusters();
+        if (!cachedClusters.isEmpty()) {
+            return cachedClusters;
         }
 
-        List<IClusterDetail> emulatorClusters;
-        if (!isListEmulatorClusterSuccess()) {
+        ImmutableList<IClusterDetail> snapshot = lastKnownClusters;
+        if (snapshot == null) {
+            final List<IClusterDetail> clusters = new ArrayList<>();
             try {
-                emulatorClusters = loadEmulatorClusters();
+                clusters.addAll(isListAdditionalClusterSuccess() ? getAdditionalClusterDetails() : loadAdditionalClusters());
+                clusters.addAll(isListEmulatorClusterSuccess() ? getEmulatorClusterDetails() : loadEmulatorClusters());
             } catch (JsonSyntaxException ignored) {
-                emulatorClusters = emptyList();
+                // Have been reported when loading
             }
-        } else {
-            emulatorClusters = getEmulatorClusterDetails();
+
+            clusters.addAll(loadLastKnownClusters());
+
+            snapshot = new ImmutableSortedSet.Builder<IClusterDetail>(ComparableCluster::compareTo)
+                    .addAll(clusters)
+                    .build()
+                    .asList();
+            lastKnownClusters = snapshot;
         }
 
-        // Get clusters from Subscription, an empty list for non-logged in user.
-        List<ClusterDetail> clusterDetailsFromSubscription = getSubscriptionHDInsightClusters();
+        return snapshot;
+    }
+
+    private void saveLastKnownClusters(@NotNull List<ClusterDetail> subscriptionClusters) {
+        final List<LastKnownCluster> lastKnownClusters = subscriptionClusters.stream()
+                .filter(cluster -> cluster.getSubscription() != null && cluster.getClusterRawInfo() != null)
+                .map(cluster -> new LastKnownCluster(
+                        cluster.getSubscription().getId(), cluster.getClusterRawInfo(), cluster instanceof MfaClusterDetail))
+                .collect(Collectors.toList());
 
-        // Sort the merged clusters before set it to cache, sorting algorithm is based on cluster name
-        ImmutableSortedSet<IClusterDetail> mergedClusters =
-                new ImmutableSortedSet.Builder<IClusterDetail>(ComparableCluster::compareTo)
-                        .addAll(linkedClusters)
-                        .addAll(emulatorClusters)
-                        .addAll(clusterDetailsFromSubscription)
-                        .build();
+        DefaultLoader.getIdeHelper().setApplicationProperty(
+                CommonConst.HDINSIGHT_LAST_KNOWN_CLUSTERS, new Gson().toJson(lastKnownClusters));
+    }
 
-        synchronized (this) {
-            setAdditionalClusterDetails(linkedClusters);
-            isListAdditionalClusterSuccess = true;
+    @NotNull
+    private List<IClusterDetail> loadLastKnownClusters() {
+        final String json = DefaultLoader.getIdeHelper().getApplicationProperty(CommonConst.HDINSIGHT_LAST_KNOWN_CLUSTERS);
+        final AzureAccount az = Azure.az(AzureAccount.class);
+        if (StringUtils.isBlank(json) || !az.isLoggedIn()) {
+            return emptyList();
+        }
 
-            setEmulatorClusterDetails(emulatorClusters);
-            isListEmulatorClusterSuccess = true;
+        try {
+            final List<LastKnownCluster> lastKnownClusters =
+                    new Gson().fromJson(json, new TypeToken<ArrayList<LastKnownCluster>>() { }.getType());
+            // Only the clusters of the selected subscriptions of the current account are restored
+            final Map<String, Subscription> subscriptions = az.account().getSelectedSubscriptions().stream()
+                    .collect(Collectors.toMap(Subscription::getId, Function.identity(), (a, b) -> a));
+
+            return lastKnownClusters.stream()
+                    .filter(cluster -> cluster.clusterRawInfo != null && subscriptions.containsKey(cluster.subscriptionId))
+                    .<IClusterDetail>map(cluster -> cluster.isMfa
+                                    ? new MfaClusterDetail(subscriptions.get(cluster.subscriptionId), cluster.clusterRawInfo, new ClusterOperationImpl())
+                                    : new ClusterDetail(subscriptions.get(cluster.subscriptionId), cluster.clusterRawInfo, new ClusterOperationImpl()))
+                    .collect(Collectors.toList());
+        } catch (Exception ex) {
+            log().warn("Failed to restore the last known HDInsight clusters. " + ex);
+
+            return emptyList();
+        }
+    }
 
-            setCachedClusters(mergedClusters.asList());
-            isListClusterSuccess = true;
+    /**
+     * @return the text which changes if any cluster is added, removed, or has its title (Spark version, state) changed
+     */
+    @NotNull
+    private static String getFingerprint(@NotNull List<IClusterDetail> clusters) {
+        return clusters.stream()
+                .map(cluster -> cluster.getClusterIdForConfiguration() + ":" + Objects.toString(cluster.getTitle(), ""))
+                .collect(Collectors.joining("\n"));
+    }
 
-            return getCachedClusters();
+    /**
+     * The persisted subscription cluster, ClusterDetail itself isn't serializable with its subscription and operations
+     */
+    private static class LastKnownCluster {
+        private String subscriptionId;
+        private ClusterRawInfo clusterRawInfo;
+        private boolean isMfa;
+
+        LastKnownCluster(String subscriptionId, ClusterRawInfo clusterRawInfo, boolean isMfa) {
+            this.subscriptionId = subscriptionId;
+            this.clusterRawInfo = clusterRawInfo;
+            this.isMfa = isMfa;
         }
     }
 
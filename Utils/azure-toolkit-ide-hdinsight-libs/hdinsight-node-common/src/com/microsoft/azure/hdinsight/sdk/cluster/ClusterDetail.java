@@ -193,6 +193,10 @@ public class ClusterDetail implements IClusterDetail, LivyCluster, YarnCluster,
         return subscription;
     }
 
+    public ClusterRawInfo getClusterRawInfo() {
+        return clusterRawInfo;
+    }
+
     public int getDataNodes(){
         return dataNodes;
     }
@@ -93,6 +93,13 @@ public class ClusterManager implements ILogger {
                                         return Observable.just(new ClusterDetail(subscriptionDetail, clusterRawInfo, new ClusterOperationImpl()));
                                     }
                                 })
+                                // A failed subscription shouldn't hide the clusters of the others
+                                .onErrorResumeNext(err -> {
+                                    log().warn(String.format("Failed to list HDInsight clusters of subscription %s. %s",
+                                                             subscriptionDetail.getName(), err));
+
+                                    return Observable.<ClusterDetail>empty();
+                                })
                 )
                 .doOnNext(clusterDetail -> {
                     String debugMsg = String.format("Thread: %s. Sub: %s. Cluster: %s",
@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.common;
+
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import com.microsoft.azuretools.service.ServiceManager;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.ssl.TrustStrategy;
+
+import javax.net.ssl.SSLContext;
+import java.net.URI;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pools shared by all {@link HttpObservable} instances, so that Livy, YARN, Spark history and storage requests
+ * to the same cluster endpoint reuse kept-alive (and already TLS handshaked) connections instead of every instance owning
+ * a private pool of 2 connections per route.
+ * <p>
+ * Only the transport is shared, cookies, credentials and default headers stay per {@link HttpObservable} instance since
+ * they are carried by its own client and context. The limits can be tuned with the system properties
+ * {@value #MAX_TOTAL_PROPERTY}, {@value #MAX_PER_ROUTE_PROPERTY}, {@value #IDLE_TIMEOUT_PROPERTY} (seconds) and
+ * {@value #CONNECTION_REQUEST_TIMEOUT_PROPERTY} (seconds), or per endpoint with {@link #setMaxPerEndpoint(String, int)}.
+ * <p>
+ * Waiting for a connection of a pool is bounded by the connection request timeout, even for the requests configured to
+ * wait forever, so that leaked responses holding connections fail the later requests instead of hanging them.
+ */
+public class HttpConnectionPools implements ILogger {
+    public static final String MAX_TOTAL_PROPERTY = "azure.hdinsight.http.pool.maxTotal";
+    public static final String MAX_PER_ROUTE_PROPERTY = "azure.hdinsight.http.pool.maxPerRoute";
+    public static final String IDLE_TIMEOUT_PROPERTY = "azure.hdinsight.http.pool.idleTimeout";
+    public static final String CONNECTION_REQUEST_TIMEOUT_PROPERTY = "azure.hdinsight.http.pool.connectionRequestTimeout";
+
+    private static final int DEFAULT_MAX_TOTAL = 64;
+    private static final int DEFAULT_MAX_PER_ROUTE = 16;
+    private static final int DEFAULT_IDLE_TIMEOUT_SECONDS = 60;
+    private static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT_SECONDS = 60;
+    private static final long DEFAULT_KEEP_ALIVE_MS = 30_000;
+    private static final int VALIDATE_AFTER_INACTIVITY_MS = 2_000;
+    private static final long EVICTION_INTERVAL_SECONDS = 5;
+
+    private static final HttpConnectionPools instance = new HttpConnectionPools();
+
+    /**
+     * How HTTPS server certificates are verified by the connections of a pool.
+     */
+    public enum Transport {
+        /**
+         * trust material provided by the IDE ({@link TrustStrategy} service), TLS 1.2+ only, hostname verification unless
+         * disabled by the user in the settings.
+         */
+        TOOLKIT_TRUST,
+        /**
+         * the JVM default SSL configuration.
+         */
+        SYSTEM_DEFAULT
+    }
+
+    private final Map<String, PoolingHttpClientConnectionManager> managers = new ConcurrentHashMap<>();
+    private final Map<String, Integer> endpointLimits = new ConcurrentHashMap<>();
+    private final ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+        final long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        return keepAlive > 0 ? keepAlive : DEFAULT_KEEP_ALIVE_MS;
+    };
+    private volatile int maxTotal = Integer.getInteger(MAX_TOTAL_PROPERTY, DEFAULT_MAX_TOTAL);
+    private volatile int maxPerRoute = Integer.getInteger(MAX_PER_ROUTE_PROPERTY, DEFAULT_MAX_PER_ROUTE);
+    private volatile int idleTimeoutSeconds = Integer.getInteger(IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT_SECONDS);
+    private volatile int connectionRequestTimeoutSeconds =
+            Integer.getInteger(CONNECTION_REQUEST_TIMEOUT_PROPERTY, DEFAULT_CONNECTION_REQUEST_TIMEOUT_SECONDS);
+
+    private HttpConnectionPools() {
+        final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "HDInsight HTTP connection evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, EVICTION_INTERVAL_SECONDS, EVICTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @NotNull
+    public static HttpConnectionPools getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return a client builder on top of the shared pool of the transport, closing the built client leaves the pool open.
+     */
+    @NotNull
+    public HttpClientBuilder newClientBuilder(@NotNull final Transport transport) {
+        return HttpClients.custom()
+                .useSystemProperties()
+                .setConnectionManager(getConnectionManager(transport))
+                .setConnectionManagerShared(true)
+                .setKeepAliveStrategy(keepAliveStrategy);
+    }
+
+    @NotNull
+    public PoolingHttpClientConnectionManager getConnectionManager(@NotNull final Transport transport) {
+        // the certificate validation setting can be changed at runtime, connections created before keep the old setting
+        final boolean validationDisabled = transport == Transport.TOOLKIT_TRUST && HttpObservable.isSSLCertificateValidationDisabled();
+        final String key = transport + (validationDisabled ? "-noverify" : "");
+
+        return managers.computeIfAbsent(key, k -> createConnectionManager(transport, validationDisabled));
+    }
+
+    @NotNull
+    private PoolingHttpClientConnectionManager createConnectionManager(@NotNull final Transport transport, final boolean validationDisabled) {
+        final SSLConnectionSocketFactory sslSocketFactory = transport == Transport.TOOLKIT_TRUST
+                ? createToolkitSSLSocketFactory(validationDisabled)
+                : null;
+        final Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory != null ? sslSocketFactory : SSLConnectionSocketFactory.getSystemSocketFactory())
+                .build();
+        final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(registry) {
+            @Override
+            public ConnectionRequest requestConnection(final HttpRoute route, final Object state) {
+                applyEndpointLimit(this, route);
+
+                return new BoundedConnectionRequest(this, route, super.requestConnection(route, state));
+            }
+        };
+        manager.setMaxTotal(maxTotal);
+        manager.setDefaultMaxPerRoute(maxPerRoute);
+        manager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MS);
+
+        return manager;
+    }
+
+    @Nullable
+    private SSLConnectionSocketFactory createToolkitSSLSocketFactory(final boolean validationDisabled) {
+        TrustStrategy ts = ServiceManager.getServiceProvider(TrustStrategy.class);
+
+        if (ts == null) {
+            return null;
+        }
+
+        try {
+            SSLContext sslContext = new SSLContextBuilder()
+                    .loadTrustMaterial(ts)
+                    .build();
+
+            return new SSLConnectionSocketFactory(
+                    sslContext,
+                    new String[] { "TLSv1.2", "TLSv1.3" },
+                    null,
+                    validationDisabled ? NoopHostnameVerifier.INSTANCE : new DefaultHostnameVerifier());
+        } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
+            log().error("Prepare SSL Context for HTTPS failure. " + ExceptionUtils.getStackTrace(e));
+
+            return null;
+        }
+    }
+
+    private void applyEndpointLimit(@NotNull final PoolingHttpClientConnectionManager manager, @NotNull final HttpRoute route) {
+        final Integer limit = endpointLimits.get(toEndpointKey(route.getTargetHost()));
+
+        if (limit != null && manager.getMaxPerRoute(route) != limit) {
+            manager.setMaxPerRoute(route, limit);
+        }
+    }
+
+    /**
+     * A connection request waiting at most the connection request timeout when asked to wait forever, a timed out lease
+     * is logged with the statistics of the route since it's usually caused by responses never closed.
+     */
+    private class BoundedConnectionRequest implements ConnectionRequest {
+        private final PoolingHttpClientConnectionManager manager;
+        private final HttpRoute route;
+        private final ConnectionRequest request;
+
+        private BoundedConnectionRequest(@NotNull final PoolingHttpClientConnectionManager manager,
+                                         @NotNull final HttpRoute route,
+                                         @NotNull final ConnectionRequest request) {
+            this.manager = manager;
+            this.route = route;
+            this.request = request;
+        }
+
+        @Override
+        public HttpClientConnection get(final long timeout, final TimeUnit timeUnit)
+                throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+            try {
+                // a timeout not greater than 0 means to wait forever
+                return timeout > 0
+                        ? request.get(timeout, timeUnit)
+                        : request.get(connectionRequestTimeoutSeconds, TimeUnit.SECONDS);
+            } catch (ConnectionPoolTimeoutException ex) {
+                final PoolStats stats = manager.getStats(route);
+                log().warn(String.format(
+                        "Timed out waiting for an HTTP connection to %s (leased: %d, pending: %d, available: %d, max: %d), "
+                                + "the responses of earlier requests may not be closed",
+                        route.getTargetHost(), stats.getLeased(), stats.getPending(), stats.getAvailable(), stats.getMax()));
+
+                throw ex;
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            return request.cancel();
+        }
+    }
+
+    private void evictIdleConnections() {
+        managers.values().forEach(manager -> {
+            try {
+                manager.closeExpiredConnections();
+                manager.closeIdleConnections(idleTimeoutSeconds, TimeUnit.SECONDS);
+            } catch (Exception ex) {
+                log().debug("Failed to evict idle HTTP connections", ex);
+            }
+        });
+    }
+
+    @NotNull
+    private static String toEndpointKey(@NotNull final HttpHost host) {
+        final int port = host.getPort() > 0 ? host.getPort() : ("https".equalsIgnoreCase(host.getSchemeName()) ? 443 : 80);
+
+        return String.format("%s://%s:%d", host.getSchemeName(), host.getHostName(), port).toLowerCase();
+    }
+
+    @NotNull
+    private static String toEndpointKey(@NotNull final String endpoint) {
+        final URI uri = URI.create(endpoint);
+
+        return toEndpointKey(new HttpHost(uri.getHost(), uri.getPort(), uri.getScheme()));
+    }
+
+    /*
+     * Configuration
+     */
+
+    /**
+     * Limits the connections to a cluster endpoint, e.g. {@code https://mycluster.azurehdinsight.net}, in every pool.
+     */
+    public HttpConnectionPools setMaxPerEndpoint(@NotNull final String endpoint, final int max) {
+        endpointLimits.put(toEndpointKey(endpoint), Math.max(1, max));
+
+        return this;
+    }
+
+    public HttpConnectionPools setMaxTotal(final int maxTotal) {
+        this.maxTotal = Math.max(1, maxTotal);
+        managers.values().forEach(manager -> manager.setMaxTotal(this.maxTotal));
+
+        return this;
+    }
+
+    public HttpConnectionPools setMaxPerRoute(final int maxPerRoute) {
+        this.maxPerRoute = Math.max(1, maxPerRoute);
+        managers.values().forEach(manager -> manager.setDefaultMaxPerRoute(this.maxPerRoute));
+
+        return this;
+    }
+
+    public HttpConnectionPools setIdleTimeoutSeconds(final int idleTimeoutSeconds) {
+        this.idleTimeoutSeconds = Math.max(1, idleTimeoutSeconds);
+
+        return this;
+    }
+
+    public HttpConnectionPools setConnectionRequestTimeoutSeconds(final int connectionRequestTimeoutSeconds) {
+        this.connectionRequestTimeoutSeconds = Math.max(1, connectionRequestTimeoutSeconds);
+
+        return this;
+    }
+
+    /**
+     * @return the max time to wait for a connection of a pool, for the {@code RequestConfig} of clients
+     */
+    public int getConnectionRequestTimeoutMillis() {
+        return (int) TimeUnit.SECONDS.toMillis(connectionRequestTimeoutSeconds);
+    }
+
+    /*
+     * Statistics
+     */
+
+    /**
+     * @return leased/available/pending connections of all pools
+     */
+    @NotNull
+    public PoolStats getTotalStats() {
+        int leased = 0, pending = 0, available = 0, max = 0;
+
+        for (PoolingHttpClientConnectionManager manager : managers.values()) {
+            final PoolStats stats = manager.getTotalStats();
+            leased += stats.getLeased();
+            pending += stats.getPending();
+            available += stats.getAvailable();
+            max += stats.getMax();
+        }
+
+        return new PoolStats(leased, pending, available, max);
+    }
+
+    /**
+     * @param endpoint the cluster endpoint, e.g. {@code https://mycluster.azurehdinsight.net}
+     * @return leased/available/pending connections to the endpoint, summed up over all pools and routes (direct or via proxy)
+     */
+    @NotNull
+    public PoolStats getStats(@NotNull final String endpoint) {
+        final String key = toEndpointKey(endpoint);
+        int leased = 0, pending = 0, available = 0, max = 0;
+
+        for (PoolingHttpClientConnectionManager manager : managers.values()) {
+            for (HttpRoute route : manager.getRoutes()) {
+                if (!key.equals(toEndpointKey(route.getTargetHost()))) {
+                    continue;
+                }
+
+                final PoolStats stats = manager.getStats(route);
+                leased += stats.getLeased();
+                pending += stats.getPending();
+                available += stats.getAvailable();
+                max += stats.getMax();
+            }
+        }
+
+        return new PoolStats(leased, pending, available, max);
+    }
+}
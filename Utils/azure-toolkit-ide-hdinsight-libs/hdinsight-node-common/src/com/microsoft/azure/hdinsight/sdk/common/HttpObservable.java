@@ -12,11 +12,9 @@ import com.microsoft.azure.hdinsight.sdk.common.errorresponse.*;
 import com.microsoft.azure.hdinsight.sdk.rest.ObjectConvertUtils;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
-import com.microsoft.azuretools.service.ServiceManager;
 import com.microsoft.tooling.msservices.components.DefaultLoader;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.http.*;
 import org.apache.http.client.CookieStore;
 import org.apache.http.client.config.AuthSchemes;
@@ -25,29 +23,20 @@ import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.*;
 import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.client.utils.URIBuilder;
-import org.apache.http.conn.ssl.DefaultHostnameVerifier;
-import org.apache.http.conn.ssl.NoopHostnameVerifier;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.message.HeaderGroup;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.protocol.BasicHttpContext;
 import org.apache.http.protocol.HttpContext;
-import org.apache.http.ssl.SSLContextBuilder;
-import org.apache.http.ssl.TrustStrategy;
 import org.apache.http.util.EntityUtils;
 import rx.Observable;
 import rx.exceptions.Exceptions;
 
-import javax.net.ssl.SSLContext;
 import java.io.IOException;
 import java.net.UnknownServiceException;
 import java.nio.charset.StandardCharsets;
-import java.security.KeyManagementException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
 import java.util.*;
 
 import static rx.exceptions.Exceptions.propagate;
@@ -106,13 +95,13 @@ public class HttpObservable implements ILogger {
                 .setCookieSpec(CookieSpecs.DEFAULT)
                 .setTargetPreferredAuthSchemes(Arrays.asList(AuthSchemes.KERBEROS, AuthSchemes.DIGEST, AuthSchemes.BASIC))
                 .setProxyPreferredAuthSchemes(Collections.singletonList(AuthSchemes.BASIC))
+                .setConnectionRequestTimeout(HttpConnectionPools.getInstance().getConnectionRequestTimeoutMillis())
                 .build();
 
-        this.httpClient = HttpClients.custom()
-                .useSystemProperties()
+        // connections are pooled across instances, cookies and auth headers stay per instance
+        this.httpClient = HttpConnectionPools.getInstance().newClientBuilder(HttpConnectionPools.Transport.TOOLKIT_TRUST)
                 .setDefaultCookieStore(getCookieStore())
                 .setDefaultRequestConfig(getDefaultRequestConfig())
-                .setSSLSocketFactory(createSSLSocketFactory())
                 .build();
     }
 
@@ -131,13 +120,6 @@ public class HttpObservable implements ILogger {
             setDefaultHeader(new BasicHeader(
                     HttpHeaders.AUTHORIZATION, String.format("%s %s", "Basic", new String(encodedAuth))));
         }
-
-        this.httpClient = HttpClients.custom()
-                .useSystemProperties()
-                .setDefaultCookieStore(getCookieStore())
-                .setDefaultRequestConfig(getDefaultRequestConfig())
-                .setSSLSocketFactory(createSSLSocketFactory())
-                .build();
     }
 
     /*
@@ -243,29 +225,12 @@ public class HttpObservable implements ILogger {
         }
     }
 
-    private SSLConnectionSocketFactory createSSLSocketFactory() {
-        TrustStrategy ts = ServiceManager.getServiceProvider(TrustStrategy.class);
-        SSLConnectionSocketFactory sslSocketFactory = null;
-
-        if (ts != null) {
-            try {
-                SSLContext sslContext = new SSLContextBuilder()
-                        .loadTrustMaterial(ts)
-                        .build();
-
-                sslSocketFactory = new SSLConnectionSocketFactory(
-                        sslContext,
-                        new String[] { "TLSv1.2", "TLSv1.3" },
-                        null,
-                        HttpObservable.isSSLCertificateValidationDisabled()
-                                ? NoopHostnameVerifier.INSTANCE
-                                : new DefaultHostnameVerifier());
-
-            } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
-                log().error("Prepare SSL Context for HTTPS failure. " + ExceptionUtils.getStackTrace(e));
-            }
-        }
-        return sslSocketFactory;
+    /**
+     * @return leased/available/pending connections to the endpoint in the connection pools shared by all instances
+     */
+    @NotNull
+    public static PoolStats getConnectionPoolStats(@NotNull String endpoint) {
+        return HttpConnectionPools.getInstance().getStats(endpoint);
     }
 
     @NotNull
@@ -330,6 +295,47 @@ public class HttpObservable implements ILogger {
                 });
     }
 
+    /**
+     * Helper to decode the closeable stream good Http response (2xx) straight from the entity stream to a specified type,
+     * without buffering the body as a String. If the response is bad, propagate a HttpResponseException
+     *
+     * @param closeableHttpResponse the source closeable stream
+     * @param clazz the target type to convert
+     * @param <T> the target type
+     * @return the specified type class instance
+     */
+    public static <T> Observable<T> toObjectOnlyOkResponse(CloseableHttpResponse closeableHttpResponse, @NotNull final Class<T> clazz) {
+        return Observable.using(
+                () -> closeableHttpResponse,
+                streamResp -> {
+                    try {
+                        if (streamResp.getStatusLine().getStatusCode() >= 300) {
+                            return Observable.error(classifyHttpError(streamResp));
+                        }
+
+                        final HttpEntity entity = streamResp.getEntity();
+                        if (entity == null) {
+                            return Observable.error(new HDIException("Unknown HTTP server response: empty body"));
+                        }
+
+                        return Observable.just(ObjectConvertUtils.convertJsonToObject(entity.getContent(), clazz)
+                                .orElseThrow(() -> propagate(new HDIException("Unknown HTTP server response: null"))));
+                    } catch (IOException e) {
+                        return Observable.error(e);
+                    }
+                },
+                HttpObservable::closeQuietly);
+    }
+
+    private static void closeQuietly(@NotNull CloseableHttpResponse streamResp) {
+        try {
+            streamResp.close();
+        } catch (IOException ignore) {
+            // The connection will be closed automatically after timeout,
+            // the exception in closing can be ignored.
+        }
+    }
+
     /**
      * Helper to convert the http response to a specified type
      *
@@ -410,6 +416,17 @@ public class HttpObservable implements ILogger {
                 .map(resp -> this.convertJsonResponseToObject(resp, clazz));
     }
 
+    /**
+     * GET a JSON response decoded straight from the response stream, for big payloads (e.g. Spark history stages/tasks)
+     */
+    public <T> Observable<T> getStreaming(@NotNull final String uri,
+                                          final List<NameValuePair> parameters,
+                                          final List<Header> addOrReplaceHeaders,
+                                          @NotNull final Class<T> clazz) {
+        return request(new HttpGet(uri), null, parameters, addOrReplaceHeaders)
+                .flatMap(resp -> toObjectOnlyOkResponse(resp, clazz));
+    }
+
     public <T> Observable<T> put(@NotNull final String uri,
                                  @Nullable final HttpEntity entity,
                                  final List<NameValuePair> parameters,
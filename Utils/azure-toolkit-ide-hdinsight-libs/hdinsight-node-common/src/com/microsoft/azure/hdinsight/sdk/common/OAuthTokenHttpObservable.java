@@ -10,7 +10,6 @@ import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import org.apache.http.Header;
 import org.apache.http.client.config.CookieSpecs;
 import org.apache.http.client.config.RequestConfig;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.message.BasicHeader;
 
 import java.io.IOException;
@@ -36,10 +35,10 @@ public class OAuthTokenHttpObservable extends HttpObservable {
 
         setDefaultRequestConfig(RequestConfig.custom()
                 .setCookieSpec(CookieSpecs.DEFAULT)
+                .setConnectionRequestTimeout(HttpConnectionPools.getInstance().getConnectionRequestTimeoutMillis())
                 .build());
 
-        setHttpClient(HttpClients.custom()
-                .useSystemProperties()
+        setHttpClient(HttpConnectionPools.getInstance().newClientBuilder(HttpConnectionPools.Transport.SYSTEM_DEFAULT)
                 .setDefaultCookieStore(getCookieStore())
                 .setDefaultRequestConfig(getDefaultRequestConfig())
                 .build());
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
@@ -35,11 +36,9 @@ public class SharedKeyHttpObservable extends HttpObservable {
     private HeaderGroup defaultHeaders;
 
     public SharedKeyHttpObservable(String accountName, String accessKey) {
+        // The request id, date and authorization headers are set per request, see request()
         defaultHeaders = new HeaderGroup();
-        defaultHeaders.addHeader(new BasicHeader("x-ms-client-request-id", UUID.randomUUID().toString()));
-        defaultHeaders.addHeader(new BasicHeader("x-ms-date", OffsetDateTime.now(ZoneOffset.UTC).format(HMAC_DATETIMEFORMATTER_PATTERN)));
         defaultHeaders.addHeader(new BasicHeader("x-ms-version", ApiVersion));
-        defaultHeaders.addHeader(new BasicHeader("Authorization", ""));
         defaultHeaders.addHeader(new BasicHeader("Content-Type", "application/json"));
 
         setDefaultHeaderGroup(defaultHeaders);
@@ -56,26 +55,41 @@ public class SharedKeyHttpObservable extends HttpObservable {
         return this;
     }
 
+    /**
+     * Sign the request with the headers it is sent with. The signature, date and request id are passed to the request
+     * as its own headers rather than kept in the default header group, so that the requests running in parallel, such
+     * as the chunk appends of an upload, don't overwrite each other's signature. Signing is deferred to subscription,
+     * so a retried request is signed again with a fresh date.
+     */
     @Override
     public Observable<CloseableHttpResponse> request(final HttpRequestBase httpRequest,
                                                      @Nullable final HttpEntity entity,
                                                      final List<NameValuePair> parameters,
                                                      final List<Header> addOrReplaceHeaders) {
-        // We add necessary information to a temporary header group which is used to generate shared keys
-        final HeaderGroup headerGroup = new HeaderGroup();
-        headerGroup.setHeaders(getDefaultHeaderGroup().getAllHeaders());
-        if (entity != null) {
-            // We need to set content-length to generate shared key. What need to be point out is that the
-            // HttpObservable auto adds this header and calculates length when executing, so the content-length header
-            // cannot be added to default header group in case of duplication.
-            headerGroup.addHeader(new BasicHeader("Content-Length", String.valueOf(entity.getContentLength())));
-        }
-        ofNullable(addOrReplaceHeaders).orElse(emptyList()).forEach(headerGroup::addHeader);
-        String key = cred.generateSharedKey(httpRequest, headerGroup, ofNullable(parameters).orElse(emptyList()));
+        return Observable.defer(() -> {
+            final List<NameValuePair> params = ofNullable(parameters).orElse(emptyList());
+            final List<Header> requestHeaders = new ArrayList<>();
+            requestHeaders.add(new BasicHeader("x-ms-client-request-id", UUID.randomUUID().toString()));
+            requestHeaders.add(new BasicHeader("x-ms-date", OffsetDateTime.now(ZoneOffset.UTC).format(HMAC_DATETIMEFORMATTER_PATTERN)));
+            requestHeaders.addAll(ofNullable(addOrReplaceHeaders).orElse(emptyList()));
 
-        getDefaultHeaderGroup().updateHeader(new BasicHeader("Authorization", key));
+            // We add necessary information to a temporary header group which is used to generate shared keys, in the
+            // same order as HttpObservable applies them to the request
+            final HeaderGroup headerGroup = new HeaderGroup();
+            headerGroup.setHeaders(defaultHeaders.getAllHeaders());
+            requestHeaders.forEach(headerGroup::updateHeader);
+            if (entity != null) {
+                // We need to set content-length to generate shared key. What need to be point out is that the
+                // HttpObservable auto adds this header and calculates length when executing, so the content-length
+                // header cannot be added to default header group in case of duplication.
+                headerGroup.updateHeader(new BasicHeader("Content-Length", String.valueOf(entity.getContentLength())));
+                // HttpObservable replaces the content type by the entity's one, which is what the service verifies
+                ofNullable(entity.getContentType()).ifPresent(headerGroup::updateHeader);
+            }
+            requestHeaders.add(new BasicHeader("Authorization", cred.generateSharedKey(httpRequest, headerGroup, params)));
 
-        return super.request(httpRequest, entity, ofNullable(parameters).orElse(emptyList()), ofNullable(addOrReplaceHeaders).orElse(emptyList()));
+            return super.request(httpRequest, entity, params, requestHeaders);
+        });
     }
 
     @Override
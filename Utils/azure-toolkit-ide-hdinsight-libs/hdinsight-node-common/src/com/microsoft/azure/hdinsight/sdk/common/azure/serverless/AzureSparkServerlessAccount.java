@@ -10,6 +10,7 @@ import com.google.common.collect.ImmutableSortedSet;
 import com.microsoft.azure.hdinsight.common.logger.ILogger;
 import com.microsoft.azure.hdinsight.sdk.cluster.ClusterContainer;
 import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
+import com.microsoft.azure.hdinsight.sdk.common.ApiVersionParam;
 import com.microsoft.azure.hdinsight.sdk.common.AzureDataLakeHttpObservable;
 import com.microsoft.azure.hdinsight.sdk.common.AzureHttpObservable;
 import com.microsoft.azure.hdinsight.sdk.common.HttpResponse;
@@ -30,6 +31,7 @@ import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URLEncodedUtils;
 import org.apache.http.entity.StringEntity;
 import rx.Observable;
 
@@ -37,6 +39,7 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static com.microsoft.azure.hdinsight.sdk.rest.azure.datalake.analytics.job.models.ApiVersion.VERSION;
 
@@ -146,6 +149,24 @@ public class AzureSparkServerlessAccount implements IClusterDetail, ClusterConta
                      SparkBatchJobList.class);
     }
 
+    /**
+     * Get the next page of Cosmos Serverless Spark batch job list
+     * @param nextPageLink the next link of the previous page
+     * @return Cosmos Serverless Spark batch job list
+     */
+    public Observable<SparkBatchJobList> getSparkBatchJobList(@NotNull String nextPageLink) {
+        URI link = URI.create(nextPageLink);
+        // The query of the url is replaced by the request parameters, so pass the link's query, except the API
+        // version which is a default parameter, as parameters
+        List<NameValuePair> parameters = URLEncodedUtils.parse(link, StandardCharsets.UTF_8).stream()
+                .filter(pair -> !pair.getName().equalsIgnoreCase(ApiVersionParam.NAME))
+                .collect(Collectors.toList());
+
+        return getHttp()
+                .withUuidUserAgent()
+                .get(StringUtils.substringBefore(nextPageLink, "?"), parameters, null, SparkBatchJobList.class);
+    }
+
     /**
      * Prepare for creating Cosmos Serverless Spark batch job
      * @return the CreateSparkBatchJob object which contains parameters of the job
@@ -39,6 +39,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -74,6 +75,13 @@ public abstract class Session implements AutoCloseable, Closeable, ILogger {
 
     private final List<String> artifactsToDeploy = new ArrayList<>(); // Artifacts to deploy
 
+    @Nullable
+    private final String username;       // Basic Authentication user, part of the session pool key
+
+    private volatile boolean returnToPool = false;  // Keep warm in session pool when closed
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
     public static class CreateParameters {
         public static final String DRIVER_MEMORY = "driverMemory";
         public static final String DRIVER_MEMORY_DEFAULT_VALUE = "4G";
@@ -329,6 +337,7 @@ public abstract class Session implements AutoCloseable, Closeable, ILogger {
         this.baseUrl = baseUrl;
         this.lastState = SessionState.NOT_STARTED;
         this.createParameters = createParameters;
+        this.username = username;
 
         if (username == null || password == null) {
             this.http = new HttpObservable();
@@ -427,11 +436,44 @@ public abstract class Session implements AutoCloseable, Closeable, ILogger {
         return ctrlSubject;
     }
 
+    @Nullable
+    public String getUsername() {
+        return username;
+    }
+
+    public boolean isReturnToPool() {
+        return returnToPool;
+    }
+
+    /**
+     * Set to keep the session warm in {@link SessionPool} instead of killing it when closed, such as the helper sessions
+     * to upload files. The state left by its statements is only seen by the next session returned to the pool too, user
+     * consoles never adopt such a session.
+     *
+     * @param returnToPool true to return the session to pool when closed
+     * @return current {@link Session} instance for fluent calling
+     */
+    public Session setReturnToPool(final boolean returnToPool) {
+        this.returnToPool = returnToPool;
+
+        return this;
+    }
+
     /*
      * Overrides
      */
     @Override
     public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (isReturnToPool() && SessionPool.getInstance().offer(this)) {
+            this.ctrlSubject.onCompleted();
+
+            return;
+        }
+
         kill().toBlocking().subscribe(session -> {
                                       },
                                       err -> log().warn("Kill session failed. " + ExceptionUtils.getStackTrace(err)));
@@ -513,13 +555,26 @@ public abstract class Session implements AutoCloseable, Closeable, ILogger {
     }
 
     /**
-     * To create a session with specified kind.
+     * To create a session with specified kind, a warm session with the same parameters in {@link SessionPool} is
+     * adopted if there is one.
      *
      * @return An updated Session instance Observable
      */
     public Observable<Session> create() {
-        return createSessionRequest()
-                .map(this::updateWithResponse);
+        return Observable.defer(() -> SessionPool.getInstance().take(this))
+                .map(this::adopt)
+                .switchIfEmpty(Observable.defer(() -> createSessionRequest().map(this::updateWithResponse)));
+    }
+
+    private Session adopt(final Session warm) {
+        this.setId(warm.getId());
+        this.setAppId(warm.appId);
+        this.setLastState(warm.getLastState());
+        this.setLastLogs(warm.getLastLogs());
+
+        getCtrlSubject().onNext(new SparkLogLine(TOOL, Info, "Reuse warm Livy session " + getId()));
+
+        return this;
     }
 
     private Session updateWithResponse(
@@ -0,0 +1,433 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.common.livy.interactive;
+
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azure.hdinsight.sdk.rest.livy.interactive.api.PostSessions;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm Livy interactive sessions, keyed by Livy endpoint, credential and {@link Session.CreateParameters} (kind, conf,
+ * jars, files...), so that repeated consoles and helper upload sessions skip the YARN cold start of 1~3 minutes.
+ * <p>
+ * {@link Session#create()} adopts an idle session of the same key instead of posting a new one, and
+ * {@link Session#close()} of a session marked with {@link Session#setReturnToPool(boolean)} hands it back here instead
+ * of killing it. Idle sessions are checked by a heartbeat every {@value #HEARTBEAT_INTERVAL_SECONDS} seconds, dead ones
+ * are dropped and the ones idle longer than the TTL ({@value #IDLE_TTL_PROPERTY}, {@value #DEFAULT_IDLE_TTL_SECONDS}
+ * seconds by default, kept well below Livy's default session timeout of 1 hour) are killed. The pool can be disabled with
+ * the system property {@value #ENABLED_PROPERTY}.
+ * <p>
+ * A session returned to the pool has run statements, whose variables and imports stay in its interpreter, so it is only
+ * adopted by another session returned to the pool when closed (i.e. another helper session), never by a user console.
+ * Pre-warmed sessions have run nothing and can be adopted by any session. The idle sessions are to be killed by
+ * {@link #killAll(long, TimeUnit)} when the IDE closes.
+ */
+public class SessionPool implements ILogger {
+    public static final String ENABLED_PROPERTY = "azure.hdinsight.livy.sessionPool.enabled";
+    public static final String IDLE_TTL_PROPERTY = "azure.hdinsight.livy.sessionPool.idleTtl";
+    public static final String MAX_IDLE_PER_KEY_PROPERTY = "azure.hdinsight.livy.sessionPool.maxIdlePerKey";
+
+    private static final long DEFAULT_IDLE_TTL_SECONDS = 600;
+    private static final int DEFAULT_MAX_IDLE_PER_KEY = 1;
+    private static final long HEARTBEAT_INTERVAL_SECONDS = 60;
+    private static final long HEARTBEAT_TIMEOUT_SECONDS = 30;
+    private static final long KILL_ALL_TIMEOUT_SECONDS = 5;
+
+    private static final SessionPool instance = new SessionPool();
+
+    private final Map<Key, Deque<IdleSession>> idleSessions = new ConcurrentHashMap<>();
+    private final Map<Key, Warmup> warmups = new ConcurrentHashMap<>();
+    private volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+    private volatile long idleTtlSeconds = Long.getLong(IDLE_TTL_PROPERTY, DEFAULT_IDLE_TTL_SECONDS);
+    private volatile int maxIdlePerKey = Integer.getInteger(MAX_IDLE_PER_KEY_PROPERTY, DEFAULT_MAX_IDLE_PER_KEY);
+
+    private SessionPool() {
+        final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "Livy session pool heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleWithFixedDelay(this::heartbeat, HEARTBEAT_INTERVAL_SECONDS, HEARTBEAT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @NotNull
+    public static SessionPool getInstance() {
+        return instance;
+    }
+
+    /*
+     * Pool APIs
+     */
+
+    /**
+     * Take a warm session with the same key as the session to create, waiting for a pre-warming one if it's on the way.
+     * Sessions which ran statements are only taken for a session which will be returned to the pool too.
+     *
+     * @param session the session to create
+     * @return the warm session whose server side session should be adopted, or empty if there is none
+     */
+    @NotNull
+    Observable<Session> take(@NotNull final Session session) {
+        if (!enabled) {
+            return Observable.empty();
+        }
+
+        final Key unused = Key.of(session, false);
+        final List<Key> keys = session.isReturnToPool() ? Arrays.asList(Key.of(session, true), unused) : Collections.singletonList(unused);
+
+        for (final Key key : keys) {
+            final Session warm = pollAlive(key);
+            if (warm != null) {
+                log().info("Reuse warm Livy session " + warm.getId() + " from " + warm.getBaseUrl());
+
+                return Observable.just(warm);
+            }
+        }
+
+        final Warmup warmup = warmups.remove(unused);
+        if (warmup != null && warmup.claim()) {
+            log().info("Wait for the pre-warming Livy session on " + session.getBaseUrl());
+
+            return warmup.ready.onErrorResumeNext(err -> Observable.empty());
+        }
+
+        return Observable.empty();
+    }
+
+    @Nullable
+    private Session pollAlive(@NotNull final Key key) {
+        final Deque<IdleSession> idle = idleSessions.get(key);
+        IdleSession candidate;
+
+        while (idle != null && (candidate = idle.pollFirst()) != null) {
+            final Session warm = candidate.session;
+            final boolean alive = warm.get()
+                                      .timeout(HEARTBEAT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                                      .map(Session::isStatementRunnable)
+                                      .onErrorReturn(err -> false)
+                                      .toBlocking()
+                                      .singleOrDefault(false);
+
+            if (alive) {
+                return warm;
+            }
+
+            dispose(warm);
+        }
+
+        return null;
+    }
+
+    /**
+     * Keep an idle session warm for the next session of the same key.
+     *
+     * @param session the session being closed
+     * @return false if the session isn't reusable or the pool is full, the caller should kill it then
+     */
+    boolean offer(@NotNull final Session session) {
+        if (!enabled || !session.isStatementRunnable()) {
+            return false;
+        }
+
+        // a session returned to the pool has run statements, a pre-warmed one hasn't
+        final Deque<IdleSession> idle = idleSessions.computeIfAbsent(Key.of(session, session.isReturnToPool()), k -> new ConcurrentLinkedDeque<>());
+        synchronized (idle) {
+            if (idle.size() >= maxIdlePerKey) {
+                return false;
+            }
+
+            idle.offerLast(new IdleSession(session));
+        }
+
+        log().debug("Keep Livy session " + session.getId() + " of " + session.getBaseUrl() + " warm");
+
+        return true;
+    }
+
+    /**
+     * Create a session in background and keep it warm, unless there is already one idle or on the way for the same key.
+     *
+     * @param template a new session with the create parameters to warm up, which will be owned by the pool
+     */
+    public void prewarm(@NotNull final Session template) {
+        if (!enabled) {
+            return;
+        }
+
+        final Key key = Key.of(template, false);
+        final Deque<IdleSession> idle = idleSessions.get(key);
+        if ((idle != null && !idle.isEmpty()) || warmups.containsKey(key)) {
+            return;
+        }
+
+        final Warmup warmup = new Warmup(template.create()
+                                                 .flatMap(Session::awaitReady)
+                                                 .subscribeOn(Schedulers.io())
+                                                 .cache());
+
+        if (warmups.putIfAbsent(key, warmup) != null) {
+            return;
+        }
+
+        log().info("Pre-warm Livy session on " + template.getBaseUrl());
+
+        warmup.ready.subscribe(
+                session -> {
+                    warmups.remove(key, warmup);
+
+                    if (!warmup.claim()) {
+                        // Has been taken by a session created during warming up
+                        return;
+                    }
+
+                    if (!offer(session)) {
+                        dispose(session);
+                    }
+                },
+                err -> {
+                    warmups.remove(key, warmup);
+                    log().warn("Pre-warm Livy session on " + template.getBaseUrl() + " failed. "
+                            + ExceptionUtils.getStackTrace(err));
+                });
+    }
+
+    /**
+     * Kill all idle sessions in parallel, waiting at most {@value #KILL_ALL_TIMEOUT_SECONDS} seconds, the ones being
+     * warmed up are killed once ready.
+     */
+    public void killAll() {
+        killAll(KILL_ALL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Kill all idle sessions in parallel, the ones being warmed up are killed once ready.
+     *
+     * @param timeout the time to wait for all kill requests, the ones not done by then are left to Livy's session timeout
+     * @param unit the unit of timeout
+     */
+    public void killAll(final long timeout, @NotNull final TimeUnit unit) {
+        final List<Session> sessions = new ArrayList<>();
+
+        idleSessions.values().forEach(idle -> {
+            IdleSession candidate;
+            while ((candidate = idle.pollFirst()) != null) {
+                sessions.add(candidate.session);
+            }
+        });
+
+        warmups.values().stream()
+               .filter(Warmup::claim)
+               .forEach(warmup -> warmup.ready.subscribe(this::dispose, err -> { }));
+        warmups.clear();
+
+        if (sessions.isEmpty()) {
+            return;
+        }
+
+        Observable.from(sessions)
+                  .flatMap(session -> session.kill()
+                                             .subscribeOn(Schedulers.io())
+                                             .onErrorReturn(err -> session))
+                  .toList()
+                  .timeout(timeout, unit)
+                  .onErrorReturn(err -> {
+                      log().warn("Killing idle Livy sessions didn't finish in " + unit.toSeconds(timeout) + " seconds");
+
+                      return sessions;
+                  })
+                  .toBlocking()
+                  .subscribe();
+    }
+
+    private void heartbeat() {
+        final long now = System.currentTimeMillis();
+
+        idleSessions.values().forEach(idle -> idle.removeIf(candidate -> {
+            final Session session = candidate.session;
+
+            try {
+                if (now - candidate.idleSince > TimeUnit.SECONDS.toMillis(idleTtlSeconds)) {
+                    log().info("Kill Livy session " + session.getId() + " of " + session.getBaseUrl()
+                            + " idle for more than " + idleTtlSeconds + " seconds");
+                    dispose(session);
+
+                    return true;
+                }
+
+                final Session updated = session.get()
+                                               .timeout(HEARTBEAT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                                               .toBlocking()
+                                               .single();
+
+                if (updated.isStop()) {
+                    log().debug("Drop stopped Livy session " + session.getId() + " of " + session.getBaseUrl());
+
+                    return true;
+                }
+
+                return false;
+            } catch (Exception ex) {
+                log().debug("Heartbeat to Livy session " + session.getId() + " failed, drop it. " + ex);
+                dispose(session);
+
+                return true;
+            }
+        }));
+    }
+
+    private void dispose(@NotNull final Session session) {
+        session.kill()
+               .subscribeOn(Schedulers.io())
+               .subscribe(ses -> { },
+                          err -> log().debug("Kill Livy session " + session.getId() + " failed. " + err));
+    }
+
+    /*
+     * Configuration
+     */
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public SessionPool setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+
+        if (!enabled) {
+            Schedulers.io().createWorker().schedule(this::killAll);
+        }
+
+        return this;
+    }
+
+    public SessionPool setIdleTtlSeconds(final long idleTtlSeconds) {
+        this.idleTtlSeconds = Math.max(HEARTBEAT_INTERVAL_SECONDS, idleTtlSeconds);
+
+        return this;
+    }
+
+    public SessionPool setMaxIdlePerKey(final int maxIdlePerKey) {
+        this.maxIdlePerKey = Math.max(0, maxIdlePerKey);
+
+        return this;
+    }
+
+    /**
+     * @return the count of idle warm sessions
+     */
+    public int getIdleCount() {
+        return idleSessions.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    /*
+     * Internal types
+     */
+
+    private static class IdleSession {
+        private final Session session;
+        private final long idleSince = System.currentTimeMillis();
+
+        private IdleSession(final Session session) {
+            this.session = session;
+        }
+    }
+
+    private static class Warmup {
+        private final Observable<Session> ready;
+        private boolean claimed = false;
+
+        private Warmup(final Observable<Session> ready) {
+            this.ready = ready;
+        }
+
+        /**
+         * @return true for the only one caller who gets the warmed up session
+         */
+        private synchronized boolean claim() {
+            if (claimed) {
+                return false;
+            }
+
+            claimed = true;
+
+            return true;
+        }
+    }
+
+    /**
+     * Sessions are interchangeable if they're of the same type, connect to the same Livy endpoint with the same user,
+     * are created with the same request body besides the session name, and either both or neither have run statements.
+     */
+    private static class Key {
+        private final String type;
+        private final String baseUrl;
+        @Nullable
+        private final String username;
+        private final String createParameters;
+        private final boolean used;
+
+        private Key(final String type, final String baseUrl, @Nullable final String username, final String createParameters,
+                    final boolean used) {
+            this.type = type;
+            this.baseUrl = baseUrl;
+            this.username = username;
+            this.createParameters = createParameters;
+            this.used = used;
+        }
+
+        static Key of(@NotNull final Session session, final boolean used) {
+            final PostSessions postBody = session.getCreateParameters().build();
+            postBody.setName(null);
+
+            return new Key(session.getClass().getName(),
+                           session.getBaseUrl().toString(),
+                           session.getUsername(),
+                           postBody.convertToJson().orElse(""),
+                           used);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            final Key key = (Key) o;
+
+            return type.equals(key.type)
+                    && baseUrl.equals(key.baseUrl)
+                    && Objects.equals(username, key.username)
+                    && createParameters.equals(key.createParameters)
+                    && used == key.used;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, baseUrl, username, createParameters, used);
+        }
+    }
+}
@@ -17,16 +17,23 @@ import com.microsoft.azuretools.azurecommons.helpers.Nullable;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.entity.StringEntity;
 import rx.Observable;
+import rx.schedulers.Schedulers;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Statement implements ILogger {
     public static final String REST_SEGMENT_STATEMENTS = "statements";
 
+    // Most console statements finish in sub-second, so the result is polled quickly at first and backs off for the
+    // long running ones
+    private static final long MIN_POLL_INTERVAL_MILLISECONDS = 20;
+    private static final long MAX_POLL_INTERVAL_MILLISECONDS = 1000;
+
     @NotNull
     private Session session;            // Statement owner session
 
@@ -41,6 +48,16 @@ public class Statement implements ILogger {
     @Nullable
     private StatementState lastState;   // Last statement state gotten
 
+    private double progress;            // Last execution progress gotten, in [0, 1]
+
+    private long submittedTime = -1;    // The local time when the statement is posted
+
+    private long startedTime = -1;      // The local time the execution is known to start
+
+    private long completedTime = -1;    // The local time the statement is found done
+
+    private long serverElapsedMillis = -1;  // The execution time reported by server, since Livy 0.5
+
     public Statement(@NotNull Session session, int id) {
         this(session, null);
 
@@ -111,22 +128,92 @@ public class Statement implements ILogger {
         this.output = output;
     }
 
+    public double getProgress() {
+        return progress;
+    }
+
+    public long getSubmittedTime() {
+        return submittedTime;
+    }
+
+    public long getStartedTime() {
+        return startedTime;
+    }
+
+    /**
+     * Set the time the execution is known to start, such as the time the previous statement of the session completed,
+     * used when the server doesn't report the execution time
+     */
+    public void setStartedTime(long startedTime) {
+        this.startedTime = startedTime;
+    }
+
+    public long getCompletedTime() {
+        return completedTime;
+    }
+
+    /**
+     * @return the execution milliseconds without the time queued in session, or -1 if the statement isn't done
+     */
+    public long getElapsedMillis() {
+        if (completedTime < 0) {
+            return -1;
+        }
+
+        if (serverElapsedMillis >= 0) {
+            return serverElapsedMillis;
+        }
+
+        return completedTime - Math.max(startedTime, submittedTime);
+    }
+
     /*
      * Observable APIs, all IO operations
      */
 
     public Observable<StatementOutput> run() {
-        return runStatementRequest()
-                .map(this::updateWithResponse)
-                .flatMap(statement -> statement.get()                    // Get statement result
-                        .repeatWhen(ob -> ob.delay(1, TimeUnit.SECONDS)) // The unmet state won't trigger retries,
-                                                                         // which is handled by repeatWhen()
-                        .takeUntil(Statement::isDone)
-                        .filter(Statement::isDone)
-                )
+        return submit()
+                .flatMap(statement -> statement.awaitDone().filter(Statement::isDone))
                 .map(Statement::getOutput);
     }
 
+    /**
+     * Post the codes to the session without waiting for the execution, Livy queues it after the statements posted
+     * before.
+     *
+     * @return the statement with ID
+     */
+    public Observable<Statement> submit() {
+        return Observable.defer(() -> {
+            submittedTime = System.currentTimeMillis();
+
+            return runStatementRequest().map(this::updateWithResponse);
+        });
+    }
+
+    /**
+     * Poll the statement until it's done, with the interval growing from {@value #MIN_POLL_INTERVAL_MILLISECONDS} ms
+     * to {@value #MAX_POLL_INTERVAL_MILLISECONDS} ms.
+     *
+     * @return the statement of every poll, with the execution progress, and the last one is done
+     */
+    public Observable<Statement> awaitDone() {
+        return Observable.defer(() -> {
+            final AtomicInteger polls = new AtomicInteger(0);
+
+            return get()
+                    .repeatWhen(ob -> ob.concatMap(ignore -> Observable.timer(   // The unmet state won't trigger
+                            getPollInterval(polls.getAndIncrement()),            // retries, which is handled by
+                            TimeUnit.MILLISECONDS,                               // repeatWhen()
+                            Schedulers.io())))
+                    .takeUntil(Statement::isDone);
+        });
+    }
+
+    static long getPollInterval(int polls) {
+        return Math.min(MAX_POLL_INTERVAL_MILLISECONDS, MIN_POLL_INTERVAL_MILLISECONDS << Math.min(polls, 16));
+    }
+
     public boolean isDoneWithError()
     {
         return getLastState() == StatementState.ERROR || getLastState() == StatementState.CANCELLED;
@@ -144,6 +231,15 @@ public class Statement implements ILogger {
         this.setId(statementResp.getId());
         this.setLastState(statementResp.getState());
         this.setOutput(statementResp.getOutput());
+        this.progress = statementResp.getProgress();
+
+        if (isDone() && completedTime < 0) {
+            this.completedTime = System.currentTimeMillis();
+
+            if (statementResp.getStarted() > 0 && statementResp.getCompleted() >= statementResp.getStarted()) {
+                this.serverElapsedMillis = statementResp.getCompleted() - statementResp.getStarted();
+            }
+        }
 
         return this;
     }
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.common.livy.interactive;
+
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.exceptions.SessionNotStartException;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import rx.Observable;
+import rx.Subscription;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+import rx.subjects.ReplaySubject;
+import rx.subjects.SerializedSubject;
+import rx.subjects.Subject;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs statements of a session in pipeline. Statements are queued at client side and posted back-to-back without
+ * waiting for the previous ones to finish, so that Livy always has the next statement queued when one finishes. Since
+ * Livy executes statements of a session in order, only the oldest unfinished statement is polled, with the adaptive
+ * interval of {@link Statement#awaitDone()}, and statements are finished in the submission order.
+ */
+public class StatementExecutor implements ILogger {
+    @NotNull
+    private final Session session;
+
+    private final Subject<Execution, Execution> queue = new SerializedSubject<>(PublishSubject.create());
+
+    private final Subject<Execution, Execution> finished = new SerializedSubject<>(PublishSubject.create());
+
+    private final AtomicInteger pendingCount = new AtomicInteger(0);
+
+    private final Subscription pipeline;
+
+    private long lastCompletedTime = -1;
+
+    public StatementExecutor(@NotNull final Session session) {
+        this.session = session;
+        this.pipeline = queue
+                .onBackpressureBuffer()
+                .observeOn(Schedulers.io())
+                .concatMap(this::post)
+                .onBackpressureBuffer()     // Don't hold the posting back by the polling
+                .concatMap(this::poll)
+                .subscribe(finished::onNext,
+                           err -> log().warn("Livy statements pipeline of session " + session.getId() + " broke. " + err));
+    }
+
+    /**
+     * Queue the codes to run.
+     *
+     * @return the execution, whose statement is emitted on every poll, with the execution progress, until it's done
+     */
+    @NotNull
+    public Execution submit(@NotNull final String codes) {
+        final Execution execution = new Execution(
+                new Statement(session, new ByteArrayInputStream(codes.getBytes(StandardCharsets.UTF_8))), codes);
+
+        pendingCount.incrementAndGet();
+        queue.onNext(execution);
+
+        return execution;
+    }
+
+    /**
+     * @return the executions done or failed, in the submission order
+     */
+    @NotNull
+    public Observable<Execution> getFinished() {
+        return finished;
+    }
+
+    /**
+     * @return the count of statements submitted but not finished
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    public void close() {
+        pipeline.unsubscribe();
+        queue.onCompleted();
+        finished.onCompleted();
+    }
+
+    private Observable<Execution> post(@NotNull final Execution execution) {
+        return Observable.defer(() -> session.isStatementRunnable() ? Observable.just(session) : session.awaitReady())
+                .switchIfEmpty(Observable.error(new SessionNotStartException(
+                        "The Livy session " + session.getName() + " isn't ready to run statements")))
+                .flatMap(ses -> execution.statement.submit())
+                .map(statement -> execution)
+                .onErrorResumeNext(err -> {
+                    // The failed one is finished without polling, the following statements are still posted
+                    finish(execution, err);
+
+                    return Observable.just(execution);
+                });
+    }
+
+    private Observable<Execution> poll(@NotNull final Execution execution) {
+        if (execution.error != null) {
+            return Observable.just(execution);
+        }
+
+        return Observable.defer(() -> {
+            // The statement can't start before the previous one completed
+            execution.statement.setStartedTime(lastCompletedTime);
+
+            return execution.statement.awaitDone();
+        })
+                .doOnNext(execution.progress::onNext)
+                .last()
+                .map(statement -> {
+                    lastCompletedTime = statement.getCompletedTime();
+                    finish(execution, null);
+
+                    return execution;
+                })
+                .onErrorResumeNext(err -> {
+                    finish(execution, err);
+
+                    return Observable.just(execution);
+                });
+    }
+
+    private void finish(@NotNull final Execution execution, @Nullable final Throwable err) {
+        pendingCount.decrementAndGet();
+        execution.error = err;
+
+        if (err != null) {
+            log().debug("Livy statement `" + execution.getFirstLine() + "` failed. " + err);
+            execution.progress.onError(err);
+        } else {
+            execution.progress.onCompleted();
+        }
+    }
+
+    public static class Execution {
+        @NotNull
+        private final Statement statement;
+
+        @NotNull
+        private final String codes;
+
+        private final ReplaySubject<Statement> progress = ReplaySubject.createWithSize(1);
+
+        @Nullable
+        private volatile Throwable error;
+
+        private Execution(@NotNull final Statement statement, @NotNull final String codes) {
+            this.statement = statement;
+            this.codes = codes;
+        }
+
+        @NotNull
+        public Statement getStatement() {
+            return statement;
+        }
+
+        @NotNull
+        public String getCodes() {
+            return codes;
+        }
+
+        @NotNull
+        public String getFirstLine() {
+            return codes.trim().split("\n", 2)[0];
+        }
+
+        /**
+         * @return the statement on every poll, completed when it's done
+         */
+        @NotNull
+        public Observable<Statement> getProgress() {
+            return progress;
+        }
+
+        /**
+         * @return the error of posting or polling the statement, the execution error is in the statement output
+         */
+        @Nullable
+        public Throwable getError() {
+            return error;
+        }
+    }
+}
@@ -8,7 +8,10 @@ package com.microsoft.azure.hdinsight.sdk.rest;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
@@ -16,15 +19,32 @@ import org.apache.http.HttpEntity;
 import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 
 public final class ObjectConvertUtils {
     private static JsonFactory jsonFactory = new JsonFactory();
     private static ObjectMapper objectMapper = new ObjectMapper(jsonFactory);
     private static XmlMapper xmlMapper = new XmlMapper();
+    // readers are immutable and thread-safe, cache them to skip the per call reader construction and type resolution
+    private static final Map<JavaType, ObjectReader> jsonReaders = new ConcurrentHashMap<>();
+
+    @NotNull
+    private static ObjectReader getJsonReader(@NotNull JavaType type) {
+        return jsonReaders.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    @NotNull
+    private static ObjectReader getJsonReader(@NotNull Class<?> clazz) {
+        return getJsonReader(objectMapper.constructType(clazz));
+    }
 
     public static <T> Optional<T> convertJsonToObject(@NotNull String jsonString, @NotNull Class<T> clazz) throws IOException {
         return Optional.ofNullable(objectMapper.readValue(jsonString, clazz));
@@ -48,7 +68,9 @@ public final class ObjectConvertUtils {
 
         switch (type) {
             case "application/json" :
-                return convertJsonToObject(EntityUtils.toString(entity), clazz);
+                try (InputStream content = entity.getContent()) {
+                    return Optional.ofNullable(getJsonReader(clazz).readValue(content));
+                }
             case "application/xml" :
                 return convertXmlToObject(EntityUtils.toString(entity), clazz);
             default:
@@ -65,7 +87,10 @@ public final class ObjectConvertUtils {
 
         switch (type) {
             case "application/json" :
-                return convertJsonToList(EntityUtils.toString(entity), clazz);
+                try (InputStream content = entity.getContent()) {
+                    return Optional.ofNullable(getJsonReader(
+                            TypeFactory.defaultInstance().constructCollectionType(List.class, clazz)).readValue(content));
+                }
             case "application/xml" :
                 return convertXmlToList(EntityUtils.toString(entity), clazz);
             default:
@@ -73,6 +98,70 @@ public final class ObjectConvertUtils {
         return Optional.empty();
     }
 
+    /**
+     * Decodes a JSON array entity element by element, only the elements accepted by the filter are kept in memory.
+     *
+     * @param entity the JSON array HTTP entity, consumed and closed
+     * @param clazz the element type
+     * @param filter the predicate to select elements
+     * @param <T> the element type
+     * @return the accepted elements, or empty if the entity isn't JSON
+     */
+    public static <T> Optional<List<T>> convertEntityToList(@NotNull HttpEntity entity,
+                                                            @NotNull Class<T> clazz,
+                                                            @NotNull Predicate<? super T> filter) throws IOException {
+        final String type = entity.getContentType().getValue().toLowerCase().split(";")[0].trim();
+
+        if (!type.equals("application/json")) {
+            return convertEntityToList(entity, clazz).map(list -> list.stream().filter(filter).collect(Collectors.toList()));
+        }
+
+        final List<T> result = new ArrayList<>();
+        try (MappingIterator<T> elements = readJsonArray(entity.getContent(), clazz)) {
+            while (elements.hasNextValue()) {
+                final T element = elements.nextValue();
+                if (filter.test(element)) {
+                    result.add(element);
+                }
+            }
+        }
+
+        return Optional.of(result);
+    }
+
+    /**
+     * Iterates a JSON array element by element straight from the stream, without reading the whole content into memory.
+     * A single (non-array) JSON value is iterated as a one element array.
+     *
+     * @param inputStream the JSON content, closed when the returned iterator is closed
+     * @param clazz the element type
+     * @param <T> the element type
+     * @return the elements iterator, which must be closed by the caller
+     */
+    @NotNull
+    public static <T> MappingIterator<T> readJsonArray(@NotNull InputStream inputStream, @NotNull Class<T> clazz) throws IOException {
+        try {
+            return getJsonReader(clazz).readValues(inputStream);
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Decodes a JSON value straight from the stream with a cached reader.
+     *
+     * @param inputStream the JSON content, closed after reading
+     * @param clazz the target type
+     * @param <T> the target type
+     * @return the decoded value
+     */
+    public static <T> Optional<T> convertJsonToObject(@NotNull InputStream inputStream, @NotNull Class<T> clazz) throws IOException {
+        try (InputStream content = inputStream) {
+            return Optional.ofNullable(getJsonReader(clazz).readValue(content));
+        }
+    }
+
     public static <T> Optional<List<T>> convertJsonToList(@NotNull String jsonString, Class<T> clazz) throws IOException {
         List<T> myLists = objectMapper.readValue(jsonString, TypeFactory.defaultInstance().constructCollectionType(List.class, clazz));
         return Optional.ofNullable(myLists);
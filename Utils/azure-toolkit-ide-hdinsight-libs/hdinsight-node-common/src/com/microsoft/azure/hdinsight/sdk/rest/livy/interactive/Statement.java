@@ -22,6 +22,8 @@ public class Statement implements IConvertible {
     private StatementState  state;      // The execution state
     private StatementOutput output;     // The execution output
     private double          progress;   // The execution progress
+    private long            started;    // The start time of execution in epoch milliseconds, since Livy 0.5
+    private long            completed;  // The completion time of execution in epoch milliseconds, since Livy 0.5
 
     public int getId() {
         return this.id;
@@ -42,4 +44,12 @@ public class Statement implements IConvertible {
     public double getProgress() {
         return progress;
     }
+
+    public long getStarted() {
+        return started;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
 }
@@ -27,6 +27,7 @@ import java.util.concurrent.Executors;
 
 public class WebHDFSUtils {
     private static final String STORAGE_RESOURCEID = "https://storage.azure.com/";
+    private static final int COPY_BUFFER_SIZE = 4 * 1024 * 1024;
     private static ExecutorService service = null;
 
     private static String getUserAgent() {
@@ -70,9 +71,10 @@ public class WebHDFSUtils {
         String storageName = storageAccount.getName();
         ADLStoreClient client = ADLStoreClient.createClient(String.format("%s.azuredatalakestore.net", storageName), accessToken);
         OutputStream stream = null;
-        try {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(localFile), COPY_BUFFER_SIZE)) {
             stream = client.createFile(remotePath, IfExists.OVERWRITE);
-            IOUtils.copy(new FileInputStream(localFile), stream);
+            // Copy with a buffer as large as the ADLS client write buffer, so that each write is sent as one append
+            IOUtils.copyLarge(in, stream, new byte[COPY_BUFFER_SIZE]);
             stream.flush();
             stream.close();
         } catch (ADLException e) {
@@ -11,28 +11,47 @@ import com.microsoft.azure.hdinsight.sdk.rest.azure.storageaccounts.RemoteFile;
 import com.microsoft.azure.hdinsight.sdk.rest.azure.storageaccounts.api.GetRemoteFilesResponse;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
 import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.client.methods.HttpPut;
-import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
 import rx.Observable;
+import rx.exceptions.Exceptions;
+import rx.functions.Action1;
+import rx.schedulers.Schedulers;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.net.UnknownServiceException;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ADLSGen2FSOperation {
     public static final String DEFAULT_UMASK = "0000";
     public static final String PERMISSIONS_HEADER = "x-ms-permissions";
     public static final String UMASK_HEADER = "x-ms-umask";
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final int DEFAULT_CHUNK_RETRIES = 3;
+
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+    private static final long CHUNK_RETRY_DELAY_MILLISECONDS = 500;
 
     private HttpObservable http;
 
@@ -42,14 +61,14 @@ public class ADLSGen2FSOperation {
     @NotNull
     private List<NameValuePair> createFileReqParams;
 
-    @NotNull
-    private List<NameValuePair> appendReqParams;
-
     @NotNull
     private ADLSGen2ParamsBuilder listReqBuilder;
 
-    @NotNull
-    private ADLSGen2ParamsBuilder flushReqParamsBuilder;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    private int parallelism = DEFAULT_PARALLELISM;
+
+    private int chunkRetries = DEFAULT_CHUNK_RETRIES;
 
     public ADLSGen2FSOperation(@NotNull HttpObservable http) {
         this.http = http;
@@ -60,14 +79,6 @@ public class ADLSGen2FSOperation {
         this.createFileReqParams = new ADLSGen2ParamsBuilder()
                 .setResource("file")
                 .build();
-
-        this.appendReqParams = new ADLSGen2ParamsBuilder()
-                .setAction("append")
-                .setPosition(0)
-                .build();
-
-        this.flushReqParamsBuilder = new ADLSGen2ParamsBuilder()
-                .setAction("flush");
     }
 
     public Observable<Boolean> createDir(String dirPath) {
@@ -86,8 +97,7 @@ public class ADLSGen2FSOperation {
                                      ? ImmutableList.of(new BasicHeader(PERMISSIONS_HEADER, permission),
                                                         new BasicHeader(UMASK_HEADER, uMask))
                                      : Collections.emptyList();
-        return http.executeReqAndCheckStatus(req, null, this.createDirReqParams, headers, 201)
-                   .map(ignore -> true);
+        return executeAndClose(req, null, this.createDirReqParams, headers, 201);
     }
 
     public Observable<Boolean> createFile(String filePath) {
@@ -106,15 +116,49 @@ public class ADLSGen2FSOperation {
                                      ? ImmutableList.of(new BasicHeader(PERMISSIONS_HEADER, permission),
                                                         new BasicHeader(UMASK_HEADER, uMask))
                                      : Collections.emptyList();
-        return http.executeReqAndCheckStatus(req, null, this.createFileReqParams, headers, 201)
-                .map(ignore -> true);
+        return executeAndClose(req, null, this.createFileReqParams, headers, 201);
     }
 
     public Observable<Boolean> uploadData(String destFilePath, File src) {
-        return appendData(destFilePath, src)
+        return uploadData(destFilePath, src, null);
+    }
+
+    /**
+     * Upload the file with chunked appends and one final flush.
+     *
+     * @param onProgress the callback with the total bytes appended so far, called from IO threads
+     */
+    public Observable<Boolean> uploadData(String destFilePath, File src, @Nullable Action1<Long> onProgress) {
+        return appendData(destFilePath, src, onProgress)
                 .flatMap(len -> flushData(destFilePath, len));
     }
 
+    /**
+     * @return the length of the remote file, or -1 if it doesn't exist
+     */
+    public Observable<Long> getRemoteLength(String filePath) {
+        return http.request(new HttpHead(filePath), null, Collections.emptyList(), Collections.emptyList())
+                .map(resp -> {
+                    try {
+                        final int statusCode = resp.getStatusLine().getStatusCode();
+
+                        if (statusCode == HttpStatus.SC_NOT_FOUND) {
+                            return -1L;
+                        }
+
+                        final Header length = resp.getFirstHeader(HttpHeaders.CONTENT_LENGTH);
+                        if (statusCode != HttpStatus.SC_OK || length == null) {
+                            throw Exceptions.propagate(new UnknownServiceException(String.format(
+                                    "Can not get the properties of %s, got %s", filePath, resp.getStatusLine())));
+                        }
+
+                        return Long.parseLong(length.getValue());
+                    } finally {
+                        closeQuietly(resp);
+                    }
+                });
+    }
+
     public Observable<RemoteFile> list(String rootPath, String relativePath) {
         this.listReqBuilder = new ADLSGen2ParamsBuilder()
                 .enableRecursive(false)
@@ -128,33 +172,146 @@ public class ADLSGen2FSOperation {
                 .flatMap(pathList -> Observable.from(pathList.getRemoteFiles()));
     }
 
-    private Observable<Long> appendData(String filePath, File src) {
-        try {
-            InputStreamEntity reqEntity = new InputStreamEntity(
-                    new FileInputStream(src),
-                    -1,
-                    ContentType.APPLICATION_OCTET_STREAM);
-            BufferedHttpEntity entity = new BufferedHttpEntity(reqEntity);
-            long len = entity.getContentLength();
-
-            HttpPatch req = new HttpPatch(filePath);
-            http.setContentType("application/octet-stream");
-
-            return http.executeReqAndCheckStatus(req, entity, this.appendReqParams, Collections.emptyList(), 202)
-                    .map(ignore -> len);
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(new IllegalArgumentException("Can not find the aritifact"));
-        } catch (IOException e) {
-            throw new RuntimeException(new IllegalArgumentException("Can not read the aritfact"));
+    /**
+     * Append the file in slices of {@link #getChunkSize()} bytes at increasing positions, at most
+     * {@link #getParallelism()} slices in flight. Each slice is streamed from the file rather than buffered in heap,
+     * and retried individually on failure, so a network blip doesn't restart the whole upload.
+     *
+     * @return the file length to flush
+     */
+    private Observable<Long> appendData(String filePath, File src, @Nullable Action1<Long> onProgress) {
+        if (!src.isFile()) {
+            return Observable.error(new IllegalArgumentException("Can not find the artifact " + src));
         }
+
+        final long length = src.length();
+        final int chunks = (int) ((length + chunkSize - 1) / chunkSize);
+        final AtomicLong uploaded = new AtomicLong(0);
+
+        return Observable.range(0, chunks)
+                .flatMap(index -> {
+                            final long position = (long) index * chunkSize;
+
+                            return appendChunk(filePath, src, position, Math.min(chunkSize, length - position))
+                                    .subscribeOn(Schedulers.io());
+                        },
+                        parallelism)
+                .doOnNext(size -> {
+                    final long total = uploaded.addAndGet(size);
+
+                    if (onProgress != null) {
+                        onProgress.call(total);
+                    }
+                })
+                .reduce(0L, Long::sum)
+                .map(ignore -> length);
+    }
+
+    private Observable<Long> appendChunk(String filePath, File src, long position, long size) {
+        return Observable.using(
+                () -> {
+                    try {
+                        final FileInputStream in = new FileInputStream(src);
+                        in.getChannel().position(position);
+
+                        return in;
+                    } catch (IOException e) {
+                        throw Exceptions.propagate(new IllegalArgumentException("Can not read the artifact " + src, e));
+                    }
+                },
+                in -> {
+                    final InputStreamEntity entity = new InputStreamEntity(
+                            new BoundedInputStream(in, size), size, ContentType.APPLICATION_OCTET_STREAM);
+                    final List<NameValuePair> appendReqParams = new ADLSGen2ParamsBuilder()
+                            .setAction("append")
+                            .setPosition(position)
+                            .build();
+
+                    return executeAndClose(new HttpPatch(filePath), entity, appendReqParams, Collections.emptyList(), 202)
+                            .map(ignore -> size);
+                },
+                in -> IOUtils.closeQuietly(in))
+                .retryWhen(errors -> errors
+                        .zipWith(Observable.range(1, chunkRetries + 1), (err, attempt) -> {
+                            if (attempt > chunkRetries || err instanceof IllegalArgumentException) {
+                                throw Exceptions.propagate(err);
+                            }
+
+                            return attempt;
+                        })
+                        .flatMap(attempt -> Observable.timer(
+                                CHUNK_RETRY_DELAY_MILLISECONDS << (attempt - 1), TimeUnit.MILLISECONDS)));
+    }
+
+    /**
+     * Execute the request and check its status. The response is closed whether the status is the expected one or not,
+     * so the connection goes back to the shared pool even for the rejected or retried requests.
+     */
+    private Observable<Boolean> executeAndClose(HttpRequestBase req,
+                                                @Nullable HttpEntity entity,
+                                                List<NameValuePair> params,
+                                                List<Header> headers,
+                                                int validStatusCode) {
+        return http.request(req, entity, params, headers)
+                .map(resp -> {
+                    try {
+                        final int statusCode = resp.getStatusLine().getStatusCode();
+
+                        if (statusCode != validStatusCode) {
+                            throw Exceptions.propagate(new UnknownServiceException(String.format(
+                                    "Exceute request with unexpected code %s and resp %s", statusCode, resp)));
+                        }
+
+                        return true;
+                    } finally {
+                        closeQuietly(resp);
+                    }
+                });
+    }
+
+    private static void closeQuietly(@Nullable CloseableHttpResponse resp) {
+        if (resp == null) {
+            return;
+        }
+
+        EntityUtils.consumeQuietly(resp.getEntity());
+        IOUtils.closeQuietly(resp);
     }
 
     private Observable<Boolean> flushData(String filePath, long flushLen) {
         HttpPatch req = new HttpPatch(filePath);
-        List<NameValuePair> flushReqParams = this.flushReqParamsBuilder.setPosition(flushLen).build();
+        List<NameValuePair> flushReqParams = new ADLSGen2ParamsBuilder()
+                .setAction("flush")
+                .setPosition(flushLen)
+                .build();
         http.setContentType("application/json");
 
-        return http.executeReqAndCheckStatus(req, null, flushReqParams, Collections.emptyList(), 200)
-                .map(ignore -> true);
+        return executeAndClose(req, null, flushReqParams, Collections.emptyList(), 200);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public ADLSGen2FSOperation setChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(MIN_CHUNK_SIZE, chunkSize);
+
+        return this;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public ADLSGen2FSOperation setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+
+        return this;
+    }
+
+    public ADLSGen2FSOperation setChunkRetries(int chunkRetries) {
+        this.chunkRetries = Math.max(0, chunkRetries);
+
+        return this;
     }
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.storage.webhdfs;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.microsoft.azure.hdinsight.sdk.rest.IConvertible;
+
+/**
+ * The response of WebHDFS GETFILESTATUS operation, only the fields used are mapped.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class WebHdfsFileStatus implements IConvertible {
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class FileStatus {
+        @JsonProperty(value = "length")
+        private long length;
+
+        @JsonProperty(value = "type")
+        private String type;
+
+        public long getLength() {
+            return length;
+        }
+
+        public String getType() {
+            return type;
+        }
+    }
+
+    @JsonProperty(value = "FileStatus")
+    private FileStatus fileStatus;
+
+    public FileStatus getFileStatus() {
+        return fileStatus;
+    }
+}
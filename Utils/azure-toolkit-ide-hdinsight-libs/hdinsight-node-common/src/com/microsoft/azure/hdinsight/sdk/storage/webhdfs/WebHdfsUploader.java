@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.sdk.storage.webhdfs;
+
+import com.microsoft.azure.hdinsight.common.logger.ILogger;
+import com.microsoft.azure.hdinsight.sdk.common.HttpObservable;
+import com.microsoft.azure.hdinsight.sdk.common.errorresponse.HttpErrorStatus;
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import com.microsoft.azuretools.azurecommons.helpers.Nullable;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpStatus;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.util.EntityUtils;
+import rx.Observable;
+import rx.exceptions.Exceptions;
+import rx.functions.Action1;
+import rx.functions.Func1;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.UnknownServiceException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams a local file to WebHDFS without loading it into memory.
+ * <p>
+ * Files up to {@link #getSegmentSize()} are sent in one CREATE (the namenode answers 307 with the datanode location,
+ * the content goes to the datanode with chunked transfer encoding). Larger files are sent as a CREATE with the first
+ * segment followed by APPEND segments, a failed segment is resumed from the length the remote file really has, so that
+ * a network blip only costs the segment in flight. The remote length is verified on completion.
+ */
+public class WebHdfsUploader implements ILogger {
+    public static final long DEFAULT_SEGMENT_SIZE = 128L * 1024 * 1024;
+    public static final int DEFAULT_RETRIES = 3;
+
+    private static final long MIN_SEGMENT_SIZE = 1024 * 1024;
+    private static final long RETRY_DELAY_MILLISECONDS = 1000;
+
+    @NotNull
+    private final HttpObservable http;
+
+    private long segmentSize = DEFAULT_SEGMENT_SIZE;
+
+    private int retries = DEFAULT_RETRIES;
+
+    public WebHdfsUploader(@NotNull HttpObservable http) {
+        this.http = http;
+    }
+
+    /**
+     * Upload the file, overwriting the existing one.
+     *
+     * @param src        the local file
+     * @param dest       the WebHDFS file URI, such as {@code https://host/webhdfs/v1/path/to/file.jar}
+     * @param onProgress the callback with the total bytes sent so far
+     * @return the upload result after the remote length is verified
+     */
+    public Observable<Result> upload(@NotNull File src, @NotNull URI dest, @Nullable Action1<Long> onProgress) {
+        return Observable.defer(() -> {
+            if (!src.isFile()) {
+                return Observable.error(new IllegalArgumentException("Can not find the artifact " + src));
+            }
+
+            final long length = src.length();
+            final long start = System.currentTimeMillis();
+            final AtomicInteger failures = new AtomicInteger(0);
+
+            return uploadFrom(src, dest, 0, length, failures, onProgress)
+                    .flatMap(ignore -> getRemoteLength(dest))
+                    .map(remoteLength -> {
+                        if (remoteLength != length) {
+                            throw Exceptions.propagate(new UnknownServiceException(String.format(
+                                    "The uploaded file %s has %d bytes, but %d bytes are expected", dest, remoteLength, length)));
+                        }
+
+                        return new Result(length, System.currentTimeMillis() - start, failures.get());
+                    });
+        });
+    }
+
+    private Observable<Long> uploadFrom(@NotNull File src,
+                                        @NotNull URI dest,
+                                        long offset,
+                                        long length,
+                                        @NotNull AtomicInteger failures,
+                                        @Nullable Action1<Long> onProgress) {
+        final long size = offset == 0 && length <= segmentSize ? length : Math.min(segmentSize, length - offset);
+        final Observable<Long> segment = offset == 0
+                                         ? sendSegment(src, new HttpPut(dest), new WebHdfsParamsBuilder("CREATE")
+                                                 .setOverwrite("true")
+                                                 .setPermission("777")
+                                                 .build(), offset, size, HttpStatus.SC_CREATED)
+                                         : sendSegment(src, new HttpPost(dest), new WebHdfsParamsBuilder("APPEND")
+                                                 .build(), offset, size, HttpStatus.SC_OK);
+
+        return segment
+                .doOnNext(sent -> {
+                    if (onProgress != null) {
+                        onProgress.call(offset + sent);
+                    }
+                })
+                .flatMap(sent -> offset + sent < length
+                                 ? uploadFrom(src, dest, offset + sent, length, failures, onProgress)
+                                 : Observable.just(length))
+                .onErrorResumeNext(err -> {
+                    if (err instanceof IllegalArgumentException || failures.incrementAndGet() > retries) {
+                        return Observable.error(err);
+                    }
+
+                    log().warn(String.format("Upload %s from offset %d failed, resume it. %s", dest, offset, err));
+
+                    // Resume from what the remote file really has, a failed APPEND may have been partially written
+                    return Observable.timer(RETRY_DELAY_MILLISECONDS * failures.get(), TimeUnit.MILLISECONDS)
+                            .flatMap(ignore -> offset == 0 ? Observable.just(0L) : getRemoteLength(dest).map(len -> Math.max(0L, len)))
+                            .flatMap(resumeOffset -> uploadFrom(src, dest, resumeOffset, length, failures, onProgress));
+                });
+    }
+
+    /**
+     * Send the namenode request, and then the file content in [offset, offset + size) to the redirected datanode.
+     */
+    private Observable<Long> sendSegment(@NotNull File src,
+                                         @NotNull HttpEntityEnclosingRequestBase namenodeReq,
+                                         @NotNull List<NameValuePair> params,
+                                         long offset,
+                                         long size,
+                                         int expectedStatus) {
+        return http.request(namenodeReq, null, params, null)
+                .map(resp -> {
+                    try {
+                        final Header location = resp.getFirstHeader("Location");
+
+                        if (resp.getStatusLine().getStatusCode() != HttpStatus.SC_TEMPORARY_REDIRECT
+                                || location == null || StringUtils.isBlank(location.getValue())) {
+                            throw Exceptions.propagate(new UnknownServiceException(
+                                    "Can not get valid redirect uri using webHDFS storage type, got " + resp.getStatusLine()));
+                        }
+
+                        return URI.create(location.getValue());
+                    } finally {
+                        closeQuietly(resp);
+                    }
+                })
+                .flatMap(location -> Observable.using(
+                        () -> openSegment(src, offset, size),
+                        in -> {
+                            final HttpEntityEnclosingRequestBase datanodeReq = namenodeReq instanceof HttpPut
+                                                                              ? new HttpPut(location)
+                                                                              : new HttpPost(location);
+                            final InputStreamEntity entity = new InputStreamEntity(in, -1, ContentType.APPLICATION_OCTET_STREAM);
+                            entity.setChunked(true);
+
+                            return http.request(datanodeReq,
+                                                entity,
+                                                URLEncodedUtils.parse(location, StandardCharsets.UTF_8),
+                                                null);
+                        },
+                        IOUtils::closeQuietly))
+                .map(resp -> {
+                    try {
+                        if (resp.getStatusLine().getStatusCode() != expectedStatus) {
+                            throw Exceptions.propagate(HttpObservable.classifyHttpError(resp));
+                        }
+
+                        return size;
+                    } catch (IOException ex) {
+                        throw Exceptions.propagate(ex);
+                    } finally {
+                        closeQuietly(resp);
+                    }
+                });
+    }
+
+    @NotNull
+    private static InputStream openSegment(@NotNull File src, long offset, long size) {
+        try {
+            final FileChannel channel = FileChannel.open(src.toPath(), StandardOpenOption.READ).position(offset);
+
+            return new BoundedInputStream(Channels.newInputStream(channel), size);
+        } catch (IOException ex) {
+            throw Exceptions.propagate(new IllegalArgumentException("Can not read the artifact " + src, ex));
+        }
+    }
+
+    /**
+     * @return the remote file length, or -1 if it doesn't exist
+     */
+    public Observable<Long> getRemoteLength(@NotNull URI dest) {
+        return http.getStreaming(dest.toString(), new WebHdfsParamsBuilder("GETFILESTATUS").build(), null, WebHdfsFileStatus.class)
+                .map(status -> status.getFileStatus() == null ? 0L : status.getFileStatus().getLength())
+                .onErrorResumeNext((Func1<Throwable, Observable<Long>>) err ->
+                        err instanceof HttpErrorStatus && ((HttpErrorStatus) err).getStatusCode() == HttpStatus.SC_NOT_FOUND
+                        ? Observable.just(-1L)
+                        : Observable.error(err));
+    }
+
+    private static void closeQuietly(@Nullable CloseableHttpResponse resp) {
+        if (resp == null) {
+            return;
+        }
+
+        EntityUtils.consumeQuietly(resp.getEntity());
+        IOUtils.closeQuietly(resp);
+    }
+
+    /*
+     * Configuration
+     */
+
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * @param segmentSize the bytes of a CREATE or APPEND request, files not larger than it are sent in one request
+     */
+    public WebHdfsUploader setSegmentSize(long segmentSize) {
+        this.segmentSize = Math.max(MIN_SEGMENT_SIZE, segmentSize);
+
+        return this;
+    }
+
+    /**
+     * @param retries the segments failed allowed to resume in one upload
+     */
+    public WebHdfsUploader setRetries(int retries) {
+        this.retries = Math.max(0, retries);
+
+        return this;
+    }
+
+    public static class Result {
+        private final long bytes;
+
+        private final long elapsedMillis;
+
+        private final int resumes;
+
+        public Result(long bytes, long elapsedMillis, int resumes) {
+            this.bytes = bytes;
+            this.elapsedMillis = elapsedMillis;
+            this.resumes = resumes;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public int getResumes() {
+            return resumes;
+        }
+
+        /**
+         * @return bytes per second
+         */
+        public long getThroughput() {
+            return elapsedMillis > 0 ? bytes * 1000 / elapsedMillis : bytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s in %.1fs (%s/s%s)",
+                                 FileUtils.byteCountToDisplaySize(bytes),
+                                 elapsedMillis / 1000.0,
+                                 FileUtils.byteCountToDisplaySize(getThroughput()),
+                                 resumes > 0 ? ", resumed " + resumes + " time(s)" : "");
+        }
+    }
+}
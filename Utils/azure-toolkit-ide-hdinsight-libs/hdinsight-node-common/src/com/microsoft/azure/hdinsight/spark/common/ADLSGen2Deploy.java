@@ -15,6 +15,7 @@ import com.microsoft.azure.hdinsight.spark.jobs.JobUtils;
 import com.microsoft.azure.toolkit.lib.Azure;
 import com.microsoft.azure.toolkit.lib.auth.AzureAccount;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import org.apache.commons.io.FileUtils;
 import org.apache.http.HttpStatus;
 import rx.Observable;
 import rx.Observer;
@@ -23,6 +24,9 @@ import rx.exceptions.Exceptions;
 import java.io.File;
 import java.net.URI;
 
+import static com.microsoft.azure.hdinsight.common.MessageInfoType.Info;
+import static com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine.TOOL;
+
 public class ADLSGen2Deploy implements Deployable, ILogger {
     @NotNull
     public HttpObservable http;
@@ -40,22 +44,59 @@ public class ADLSGen2Deploy implements Deployable, ILogger {
                   .resolve(JobUtils.getFormatPathByDate() + "/");
     }
 
+    private URI getArtifactsDir() {
+        return UriUtil.normalizeWithSlashEnding(URI.create(destinationRootPath))
+                      .resolve(ArtifactDigests.ARTIFACTS_FOLDER + "/");
+    }
+
     @Override
     public Observable<String> deploy(File src, Observer<SparkLogLine> logSubject) {
+        final ADLSGen2FSOperation op = new ADLSGen2FSOperation(this.http);
+
+        if (!ArtifactDigests.getInstance().isEnabled()) {
+            return upload(op, getUploadDir(), src.getName(), src, logSubject);
+        }
+
+        // Upload to the content addressed path only if the same content isn't there
+        return Observable.fromCallable(() -> ArtifactDigests.getInstance().getContentAddressedName(src))
+                         .flatMap(name -> {
+                             final String filePath = getArtifactsDir().resolve(name).toString();
+
+                             return op.getRemoteLength(filePath)
+                                      .onErrorReturn(err -> {
+                                          log().warn("Can't check the uploaded artifact " + filePath + ", upload it. " + err);
+
+                                          return -1L;
+                                      })
+                                      .flatMap(remoteLength -> {
+                                          if (remoteLength != src.length()) {
+                                              return upload(op, getArtifactsDir(), name, src, logSubject);
+                                          }
+
+                                          logSubject.onNext(new SparkLogLine(TOOL, Info, String.format(
+                                                  "Artifact %s is unchanged, reuse the uploaded %s", src.getName(), filePath)));
+
+                                          return Observable.just(AbfsUri.parse(filePath).getUri().toString());
+                                      });
+                         });
+    }
+
+    private Observable<String> upload(ADLSGen2FSOperation op,
+                                      URI destURI,
+                                      String fileName,
+                                      File src,
+                                      Observer<SparkLogLine> logSubject) {
         // four steps to upload via adls gen2 rest api
         // 1.put request to create new dir
         // 2.put request to create new file(artifact) which is empty
-        // 3.patch request to append data to file
+        // 3.patch requests to append data to file, chunk by chunk in parallel
         // 4.patch request to flush data to file
 
-        final URI destURI = getUploadDir();
-
         //remove request / end otherwise invalid url response
         final String destStr = destURI.toString();
         final String dirPath = destStr.endsWith("/") ? destStr.substring(0, destStr.length() - 1) : destStr;
-        final String filePath = String.format("%s/%s", dirPath, src.getName());
+        final String filePath = String.format("%s/%s", dirPath, fileName);
 
-        final ADLSGen2FSOperation op = new ADLSGen2FSOperation(this.http);
         return op.createDir(dirPath, "0755")
                  .onErrorReturn(err -> {
                      if (err.getMessage() != null && (err.getMessage().contains(String.valueOf(HttpStatus.SC_FORBIDDEN))
@@ -76,7 +117,12 @@ public class ADLSGen2Deploy implements Deployable, ILogger {
                  })
                  .doOnNext(ignore -> log().info(String.format("Create filesystem %s successfully.", dirPath)))
                  .flatMap(ignore -> op.createFile(filePath, "0755"))
-                 .flatMap(ignore -> op.uploadData(filePath, src))
+                 .flatMap(ignore -> op.uploadData(filePath, src, uploaded -> logSubject.onNext(new SparkLogLine(
+                         TOOL, Info, String.format("Uploaded %s of %s to %s (%d%%)",
+                                                   FileUtils.byteCountToDisplaySize(uploaded),
+                                                   FileUtils.byteCountToDisplaySize(src.length()),
+                                                   filePath,
+                                                   src.length() > 0 ? uploaded * 100 / src.length() : 100)))))
                  .doOnNext(ignore -> log().info(String.format("Append data to file %s successfully.", filePath)))
                  .map(ignored -> AbfsUri.parse(filePath).getUri().toString());
     }
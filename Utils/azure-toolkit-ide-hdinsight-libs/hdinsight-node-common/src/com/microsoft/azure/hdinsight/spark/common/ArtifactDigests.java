@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) Microsoft Corporation. All rights reserved.
+ * Licensed under the MIT License. See License.txt in the project root for license information.
+ */
+
+package com.microsoft.azure.hdinsight.spark.common;
+
+import com.microsoft.azuretools.azurecommons.helpers.NotNull;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Content addresses of local artifacts, so that deployments upload an artifact to
+ * {@code <upload root>/}{@value #ARTIFACTS_FOLDER}{@code /<sha256>.jar} only once and reuse it for the following
+ * submissions as long as its content doesn't change. The digests are cached by path, size and modified time, so an
+ * unchanged jar is only hashed once per IDE session.
+ * <p>
+ * The content addressed deployment can be disabled with the system property {@value #ENABLED_PROPERTY}.
+ */
+public class ArtifactDigests {
+    public static final String ENABLED_PROPERTY = "azure.hdinsight.spark.artifactDedup";
+    public static final String ARTIFACTS_FOLDER = "artifacts";
+
+    private static final int MAX_CACHED_DIGESTS = 256;
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
+    private static final ArtifactDigests instance = new ArtifactDigests();
+
+    private final Map<String, Digest> digests = Collections.synchronizedMap(
+            new LinkedHashMap<String, Digest>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Digest> eldest) {
+                    return size() > MAX_CACHED_DIGESTS;
+                }
+            });
+
+    private ArtifactDigests() {
+    }
+
+    @NotNull
+    public static ArtifactDigests getInstance() {
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+    }
+
+    /**
+     * @return the hex SHA-256 of the file content, computed only if the file changed since the last call
+     */
+    @NotNull
+    public String sha256(@NotNull final File file) throws IOException {
+        final String path = file.getCanonicalPath();
+        final long size = file.length();
+        final long lastModified = file.lastModified();
+        final Digest cached = digests.get(path);
+
+        if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+            return cached.sha256;
+        }
+
+        final String sha256;
+        try (final InputStream in = new BufferedInputStream(new FileInputStream(file), READ_BUFFER_SIZE)) {
+            sha256 = DigestUtils.sha256Hex(in);
+        }
+
+        digests.put(path, new Digest(size, lastModified, sha256));
+
+        return sha256;
+    }
+
+    /**
+     * @return the content addressed file name, such as {@code 3a7bd3e2360a3d29eea436fcfb7e44c735d117c42d1c1835420b6b9942dd4f1b.jar}
+     */
+    @NotNull
+    public String getContentAddressedName(@NotNull final File file) throws IOException {
+        final String extension = FilenameUtils.getExtension(file.getName());
+
+        return sha256(file) + "." + StringUtils.defaultIfBlank(extension, "jar");
+    }
+
+    private static class Digest {
+        private final long size;
+        private final long lastModified;
+        private final String sha256;
+
+        private Digest(final long size, final long lastModified, final String sha256) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sha256 = sha256;
+        }
+    }
+}
@@ -5,35 +5,34 @@
 
 package com.microsoft.azure.hdinsight.spark.common;
 
+import com.microsoft.azure.hdinsight.common.UriUtil;
 import com.microsoft.azure.hdinsight.common.logger.ILogger;
 import com.microsoft.azure.hdinsight.sdk.cluster.IClusterDetail;
 import com.microsoft.azure.hdinsight.sdk.common.HttpObservable;
 import com.microsoft.azure.hdinsight.sdk.storage.webhdfs.WebHdfsParamsBuilder;
+import com.microsoft.azure.hdinsight.sdk.storage.webhdfs.WebHdfsUploader;
 import com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine;
 import com.microsoft.azure.hdinsight.spark.jobs.JobUtils;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import com.microsoft.azuretools.azurecommons.helpers.Nullable;
-import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.io.FileUtils;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.utils.URIBuilder;
-import org.apache.http.client.utils.URLEncodedUtils;
-import org.apache.http.entity.BufferedHttpEntity;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.InputStreamEntity;
 import rx.Observable;
 import rx.Observer;
 import rx.exceptions.Exceptions;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.UnknownServiceException;
 import java.util.List;
 
+import static com.microsoft.azure.hdinsight.common.MessageInfoType.Info;
+import static com.microsoft.azure.hdinsight.spark.common.log.SparkLogLine.TOOL;
+
 public class WebHDFSDeploy implements Deployable, ILogger {
     @NotNull
     IClusterDetail cluster;
@@ -45,7 +44,7 @@ public class WebHDFSDeploy implements Deployable, ILogger {
     private final List<NameValuePair> createDirReqParams;
 
     @NotNull
-    private final List<NameValuePair> uploadReqParams;
+    private final WebHdfsUploader uploader;
 
     @NotNull
     public String destinationRootPath;
@@ -53,16 +52,12 @@ public class WebHDFSDeploy implements Deployable, ILogger {
     public WebHDFSDeploy(@NotNull IClusterDetail cluster, @NotNull HttpObservable http, @NotNull String destinationRootPath) {
         this.cluster = cluster;
         this.destinationRootPath = destinationRootPath;
-        this.uploadReqParams = new WebHdfsParamsBuilder("CREATE")
-                .setOverwrite("true")
-                .setPermission("777")
-                .build();
-
         this.createDirReqParams = new WebHdfsParamsBuilder("MKDIRS")
                 .setPermission("777")
                 .build();
 
         this.http = http;
+        this.uploader = new WebHdfsUploader(http);
         http.setDefaultRequestConfig(RequestConfig.custom().setExpectContinueEnabled(true).build());
     }
 
@@ -71,14 +66,45 @@ public class WebHDFSDeploy implements Deployable, ILogger {
                 .resolve(JobUtils.getFormatPathByDate());
     }
 
+    private URI getArtifactsDir() {
+        return UriUtil.normalizeWithSlashEnding(URI.create(destinationRootPath))
+                      .resolve(ArtifactDigests.ARTIFACTS_FOLDER + "/");
+    }
+
     @Override
     public Observable<String> deploy(File src,
                                      Observer<SparkLogLine> logSubject) {
+        if (!ArtifactDigests.getInstance().isEnabled()) {
+            final URI dest = getUploadDir();
+
+            return upload(dest, dest.resolve(src.getName()), src, logSubject);
+        }
+
+        // Upload to the content addressed path only if the same content isn't there
+        return Observable.fromCallable(() -> getArtifactsDir().resolve(ArtifactDigests.getInstance().getContentAddressedName(src)))
+                .flatMap(destFile -> uploader.getRemoteLength(destFile)
+                        .onErrorReturn(err -> {
+                            log().warn("Can't check the uploaded artifact " + destFile + ", upload it. " + err);
+
+                            return -1L;
+                        })
+                        .flatMap(remoteLength -> {
+                            if (remoteLength != src.length()) {
+                                return upload(getArtifactsDir(), destFile, src, logSubject);
+                            }
+
+                            logSubject.onNext(new SparkLogLine(TOOL, Info, String.format(
+                                    "Artifact %s is unchanged, reuse the uploaded %s", src.getName(), destFile)));
+
+                            return Observable.just(toArtifactUploadedPath(destFile));
+                        }));
+    }
+
+    private Observable<String> upload(URI dest, URI destFile, File src, Observer<SparkLogLine> logSubject) {
         //three steps to upload via webhdfs
         // 1.put request to create new dir
         // 2.put request to get 307 redirect uri from response
-        // 3.put redirect request with file content as setEntity
-        final URI dest = getUploadDir();
+        // 3.put redirect request with file content streamed, large files are continued with APPEND segments
         final HttpPut req = new HttpPut(dest.toString());
         return http.request(req, null, this.createDirReqParams, null)
                 .doOnNext(
@@ -88,35 +114,22 @@ public class WebHDFSDeploy implements Deployable, ILogger {
                             }
                         }
                 )
-                .map(ignored -> new HttpPut(dest.resolve(src.getName()).toString()))
-                .flatMap(put -> http.request(put, null, this.uploadReqParams, null))
-                .map(resp -> resp.getFirstHeader("Location").getValue())
-                .doOnNext(redirectedUri -> {
-                    if (StringUtils.isBlank(redirectedUri)) {
-                        Exceptions.propagate(new UnknownServiceException("Can not get valid redirect uri using webHDFS storage type"));
-                    }
-                })
-                .map(HttpPut::new)
-                .flatMap(put -> {
-                    try {
-                        InputStreamEntity reqEntity = new InputStreamEntity(
-                                new FileInputStream(src),
-                                -1,
-                                ContentType.APPLICATION_OCTET_STREAM);
-                        reqEntity.setChunked(true);
-
-                        return http.request(put, new BufferedHttpEntity(reqEntity), URLEncodedUtils.parse(put.getURI(), "UTF-8"), null);
-                    } catch (IOException ex) {
-                        throw new RuntimeException(new IllegalArgumentException("Can not get local artifact when uploading" + ex.toString()));
-                    }
-                })
-                .map(ignored -> {
-                    try {
-                        return getArtifactUploadedPath(dest.resolve(src.getName()).toString());
-                    } catch (final URISyntaxException ex) {
-                        throw new RuntimeException(new IllegalArgumentException("Can not get valid artifact upload path" + ex.toString()));
-                    }
-                });
+                .flatMap(ignored -> uploader.upload(src, destFile, uploaded -> logSubject.onNext(new SparkLogLine(
+                        TOOL, Info, String.format("Uploaded %s of %s to %s",
+                                                  FileUtils.byteCountToDisplaySize(uploaded),
+                                                  FileUtils.byteCountToDisplaySize(src.length()),
+                                                  destFile)))))
+                .doOnNext(result -> logSubject.onNext(new SparkLogLine(
+                        TOOL, Info, String.format("Uploaded %s to %s", result, destFile))))
+                .map(ignored -> toArtifactUploadedPath(destFile));
+    }
+
+    private String toArtifactUploadedPath(URI destFile) {
+        try {
+            return getArtifactUploadedPath(destFile.toString());
+        } catch (final URISyntaxException ex) {
+            throw new RuntimeException(new IllegalArgumentException("Can not get valid artifact upload path" + ex.toString()));
+        }
     }
 
     @Nullable
@@ -5,9 +5,11 @@
 
 package com.microsoft.azure.hdinsight.spark.common.log;
 
+import com.microsoft.azure.hdinsight.common.MessageInfoType;
+
 import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
+import java.util.Locale;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -28,32 +30,91 @@ public class SparkLogUtils {
                     + log4jAllLevels.stream().collect(Collectors.joining("|")) + ")\\b",
             Pattern.CASE_INSENSITIVE);
 
+    // The lower case level keywords and their message types, indexed by the initial letter, which are all different
+    private static final String[] log4jLevelsByInitial = new String[26];
+    private static final MessageInfoType[] log4jLevelTypesByInitial = new MessageInfoType[26];
+
+    static {
+        // DEBUG and TRACE keep the Log type
+        final MessageInfoType[] types = { Error, Error, Warning, Info, Log, Log };
+
+        for (int i = 0; i < log4jAllLevels.size(); i++) {
+            final String level = log4jAllLevels.get(i).toLowerCase(Locale.ROOT);
+            final int initial = level.charAt(0) - 'a';
+
+            log4jLevelsByInitial[initial] = level;
+            log4jLevelTypesByInitial[initial] = types[i];
+        }
+    }
+
     public static SparkLogLine mapTypedMessageByLog4jLevels(
             final SparkLogLine previous,
             final SparkLogLine current) {
         if (current.getMessageInfoType() == Log) {
-            final String msg = current.getRawLog();
-            final Matcher matcher = log4jLevelRegex.matcher(msg);
-
-            if (matcher.find()) {
-                final String level = matcher.group("level");
-                switch (level.toUpperCase()) {
-                    case "FATAL": case "ERROR":
-                        return new SparkLogLine(current.getLogSource(), Error, msg);
-                    case "WARN":
-                        return new SparkLogLine(current.getLogSource(), Warning, msg);
-                    case "INFO":
-                        return new SparkLogLine(current.getLogSource(), Info, msg);
-                    // Keep the current level by default
-                    default:
-                        return current;
+            final MessageInfoType type = classifyByLog4jLevels(previous.getMessageInfoType(), current.getRawLog());
+
+            return type == current.getMessageInfoType()
+                   ? current
+                   : new SparkLogLine(current.getLogSource(), type, current.getRawLog());
+        }
+
+        return current;
+    }
+
+    /**
+     * Get the message type of a {@link MessageInfoType#Log} line by the first log4j level keyword in it, the same as
+     * {@link #log4jLevelRegex} finds, but with a single scan which only compares the words starting with a level initial
+     * and allocates nothing.
+     *
+     * @param previous the type of the previous line, for the continuation lines without level, such as stack traces
+     * @param line the log line
+     * @return Error for FATAL and ERROR, Warning for WARN, Info for INFO, Log for DEBUG and TRACE, or the previous type
+     *         if there is no level keyword
+     */
+    public static MessageInfoType classifyByLog4jLevels(final MessageInfoType previous, final CharSequence line) {
+        final int length = line.length();
+        boolean isAfterWordChar = false;
+
+        for (int i = 0; i < length; i++) {
+            final char ch = line.charAt(i);
+
+            if (!isAfterWordChar) {
+                final int initial = toAsciiLowerCase(ch) - 'a';
+
+                if (initial >= 0 && initial < 26 && log4jLevelsByInitial[initial] != null) {
+                    final String level = log4jLevelsByInitial[initial];
+                    final int end = i + level.length();
+
+                    if (end <= length
+                            && regionMatchesAsciiIgnoreCase(line, i, level)
+                            && (end == length || !isWordChar(line.charAt(end)))) {
+                        return log4jLevelTypesByInitial[initial];
+                    }
                 }
             }
 
-            // No level keyword found, use the previous's level
-            return new SparkLogLine(current.getLogSource(), previous.getMessageInfoType(), msg);
+            isAfterWordChar = isWordChar(ch);
         }
 
-        return current;
+        // No level keyword found, use the previous's level
+        return previous;
+    }
+
+    private static boolean regionMatchesAsciiIgnoreCase(final CharSequence line, final int offset, final String lowerCase) {
+        for (int i = 1; i < lowerCase.length(); i++) {
+            if (toAsciiLowerCase(line.charAt(offset + i)) != lowerCase.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static char toAsciiLowerCase(final char ch) {
+        return ch >= 'A' && ch <= 'Z' ? (char) (ch + ('a' - 'A')) : ch;
+    }
+
+    private static boolean isWordChar(final char ch) {
+        return ch == '_' || Character.isLetterOrDigit(ch);
     }
 }
@@ -21,6 +21,7 @@ import com.microsoft.azure.hdinsight.sdk.cluster.LivyCluster;
 import com.microsoft.azure.hdinsight.sdk.cluster.MfaEspCluster;
 import com.microsoft.azure.hdinsight.sdk.common.AuthenticationException;
 import com.microsoft.azure.hdinsight.sdk.common.HDIException;
+import com.microsoft.azure.hdinsight.sdk.common.HttpConnectionPools;
 import com.microsoft.azure.hdinsight.sdk.common.HttpObservable;
 import com.microsoft.azure.hdinsight.sdk.common.livy.interactive.SparkSession;
 import com.microsoft.azure.hdinsight.sdk.io.spark.ClusterFileBase64BufferedOutputStream;
@@ -52,7 +53,6 @@ import org.apache.http.*;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
@@ -64,7 +64,7 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
+import org.apache.http.message.BasicHeader;
 import org.htmlunit.BrowserVersion;
 import org.htmlunit.Cache;
 import org.htmlunit.FailingHttpStatusCodeException;
@@ -105,7 +105,6 @@ public class JobUtils {
 
     private static final String sparkUIHistoryFormat = "%s/sparkhistory/history/%s/%s/jobs";
 
-    private static final CredentialsProvider provider = new BasicCredentialsProvider();
 
     public static void setResponse(@NotNull HttpExchange httpExchange, @NotNull String message) {
         setResponse(httpExchange, message, 200);
@@ -405,8 +404,29 @@ public class JobUtils {
         }).subscribeOn(Schedulers.io());
     }
 
+    /**
+     * Reads the entity of a cluster REST response, e.g. decodes it straight from the stream.
+     */
+    @FunctionalInterface
+    public interface EntityReader<T> {
+        T read(@NotNull HttpEntity entity) throws IOException, HDIException;
+    }
+
+    /**
+     * Gets the entity of a cluster REST url, buffered so that the connection goes back to the pool before returning.
+     */
     public static HttpEntity getEntity(@NotNull final IClusterDetail clusterDetail, @NotNull final String url) throws IOException, HDIException {
-        final HttpClient client;
+        return readEntity(clusterDetail, url, BufferedHttpEntity::new);
+    }
+
+    /**
+     * Gets a cluster REST url on the shared connection pool and reads the entity while the response is open, the
+     * connection goes back to the pool once the reader returns.
+     */
+    public static <T> T readEntity(@NotNull final IClusterDetail clusterDetail,
+                                   @NotNull final String url,
+                                   @NotNull final EntityReader<T> reader) throws IOException, HDIException {
+        final CloseableHttpClient client;
         if (clusterDetail instanceof MfaEspCluster) {
             final String tenantId = ((MfaEspCluster) clusterDetail).getTenantId();
 
@@ -414,21 +434,28 @@ public class JobUtils {
                 throw new UnknownServiceException("Can't get HIB cluster Tenant ID");
             }
 
-            client = new SparkBatchEspMfaSubmission(tenantId, clusterDetail.getName()).getHttpClient();
+            final String accessToken = new SparkBatchEspMfaSubmission(tenantId, clusterDetail.getName()).getAccessToken();
+            client = HttpConnectionPools.getInstance().newClientBuilder(HttpConnectionPools.Transport.TOOLKIT_TRUST)
+                    .setDefaultHeaders(Collections.singletonList(new BasicHeader("Authorization", "Bearer " + accessToken)))
+                    .build();
         } else {
+            // credentials are per cluster, a shared provider would mix them up between concurrent requests
+            final CredentialsProvider provider = new BasicCredentialsProvider();
             provider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(clusterDetail.getHttpUserName(), clusterDetail.getHttpPassword()));
-            client = HttpClients.custom()
-                    .useSystemProperties()
-                    .setDefaultCredentialsProvider(provider).build();
+            client = HttpConnectionPools.getInstance().newClientBuilder(HttpConnectionPools.Transport.SYSTEM_DEFAULT)
+                    .setDefaultCredentialsProvider(provider)
+                    .build();
         }
 
         final HttpGet get = new HttpGet(url);
-        final HttpResponse response = client.execute(get);
-        final int code = response.getStatusLine().getStatusCode();
-        if (code == HttpStatus.SC_OK || code == HttpStatus.SC_CREATED) {
-            return response.getEntity();
-        } else {
-            throw new HDIException(response.getStatusLine().getReasonPhrase(), response.getStatusLine().getStatusCode());
+        try (final CloseableHttpClient ignored = client;
+             final CloseableHttpResponse response = client.execute(get)) {
+            final int code = response.getStatusLine().getStatusCode();
+            if (code == HttpStatus.SC_OK || code == HttpStatus.SC_CREATED) {
+                return reader.read(response.getEntity());
+            } else {
+                throw new HDIException(response.getStatusLine().getReasonPhrase(), response.getStatusLine().getStatusCode());
+            }
         }
     }
 
@@ -647,7 +674,15 @@ public class JobUtils {
         ctrlInfo(legacyLogSubject, newLogSubject, "Create Spark helper interactive session...");
 
         try {
-            return Observable.using(() -> new SparkSession(sessionName, livyUri, username, password),
+            return Observable.using(() -> {
+                                        final SparkSession helperSession =
+                                                new SparkSession(sessionName, livyUri, username, password);
+
+                                        // Keep it warm in pool for the next upload, only helper sessions adopt it
+                                        helperSession.setReturnToPool(true);
+
+                                        return helperSession;
+                                    },
                                     SparkSession::create,
                                     SparkSession::close)
                              .map(sparkSession -> {
@@ -22,7 +22,6 @@ import com.microsoft.azure.toolkit.lib.common.utils.JsonUtils;
 import com.microsoft.azuretools.azurecommons.helpers.NotNull;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
-import org.apache.http.HttpEntity;
 
 
 import java.io.File;
@@ -40,27 +39,24 @@ public class SparkRestUtil {
 
     @NotNull
     public static List<Application> getSparkApplications(@NotNull IClusterDetail clusterDetail) throws HDIException, IOException {
-        HttpEntity entity = getSparkRestEntity(clusterDetail, "");
-        Optional<List<Application>> apps = ObjectConvertUtils.convertEntityToList(entity, Application.class);
+        // spark job has at least one attempt, filter while decoding to skip keeping the others
+        Optional<List<Application>> apps = readSparkRestEntity(clusterDetail, "", entity -> ObjectConvertUtils.convertEntityToList(entity, Application.class,
+                app -> app.getAttempts().size() != 0 && app.getAttempts().get(0).getAttemptId() != null));
 
-        // spark job has at least one attempt
-        return apps.orElse(RestUtil.getEmptyList(Application.class))
-                .stream()
-                .filter(app -> app.getAttempts().size() != 0 && app.getAttempts().get(0).getAttemptId() != null)
-                .collect(Collectors.toList());
+        return apps.orElse(RestUtil.getEmptyList(Application.class));
     }
 
     public static List<Executor> getAllExecutorFromApp(@NotNull ApplicationKey key) throws IOException, HDIException, ExecutionException {
         final AttemptWithAppId attemptWithAppId = getLastAttemptFromLocalCache(key);
-        final HttpEntity entity = getSparkRestEntity(key.getClusterDetails(), String.format("/%s/%s/executors", attemptWithAppId.getAppId(), attemptWithAppId.getAttemptId()));
-        Optional<List<Executor>> executors = ObjectConvertUtils.convertEntityToList(entity, Executor.class);
+        Optional<List<Executor>> executors = readSparkRestEntity(key.getClusterDetails(), String.format("/%s/%s/executors", attemptWithAppId.getAppId(), attemptWithAppId.getAttemptId()),
+                entity -> ObjectConvertUtils.convertEntityToList(entity, Executor.class));
         return executors.orElse(RestUtil.getEmptyList(Executor.class));
     }
 
     public static List<Stage> getAllStageFromApp(@NotNull ApplicationKey key) throws IOException, HDIException, ExecutionException {
         final AttemptWithAppId attemptWithAppId = getLastAttemptFromLocalCache(key);
-        final HttpEntity entity = getSparkRestEntity(key.getClusterDetails(), String.format("/%s/%s/stages", attemptWithAppId.getAppId(), attemptWithAppId.getAttemptId()));
-        final Optional<List<Stage>> stages = ObjectConvertUtils.convertEntityToList(entity, Stage.class);
+        final Optional<List<Stage>> stages = readSparkRestEntity(key.getClusterDetails(), String.format("/%s/%s/stages", attemptWithAppId.getAppId(), attemptWithAppId.getAttemptId()),
+                entity -> ObjectConvertUtils.convertEntityToList(entity, Stage.class));
         return stages.orElse(RestUtil.getEmptyList(Stage.class));
     }
 
@@ -70,17 +66,15 @@ public class SparkRestUtil {
     }
 
     public static List<Job> getSparkJobsFromApp(@NotNull IClusterDetail clusterDetail, @NotNull String appId, @NotNull String attemptId) throws IOException, HDIException {
-        HttpEntity entity = getSparkRestEntity(clusterDetail, String.format("/%s/%s/jobs", appId, attemptId));
-        Optional<List<Job>> apps = ObjectConvertUtils.convertEntityToList(entity, Job.class);
+        Optional<List<Job>> apps = readSparkRestEntity(clusterDetail, String.format("/%s/%s/jobs", appId, attemptId),
+                entity -> ObjectConvertUtils.convertEntityToList(entity, Job.class));
         return apps.orElse(RestUtil.getEmptyList(Job.class));
     }
 
     public static List<Task> getSparkTasks(@NotNull ApplicationKey key, @NotNull int stage, int attemptId) throws IOException, ExecutionException, HDIException {
         AttemptWithAppId attemptWithAppId = getLastAttemptFromLocalCache(key);
         String url = String.format("/%s/%s/stages/%s/%s/taskList", attemptWithAppId.getAppId(), attemptWithAppId.getAttemptId(),stage, attemptId);
-        HttpEntity entity = getSparkRestEntity(key.getClusterDetails(), url);
-
-        Optional<List<Task>> tasks = ObjectConvertUtils.convertEntityToList(entity, Task.class);
+        Optional<List<Task>> tasks = readSparkRestEntity(key.getClusterDetails(), url, entity -> ObjectConvertUtils.convertEntityToList(entity, Task.class));
         return tasks.orElse(RestUtil.getEmptyList(Task.class));
     }
 
@@ -88,10 +82,10 @@ public class SparkRestUtil {
         String url = String.format("%s/logs", key.getAppId());
         String eventLogsPath = String.format("%s/SparkEventLogs/%s/eventLogs.zip", HDInsightLoader.getHDInsightHelper().getPluginRootPath(), key.getAppId());
         File file = new File(eventLogsPath);
-        HttpEntity entity = getSparkRestEntity(key.getClusterDetails(), url);
-        InputStream inputStream = entity.getContent();
-        FileUtils.copyInputStreamToFile(inputStream, file);
-        IOUtils.closeQuietly(inputStream);
+        readSparkRestEntity(key.getClusterDetails(), url, entity -> {
+            FileUtils.copyInputStreamToFile(entity.getContent(), file);
+            return file;
+        });
 
         ZipFile zipFile = new ZipFile(file);
         List<? extends ZipEntry> entities =  Collections.list(zipFile.entries());
@@ -127,10 +121,13 @@ public class SparkRestUtil {
         return selectedApplication.orElseThrow(()-> new HDIException(String.format("application %s on cluster %s can't find", key.getAppId(), key.getClusterDetails().getName()))).getLastAttemptWithAppId(key.getClusterDetails().getName());
     }
 
-    private static HttpEntity getSparkRestEntity(@NotNull IClusterDetail clusterDetail, @NotNull String restUrl) throws HDIException, IOException {
+    // the entity is read from the response stream, big payloads (e.g. stages, tasks and event logs) aren't buffered
+    private static <T> T readSparkRestEntity(@NotNull IClusterDetail clusterDetail,
+                                             @NotNull String restUrl,
+                                             @NotNull JobUtils.EntityReader<T> reader) throws HDIException, IOException {
         String connUrl = clusterDetail.getConnectionUrl();
         connUrl = connUrl.endsWith("/") ? connUrl.substring(0, connUrl.length() - 1) : connUrl;
         final String url = String.format(SPARK_REST_API_ENDPOINT, connUrl, restUrl);
-        return JobUtils.getEntity(clusterDetail, url);
+        return JobUtils.readEntity(clusterDetail, url, reader);
     }
 }